@@ -0,0 +1,120 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.SearchPhaseResult;
+import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.BucketOrder;
+import org.elasticsearch.search.aggregations.InternalAggregation;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.bucket.terms.LongTerms;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.query.QuerySearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes the coordinating node to consume and reduce the responses of a terms aggregation from many shards.
+ * Comparing a {@code maxBufferedBuckets} of 0, which reduces every shard response into the result as soon as it arrives, with the
+ * default shows the cost of bounding the number of buckets that are buffered on the coordinating node. This benchmark lives in
+ * the search action package since the result consumer is package private.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class SearchPhaseControllerBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    @Param({"16", "256"})
+    public int numShards;
+
+    @Param({"1000", "10000"})
+    public int bucketsPerShard;
+
+    @Param({"0", "100000"})
+    public int maxBufferedBuckets;
+
+    private SearchPhaseController controller;
+
+    private SearchRequest request;
+
+    private InternalAggregations[] shardAggregations;
+
+    @Setup
+    public void setUp() {
+        controller = new SearchPhaseController(
+            Settings.builder().put(SearchPhaseController.MAX_BUFFERED_BUCKETS_SETTING.getKey(), maxBufferedBuckets).build(),
+            (b) -> new InternalAggregation.ReduceContext(BigArrays.NON_RECYCLING_INSTANCE, null, b));
+        request = new SearchRequest();
+        request.source(new SearchSourceBuilder().aggregation(AggregationBuilders.terms("terms")).size(0));
+        // only a single partial reduce is needed unless the number of buffered buckets exceeds the configured maximum
+        request.setBatchedReduceSize(numShards - 1);
+        Random random = new Random(42);
+        shardAggregations = new InternalAggregations[numShards];
+        for (int shard = 0; shard < numShards; shard++) {
+            List<LongTerms.Bucket> buckets = new ArrayList<>(bucketsPerShard);
+            // every shard sees half of its terms in common with all other shards and half of them are distinct
+            for (int i = 0; i < bucketsPerShard; i++) {
+                long term = i % 2 == 0 ? i : (long) shard * bucketsPerShard + i;
+                buckets.add(new LongTerms.Bucket(term, 1 + random.nextInt(100), InternalAggregations.EMPTY, false, 0,
+                    DocValueFormat.RAW));
+            }
+            LongTerms terms = new LongTerms("terms", BucketOrder.count(false), bucketsPerShard, 1, Collections.emptyList(),
+                Collections.emptyMap(), DocValueFormat.RAW, bucketsPerShard, false, 0, buckets, 0);
+            shardAggregations[shard] = new InternalAggregations(Collections.singletonList(terms));
+        }
+    }
+
+    @Benchmark
+    public SearchPhaseController.ReducedQueryPhase consumeAndReduce() {
+        InitialSearchPhase.ArraySearchPhaseResults<SearchPhaseResult> consumer = controller.newSearchPhaseResults(request, numShards);
+        for (int shard = 0; shard < numShards; shard++) {
+            QuerySearchResult result = new QuerySearchResult(shard, new SearchShardTarget("node", new Index("index", "_na_"), shard, null));
+            result.aggregations(shardAggregations[shard]);
+            result.setShardIndex(shard);
+            consumer.consumeResult(result);
+        }
+        return consumer.reduce();
+    }
+}
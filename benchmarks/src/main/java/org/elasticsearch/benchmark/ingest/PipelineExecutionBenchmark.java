@@ -0,0 +1,138 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.ingest;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.env.Environment;
+import org.elasticsearch.ingest.IngestDocument;
+import org.elasticsearch.ingest.Pipeline;
+import org.elasticsearch.ingest.Processor;
+import org.elasticsearch.ingest.common.IngestCommonPlugin;
+import org.elasticsearch.script.ScriptService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to run common pipelines against a single web access log document, including parsing the source
+ * into a map like the ingest node does for every index request.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class PipelineExecutionBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    private static final String SOURCE = "{"
+        + "\"message\": \"55.3.244.1 GET /index.html 15824 0.043\","
+        + "\"timestamp\": \"2018-06-12T10:12:33.123Z\","
+        + "\"host\": {\"name\": \"web-01\", \"dc\": \"eu-west\"},"
+        + "\"tags\": [\"web\", \"access\"]"
+        + "}";
+
+    private static final String SET = "{\"set\": {\"field\": \"event.dataset\", \"value\": \"web.access\"}}";
+    private static final String RENAME = "{\"rename\": {\"field\": \"host.name\", \"target_field\": \"host.hostname\"}}";
+    private static final String DATE = "{\"date\": {\"field\": \"timestamp\", \"target_field\": \"@timestamp\", "
+        + "\"formats\": [\"ISO8601\"]}}";
+    private static final String GROK = "{\"grok\": {\"field\": \"message\", "
+        + "\"patterns\": [\"%{IP:client} %{WORD:method} %{URIPATHPARAM:request} %{NUMBER:bytes} %{NUMBER:duration}\"]}}";
+
+    // alternatives that don't match the message, followed by the one that does, like grok processors for mixed logs often have
+    private static final String GROK_ALTERNATIVES = "{\"grok\": {\"field\": \"message\", \"patterns\": ["
+        + "\"%{IP:client} POST %{URIPATHPARAM:request} %{NUMBER:bytes} %{NUMBER:duration}\","
+        + "\"%{IP:client} PUT %{URIPATHPARAM:request} %{NUMBER:bytes} %{NUMBER:duration}\","
+        + "\"%{IP:client} DELETE %{URIPATHPARAM:request} %{NUMBER:bytes} %{NUMBER:duration}\","
+        + "\"\\\\[%{LOGLEVEL:level}\\\\] %{GREEDYDATA:log}\","
+        + "\"%{SYSLOGTIMESTAMP:timestamp} %{SYSLOGHOST:host} %{DATA:program}: %{GREEDYDATA:log}\","
+        + "\"%{IP:client} GET %{URIPATHPARAM:request} %{NUMBER:bytes} %{NUMBER:duration}\""
+        + "]}}";
+
+    @Param({"set", "rename", "date", "grok", "grok_alternatives", "grok_date_rename_set"})
+    public String pipeline;
+
+    private Pipeline compiledPipeline;
+
+    private BytesReference source;
+
+    @Setup
+    public void setUp() throws Exception {
+        final String processors;
+        switch (pipeline) {
+            case "set":
+                processors = SET;
+                break;
+            case "rename":
+                processors = RENAME;
+                break;
+            case "date":
+                processors = DATE;
+                break;
+            case "grok":
+                processors = GROK;
+                break;
+            case "grok_alternatives":
+                processors = GROK_ALTERNATIVES;
+                break;
+            case "grok_date_rename_set":
+                processors = GROK + "," + DATE + "," + RENAME + "," + SET;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown pipeline [" + pipeline + "]");
+        }
+        final Map<String, Object> config = XContentHelper.convertToMap(
+            new BytesArray("{\"processors\": [" + processors + "]}"), false, XContentType.JSON).v2();
+        final ScriptService scriptService = new ScriptService(Settings.EMPTY, Collections.emptyMap(), Collections.emptyMap());
+        final Environment environment = new Environment(
+            Settings.builder().put(Environment.PATH_HOME_SETTING.getKey(), System.getProperty("java.io.tmpdir")).build(), null);
+        final Map<String, Processor.Factory> factories = new IngestCommonPlugin().getProcessors(
+            new Processor.Parameters(environment, scriptService, null, new ThreadContext(Settings.EMPTY)));
+        compiledPipeline = new Pipeline.Factory().create("benchmark", config, factories);
+        source = new BytesArray(SOURCE);
+    }
+
+    @Benchmark
+    public IngestDocument execute() throws Exception {
+        final Map<String, Object> sourceAsMap = XContentHelper.convertToMap(source, false, XContentType.JSON).v2();
+        final IngestDocument document = new IngestDocument("index", "_doc", "1", null, null, null, sourceAsMap);
+        compiledPipeline.execute(document);
+        return document;
+    }
+}
@@ -106,7 +106,12 @@ public class AllocationBenchmark {
         "       10|     10|        2|    50",
         "      100|      1|        2|    50",
         "      100|      3|        2|    50",
-        "      100|     10|        2|    50"
+        "      100|     10|        2|    50",
+
+        // large clusters with 50k+ shards
+        "     5000|      5|        1|   300",
+        "    10000|      3|        1|   300",
+        "     2000|     15|        1|   300"
     })
     public String indicesShardsReplicasNodes = "10|1|0|1";
 
@@ -114,6 +119,7 @@ public class AllocationBenchmark {
 
     private AllocationService strategy;
     private ClusterState initialClusterState;
+    private ClusterState allocatedClusterState;
 
     @Setup
     public void setUp() throws Exception {
@@ -149,6 +155,7 @@ public class AllocationBenchmark {
         initialClusterState = ClusterState.builder(ClusterName.CLUSTER_NAME_SETTING.getDefault(Settings.EMPTY))
             .metaData(metaData).routingTable(routingTable).nodes
                 (nb).build();
+        allocatedClusterState = measureAllocation();
     }
 
     private int toInt(String v) {
@@ -165,4 +172,12 @@ public class AllocationBenchmark {
         }
         return clusterState;
     }
+
+    /**
+     * Measures a single reroute of a fully allocated and balanced cluster, which is what most reroutes on the master look like.
+     */
+    @Benchmark
+    public ClusterState measureReroute() {
+        return strategy.reroute(allocatedClusterState, "reroute");
+    }
 }
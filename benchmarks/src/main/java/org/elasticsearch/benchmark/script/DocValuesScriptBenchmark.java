@@ -0,0 +1,169 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.script;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.NumericUtils;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.fielddata.FieldData;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.painless.PainlessScriptEngine;
+import org.elasticsearch.painless.spi.Whitelist;
+import org.elasticsearch.script.ScriptContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to run a Painless script that reads doc values, like a script used for scoring or sorting, against
+ * every document of a segment.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class DocValuesScriptBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    @Param({"1000000"})
+    public int numDocs;
+
+    @Param({"long", "double", "typed_arithmetic", "def_arithmetic"})
+    public String script;
+
+    private RAMDirectory directory;
+
+    private DirectoryReader reader;
+
+    private DocScript.Factory factory;
+
+    @Setup
+    public void setUp() throws IOException {
+        final String source;
+        switch (script) {
+            case "long":
+                source = "doc['price'].value";
+                break;
+            case "double":
+                source = "doc['rating'].value";
+                break;
+            case "typed_arithmetic":
+                source = "double price = doc['price'].value; double rating = doc['rating'].value; return Math.log(1 + price) * rating";
+                break;
+            case "def_arithmetic":
+                source = "Math.log(1 + doc['price'].value) * doc['rating'].value";
+                break;
+            default:
+                throw new IllegalArgumentException("unknown script [" + script + "]");
+        }
+        PainlessScriptEngine scriptEngine = new PainlessScriptEngine(Settings.EMPTY,
+            Collections.singletonMap(DocScript.CONTEXT, Whitelist.BASE_WHITELISTS));
+        factory = scriptEngine.compile("benchmark", source, DocScript.CONTEXT, Collections.emptyMap());
+
+        directory = new RAMDirectory();
+        Random random = new Random(42);
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (int i = 0; i < numDocs; i++) {
+                Document document = new Document();
+                document.add(new SortedNumericDocValuesField("price", random.nextInt(10_000)));
+                document.add(new SortedNumericDocValuesField("rating", NumericUtils.doubleToSortableLong(random.nextDouble() * 5)));
+                writer.addDocument(document);
+            }
+            writer.forceMerge(1);
+        }
+        reader = DirectoryReader.open(directory);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    @Benchmark
+    public double execute() throws IOException {
+        LeafReader leafReader = reader.leaves().get(0).reader();
+        ScriptDocValues.Longs price = new ScriptDocValues.Longs(DocValues.getSortedNumeric(leafReader, "price"));
+        ScriptDocValues.Doubles rating = new ScriptDocValues.Doubles(
+            FieldData.sortableLongBitsToDoubles(DocValues.getSortedNumeric(leafReader, "rating")));
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("price", price);
+        doc.put("rating", rating);
+        DocScript docScript = factory.newInstance(doc);
+
+        double sum = 0;
+        for (int docId = 0; docId < leafReader.maxDoc(); docId++) {
+            price.setNextDocId(docId);
+            rating.setNextDocId(docId);
+            sum += docScript.execute();
+        }
+        return sum;
+    }
+
+    /**
+     * A script that reads the doc values of the current document, like a script that scores or sorts documents does.
+     */
+    public abstract static class DocScript {
+        private final Map<String, Object> doc;
+
+        public DocScript(Map<String, Object> doc) {
+            this.doc = doc;
+        }
+
+        public Map<String, Object> getDoc() {
+            return doc;
+        }
+
+        public static final String[] PARAMETERS = {};
+        public abstract double execute();
+
+        public interface Factory {
+            DocScript newInstance(Map<String, Object> doc);
+        }
+
+        public static final ScriptContext<Factory> CONTEXT = new ScriptContext<>("doc_values_benchmark", Factory.class);
+    }
+}
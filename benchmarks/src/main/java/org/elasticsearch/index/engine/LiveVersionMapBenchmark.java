@@ -0,0 +1,150 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.index.engine;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.lease.Releasable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link LiveVersionMap#putIndexUnderLock} and {@link LiveVersionMap#getUnderLock} with an increasing number
+ * of indexing threads updating the same shard, including acquiring and releasing the uid lock. This benchmark lives in the engine
+ * package since the version map is package private.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class LiveVersionMapBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    // the number of distinct ids that are updated, a low number of ids means that threads often contend for the same id
+    @Param({"1000", "1000000"})
+    public int numIds;
+
+    private LiveVersionMap versionMap;
+
+    private BytesRef[] ids;
+
+    private IndexVersionValue value;
+
+    @Setup
+    public void setUp() throws IOException {
+        versionMap = new LiveVersionMap();
+        versionMap.enforceSafeAccess();
+        ids = new BytesRef[numIds];
+        for (int i = 0; i < numIds; i++) {
+            ids[i] = new BytesRef(Integer.toString(i));
+        }
+        value = new IndexVersionValue(null, 1, 1, 1);
+        for (BytesRef id : ids) {
+            try (Releasable ignored = versionMap.acquireLock(id)) {
+                versionMap.putIndexUnderLock(id, value);
+            }
+        }
+        // move the values to the old map so lookups exercise both maps like they do while a refresh is running
+        versionMap.beforeRefresh();
+    }
+
+    private BytesRef randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private VersionValue putIndex() {
+        final BytesRef id = randomId();
+        try (Releasable ignored = versionMap.acquireLock(id)) {
+            versionMap.putIndexUnderLock(id, value);
+            return value;
+        }
+    }
+
+    private VersionValue get() {
+        final BytesRef id = randomId();
+        try (Releasable ignored = versionMap.acquireLock(id)) {
+            return versionMap.getUnderLock(id);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public VersionValue putIndexUnderLock01Thread() {
+        return putIndex();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public VersionValue putIndexUnderLock04Threads() {
+        return putIndex();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public VersionValue putIndexUnderLock16Threads() {
+        return putIndex();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public VersionValue putIndexUnderLock32Threads() {
+        return putIndex();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public VersionValue getUnderLock01Thread() {
+        return get();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public VersionValue getUnderLock04Threads() {
+        return get();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public VersionValue getUnderLock16Threads() {
+        return get();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public VersionValue getUnderLock32Threads() {
+        return get();
+    }
+}
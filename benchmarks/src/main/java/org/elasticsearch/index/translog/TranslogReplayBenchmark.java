@@ -0,0 +1,130 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.index.translog;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.internal.io.IOUtils;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.seqno.SequenceNumbers;
+import org.elasticsearch.index.shard.ShardId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many operations per second can be replayed from sealed translog generations, as done during local recovery
+ * and phase 2 of a peer recovery, when reading through positional file channel reads or through a memory mapped view of the
+ * translog files. The translog files are written during setup so they are usually served from the page cache, which means this
+ * benchmark measures the cost of reading and parsing operations rather than the disk.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class TranslogReplayBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    private static final int NUM_OPS = 100_000;
+
+    @Param({"true", "false"})
+    public boolean mmap;
+
+    // the size of the source of each index operation in bytes
+    @Param({"100", "1000"})
+    public int sourceSize;
+
+    // the number of operations per translog generation
+    @Param({"10000"})
+    public int opsPerGeneration;
+
+    private Path translogPath;
+
+    private Translog translog;
+
+    @Setup
+    public void setUp() throws IOException {
+        translogPath = Files.createTempDirectory("translog");
+        final Settings settings = Settings.builder()
+            .put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT)
+            .put(IndexSettings.INDEX_TRANSLOG_MMAP_SETTING.getKey(), mmap)
+            .build();
+        final IndexMetaData indexMetaData = IndexMetaData.builder("index").settings(settings)
+            .numberOfShards(1).numberOfReplicas(0).build();
+        final IndexSettings indexSettings = new IndexSettings(indexMetaData, Settings.EMPTY);
+        final ShardId shardId = new ShardId(indexMetaData.getIndex(), 0);
+        final TranslogConfig config = new TranslogConfig(shardId, translogPath, indexSettings, BigArrays.NON_RECYCLING_INSTANCE);
+        final String translogUUID = Translog.createEmptyTranslog(translogPath, SequenceNumbers.NO_OPS_PERFORMED, shardId, 1L);
+        translog = new Translog(config, translogUUID, new TranslogDeletionPolicy(-1, -1), () -> SequenceNumbers.NO_OPS_PERFORMED,
+            () -> 1L);
+
+        final Random random = new Random(0);
+        final byte[] source = new byte[sourceSize];
+        for (int i = 0; i < NUM_OPS; i++) {
+            random.nextBytes(source);
+            translog.add(new Translog.Index("_doc", Integer.toString(i), i, 1L, source));
+            if ((i + 1) % opsPerGeneration == 0) {
+                translog.rollGeneration();
+            }
+        }
+        // seal the last generation so that all operations are read from sealed generations
+        translog.rollGeneration();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        IOUtils.close(translog);
+        IOUtils.rm(translogPath);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_OPS)
+    public long replay() throws IOException {
+        long checksum = 0;
+        try (Translog.Snapshot snapshot = translog.newSnapshot()) {
+            Translog.Operation operation;
+            while ((operation = snapshot.next()) != null) {
+                checksum += operation.seqNo();
+            }
+        }
+        return checksum;
+    }
+}
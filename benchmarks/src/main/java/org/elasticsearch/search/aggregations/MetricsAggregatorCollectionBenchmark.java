@@ -0,0 +1,187 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.search.aggregations;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.internal.io.IOUtils;
+import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.aggregations.metrics.avg.AvgAggregator;
+import org.elasticsearch.search.aggregations.metrics.max.MaxAggregator;
+import org.elasticsearch.search.aggregations.metrics.min.MinAggregator;
+import org.elasticsearch.search.aggregations.metrics.stats.StatsAggregator;
+import org.elasticsearch.search.aggregations.support.ValuesSource;
+import org.elasticsearch.search.fetch.subphase.DocValueFieldsContext;
+import org.elasticsearch.search.internal.FilteredSearchContext;
+import org.elasticsearch.search.internal.SearchContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long top level metric aggregators take to collect all documents of a match_all query, either one document at a
+ * time or in blocks of documents like the {@link AggregationPhase} does for aggregations that don't need scores. This benchmark
+ * lives in the aggregations package since the batching collector is package private.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class MetricsAggregatorCollectionBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    @Param({"avg", "min", "max", "stats"})
+    public String aggregation;
+
+    @Param({"true", "false"})
+    public boolean batched;
+
+    @Param({"1000000"})
+    public int numDocs;
+
+    private Directory directory;
+
+    private DirectoryReader reader;
+
+    private IndexSearcher searcher;
+
+    private SearchContext context;
+
+    private ValuesSource.Numeric valuesSource;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = new RAMDirectory();
+        final Random random = new Random(0);
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (int i = 0; i < numDocs; i++) {
+                final Document document = new Document();
+                document.add(new SortedNumericDocValuesField("value", random.nextInt(1_000_000)));
+                writer.addDocument(document);
+            }
+            writer.forceMerge(1);
+        }
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+        searcher.setQueryCache(null);
+
+        final BigArrays bigArrays = new BigArrays(null, new NoneCircuitBreakerService(), false);
+        context = new FilteredSearchContext(null) {
+            @Override
+            public BigArrays bigArrays() {
+                return bigArrays;
+            }
+
+            @Override
+            public DocValueFieldsContext docValueFieldsContext() {
+                return null;
+            }
+
+            @Override
+            public SearchContext docValueFieldsContext(DocValueFieldsContext docValueFieldsContext) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        valuesSource = new ValuesSource.Numeric() {
+            @Override
+            public boolean isFloatingPoint() {
+                return false;
+            }
+
+            @Override
+            public SortedNumericDocValues longValues(LeafReaderContext context) throws IOException {
+                return DocValues.getSortedNumeric(context.reader(), "value");
+            }
+
+            @Override
+            public SortedNumericDoubleValues doubleValues(LeafReaderContext context) throws IOException {
+                return org.elasticsearch.index.fielddata.FieldData.castToDouble(longValues(context));
+            }
+
+            @Override
+            public SortedBinaryDocValues bytesValues(LeafReaderContext context) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        IOUtils.close(reader, directory);
+    }
+
+    @Benchmark
+    public InternalAggregation collect() throws IOException {
+        final Aggregator aggregator = newAggregator();
+        aggregator.preCollection();
+        final BucketCollector collector = batched ? new BatchingBucketCollector(aggregator) : aggregator;
+        searcher.search(new MatchAllDocsQuery(), collector);
+        collector.postCollection();
+        final InternalAggregation result = aggregator.buildAggregation(0);
+        aggregator.close();
+        return result;
+    }
+
+    private Aggregator newAggregator() throws IOException {
+        switch (aggregation) {
+            case "avg":
+                return new AvgAggregator("agg", valuesSource, DocValueFormat.RAW, context, null, Collections.emptyList(), null);
+            case "min":
+                return new MinAggregator("agg", valuesSource, DocValueFormat.RAW, context, null, Collections.emptyList(), null);
+            case "max":
+                return new MaxAggregator("agg", valuesSource, DocValueFormat.RAW, context, null, Collections.emptyList(), null);
+            case "stats":
+                return new StatsAggregator("agg", valuesSource, DocValueFormat.RAW, context, null, Collections.emptyList(), null);
+            default:
+                throw new IllegalArgumentException("unknown aggregation [" + aggregation + "]");
+        }
+    }
+}
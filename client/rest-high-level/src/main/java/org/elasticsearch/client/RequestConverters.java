@@ -469,6 +469,9 @@ final class RequestConverters {
         if (searchRequest.allowPartialSearchResults() != null) {
             params.putParam("allow_partial_search_results", Boolean.toString(searchRequest.allowPartialSearchResults()));
         }
+        if (searchRequest.hedgeRequests()) {
+            params.putParam("hedge_requests", Boolean.TRUE.toString());
+        }
         params.putParam("batched_reduce_size", Integer.toString(searchRequest.getBatchedReduceSize()));
         if (searchRequest.scroll() != null) {
             params.putParam("scroll", searchRequest.scroll().keepAlive());
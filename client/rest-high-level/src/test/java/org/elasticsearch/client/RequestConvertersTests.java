@@ -1032,6 +1032,10 @@ public class RequestConvertersTests extends ESTestCase {
             searchRequest.allowPartialSearchResults(randomBoolean());
             expectedParams.put("allow_partial_search_results", Boolean.toString(searchRequest.allowPartialSearchResults()));
         }
+        if (randomBoolean()) {
+            searchRequest.hedgeRequests(true);
+            expectedParams.put("hedge_requests", "true");
+        }
         if (randomBoolean()) {
             searchRequest.setBatchedReduceSize(randomIntBetween(2, Integer.MAX_VALUE));
         }
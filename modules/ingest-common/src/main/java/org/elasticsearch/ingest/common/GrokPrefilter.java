@@ -0,0 +1,274 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest.common;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decides cheaply which of the patterns of a grok processor can possibly match a value, so that the regular expression
+ * only has to try those. Every pattern is reduced to the literal strings that any value it matches must contain, which
+ * are looked up with plain substring searches. A pattern that can't be reduced to such literals is always a candidate.
+ */
+final class GrokPrefilter {
+
+    private final String[][] requiredLiterals;
+    private final boolean effective;
+
+    GrokPrefilter(List<String> patterns) {
+        this.requiredLiterals = new String[patterns.size()][];
+        boolean effective = false;
+        for (int i = 0; i < patterns.size(); i++) {
+            List<String> literals = requiredLiterals(patterns.get(i));
+            // look for the longest literals first, they are the least likely to be found in values the pattern doesn't match
+            literals.sort(Comparator.comparingInt(String::length).reversed());
+            requiredLiterals[i] = literals.toArray(new String[0]);
+            effective |= requiredLiterals[i].length > 0;
+        }
+        this.effective = effective;
+    }
+
+    /**
+     * @return whether at least one pattern has required literals, if not every pattern is always a candidate
+     */
+    boolean isEffective() {
+        return effective;
+    }
+
+    /**
+     * @return the indices of the patterns that may match the given value
+     */
+    BitSet candidates(String value) {
+        BitSet candidates = new BitSet(requiredLiterals.length);
+        for (int i = 0; i < requiredLiterals.length; i++) {
+            if (containsAll(value, requiredLiterals[i])) {
+                candidates.set(i);
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean containsAll(String value, String[] literals) {
+        for (String literal : literals) {
+            if (value.contains(literal) == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Extracts the literal strings that every value matched by the given grok pattern must contain. Only the top level of
+     * the pattern is considered: groups, character classes, escape sequences and references to other patterns end a
+     * literal, a quantifier that allows a character to be absent drops that character and any top level alternation,
+     * as well as any inline option that may change how literals are matched, means there are no required literals.
+     */
+    static List<String> requiredLiterals(String pattern) {
+        if (hasInlineOptions(pattern)) {
+            return new ArrayList<>();
+        }
+        List<String> literals = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '%' && i + 1 < pattern.length() && pattern.charAt(i + 1) == '{') {
+                // a reference to another pattern
+                int end = pattern.indexOf('}', i);
+                if (end == -1) {
+                    return new ArrayList<>();
+                }
+                flush(current, literals);
+                i = end + 1;
+            } else if (c == '[') {
+                i = skipCharacterClass(pattern, i);
+                if (i == -1) {
+                    return new ArrayList<>();
+                }
+                flush(current, literals);
+            } else if (c == '(') {
+                depth++;
+                flush(current, literals);
+                i++;
+            } else if (c == ')') {
+                depth--;
+                if (depth < 0) {
+                    return new ArrayList<>();
+                }
+                flush(current, literals);
+                i++;
+            } else if (c == '|') {
+                if (depth == 0) {
+                    return new ArrayList<>();
+                }
+                i++;
+            } else if (depth > 0) {
+                // skip over escaped characters so that an escaped parenthesis or pipe isn't mistaken for a group or an alternation
+                i += c == '\\' ? 2 : 1;
+            } else if (c == '\\') {
+                if (i + 1 >= pattern.length()) {
+                    return new ArrayList<>();
+                }
+                char escaped = pattern.charAt(i + 1);
+                if (Character.isLetterOrDigit(escaped)) {
+                    // a character class like \d, an anchor like \b, a back reference or an escaped code point
+                    flush(current, literals);
+                    i = skipEscapeArguments(pattern, i + 2, escaped);
+                    if (i == -1) {
+                        return new ArrayList<>();
+                    }
+                } else {
+                    i = appendLiteral(pattern, i + 2, escaped, current, literals);
+                }
+            } else if (c == '?' || c == '*' || c == '+' || c == '{') {
+                // a quantifier of a group, a character class or a pattern reference, or a lazy or possessive modifier
+                flush(current, literals);
+                if (c == '{') {
+                    int end = pattern.indexOf('}', i);
+                    if (end == -1) {
+                        return new ArrayList<>();
+                    }
+                    i = end + 1;
+                } else {
+                    i++;
+                }
+            } else if (c == '.' || c == '^' || c == '$') {
+                flush(current, literals);
+                i++;
+            } else {
+                i = appendLiteral(pattern, i + 1, c, current, literals);
+            }
+        }
+        if (depth != 0) {
+            return new ArrayList<>();
+        }
+        flush(current, literals);
+        return literals;
+    }
+
+    /**
+     * Appends a literal character to the current literal unless the quantifier that follows it, which starts at
+     * <code>next</code>, allows the character to be absent.
+     *
+     * @return the position after the literal character
+     */
+    private static int appendLiteral(String pattern, int next, char c, StringBuilder current, List<String> literals) {
+        char quantifier = next < pattern.length() ? pattern.charAt(next) : 0;
+        if (quantifier == '?' || quantifier == '*' || quantifier == '{') {
+            flush(current, literals);
+        } else if (quantifier == '+') {
+            // the character must be there at least once, but it may repeat
+            current.append(c);
+            flush(current, literals);
+        } else {
+            current.append(c);
+        }
+        return next;
+    }
+
+    /**
+     * Skips the arguments of escape sequences like <code>\x41</code>, <code>\k&lt;name&gt;</code> or <code>\p{Alpha}</code>
+     * so that they aren't mistaken for literals.
+     *
+     * @return the position after the arguments that start at <code>start</code>, or -1 if they aren't closed
+     */
+    private static int skipEscapeArguments(String pattern, int start, char escaped) {
+        if (start >= pattern.length()) {
+            return start;
+        }
+        char next = pattern.charAt(start);
+        if (next == '{' || next == '<' || next == '\'') {
+            int end = pattern.indexOf(next == '{' ? '}' : next == '<' ? '>' : '\'', start + 1);
+            return end == -1 ? -1 : end + 1;
+        }
+        int i = start;
+        if (escaped == 'x' || escaped == 'u') {
+            int end = Math.min(pattern.length(), start + (escaped == 'x' ? 2 : 4));
+            while (i < end && Character.digit(pattern.charAt(i), 16) != -1) {
+                i++;
+            }
+        } else if (Character.isDigit(escaped)) {
+            // octal escapes and back references, the escaped digit is the first of at most three
+            int end = Math.min(pattern.length(), start + 2);
+            while (i < end && Character.isDigit(pattern.charAt(i))) {
+                i++;
+            }
+        } else if (escaped == 'c') {
+            i++;
+        } else if ((escaped == 'C' || escaped == 'M') && next == '-') {
+            i += 2;
+        }
+        return Math.min(i, pattern.length());
+    }
+
+    /**
+     * @return the position after the character class that starts at <code>start</code>, or -1 if it isn't closed
+     */
+    private static int skipCharacterClass(String pattern, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                // a closing bracket right at the start of a class is a literal
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static boolean hasInlineOptions(String pattern) {
+        for (int i = pattern.indexOf("(?"); i != -1; i = pattern.indexOf("(?", i + 1)) {
+            if (i + 2 < pattern.length()) {
+                char option = pattern.charAt(i + 2);
+                if (option == 'i' || option == 'm' || option == 'x' || option == '-') {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void flush(StringBuilder current, List<String> literals) {
+        if (current.length() > 0) {
+            literals.add(current.toString());
+            current.setLength(0);
+        }
+    }
+}
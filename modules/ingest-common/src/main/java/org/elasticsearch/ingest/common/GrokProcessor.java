@@ -19,15 +19,27 @@
 
 package org.elasticsearch.ingest.common;
 
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.grok.Grok;
 import org.elasticsearch.ingest.AbstractProcessor;
 import org.elasticsearch.ingest.ConfigurationUtils;
 import org.elasticsearch.ingest.IngestDocument;
 import org.elasticsearch.ingest.Processor;
 
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 import static org.elasticsearch.ingest.ConfigurationUtils.newConfigurationException;
 
@@ -36,20 +48,40 @@ public final class GrokProcessor extends AbstractProcessor {
     public static final String TYPE = "grok";
     private static final String PATTERN_MATCH_KEY = "_ingest._grok_match_index";
 
+    // the number of combinations of candidate patterns for which a grok expression is compiled, beyond that all patterns are tried
+    static final int MAX_CANDIDATE_GROKS = 32;
+
     private final String matchField;
     private final List<String> matchPatterns;
     private final Grok grok;
     private final boolean traceMatch;
     private final boolean ignoreMissing;
+    private final Function<String, Grok> grokCompiler;
+    private final GrokPrefilter prefilter;
+    private final Map<BitSet, Grok> candidateGroks = ConcurrentCollections.newConcurrentMap();
+    private final CounterMetric matchAttempts = new CounterMetric();
+    private final CounterMetric matchMisses = new CounterMetric();
+    private final CounterMetric prefilterSkips = new CounterMetric();
 
     GrokProcessor(String tag, Map<String, String> patternBank, List<String> matchPatterns, String matchField,
                          boolean traceMatch, boolean ignoreMissing) {
+        this(tag, expression -> new Grok(patternBank, expression), matchPatterns, matchField, traceMatch, ignoreMissing);
+    }
+
+    GrokProcessor(String tag, Function<String, Grok> grokCompiler, List<String> matchPatterns, String matchField,
+                  boolean traceMatch, boolean ignoreMissing) {
         super(tag);
         this.matchField = matchField;
         this.matchPatterns = matchPatterns;
-        this.grok = new Grok(patternBank, combinePatterns(matchPatterns, traceMatch));
+        this.grokCompiler = grokCompiler;
+        this.grok = grokCompiler.apply(combinePatterns(matchPatterns, traceMatch));
         this.traceMatch = traceMatch;
         this.ignoreMissing = ignoreMissing;
+        GrokPrefilter prefilter = null;
+        if (matchPatterns.size() > 1) {
+            prefilter = new GrokPrefilter(matchPatterns);
+        }
+        this.prefilter = prefilter != null && prefilter.isEffective() ? prefilter : null;
     }
 
     @Override
@@ -62,8 +94,14 @@ public final class GrokProcessor extends AbstractProcessor {
             throw new IllegalArgumentException("field [" + matchField + "] is null, cannot process it.");
         }
 
-        Map<String, Object> matches = grok.captures(fieldValue);
+        Grok grok = selectGrok(fieldValue);
+        Map<String, Object> matches = null;
+        if (grok != null) {
+            matchAttempts.inc();
+            matches = grok.captures(fieldValue);
+        }
         if (matches == null) {
+            matchMisses.inc();
             throw new IllegalArgumentException("Provided Grok expressions do not match field value: [" + fieldValue + "]");
         }
 
@@ -83,11 +121,55 @@ public final class GrokProcessor extends AbstractProcessor {
         }
     }
 
+    /**
+     * Picks the grok expression that only tries the patterns that the prefilter considers candidates for the given value.
+     * Since patterns that aren't candidates can't match anywhere in the value, this returns the same captures as trying all
+     * patterns would.
+     *
+     * @return the grok expression to match the value with, or <code>null</code> if no pattern can match the value
+     */
+    private Grok selectGrok(String value) {
+        if (prefilter == null) {
+            return grok;
+        }
+        BitSet candidates = prefilter.candidates(value);
+        int numCandidates = candidates.cardinality();
+        if (numCandidates == matchPatterns.size()) {
+            return grok;
+        }
+        prefilterSkips.inc();
+        if (numCandidates == 0) {
+            return null;
+        }
+        Grok candidateGrok = candidateGroks.get(candidates);
+        if (candidateGrok == null) {
+            if (candidateGroks.size() >= MAX_CANDIDATE_GROKS) {
+                return grok;
+            }
+            candidateGrok = candidateGroks.computeIfAbsent(candidates,
+                key -> grokCompiler.apply(combinePatterns(matchPatterns, key, traceMatch)));
+        }
+        return candidateGrok;
+    }
+
     @Override
     public String getType() {
         return TYPE;
     }
 
+    /**
+     * @return how often a value had to be matched against a grok expression, how often no pattern matched, and how often the
+     * prefilter ruled out some of the patterns
+     */
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("match_attempts", matchAttempts.count());
+        counters.put("match_misses", matchMisses.count());
+        counters.put("prefilter_skips", prefilterSkips.count());
+        return counters;
+    }
+
     Grok getGrok() {
         return grok;
     }
@@ -105,10 +187,20 @@ public final class GrokProcessor extends AbstractProcessor {
     }
 
     static String combinePatterns(List<String> patterns, boolean traceMatch) {
+        BitSet all = new BitSet(patterns.size());
+        all.set(0, patterns.size());
+        return combinePatterns(patterns, all, traceMatch);
+    }
+
+    /**
+     * Combines the patterns at the given indices into a single expression, the name of the group that traces which
+     * pattern matched contains the index of the pattern in the full list of patterns.
+     */
+    static String combinePatterns(List<String> patterns, BitSet indices, boolean traceMatch) {
         String combinedPattern;
         if (patterns.size() > 1) {
             combinedPattern = "";
-            for (int i = 0; i < patterns.size(); i++) {
+            for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
                 String pattern = patterns.get(i);
                 String valueWrap;
                 if (traceMatch) {
@@ -132,9 +224,35 @@ public final class GrokProcessor extends AbstractProcessor {
     public static final class Factory implements Processor.Factory {
 
         private final Map<String, String> builtinPatterns;
+        private final Cache<CompiledGrokKey, Grok> compiledGroks;
 
         public Factory(Map<String, String> builtinPatterns) {
+            this(builtinPatterns, IngestCommonPlugin.GROK_CACHE_SIZE_SETTING.getDefault(Settings.EMPTY));
+        }
+
+        /**
+         * @param cacheSize how many compiled grok expressions are shared between the grok processors of all pipelines, so that
+         *                  the expressions aren't compiled again every time pipelines are updated
+         */
+        public Factory(Map<String, String> builtinPatterns, long cacheSize) {
             this.builtinPatterns = builtinPatterns;
+            this.compiledGroks = CacheBuilder.<CompiledGrokKey, Grok>builder().setMaximumWeight(cacheSize).build();
+        }
+
+        Grok compile(Map<String, String> customPatternBank, Map<String, String> patternBank, String expression) {
+            try {
+                return compiledGroks.computeIfAbsent(new CompiledGrokKey(customPatternBank, expression),
+                    key -> new Grok(patternBank, expression));
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new ElasticsearchException(e.getCause());
+            }
+        }
+
+        long getCacheCount() {
+            return compiledGroks.count();
         }
 
         @Override
@@ -154,8 +272,10 @@ public final class GrokProcessor extends AbstractProcessor {
                 patternBank.putAll(customPatternBank);
             }
 
+            Map<String, String> customPatterns = customPatternBank == null ? Collections.emptyMap() : customPatternBank;
             try {
-                return new GrokProcessor(processorTag, patternBank, matchPatterns, matchField, traceMatch, ignoreMissing);
+                return new GrokProcessor(processorTag, expression -> compile(customPatterns, patternBank, expression), matchPatterns,
+                    matchField, traceMatch, ignoreMissing);
             } catch (Exception e) {
                 throw newConfigurationException(TYPE, processorTag, "patterns",
                     "Invalid regex pattern found in: " + matchPatterns + ". " + e.getMessage());
@@ -163,4 +283,36 @@ public final class GrokProcessor extends AbstractProcessor {
 
         }
     }
+
+    /**
+     * Grok expressions that only use the built-in patterns are shared between all processors, while those that use custom
+     * pattern definitions are only shared between processors with the same definitions.
+     */
+    private static final class CompiledGrokKey {
+
+        private final Map<String, String> customPatternBank;
+        private final String expression;
+
+        CompiledGrokKey(Map<String, String> customPatternBank, String expression) {
+            this.customPatternBank = customPatternBank;
+            this.expression = expression;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CompiledGrokKey that = (CompiledGrokKey) o;
+            return customPatternBank.equals(that.customPatternBank) && expression.equals(that.expression);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(customPatternBank, expression);
+        }
+    }
 }
@@ -38,6 +38,7 @@ import org.elasticsearch.script.ScriptService;
 
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import static org.elasticsearch.ingest.ConfigurationUtils.newConfigurationException;
@@ -79,6 +80,36 @@ public final class ScriptProcessor extends AbstractProcessor {
         executableScript.run();
     }
 
+    /**
+     * Executes the script with each Ingest document of a batch in context, the script is looked up and instantiated only once
+     * per batch.
+     */
+    @Override
+    public void execute(List<IngestDocument> documents, Exception[] failures) {
+        final ExecutableScript executableScript;
+        try {
+            ExecutableScript.Factory factory = scriptService.compile(script, ExecutableScript.INGEST_CONTEXT);
+            executableScript = factory.newInstance(script.getParams());
+        } catch (Exception e) {
+            for (int i = 0; i < failures.length; i++) {
+                if (failures[i] == null) {
+                    failures[i] = e;
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < failures.length; i++) {
+            if (failures[i] == null) {
+                try {
+                    executableScript.setNextVar("ctx", documents.get(i).getSourceAndMetadata());
+                    executableScript.run();
+                } catch (Exception e) {
+                    failures[i] = e;
+                }
+            }
+        }
+    }
+
     @Override
     public String getType() {
         return TYPE;
@@ -0,0 +1,87 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest.common;
+
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class GrokPrefilterTests extends ESTestCase {
+
+    public void testRequiredLiterals() {
+        assertThat(GrokPrefilter.requiredLiterals("foo"), contains("foo"));
+        assertThat(GrokPrefilter.requiredLiterals("%{IP:client} GET %{URIPATHPARAM:request}"), contains(" GET "));
+        assertThat(GrokPrefilter.requiredLiterals("\\[%{HTTPDATE:timestamp}\\] \"%{WORD:verb}"), contains("[", "] \""));
+        assertThat(GrokPrefilter.requiredLiterals("%{WORD:a} \\(%{WORD:b}\\)"), contains(" (", ")"));
+        assertThat(GrokPrefilter.requiredLiterals("^%{WORD:a}: %{GREEDYDATA:b}$"), contains(": "));
+        assertThat(GrokPrefilter.requiredLiterals("error:? %{GREEDYDATA:b}"), contains("error", " "));
+        assertThat(GrokPrefilter.requiredLiterals("ab+c"), contains("ab", "c"));
+        assertThat(GrokPrefilter.requiredLiterals("ab*c"), contains("a", "c"));
+        assertThat(GrokPrefilter.requiredLiterals("ab{2}c"), contains("a", "c"));
+        assertThat(GrokPrefilter.requiredLiterals("a.b"), contains("a", "b"));
+        assertThat(GrokPrefilter.requiredLiterals("a[0-9]b[^]x]c"), contains("a", "b", "c"));
+        assertThat(GrokPrefilter.requiredLiterals("foo(?:bar|baz)?qux"), contains("foo", "qux"));
+        assertThat(GrokPrefilter.requiredLiterals("foo(?<name>\\)|x)bar"), contains("foo", "bar"));
+        assertThat(GrokPrefilter.requiredLiterals("a\\sb\\dc"), contains("a", "b", "c"));
+        assertThat(GrokPrefilter.requiredLiterals("a\\x41b\\k<name>c\\p{Alpha}d"), contains("a", "b", "c", "d"));
+    }
+
+    public void testNoRequiredLiterals() {
+        assertThat(GrokPrefilter.requiredLiterals("%{WORD:a}"), empty());
+        assertThat(GrokPrefilter.requiredLiterals("foo|bar"), empty());
+        assertThat(GrokPrefilter.requiredLiterals("(?i)foo"), empty());
+        assertThat(GrokPrefilter.requiredLiterals("foo(?i:bar)"), empty());
+        assertThat(GrokPrefilter.requiredLiterals("(?x) foo bar"), empty());
+        assertThat(GrokPrefilter.requiredLiterals("foo(bar"), empty());
+        assertThat(GrokPrefilter.requiredLiterals("foo)bar"), empty());
+        assertThat(GrokPrefilter.requiredLiterals("foo[bar"), empty());
+        assertThat(GrokPrefilter.requiredLiterals("foo%{WORD"), empty());
+        assertThat(GrokPrefilter.requiredLiterals("a?"), empty());
+    }
+
+    public void testCandidates() {
+        GrokPrefilter prefilter = new GrokPrefilter(Arrays.asList(
+            "%{IP:client} GET %{URIPATHPARAM:request}",
+            "%{IP:client} POST %{URIPATHPARAM:request}",
+            "%{GREEDYDATA:message}",
+            "\\[%{LOGLEVEL:level}\\] %{GREEDYDATA:message}"));
+        assertThat(prefilter.isEffective(), is(true));
+        assertThat(prefilter.candidates("10.0.0.1 GET /index.html"), equalTo(bitSet(0, 2)));
+        assertThat(prefilter.candidates("10.0.0.1 POST /index.html"), equalTo(bitSet(1, 2)));
+        assertThat(prefilter.candidates("[INFO] started"), equalTo(bitSet(2, 3)));
+        assertThat(prefilter.candidates(""), equalTo(bitSet(2)));
+
+        assertThat(new GrokPrefilter(Arrays.asList("%{WORD:a}", "%{NUMBER:b}")).isEffective(), is(false));
+    }
+
+    private static BitSet bitSet(int... bits) {
+        BitSet bitSet = new BitSet();
+        for (int bit : bits) {
+            bitSet.set(bit);
+        }
+        return bitSet;
+    }
+}
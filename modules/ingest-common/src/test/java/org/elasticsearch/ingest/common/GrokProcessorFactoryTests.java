@@ -28,7 +28,9 @@ import java.util.Map;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class GrokProcessorFactoryTests extends ESTestCase {
 
@@ -46,6 +48,30 @@ public class GrokProcessorFactoryTests extends ESTestCase {
         assertThat(processor.isIgnoreMissing(), is(false));
     }
 
+    public void testCompiledGroksAreShared() throws Exception {
+        GrokProcessor.Factory factory = new GrokProcessor.Factory(Collections.singletonMap("ONE", "1"));
+
+        GrokProcessor first = factory.create(null, null, grokConfig(null));
+        GrokProcessor second = factory.create(null, null, grokConfig(null));
+        assertThat(second.getGrok(), sameInstance(first.getGrok()));
+        assertThat(factory.getCacheCount(), equalTo(1L));
+
+        // the same expression with custom pattern definitions compiles to something else
+        GrokProcessor custom = factory.create(null, null, grokConfig(Collections.singletonMap("ONE", "one")));
+        assertThat(custom.getGrok(), not(sameInstance(first.getGrok())));
+        assertThat(factory.getCacheCount(), equalTo(2L));
+    }
+
+    private static Map<String, Object> grokConfig(Map<String, String> patternDefinitions) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("field", "_field");
+        config.put("patterns", Collections.singletonList("%{ONE:one}"));
+        if (patternDefinitions != null) {
+            config.put("pattern_definitions", patternDefinitions);
+        }
+        return config;
+    }
+
     public void testBuildWithIgnoreMissing() throws Exception {
         GrokProcessor.Factory factory = new GrokProcessor.Factory(Collections.emptyMap());
 
@@ -24,6 +24,7 @@ import org.elasticsearch.ingest.RandomDocumentPicks;
 import org.elasticsearch.test.ESTestCase;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -197,6 +198,51 @@ public class GrokProcessorTests extends ESTestCase {
         assertThat(combined, equalTo("(?<_ingest._grok_match_index.0>foo)|(?<_ingest._grok_match_index.1>bar)"));
     }
 
+    public void testCombinedCandidatePatterns() {
+        BitSet candidates = new BitSet();
+        candidates.set(0);
+        candidates.set(2);
+        String combined = GrokProcessor.combinePatterns(Arrays.asList("foo", "bar", "baz"), candidates, false);
+        assertThat(combined, equalTo("(?:foo)|(?:baz)"));
+        combined = GrokProcessor.combinePatterns(Arrays.asList("foo", "bar", "baz"), candidates, true);
+        assertThat(combined, equalTo("(?<_ingest._grok_match_index.0>foo)|(?<_ingest._grok_match_index.2>baz)"));
+    }
+
+    public void testPrefilter() throws Exception {
+        String fieldName = RandomDocumentPicks.randomFieldName(random());
+        Map<String, String> patternBank = new HashMap<>();
+        patternBank.put("ONE", "1");
+        patternBank.put("TWO", "2");
+        GrokProcessor processor = new GrokProcessor(randomAlphaOfLength(10), patternBank,
+            Arrays.asList("%{ONE:one} GET", "%{TWO:two} POST", "%{ONE:one} PUT"), fieldName, true, false);
+
+        IngestDocument doc = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
+        doc.setFieldValue(fieldName, "1 PUT");
+        processor.execute(doc);
+        assertThat(doc.getFieldValue("one", String.class), equalTo("1"));
+        assertThat(doc.getFieldValue("_ingest._grok_match_index", String.class), equalTo("2"));
+        assertThat(processor.getCounters().get("match_attempts"), equalTo(1L));
+        assertThat(processor.getCounters().get("match_misses"), equalTo(0L));
+        assertThat(processor.getCounters().get("prefilter_skips"), equalTo(1L));
+
+        // none of the patterns can match, so no expression is tried at all
+        IngestDocument noMatch = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
+        noMatch.setFieldValue(fieldName, "1 DELETE");
+        Exception e = expectThrows(Exception.class, () -> processor.execute(noMatch));
+        assertThat(e.getMessage(), equalTo("Provided Grok expressions do not match field value: [1 DELETE]"));
+        assertThat(processor.getCounters().get("match_attempts"), equalTo(1L));
+        assertThat(processor.getCounters().get("match_misses"), equalTo(1L));
+        assertThat(processor.getCounters().get("prefilter_skips"), equalTo(2L));
+
+        // the literals of a pattern may be found in a value that the pattern doesn't match
+        IngestDocument candidateMiss = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
+        candidateMiss.setFieldValue(fieldName, "3 GET");
+        expectThrows(Exception.class, () -> processor.execute(candidateMiss));
+        assertThat(processor.getCounters().get("match_attempts"), equalTo(2L));
+        assertThat(processor.getCounters().get("match_misses"), equalTo(2L));
+        assertThat(processor.getCounters().get("prefilter_skips"), equalTo(3L));
+    }
+
     public void testCombineSamePatternNameAcrossPatterns() throws Exception {
         String fieldName = RandomDocumentPicks.randomFieldName(random());
         IngestDocument doc = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
@@ -19,7 +19,9 @@
 
 package org.elasticsearch.ingest.common;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.elasticsearch.ingest.IngestDocument;
@@ -29,11 +31,17 @@ import org.elasticsearch.script.Script;
 import org.elasticsearch.script.ScriptService;
 import org.elasticsearch.test.ESTestCase;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ScriptProcessorTests extends ESTestCase {
@@ -69,4 +77,47 @@ public class ScriptProcessorTests extends ESTestCase {
         assertThat(ingestDocument.getSourceAndMetadata(), hasKey("bytes_total"));
         assertThat(ingestDocument.getSourceAndMetadata().get("bytes_total"), is(randomBytesTotal));
     }
+
+    public void testScriptingBatch() throws Exception {
+        ScriptService scriptService = mock(ScriptService.class);
+        Script script = mockScript("_script");
+        ExecutableScript.Factory factory = mock(ExecutableScript.Factory.class);
+        ExecutableScript executableScript = mock(ExecutableScript.class);
+        when(scriptService.compile(script, ExecutableScript.INGEST_CONTEXT)).thenReturn(factory);
+        when(factory.newInstance(any())).thenReturn(executableScript);
+
+        List<IngestDocument> ingestDocuments = new ArrayList<>();
+        Exception[] failures = new Exception[randomIntBetween(1, 16)];
+        for (int i = 0; i < failures.length; i++) {
+            ingestDocuments.add(RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>()));
+        }
+        Map<?, ?>[] ctx = new Map<?, ?>[1];
+        doAnswer(invocationOnMock -> {
+            ctx[0] = (Map<?, ?>) invocationOnMock.getArguments()[1];
+            return null;
+        }).when(executableScript).setNextVar(eq("ctx"), any());
+        doAnswer(invocationOnMock -> {
+            if (ctx[0].containsKey("fail")) {
+                throw new IllegalArgumentException("failed");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> sourceAndMetadata = (Map<String, Object>) ctx[0];
+            sourceAndMetadata.put("processed", true);
+            return null;
+        }).when(executableScript).run();
+        ingestDocuments.get(0).setFieldValue("fail", true);
+
+        ScriptProcessor processor = new ScriptProcessor(randomAlphaOfLength(10), script, scriptService);
+        processor.execute(ingestDocuments, failures);
+
+        // the script is only compiled and instantiated once for the whole batch
+        verify(scriptService, times(1)).compile(script, ExecutableScript.INGEST_CONTEXT);
+        verify(factory, times(1)).newInstance(any());
+        assertThat(failures[0].getMessage(), equalTo("failed"));
+        assertThat(ingestDocuments.get(0).getSourceAndMetadata(), not(hasKey("processed")));
+        for (int i = 1; i < failures.length; i++) {
+            assertThat(failures[i], nullValue());
+            assertThat(ingestDocuments.get(i).getSourceAndMetadata(), hasKey("processed"));
+        }
+    }
 }
@@ -0,0 +1,275 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.painless;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.elasticsearch.Build;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.hash.MessageDigests;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.settings.KeyStoreWrapper;
+import org.elasticsearch.common.settings.SecureString;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.painless.Compiler.CompiledScript;
+import org.elasticsearch.painless.spi.Whitelist;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.AccessController;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Keeps the scripts that Painless compiled in a directory of the node, so that a script that was compiled before, like before
+ * the node restarted, is loaded instead of being compiled again. Scripts are stored under a digest of everything that goes
+ * into compiling them: the version of Elasticsearch, the whitelists and base class of the script context, the compiler
+ * settings, and the name and source of the script. So a stored script is never loaded for a script that would compile
+ * differently. Stored scripts are only loaded when a script is compiled.
+ * <p>
+ * Stored byte code is defined as is, without going through the compiler and its whitelists, so every stored script is
+ * authenticated with an HMAC keyed from the seed in the keystore of the node. A script that doesn't carry a valid HMAC, for
+ * instance one that was written by anything but this node, is never loaded.
+ */
+final class CompiledScriptCache {
+
+    /**
+     * Whether compiled scripts are stored in, and loaded from, the data path of the node. This requires the keystore seed.
+     */
+    static final Setting<Boolean> ENABLED =
+        Setting.boolSetting("script.painless.compiled_script_cache.enabled", false, Property.NodeScope);
+
+    /**
+     * The version of the format of stored scripts. Bump it when the format or what goes into a compiled script changes.
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    private static final String SUFFIX = ".painless";
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private static final int MAC_LENGTH = 32;
+
+    private static final Logger logger = Loggers.getLogger(CompiledScriptCache.class);
+
+    private final Path directory;
+    private final SecretKeySpec macKey;
+    private final CounterMetric loads = new CounterMetric();
+
+    /**
+     * @param directory The directory to keep the compiled scripts in.
+     * @param macKey The key to authenticate the compiled scripts with, see {@link #macKey(Settings)}.
+     */
+    CompiledScriptCache(Path directory, byte[] macKey) {
+        this.directory = directory;
+        this.macKey = new SecretKeySpec(macKey, MAC_ALGORITHM);
+    }
+
+    /**
+     * Derives the key that compiled scripts are authenticated with from the keystore seed, which is only readable by the node.
+     * @throws IllegalArgumentException if the keystore has no seed
+     */
+    static byte[] macKey(Settings settings) {
+        if (KeyStoreWrapper.SEED_SETTING.exists(settings) == false) {
+            throw new IllegalArgumentException("[" + ENABLED.getKey() + "] requires the [" + KeyStoreWrapper.SEED_SETTING.getKey()
+                + "] setting of the keystore to authenticate compiled scripts");
+        }
+        MessageDigest digest = MessageDigests.sha256();
+        update(digest, "painless compiled scripts");
+        try (SecureString seed = KeyStoreWrapper.SEED_SETTING.get(settings)) {
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(seed.getChars()));
+            try {
+                digest.update(bytes);
+            } finally {
+                Arrays.fill(bytes.array(), (byte) 0);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Computes a digest of the whitelists and the base class of a script context, which is part of the key of all the scripts
+     * that are compiled for the context.
+     */
+    static String digest(Class<?> base, List<Whitelist> whitelists) {
+        MessageDigest digest = MessageDigests.sha256();
+        update(digest, base.getName());
+        for (Whitelist whitelist : whitelists) {
+            for (Whitelist.Struct struct : whitelist.whitelistStructs) {
+                update(digest, struct.javaClassName);
+                update(digest, Boolean.toString(struct.onlyFQNJavaClassName));
+                for (Whitelist.Constructor constructor : struct.whitelistConstructors) {
+                    update(digest, "<init>");
+                    update(digest, constructor.painlessParameterTypeNames.toString());
+                }
+                for (Whitelist.Method method : struct.whitelistMethods) {
+                    update(digest, String.valueOf(method.javaAugmentedClassName));
+                    update(digest, method.javaMethodName);
+                    update(digest, method.painlessReturnTypeName);
+                    update(digest, method.painlessParameterTypeNames.toString());
+                }
+                for (Whitelist.Field field : struct.whitelistFields) {
+                    update(digest, field.javaFieldName);
+                    update(digest, field.painlessFieldTypeName);
+                }
+            }
+        }
+        return MessageDigests.toHexString(digest.digest());
+    }
+
+    /**
+     * Computes the key that a script is stored under.
+     * @param contextDigest The {@link #digest} of the script context that the script is compiled for.
+     */
+    static String key(String contextDigest, String name, String source, CompilerSettings settings) {
+        MessageDigest digest = MessageDigests.sha256();
+        update(digest, Integer.toString(FORMAT_VERSION));
+        update(digest, Integer.toString(Version.CURRENT.id));
+        update(digest, Build.CURRENT.shortHash());
+        update(digest, contextDigest);
+        update(digest, Integer.toString(settings.getMaxLoopCounter()));
+        update(digest, Boolean.toString(settings.isPicky()));
+        update(digest, Integer.toString(settings.getInitialCallSiteDepth()));
+        update(digest, Boolean.toString(settings.areRegexesEnabled()));
+        update(digest, name);
+        update(digest, source);
+        return MessageDigests.toHexString(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    private byte[] mac(byte[] bytes, int length) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(MAC_ALGORITHM);
+        mac.init(macKey);
+        mac.update(bytes, 0, length);
+        return mac.doFinal();
+    }
+
+    /**
+     * Loads the script that was stored under the key.
+     * @return The stored script or {@code null} if no script was stored under the key, it can't be read, or it isn't authentic.
+     */
+    CompiledScript load(String key) {
+        Path file = directory.resolve(key + SUFFIX);
+        try {
+            return AccessController.doPrivileged((PrivilegedExceptionAction<CompiledScript>) () -> {
+                byte[] stored;
+                try {
+                    stored = Files.readAllBytes(file);
+                } catch (NoSuchFileException e) {
+                    return null;
+                }
+                int length = stored.length - MAC_LENGTH;
+                if (length <= 0
+                        || MessageDigest.isEqual(mac(stored, length), Arrays.copyOfRange(stored, length, stored.length)) == false) {
+                    logger.warn("ignoring compiled script [{}] that is not authentic", file);
+                    return null;
+                }
+                try (StreamInput in = StreamInput.wrap(stored, 0, length)) {
+                    if (in.readVInt() != FORMAT_VERSION || key.equals(in.readString()) == false) {
+                        return null;
+                    }
+                    byte[] bytes = in.readByteArray();
+                    BitSet statements = BitSet.valueOf(in.readByteArray());
+                    String[] usedVariables = in.readStringArray();
+                    return new CompiledScript(bytes, statements, new HashSet<>(Arrays.asList(usedVariables)));
+                }
+            });
+        } catch (PrivilegedActionException e) {
+            logger.warn(() -> new ParameterizedMessage("failed to load compiled script [{}]", file), e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Counts that a script was loaded and defined instead of being compiled.
+     */
+    void onLoaded() {
+        loads.inc();
+    }
+
+    /**
+     * @return how many scripts were loaded and defined instead of being compiled
+     */
+    long getLoads() {
+        return loads.count();
+    }
+
+    /**
+     * Stores a compiled script under the key. Failing to store a script is logged but isn't fatal, the script will just be
+     * compiled again the next time.
+     */
+    void store(String key, CompiledScript script) {
+        Path file = directory.resolve(key + SUFFIX);
+        try {
+            AccessController.doPrivileged((PrivilegedExceptionAction<Void>) () -> {
+                Files.createDirectories(directory);
+                // write to a temporary file and move it in place so that a script is never loaded from a partially written file
+                Path tmp = Files.createTempFile(directory, key, ".tmp");
+                try {
+                    byte[] bytes;
+                    try (BytesStreamOutput out = new BytesStreamOutput()) {
+                        out.writeVInt(FORMAT_VERSION);
+                        out.writeString(key);
+                        out.writeByteArray(script.bytes);
+                        out.writeByteArray(script.statements.toByteArray());
+                        out.writeStringArray(script.usedVariables.toArray(new String[0]));
+                        bytes = BytesReference.toBytes(out.bytes());
+                    }
+                    try (OutputStream out = Files.newOutputStream(tmp)) {
+                        out.write(bytes);
+                        out.write(mac(bytes, bytes.length));
+                    }
+                    Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+                return null;
+            });
+        } catch (PrivilegedActionException e) {
+            logger.warn(() -> new ParameterizedMessage("failed to store compiled script [{}]", file), e.getCause());
+        }
+    }
+}
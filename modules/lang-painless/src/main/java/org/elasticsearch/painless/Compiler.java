@@ -31,6 +31,8 @@ import java.net.URL;
 import java.security.CodeSource;
 import java.security.SecureClassLoader;
 import java.security.cert.Certificate;
+import java.util.BitSet;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.elasticsearch.painless.WriterConstants.CLASS_NAME;
@@ -133,6 +135,22 @@ final class Compiler {
         }
     }
 
+    /**
+     * The byte code of a compiled script together with everything else needed to define it, so a script can be defined
+     * again without being compiled again.
+     */
+    static final class CompiledScript {
+        final byte[] bytes;
+        final BitSet statements;
+        final Set<String> usedVariables;
+
+        CompiledScript(byte[] bytes, BitSet statements, Set<String> usedVariables) {
+            this.bytes = bytes;
+            this.statements = statements;
+            this.usedVariables = usedVariables;
+        }
+    }
+
     /**
      * Return a new {@link Loader} for a script using the
      * {@link Compiler}'s specified {@link Definition}.
@@ -170,6 +188,17 @@ final class Compiler {
      * @return An executable script that implements both a specified interface and is a subclass of {@link PainlessScript}
      */
     Constructor<?> compile(Loader loader, MainMethodReserved reserved, String name, String source, CompilerSettings settings) {
+        return define(loader, reserved, name, source, compile(reserved, name, source, settings));
+    }
+
+    /**
+     * Runs the two-pass compiler to generate the byte code of a Painless script without defining it.
+     * @param name The name of the script.
+     * @param source The source code for the script.
+     * @param settings The CompilerSettings to be used during the compilation.
+     * @return The compiled script that can be defined with {@link #define}.
+     */
+    CompiledScript compile(MainMethodReserved reserved, String name, String source, CompilerSettings settings) {
         if (source.length() > MAXIMUM_SOURCE_LENGTH) {
             throw new IllegalArgumentException("Scripts may be no longer than " + MAXIMUM_SOURCE_LENGTH +
                 " characters.  The passed in script is " + source.length() + " characters.  Consider using a" +
@@ -182,11 +211,28 @@ final class Compiler {
         root.analyze(definition);
         root.write();
 
+        return new CompiledScript(root.getBytes(), root.getStatements(), reserved.getUsedVariables());
+    }
+
+    /**
+     * Defines a compiled Painless script.
+     * @param loader The ClassLoader used to define the script.
+     * @param reserved Receives the variables that the script uses.
+     * @param name The name of the script.
+     * @param source The source code for the script.
+     * @param script The script compiled from the source code.
+     * @return An executable script that implements both a specified interface and is a subclass of {@link PainlessScript}
+     */
+    Constructor<?> define(Loader loader, MainMethodReserved reserved, String name, String source, CompiledScript script) {
+        for (String usedVariable : script.usedVariables) {
+            reserved.markUsedVariable(usedVariable);
+        }
+
         try {
-            Class<? extends PainlessScript> clazz = loader.defineScript(CLASS_NAME, root.getBytes());
+            Class<? extends PainlessScript> clazz = loader.defineScript(CLASS_NAME, script.bytes);
             clazz.getField("$NAME").set(null, name);
             clazz.getField("$SOURCE").set(null, source);
-            clazz.getField("$STATEMENTS").set(null, root.getStatements());
+            clazz.getField("$STATEMENTS").set(null, script.statements);
             clazz.getField("$DEFINITION").set(null, definition);
 
             return clazz.getConstructors()[0];
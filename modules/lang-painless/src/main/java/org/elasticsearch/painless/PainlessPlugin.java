@@ -20,15 +20,22 @@
 package org.elasticsearch.painless;
 
 
+import org.apache.lucene.util.SetOnce;
 import org.elasticsearch.action.ActionRequest;
 import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.client.Client;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.IndexScopedSettings;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.settings.SettingsFilter;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.env.Environment;
+import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.painless.spi.PainlessExtension;
 import org.elasticsearch.painless.spi.Whitelist;
 import org.elasticsearch.plugins.ActionPlugin;
@@ -39,6 +46,9 @@ import org.elasticsearch.rest.RestController;
 import org.elasticsearch.rest.RestHandler;
 import org.elasticsearch.script.ScriptContext;
 import org.elasticsearch.script.ScriptEngine;
+import org.elasticsearch.script.ScriptService;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.watcher.ResourceWatcherService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -57,6 +67,8 @@ public final class PainlessPlugin extends Plugin implements ScriptPlugin, Extens
 
     private final Map<ScriptContext<?>, List<Whitelist>> extendedWhitelists = new HashMap<>();
 
+    private final SetOnce<PainlessScriptEngine> painlessScriptEngine = new SetOnce<>();
+
     @Override
     public ScriptEngine getScriptEngine(Settings settings, Collection<ScriptContext<?>> contexts) {
         Map<ScriptContext<?>, List<Whitelist>> contextsWithWhitelists = new HashMap<>();
@@ -68,12 +80,26 @@ public final class PainlessPlugin extends Plugin implements ScriptPlugin, Extens
             }
             contextsWithWhitelists.put(context, whitelists);
         }
-        return new PainlessScriptEngine(settings, contextsWithWhitelists);
+        painlessScriptEngine.set(new PainlessScriptEngine(settings, contextsWithWhitelists));
+        return painlessScriptEngine.get();
+    }
+
+    @Override
+    public Collection<Object> createComponents(Client client, ClusterService clusterService, ThreadPool threadPool,
+                                               ResourceWatcherService resourceWatcherService, ScriptService scriptService,
+                                               NamedXContentRegistry xContentRegistry, Environment environment,
+                                               NodeEnvironment nodeEnvironment, NamedWriteableRegistry namedWriteableRegistry) {
+        // compiled scripts are kept in the data path of this node so that nodes sharing a data path don't share them
+        if (painlessScriptEngine.get() != null && nodeEnvironment.hasNodeFile()) {
+            painlessScriptEngine.get().setCompiledScriptCacheDirectory(
+                nodeEnvironment.nodeDataPaths()[0].resolve(PainlessScriptEngine.NAME).resolve("compiled_scripts"));
+        }
+        return Collections.emptyList();
     }
 
     @Override
     public List<Setting<?>> getSettings() {
-        return Arrays.asList(CompilerSettings.REGEX_ENABLED);
+        return Arrays.asList(CompilerSettings.REGEX_ENABLED, CompiledScriptCache.ENABLED);
     }
 
     @Override
@@ -20,9 +20,11 @@
 package org.elasticsearch.painless;
 
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.util.SetOnce;
 import org.elasticsearch.SpecialPermission;
 import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.painless.Compiler.CompiledScript;
 import org.elasticsearch.painless.Compiler.Loader;
 import org.elasticsearch.painless.spi.Whitelist;
 import org.elasticsearch.script.ExecutableScript;
@@ -38,6 +40,7 @@ import org.objectweb.asm.commons.GeneratorAdapter;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.Permissions;
@@ -47,6 +50,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -87,6 +91,21 @@ public final class PainlessScriptEngine extends AbstractComponent implements Scr
 
     private final Map<ScriptContext<?>, Compiler> contextsToCompilers;
 
+    /**
+     * The key that compiled scripts that are kept on disk are authenticated with, {@code null} if they aren't kept.
+     */
+    private final byte[] compiledScriptCacheKey;
+
+    /**
+     * The compiled scripts that are kept on disk, unset until the directory of the node is known or if they aren't kept.
+     */
+    private final SetOnce<CompiledScriptCache> compiledScriptCache = new SetOnce<>();
+
+    /**
+     * The digests of the whitelists and base classes of the compilers, which are part of the keys of the compiled scripts.
+     */
+    private final Map<Compiler, String> compilersToDigests;
+
     /**
      * Constructor.
      * @param settings The settings to initialize the engine with.
@@ -96,18 +115,28 @@ public final class PainlessScriptEngine extends AbstractComponent implements Scr
 
         defaultCompilerSettings.setRegexesEnabled(CompilerSettings.REGEX_ENABLED.get(settings));
 
+        compiledScriptCacheKey = CompiledScriptCache.ENABLED.get(settings) ? CompiledScriptCache.macKey(settings) : null;
+
         Map<ScriptContext<?>, Compiler> contextsToCompilers = new HashMap<>();
+        Map<Compiler, String> compilersToDigests = new IdentityHashMap<>();
 
         for (Map.Entry<ScriptContext<?>, List<Whitelist>> entry : contexts.entrySet()) {
             ScriptContext<?> context = entry.getKey();
+            Class<?> base;
             if (context.instanceClazz.equals(SearchScript.class) || context.instanceClazz.equals(ExecutableScript.class)) {
-                contextsToCompilers.put(context, new Compiler(GenericElasticsearchScript.class, new Definition(entry.getValue())));
+                base = GenericElasticsearchScript.class;
             } else {
-                contextsToCompilers.put(context, new Compiler(context.instanceClazz, new Definition(entry.getValue())));
+                base = context.instanceClazz;
+            }
+            Compiler compiler = new Compiler(base, new Definition(entry.getValue()));
+            contextsToCompilers.put(context, compiler);
+            if (compiledScriptCacheKey != null) {
+                compilersToDigests.put(compiler, CompiledScriptCache.digest(base, entry.getValue()));
             }
         }
 
         this.contextsToCompilers = Collections.unmodifiableMap(contextsToCompilers);
+        this.compilersToDigests = Collections.unmodifiableMap(compilersToDigests);
     }
 
     /**
@@ -119,6 +148,22 @@ public final class PainlessScriptEngine extends AbstractComponent implements Scr
         return NAME;
     }
 
+    @Override
+    public long getLoadedCompilations() {
+        CompiledScriptCache cache = compiledScriptCache.get();
+        return cache == null ? 0 : cache.getLoads();
+    }
+
+    /**
+     * Keeps the compiled scripts in the given directory of the node if that is enabled. Scripts that are compiled before this
+     * is called are neither loaded nor stored.
+     */
+    void setCompiledScriptCacheDirectory(Path directory) {
+        if (compiledScriptCacheKey != null) {
+            compiledScriptCache.set(new CompiledScriptCache(directory, compiledScriptCacheKey));
+        }
+    }
+
     @Override
     public <T> T compile(String scriptName, String scriptSource, ScriptContext<T> context, Map<String, String> params) {
         Compiler compiler = contextsToCompilers.get(context);
@@ -416,13 +461,13 @@ public final class PainlessScriptEngine extends AbstractComponent implements Scr
         });
 
         try {
-            // Drop all permissions to actually compile the code itself.
+            String name = scriptName == null ? source : scriptName;
+            Constructor<?> constructor = compileOrLoad(compiler, loader, new MainMethodReserved(), name, source, compilerSettings);
+
+            // Drop all permissions to create the script.
             return AccessController.doPrivileged(new PrivilegedAction<Object>() {
                 @Override
                 public Object run() {
-                    String name = scriptName == null ? source : scriptName;
-                    Constructor<?> constructor = compiler.compile(loader, new MainMethodReserved(), name, source, compilerSettings);
-
                     try {
                         return constructor.newInstance(args);
                     } catch (Exception exception) { // Catch everything to let the user know this is something caused internally.
@@ -479,22 +524,49 @@ public final class PainlessScriptEngine extends AbstractComponent implements Scr
         }
 
         try {
-            // Drop all permissions to actually compile the code itself.
-            AccessController.doPrivileged(new PrivilegedAction<Void>() {
-                @Override
-                public Void run() {
-                    String name = scriptName == null ? source : scriptName;
-                    compiler.compile(loader, reserved, name, source, compilerSettings);
-
-                    return null;
-                }
-            }, COMPILATION_CONTEXT);
+            String name = scriptName == null ? source : scriptName;
+            compileOrLoad(compiler, loader, reserved, name, source, compilerSettings);
             // Note that it is safe to catch any of the following errors since Painless is stateless.
         } catch (OutOfMemoryError | StackOverflowError | VerifyError | Exception e) {
             throw convertToScriptException(scriptName == null ? source : scriptName, source, e);
         }
     }
 
+    /**
+     * Compiles and defines a script, or, if the compiled scripts are kept on disk, defines the script that was compiled and
+     * stored before and stores the script if it wasn't.
+     */
+    private Constructor<?> compileOrLoad(Compiler compiler, Loader loader, MainMethodReserved reserved,
+                                         String name, String source, CompilerSettings compilerSettings) {
+        CompiledScriptCache cache = compiledScriptCache.get();
+        String digest = cache == null ? null : compilersToDigests.get(compiler);
+        String key = digest == null ? null : CompiledScriptCache.key(digest, name, source, compilerSettings);
+        CompiledScript loaded = key == null ? null : cache.load(key);
+
+        // Drop all permissions to actually compile the code itself.
+        CompiledScript script = loaded != null ? loaded : AccessController.doPrivileged(new PrivilegedAction<CompiledScript>() {
+            @Override
+            public CompiledScript run() {
+                return compiler.compile(reserved, name, source, compilerSettings);
+            }
+        }, COMPILATION_CONTEXT);
+
+        Constructor<?> constructor = AccessController.doPrivileged(new PrivilegedAction<Constructor<?>>() {
+            @Override
+            public Constructor<?> run() {
+                return compiler.define(loader, reserved, name, source, script);
+            }
+        }, COMPILATION_CONTEXT);
+
+        if (loaded != null) {
+            cache.onLoaded();
+        } else if (key != null) {
+            cache.store(key, script);
+        }
+
+        return constructor;
+    }
+
     private ScriptException convertToScriptException(String scriptName, String scriptSource, Throwable t) {
         // create a script stack: this is just the script portion
         List<String> scriptStack = new ArrayList<>();
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.painless;
 
+import org.elasticsearch.index.fielddata.ScriptDocValues;
 import org.elasticsearch.painless.api.Augmentation;
 import org.elasticsearch.script.ScriptException;
 import org.objectweb.asm.Handle;
@@ -89,6 +90,11 @@ public final class WriterConstants {
     public static final Type MAP_TYPE  = Type.getType(Map.class);
     public static final Method MAP_GET = getAsmMethod(Object.class, "get", Object.class);
 
+    public static final Type SCRIPT_DOC_VALUES_LONGS_TYPE = Type.getType(ScriptDocValues.Longs.class);
+    public static final Method SCRIPT_DOC_VALUES_LONGS_GET_VALUE = getAsmMethod(long.class, "getValue");
+    public static final Type SCRIPT_DOC_VALUES_DOUBLES_TYPE = Type.getType(ScriptDocValues.Doubles.class);
+    public static final Method SCRIPT_DOC_VALUES_DOUBLES_GET_VALUE = getAsmMethod(double.class, "getValue");
+
     public static final Type ITERATOR_TYPE = Type.getType(Iterator.class);
     public static final Method ITERATOR_HASNEXT = getAsmMethod(boolean.class, "hasNext");
     public static final Method ITERATOR_NEXT = getAsmMethod(Object.class, "next");
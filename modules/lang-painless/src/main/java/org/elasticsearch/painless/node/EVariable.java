@@ -50,6 +50,13 @@ public final class EVariable extends AStoreable {
         variables.add(name);
     }
 
+    /**
+     * Whether this loads the {@code doc} variable, which holds the doc values of the fields of the current document.
+     */
+    boolean isDocVariable() {
+        return "doc".equals(name);
+    }
+
     @Override
     void analyze(Locals locals) {
         variable = locals.getVariable(location, name);
@@ -79,6 +79,13 @@ public final class PBrace extends AStoreable {
         actual = sub.actual;
     }
 
+    /**
+     * Whether this loads the doc values of a field from the {@code doc} variable, like {@code doc['field']}.
+     */
+    boolean isDocValuesLoad() {
+        return sub instanceof PSubMapShortcut && prefix instanceof EVariable && ((EVariable) prefix).isDocVariable();
+    }
+
     @Override
     void write(MethodWriter writer, Globals globals) {
         prefix.write(writer, globals);
@@ -65,7 +65,11 @@ public final class PField extends AStoreable {
         if (prefix.actual.isArray()) {
             sub = new PSubArrayLength(location, Definition.ClassToName(prefix.actual), value);
         } else if (prefix.actual == def.class) {
-            sub = new PSubDefField(location, value);
+            if (isDocValueLoad()) {
+                sub = new PSubDocValueField(location, value);
+            } else {
+                sub = new PSubDefField(location, value);
+            }
         } else {
             Struct struct = locals.getDefinition().ClassToType(prefix.actual).struct;
             Field field = prefix instanceof EStatic ? struct.staticMembers.get(value) : struct.members.get(value);
@@ -118,6 +122,16 @@ public final class PField extends AStoreable {
         actual = sub.actual;
     }
 
+    /**
+     * Whether this reads the first value of the doc values of a field, like {@code doc['field'].value}, where a {@code long} or a
+     * {@code double} is expected. Numeric doc values can then be read without going through def.
+     */
+    private boolean isDocValueLoad() {
+        return "value".equals(value) && read && write == false && nullSafe == false && explicit == false
+            && (expected == long.class || expected == double.class)
+            && prefix instanceof PBrace && ((PBrace) prefix).isDocValuesLoad();
+    }
+
     @Override
     void write(MethodWriter writer, Globals globals) {
         prefix.write(writer, globals);
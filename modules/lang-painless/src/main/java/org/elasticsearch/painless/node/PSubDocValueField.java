@@ -0,0 +1,141 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.painless.node;
+
+import org.elasticsearch.painless.DefBootstrap;
+import org.elasticsearch.painless.Globals;
+import org.elasticsearch.painless.Locals;
+import org.elasticsearch.painless.Location;
+import org.elasticsearch.painless.MethodWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.util.Objects;
+import java.util.Set;
+
+import static org.elasticsearch.painless.WriterConstants.OBJECT_TYPE;
+import static org.elasticsearch.painless.WriterConstants.SCRIPT_DOC_VALUES_DOUBLES_GET_VALUE;
+import static org.elasticsearch.painless.WriterConstants.SCRIPT_DOC_VALUES_DOUBLES_TYPE;
+import static org.elasticsearch.painless.WriterConstants.SCRIPT_DOC_VALUES_LONGS_GET_VALUE;
+import static org.elasticsearch.painless.WriterConstants.SCRIPT_DOC_VALUES_LONGS_TYPE;
+
+/**
+ * Represents a load of the first value of the doc values of a field, like {@code doc['field'].value}, where a {@code long} or a
+ * {@code double} is expected. The doc values of numeric fields are read directly as primitives, without the dynamic dispatch and
+ * the boxing of a def field load, which the doc values of any other field fall back to. (Internal only.)
+ */
+final class PSubDocValueField extends AStoreable {
+
+    private final String value;
+
+    PSubDocValueField(Location location, String value) {
+        super(location);
+
+        this.value = Objects.requireNonNull(value);
+    }
+
+    @Override
+    void extractVariables(Set<String> variables) {
+        throw createError(new IllegalStateException("Illegal tree structure."));
+    }
+
+    @Override
+    void analyze(Locals locals) {
+        if (write || (expected != long.class && expected != double.class)) {
+            throw createError(new IllegalStateException("Illegal tree structure."));
+        }
+
+        actual = expected;
+    }
+
+    @Override
+    void write(MethodWriter writer, Globals globals) {
+        writer.writeDebugInfo(location);
+
+        Label fallback = new Label();
+        Label end = new Label();
+
+        writer.dup();
+        writer.instanceOf(SCRIPT_DOC_VALUES_LONGS_TYPE);
+        if (actual == double.class) {
+            Label doubles = new Label();
+            writer.ifZCmp(Opcodes.IFEQ, doubles);
+            writer.checkCast(SCRIPT_DOC_VALUES_LONGS_TYPE);
+            writer.invokeVirtual(SCRIPT_DOC_VALUES_LONGS_TYPE, SCRIPT_DOC_VALUES_LONGS_GET_VALUE);
+            writer.cast(Type.LONG_TYPE, Type.DOUBLE_TYPE);
+            writer.goTo(end);
+
+            writer.mark(doubles);
+            writer.dup();
+            writer.instanceOf(SCRIPT_DOC_VALUES_DOUBLES_TYPE);
+            writer.ifZCmp(Opcodes.IFEQ, fallback);
+            writer.checkCast(SCRIPT_DOC_VALUES_DOUBLES_TYPE);
+            writer.invokeVirtual(SCRIPT_DOC_VALUES_DOUBLES_TYPE, SCRIPT_DOC_VALUES_DOUBLES_GET_VALUE);
+            writer.goTo(end);
+        } else {
+            writer.ifZCmp(Opcodes.IFEQ, fallback);
+            writer.checkCast(SCRIPT_DOC_VALUES_LONGS_TYPE);
+            writer.invokeVirtual(SCRIPT_DOC_VALUES_LONGS_TYPE, SCRIPT_DOC_VALUES_LONGS_GET_VALUE);
+            writer.goTo(end);
+        }
+
+        writer.mark(fallback);
+        Type methodType = Type.getMethodType(MethodWriter.getType(actual), OBJECT_TYPE);
+        writer.invokeDefCall(value, methodType, DefBootstrap.LOAD);
+
+        writer.mark(end);
+    }
+
+    @Override
+    int accessElementCount() {
+        return 1;
+    }
+
+    @Override
+    boolean isDefOptimized() {
+        return false;
+    }
+
+    @Override
+    void updateActual(Class<?> actual) {
+        throw new IllegalArgumentException("Illegal tree structure.");
+    }
+
+    @Override
+    void setup(MethodWriter writer, Globals globals) {
+        throw new IllegalArgumentException("Illegal tree structure.");
+    }
+
+    @Override
+    void load(MethodWriter writer, Globals globals) {
+        throw new IllegalArgumentException("Illegal tree structure.");
+    }
+
+    @Override
+    void store(MethodWriter writer, Globals globals) {
+        throw new IllegalArgumentException("Illegal tree structure.");
+    }
+
+    @Override
+    public String toString() {
+        return singleLineToString(prefix, value);
+    }
+}
@@ -70,6 +70,7 @@
  * {@link org.elasticsearch.painless.node.PSubDefArray} - Represents an array load/store or shortcut on a def type.  (Internal only.)
  * {@link org.elasticsearch.painless.node.PSubDefCall} - Represents a method call made on a def type. (Internal only.)
  * {@link org.elasticsearch.painless.node.PSubDefField} - Represents a field load/store or shortcut on a def type.  (Internal only.)
+ * {@link org.elasticsearch.painless.node.PSubDocValueField} - Represents a numeric load of a doc value.  (Internal only.)
  * {@link org.elasticsearch.painless.node.PSubField} - Represents a field load/store.
  * {@link org.elasticsearch.painless.node.PSubListShortcut} - Represents a list load/store shortcut.  (Internal only.)
  * {@link org.elasticsearch.painless.node.PSubMapShortcut} - Represents a map load/store shortcut. (Internal only.)
@@ -0,0 +1,188 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.painless;
+
+import org.elasticsearch.common.settings.KeyStoreWrapper;
+import org.elasticsearch.common.settings.MockSecureSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.painless.FactoryTests.StatefulFactoryTestScript;
+import org.elasticsearch.painless.spi.Whitelist;
+import org.elasticsearch.script.ExecutableScript;
+import org.elasticsearch.script.ScriptContext;
+import org.elasticsearch.script.ScriptException;
+import org.elasticsearch.test.ESTestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class CompiledScriptCacheTests extends ESTestCase {
+
+    private String seed;
+    private Path directory;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        seed = randomAlphaOfLength(20);
+        directory = createTempDir().resolve("compiled_scripts");
+    }
+
+    /**
+     * Settings of a node with the cache enabled. Every engine needs its own secure settings since reading the seed closes it.
+     */
+    private Settings settings() {
+        return settingsWithSeed(seed);
+    }
+
+    private static Settings settingsWithSeed(String seed) {
+        MockSecureSettings secureSettings = new MockSecureSettings();
+        secureSettings.setString(KeyStoreWrapper.SEED_SETTING.getKey(), seed);
+        return Settings.builder()
+            .put(CompiledScriptCache.ENABLED.getKey(), true)
+            .setSecureSettings(secureSettings)
+            .build();
+    }
+
+    private PainlessScriptEngine newEngine(Settings settings) {
+        Map<ScriptContext<?>, List<Whitelist>> contexts = new HashMap<>();
+        contexts.put(ExecutableScript.CONTEXT, Whitelist.BASE_WHITELISTS);
+        contexts.put(StatefulFactoryTestScript.CONTEXT, Whitelist.BASE_WHITELISTS);
+        PainlessScriptEngine engine = new PainlessScriptEngine(settings, contexts);
+        engine.setCompiledScriptCacheDirectory(directory);
+        return engine;
+    }
+
+    private Path storedScript() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> scripts = files.collect(Collectors.toList());
+            assertEquals(1, scripts.size());
+            return scripts.get(0);
+        }
+    }
+
+    private Object run(PainlessScriptEngine engine, String source, Map<String, String> compileParams) {
+        return engine.compile(null, source, ExecutableScript.CONTEXT, compileParams)
+            .newInstance(Collections.singletonMap("x", 3)).run();
+    }
+
+    public void testLoadsScriptCompiledBefore() {
+        String source = "List l = [params.x, 2]; l.stream().mapToInt(i -> i * 2).sum()";
+        PainlessScriptEngine engine = newEngine(settings());
+        assertEquals(10, run(engine, source, Collections.emptyMap()));
+        assertEquals(0, engine.getLoadedCompilations());
+
+        PainlessScriptEngine restarted = newEngine(settings());
+        assertEquals(10, run(restarted, source, Collections.emptyMap()));
+        assertEquals(1, restarted.getLoadedCompilations());
+
+        // other compiler settings compile differently so they don't load the same script
+        assertEquals(10, run(restarted, source, Collections.singletonMap(CompilerSettings.MAX_LOOP_COUNTER, "10")));
+        assertEquals(1, restarted.getLoadedCompilations());
+        assertEquals(10, run(newEngine(settings()), source, Collections.singletonMap(CompilerSettings.MAX_LOOP_COUNTER, "10")));
+    }
+
+    public void testLoadedScriptKeepsUsedVariables() {
+        String source = "test + x + y + d";
+        newEngine(settings()).compile("stateful_factory_test", source, StatefulFactoryTestScript.CONTEXT, Collections.emptyMap());
+
+        PainlessScriptEngine restarted = newEngine(settings());
+        StatefulFactoryTestScript.Factory factory =
+            restarted.compile("stateful_factory_test", source, StatefulFactoryTestScript.CONTEXT, Collections.emptyMap());
+        assertEquals(1, restarted.getLoadedCompilations());
+        assertEquals(24, factory.newFactory(1, 2).newInstance(3, 4).execute(3));
+        assertTrue(factory.needsTest());
+        assertTrue(factory.needsX());
+        assertFalse(factory.needsC());
+        assertTrue(factory.needsD());
+    }
+
+    public void testLoadedScriptReportsErrors() {
+        String source = "int[] x = new int[1]; return x[params.x]";
+        ScriptException compiled = expectThrows(ScriptException.class, () -> run(newEngine(settings()), source, Collections.emptyMap()));
+
+        PainlessScriptEngine restarted = newEngine(settings());
+        ScriptException loaded = expectThrows(ScriptException.class, () -> run(restarted, source, Collections.emptyMap()));
+        assertEquals(1, restarted.getLoadedCompilations());
+        assertEquals(compiled.getScriptStack(), loaded.getScriptStack());
+        assertEquals(source, loaded.getScript());
+    }
+
+    public void testIgnoresUnreadableScripts() throws Exception {
+        String source = "params.x + 1";
+        assertEquals(4, run(newEngine(settings()), source, Collections.emptyMap()));
+
+        Files.write(storedScript(), new byte[] {1, 2, 3});
+
+        PainlessScriptEngine restarted = newEngine(settings());
+        assertEquals(4, run(restarted, source, Collections.emptyMap()));
+        assertEquals(0, restarted.getLoadedCompilations());
+        // the script was stored again
+        PainlessScriptEngine again = newEngine(settings());
+        assertEquals(4, run(again, source, Collections.emptyMap()));
+        assertEquals(1, again.getLoadedCompilations());
+    }
+
+    public void testIgnoresTamperedScripts() throws Exception {
+        String source = "params.x + 1";
+        assertEquals(4, run(newEngine(settings()), source, Collections.emptyMap()));
+
+        Path script = storedScript();
+        byte[] bytes = Files.readAllBytes(script);
+        int position = randomIntBetween(0, bytes.length - 1);
+        bytes[position] = (byte) (bytes[position] ^ (1 << randomIntBetween(0, 7)));
+        Files.write(script, bytes);
+
+        PainlessScriptEngine restarted = newEngine(settings());
+        assertEquals(4, run(restarted, source, Collections.emptyMap()));
+        assertEquals(0, restarted.getLoadedCompilations());
+    }
+
+    public void testIgnoresScriptsOfOtherNodes() {
+        String source = "params.x + 1";
+        assertEquals(4, run(newEngine(settings()), source, Collections.emptyMap()));
+
+        PainlessScriptEngine otherNode = newEngine(settingsWithSeed(randomAlphaOfLength(21)));
+        assertEquals(4, run(otherNode, source, Collections.emptyMap()));
+        assertEquals(0, otherNode.getLoadedCompilations());
+    }
+
+    public void testRequiresKeystoreSeed() {
+        Settings withoutSeed = Settings.builder().put(CompiledScriptCache.ENABLED.getKey(), true).build();
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> newEngine(withoutSeed));
+        assertEquals("[script.painless.compiled_script_cache.enabled] requires the [keystore.seed] setting of the keystore to "
+            + "authenticate compiled scripts", e.getMessage());
+    }
+
+    public void testDisabled() {
+        Settings disabled = Settings.builder().put(settings()).put(CompiledScriptCache.ENABLED.getKey(), false).build();
+        String source = "params.x + 1";
+        assertEquals(4, run(newEngine(disabled), source, Collections.emptyMap()));
+        PainlessScriptEngine restarted = newEngine(disabled);
+        assertEquals(4, run(restarted, source, Collections.emptyMap()));
+        assertEquals(0, restarted.getLoadedCompilations());
+        assertFalse(Files.exists(directory));
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.painless;
+
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+import org.elasticsearch.painless.spi.Whitelist;
+import org.elasticsearch.script.ScriptContext;
+
+import java.io.IOException;
+import java.lang.invoke.WrongMethodTypeException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for loading the value of the doc values of a field, like {@code doc['field'].value}, where a number is expected.
+ */
+public class DocValueFieldTests extends ScriptTestCase {
+
+    @Override
+    protected Map<ScriptContext<?>, List<Whitelist>> scriptContexts() {
+        Map<ScriptContext<?>, List<Whitelist>> contexts = super.scriptContexts();
+        contexts.put(DoubleDocScript.CONTEXT, Whitelist.BASE_WHITELISTS);
+        contexts.put(LongDocScript.CONTEXT, Whitelist.BASE_WHITELISTS);
+        return contexts;
+    }
+
+    public abstract static class DoubleDocScript {
+        private final Map<String, Object> doc;
+
+        public DoubleDocScript(Map<String, Object> doc) {
+            this.doc = doc;
+        }
+
+        public Map<String, Object> getDoc() {
+            return doc;
+        }
+
+        public static final String[] PARAMETERS = {};
+        public abstract double execute();
+
+        public interface Factory {
+            DoubleDocScript newInstance(Map<String, Object> doc);
+        }
+
+        public static final ScriptContext<DoubleDocScript.Factory> CONTEXT =
+            new ScriptContext<>("double_doc_test", DoubleDocScript.Factory.class);
+    }
+
+    public abstract static class LongDocScript {
+        private final Map<String, Object> doc;
+
+        public LongDocScript(Map<String, Object> doc) {
+            this.doc = doc;
+        }
+
+        public Map<String, Object> getDoc() {
+            return doc;
+        }
+
+        public static final String[] PARAMETERS = {};
+        public abstract long execute();
+
+        public interface Factory {
+            LongDocScript newInstance(Map<String, Object> doc);
+        }
+
+        public static final ScriptContext<LongDocScript.Factory> CONTEXT =
+            new ScriptContext<>("long_doc_test", LongDocScript.Factory.class);
+    }
+
+    public void testBytecode() {
+        assertBytecodeExists("double x = doc['l'].value; return x",
+            "INSTANCEOF org/elasticsearch/index/fielddata/ScriptDocValues$Longs");
+        assertBytecodeExists("double x = doc['l'].value; return x",
+            "INSTANCEOF org/elasticsearch/index/fielddata/ScriptDocValues$Doubles");
+        assertBytecodeExists("long x = doc['l'].value; return x",
+            "INVOKEVIRTUAL org/elasticsearch/index/fielddata/ScriptDocValues$Longs.getValue ()J");
+        assertBytecodeExists("return Math.abs((long) doc['l'].value)", "INVOKEDYNAMIC value(Ljava/lang/Object;)Ljava/lang/Object;");
+        assertBytecodeExists("def x = doc['l'].value; return x", "INVOKEDYNAMIC value(Ljava/lang/Object;)Ljava/lang/Object;");
+        assertBytecodeExists("def d = doc; double x = d['l'].value; return x", "INVOKEDYNAMIC value(Ljava/lang/Object;)D");
+    }
+
+    public void testLongs() throws IOException {
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("l", longs(7L, 3L));
+        doc.put("empty", longs());
+        DoubleDocScript.Factory doubleFactory = compileDouble("doc['l'].value");
+        assertEquals(7.0d, doubleFactory.newInstance(doc).execute(), 0d);
+        LongDocScript.Factory longFactory = compileLong("doc['l'].value");
+        assertEquals(7L, longFactory.newInstance(doc).execute());
+        assertEquals(0L, compileLong("doc['empty'].value").newInstance(doc).execute());
+        assertEquals(10.0d, compileDouble("double x = doc['l'].value; return x + doc['l'][1]").newInstance(doc).execute(), 0d);
+        assertEquals(2L, compileLong("long x = doc['l'].value; return x / 3").newInstance(doc).execute());
+    }
+
+    public void testDoubles() throws IOException {
+        Map<String, Object> doc = Collections.singletonMap("d", doubles(2.5d));
+        assertEquals(2.5d, compileDouble("doc['d'].value").newInstance(doc).execute(), 0d);
+        assertEquals(5.0d, compileDouble("double x = doc['d'].value; return x * 2").newInstance(doc).execute(), 0d);
+        // doubles can't be implicitly loaded as longs, which fails like any def field load
+        expectScriptThrows(WrongMethodTypeException.class,
+            () -> compileLong("long x = doc['d'].value; return x").newInstance(doc).execute());
+    }
+
+    public void testOtherValuesFallBackToDef() {
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("m", Collections.singletonMap("value", 3L));
+        doc.put("n", Collections.singletonMap("value", 1.5d));
+        assertEquals(3L, compileLong("doc['m'].value").newInstance(doc).execute());
+        assertEquals(1.5d, compileDouble("doc['n'].value").newInstance(doc).execute(), 0d);
+    }
+
+    private DoubleDocScript.Factory compileDouble(String script) {
+        return scriptEngine.compile(null, script, DoubleDocScript.CONTEXT, Collections.emptyMap());
+    }
+
+    private LongDocScript.Factory compileLong(String script) {
+        return scriptEngine.compile(null, script, LongDocScript.CONTEXT, Collections.emptyMap());
+    }
+
+    private static ScriptDocValues.Longs longs(long... values) throws IOException {
+        ScriptDocValues.Longs longs = new ScriptDocValues.Longs(new SortedNumericDocValues() {
+            int i = 0;
+
+            @Override
+            public boolean advanceExact(int target) {
+                i = 0;
+                return values.length > 0;
+            }
+
+            @Override
+            public long nextValue() {
+                return values[i++];
+            }
+
+            @Override
+            public int docValueCount() {
+                return values.length;
+            }
+
+            @Override
+            public int docID() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int nextDoc() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int advance(int target) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public long cost() {
+                throw new UnsupportedOperationException();
+            }
+        });
+        longs.setNextDocId(0);
+        return longs;
+    }
+
+    private static ScriptDocValues.Doubles doubles(double... values) throws IOException {
+        ScriptDocValues.Doubles doubles = new ScriptDocValues.Doubles(new SortedNumericDoubleValues() {
+            int i = 0;
+
+            @Override
+            public boolean advanceExact(int target) {
+                i = 0;
+                return values.length > 0;
+            }
+
+            @Override
+            public double nextValue() {
+                return values[i++];
+            }
+
+            @Override
+            public int docValueCount() {
+                return values.length;
+            }
+        });
+        doubles.setNextDocId(0);
+        return doubles;
+    }
+}
@@ -53,22 +53,31 @@ final class PercolateQuery extends Query implements Accountable {
     private final Query candidateMatchesQuery;
     private final Query verifiedMatchesQuery;
     private final IndexSearcher percolatorIndexSearcher;
+    private final PercolatorQueryCache queryCache;
 
     PercolateQuery(String name, QueryStore queryStore, List<BytesReference> documents,
                    Query candidateMatchesQuery, IndexSearcher percolatorIndexSearcher, Query verifiedMatchesQuery) {
+        this(name, queryStore, documents, candidateMatchesQuery, percolatorIndexSearcher, verifiedMatchesQuery,
+            new PercolatorQueryCache(0));
+    }
+
+    PercolateQuery(String name, QueryStore queryStore, List<BytesReference> documents, Query candidateMatchesQuery,
+                   IndexSearcher percolatorIndexSearcher, Query verifiedMatchesQuery, PercolatorQueryCache queryCache) {
         this.name = name;
         this.documents = Objects.requireNonNull(documents);
         this.candidateMatchesQuery = Objects.requireNonNull(candidateMatchesQuery);
         this.queryStore = Objects.requireNonNull(queryStore);
         this.percolatorIndexSearcher = Objects.requireNonNull(percolatorIndexSearcher);
         this.verifiedMatchesQuery = Objects.requireNonNull(verifiedMatchesQuery);
+        this.queryCache = Objects.requireNonNull(queryCache);
     }
 
     @Override
     public Query rewrite(IndexReader reader) throws IOException {
         Query rewritten = candidateMatchesQuery.rewrite(reader);
         if (rewritten != candidateMatchesQuery) {
-            return new PercolateQuery(name, queryStore, documents, rewritten, percolatorIndexSearcher, verifiedMatchesQuery);
+            return new PercolateQuery(name, queryStore, documents, rewritten, percolatorIndexSearcher, verifiedMatchesQuery,
+                queryCache);
         } else {
             return this;
         }
@@ -122,7 +131,9 @@ final class PercolateQuery extends Query implements Accountable {
                         boolean matchDocId(int docId) throws IOException {
                             Query query = percolatorQueries.apply(docId);
                             if (query != null) {
+                                long start = System.nanoTime();
                                 TopDocs topDocs = percolatorIndexSearcher.search(query, 1);
+                                queryCache.onVerification(System.nanoTime() - start, topDocs.totalHits > 0);
                                 if (topDocs.totalHits > 0) {
                                     score = topDocs.scoreDocs[0].score;
                                     return true;
@@ -156,10 +167,17 @@ final class PercolateQuery extends Query implements Accountable {
                             // and we determined based on the nature of the query that it is safe to skip
                             // the MemoryIndex verification.
                             if (verifiedDocsBits.get(docId)) {
+                                queryCache.onSkippedVerification();
                                 return true;
                             }
                             Query query = percolatorQueries.apply(docId);
-                            return query != null && Lucene.exists(percolatorIndexSearcher, query);
+                            if (query == null) {
+                                return false;
+                            }
+                            long start = System.nanoTime();
+                            boolean matches = Lucene.exists(percolatorIndexSearcher, query);
+                            queryCache.onVerification(System.nanoTime() - start, matches);
+                            return matches;
                         }
                     };
                 }
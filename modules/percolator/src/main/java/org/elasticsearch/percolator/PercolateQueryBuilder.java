@@ -27,6 +27,7 @@ import org.apache.lucene.index.IndexReaderContext;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.ReaderUtil;
 import org.apache.lucene.index.memory.MemoryIndex;
 import org.apache.lucene.search.BooleanClause;
@@ -46,6 +47,7 @@ import org.elasticsearch.ResourceNotFoundException;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.common.CheckedFunction;
 import org.elasticsearch.common.ParseField;
 import org.elasticsearch.common.ParsingException;
 import org.elasticsearch.common.bytes.BytesReference;
@@ -92,7 +94,7 @@ import java.util.Objects;
 import java.util.function.Supplier;
 
 import static org.elasticsearch.index.mapper.SourceToParse.source;
-import static org.elasticsearch.percolator.PercolatorFieldMapper.parseQuery;
+import static org.elasticsearch.percolator.PercolatorFieldMapper.parseQueryBuilder;
 
 public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBuilder> {
     public static final String NAME = "percolate";
@@ -624,7 +626,8 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
 
         String name = this.name != null ? this.name : field;
         PercolatorFieldMapper.FieldType pft = (PercolatorFieldMapper.FieldType) fieldType;
-        PercolateQuery.QueryStore queryStore = createStore(pft.queryBuilderField, percolateShardContext, mapUnmappedFieldsAsString);
+        PercolateQuery.QueryStore queryStore = createStore(pft.queryBuilderField, percolateShardContext, mapUnmappedFieldsAsString,
+            pft.queryCache);
         return pft.percolateQuery(name, queryStore, documents, docSearcher, context.indexVersionCreated());
     }
 
@@ -647,7 +650,12 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
 
     static IndexSearcher createMultiDocumentSearcher(Analyzer analyzer, Collection<ParsedDocument> docs) {
         RAMDirectory ramDirectory = new RAMDirectory();
-        try (IndexWriter indexWriter = new IndexWriter(ramDirectory, new IndexWriterConfig(analyzer))) {
+        // The index only lives for the duration of the request, so don't spend time on compound files, merges and commits:
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+            .setUseCompoundFile(false)
+            .setMergePolicy(NoMergePolicy.INSTANCE)
+            .setCommitOnClose(false);
+        try (IndexWriter indexWriter = new IndexWriter(ramDirectory, config)) {
             // Indexing in order here, so that the user provided order matches with the docid sequencing:
             Iterable<ParseContext.Document> iterable = () -> docs.stream()
                 .map(ParsedDocument::docs)
@@ -657,19 +665,27 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
 
             DirectoryReader directoryReader = DirectoryReader.open(indexWriter);
             assert directoryReader.leaves().size() == 1 : "Expected single leaf, but got [" + directoryReader.leaves().size() + "]";
-            final IndexSearcher slowSearcher = new IndexSearcher(directoryReader) {
-
-                @Override
-                public Weight createNormalizedWeight(Query query, boolean needsScores) throws IOException {
-                    BooleanQuery.Builder bq = new BooleanQuery.Builder();
-                    bq.add(query, BooleanClause.Occur.MUST);
-                    bq.add(Queries.newNestedFilter(), BooleanClause.Occur.MUST_NOT);
-                    return super.createNormalizedWeight(bq.build(), needsScores);
-                }
+            final IndexSearcher searcher;
+            if (docs.stream().anyMatch(doc -> doc.docs().size() > 1)) {
+                searcher = new IndexSearcher(directoryReader) {
+
+                    @Override
+                    public Weight createNormalizedWeight(Query query, boolean needsScores) throws IOException {
+                        BooleanQuery.Builder bq = new BooleanQuery.Builder();
+                        bq.add(query, BooleanClause.Occur.MUST);
+                        bq.add(Queries.newNestedFilter(), BooleanClause.Occur.MUST_NOT);
+                        return super.createNormalizedWeight(bq.build(), needsScores);
+                    }
 
-            };
-            slowSearcher.setQueryCache(null);
-            return slowSearcher;
+                };
+            } else {
+                // Without nested documents every document is a root document, so the queries of the candidate matches
+                // don't need to be wrapped to exclude nested documents, which matters when many documents are percolated
+                // and many candidate matches need to be verified:
+                searcher = new IndexSearcher(directoryReader);
+            }
+            searcher.setQueryCache(null);
+            return searcher;
         } catch (IOException e) {
             throw new ElasticsearchException("Failed to create index for percolator with nested document ", e);
         }
@@ -678,58 +694,66 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
     static PercolateQuery.QueryStore createStore(MappedFieldType queryBuilderFieldType,
                                                  QueryShardContext context,
                                                  boolean mapUnmappedFieldsAsString) {
+        return createStore(queryBuilderFieldType, context, mapUnmappedFieldsAsString, new PercolatorQueryCache(0));
+    }
+
+    static PercolateQuery.QueryStore createStore(MappedFieldType queryBuilderFieldType,
+                                                 QueryShardContext context,
+                                                 boolean mapUnmappedFieldsAsString,
+                                                 PercolatorQueryCache queryCache) {
         Version indexVersion = context.indexVersionCreated();
         NamedWriteableRegistry registry = context.getWriteableRegistry();
+        String field = queryBuilderFieldType.name();
         return ctx -> {
             LeafReader leafReader = ctx.reader();
-            BinaryDocValues binaryDocValues = leafReader.getBinaryDocValues(queryBuilderFieldType.name());
+            BinaryDocValues binaryDocValues = leafReader.getBinaryDocValues(field);
             if (binaryDocValues == null) {
                 return docId -> null;
             }
+            CheckedFunction<BytesRef, QueryBuilder, IOException> parser;
             if (indexVersion.onOrAfter(Version.V_6_0_0_beta2)) {
-                return docId -> {
-                    if (binaryDocValues.advanceExact(docId)) {
-                        BytesRef qbSource = binaryDocValues.binaryValue();
-                        try (InputStream in = new ByteArrayInputStream(qbSource.bytes, qbSource.offset, qbSource.length)) {
-                            try (StreamInput input = new NamedWriteableAwareStreamInput(
-                                    new InputStreamStreamInput(in, qbSource.length), registry)) {
-                                input.setVersion(indexVersion);
-                                // Query builder's content is stored via BinaryFieldMapper, which has a custom encoding
-                                // to encode multiple binary values into a single binary doc values field.
-                                // This is the reason we need to first need to read the number of values and
-                                // then the length of the field value in bytes.
-                                int numValues = input.readVInt();
-                                assert numValues == 1;
-                                int valueLength = input.readVInt();
-                                assert valueLength > 0;
-                                QueryBuilder queryBuilder = input.readNamedWriteable(QueryBuilder.class);
-                                assert in.read() == -1;
-                                return PercolatorFieldMapper.toQuery(context, mapUnmappedFieldsAsString, queryBuilder);
-                            }
+                parser = qbSource -> {
+                    try (InputStream in = new ByteArrayInputStream(qbSource.bytes, qbSource.offset, qbSource.length)) {
+                        try (StreamInput input = new NamedWriteableAwareStreamInput(
+                                new InputStreamStreamInput(in, qbSource.length), registry)) {
+                            input.setVersion(indexVersion);
+                            // Query builder's content is stored via BinaryFieldMapper, which has a custom encoding
+                            // to encode multiple binary values into a single binary doc values field.
+                            // This is the reason we need to first need to read the number of values and
+                            // then the length of the field value in bytes.
+                            int numValues = input.readVInt();
+                            assert numValues == 1;
+                            int valueLength = input.readVInt();
+                            assert valueLength > 0;
+                            QueryBuilder queryBuilder = input.readNamedWriteable(QueryBuilder.class);
+                            assert in.read() == -1;
+                            return queryBuilder;
                         }
-                    } else {
-                        return null;
                     }
                 };
             } else {
-                return docId -> {
-                    if (binaryDocValues.advanceExact(docId)) {
-                        BytesRef qbSource = binaryDocValues.binaryValue();
-                        if (qbSource.length > 0) {
-                            XContent xContent = PercolatorFieldMapper.QUERY_BUILDER_CONTENT_TYPE.xContent();
-                            try (XContentParser sourceParser = xContent
-                                    .createParser(context.getXContentRegistry(), LoggingDeprecationHandler.INSTANCE,
-                                        qbSource.bytes, qbSource.offset, qbSource.length)) {
-                                return parseQuery(context, mapUnmappedFieldsAsString, sourceParser);
-                            }
-                        } else {
-                            return null;
-                        }
-                    } else {
-                        return null;
+                parser = qbSource -> {
+                    XContent xContent = PercolatorFieldMapper.QUERY_BUILDER_CONTENT_TYPE.xContent();
+                    try (XContentParser sourceParser = xContent
+                            .createParser(context.getXContentRegistry(), LoggingDeprecationHandler.INSTANCE,
+                                qbSource.bytes, qbSource.offset, qbSource.length)) {
+                        return parseQueryBuilder(sourceParser, sourceParser.getTokenLocation());
                     }
                 };
             }
+            CheckedFunction<Integer, BytesRef, IOException> serializedQueries = docId -> {
+                if (binaryDocValues.advanceExact(docId)) {
+                    BytesRef qbSource = binaryDocValues.binaryValue();
+                    return qbSource.length > 0 ? qbSource : null;
+                } else {
+                    return null;
+                }
+            };
+            return docId -> {
+                // the deserialized query builders are cached, but not the queries because they depend on the percolate query
+                QueryBuilder queryBuilder = queryCache.getQuery(leafReader, field, docId, serializedQueries, parser);
+                return queryBuilder == null ? null : PercolatorFieldMapper.toQuery(context, mapUnmappedFieldsAsString, queryBuilder);
+            };
         };
     }
 
@@ -88,6 +88,8 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Supplier;
 
 import static org.elasticsearch.index.query.AbstractQueryBuilder.parseInnerQueryBuilder;
@@ -110,14 +112,19 @@ public class PercolatorFieldMapper extends FieldMapper {
     static final String QUERY_BUILDER_FIELD_NAME = "query_builder_field";
     static final String RANGE_FIELD_NAME = "range_field";
     static final String MINIMUM_SHOULD_MATCH_FIELD_NAME = "minimum_should_match_field";
+    // up to how many distinct values of a numeric field of the percolated documents are matched against the extracted ranges
+    // one by one, rather than matching the range between the smallest and the largest value
+    static final int MAX_DISTINCT_POINT_VALUES = 16;
 
     static class Builder extends FieldMapper.Builder<Builder, PercolatorFieldMapper> {
 
         private final Supplier<QueryShardContext> queryShardContext;
+        private final PercolatorQueryCache queryCache;
 
-        Builder(String fieldName, Supplier<QueryShardContext> queryShardContext) {
+        Builder(String fieldName, Supplier<QueryShardContext> queryShardContext, PercolatorQueryCache queryCache) {
             super(fieldName, FIELD_TYPE, FIELD_TYPE);
             this.queryShardContext = queryShardContext;
+            this.queryCache = queryCache;
         }
 
         @Override
@@ -136,6 +143,7 @@ public class PercolatorFieldMapper extends FieldMapper {
             fieldType.rangeField = rangeFieldMapper.fieldType();
             NumberFieldMapper minimumShouldMatchFieldMapper = createMinimumShouldMatchField(context);
             fieldType.minimumShouldMatchField = minimumShouldMatchFieldMapper.fieldType();
+            fieldType.queryCache = queryCache;
             context.path().remove();
             setupFieldType(context);
             return new PercolatorFieldMapper(name(), fieldType, defaultFieldType, context.indexSettings(),
@@ -181,9 +189,15 @@ public class PercolatorFieldMapper extends FieldMapper {
 
     static class TypeParser implements FieldMapper.TypeParser {
 
+        private final PercolatorQueryCache queryCache;
+
+        TypeParser(PercolatorQueryCache queryCache) {
+            this.queryCache = queryCache;
+        }
+
         @Override
         public Builder parse(String name, Map<String, Object> node, ParserContext parserContext) throws MapperParsingException {
-            return new Builder(name, parserContext.queryShardContextSupplier());
+            return new Builder(name, parserContext.queryShardContextSupplier(), queryCache);
         }
     }
 
@@ -196,6 +210,8 @@ public class PercolatorFieldMapper extends FieldMapper {
 
         RangeFieldMapper.RangeFieldType rangeField;
 
+        PercolatorQueryCache queryCache;
+
         FieldType() {
             setIndexOptions(IndexOptions.NONE);
             setDocValuesType(DocValuesType.NONE);
@@ -209,6 +225,7 @@ public class PercolatorFieldMapper extends FieldMapper {
             queryBuilderField = ref.queryBuilderField;
             rangeField = ref.rangeField;
             minimumShouldMatchField = ref.minimumShouldMatchField;
+            queryCache = ref.queryCache;
         }
 
         @Override
@@ -253,7 +270,7 @@ public class PercolatorFieldMapper extends FieldMapper {
             } else {
                 verifiedMatchesQuery = new MatchNoDocsQuery("multiple or nested docs or CoveringQuery could not be used");
             }
-            return new PercolateQuery(name, queryStore, documents, candidateQuery, searcher, verifiedMatchesQuery);
+            return new PercolateQuery(name, queryStore, documents, candidateQuery, searcher, verifiedMatchesQuery, queryCache);
         }
 
         Tuple<BooleanQuery, Boolean> createCandidateQuery(IndexReader indexReader, Version indexVersion) throws IOException {
@@ -268,10 +285,21 @@ public class PercolatorFieldMapper extends FieldMapper {
             for (Map.Entry<String, List<byte[]>> entry : encodedPointValuesByField.entrySet()) {
                 String rangeFieldName = entry.getKey();
                 List<byte[]> encodedPointValues = entry.getValue();
-                byte[] min = encodedPointValues.get(0);
-                byte[] max = encodedPointValues.get(1);
-                Query query = BinaryRange.newIntersectsQuery(rangeField.name(), encodeRange(rangeFieldName, min, max));
-                subQueries.add(query);
+                if (encodedPointValues.size() == 2) {
+                    byte[] min = encodedPointValues.get(0);
+                    byte[] max = encodedPointValues.get(1);
+                    subQueries.add(BinaryRange.newIntersectsQuery(rangeField.name(), encodeRange(rangeFieldName, min, max)));
+                } else {
+                    // a single clause per field, so that the field still counts once towards the minimum should match
+                    BooleanQuery.Builder valuesQuery = new BooleanQuery.Builder();
+                    for (int i = 0; i < encodedPointValues.size(); i += 2) {
+                        byte[] min = encodedPointValues.get(i);
+                        byte[] max = encodedPointValues.get(i + 1);
+                        Query query = BinaryRange.newIntersectsQuery(rangeField.name(), encodeRange(rangeFieldName, min, max));
+                        valuesQuery.add(query, BooleanClause.Occur.SHOULD);
+                    }
+                    subQueries.add(valuesQuery.build());
+                }
             }
 
             BooleanQuery.Builder candidateQuery = new BooleanQuery.Builder();
@@ -316,15 +344,53 @@ public class PercolatorFieldMapper extends FieldMapper {
                 }
                 if (info.getPointDimensionCount() == 1) { // not != 0 because range fields are not supported
                     PointValues values = reader.getPointValues(info.name);
-                    List<byte[]> encodedPointValues = new ArrayList<>();
-                    encodedPointValues.add(values.getMinPackedValue().clone());
-                    encodedPointValues.add(values.getMaxPackedValue().clone());
-                    encodedPointValuesByField.put(info.name, encodedPointValues);
+                    encodedPointValuesByField.put(info.name, extractPointValues(values));
                 }
             }
             return new Tuple<>(extractedTerms, encodedPointValuesByField);
         }
 
+        /**
+         * Returns the distinct values of a numeric field of the percolated documents as pairs of the same min and max value,
+         * so that only the queries with a range that contains one of the values are candidate matches, rather than all queries
+         * with a range that intersects the range between the smallest and the largest value. If the field has many distinct
+         * values then the single pair of the smallest and the largest value is returned instead.
+         */
+        static List<byte[]> extractPointValues(PointValues values) throws IOException {
+            List<byte[]> encodedPointValues = new ArrayList<>();
+            if (values.size() > 1) {
+                Set<BytesRef> distinctValues = new TreeSet<>();
+                values.intersect(new PointValues.IntersectVisitor() {
+                    @Override
+                    public void visit(int docID) {
+                        throw new IllegalStateException("should only be called with the packed value");
+                    }
+
+                    @Override
+                    public void visit(int docID, byte[] packedValue) {
+                        if (distinctValues.size() <= MAX_DISTINCT_POINT_VALUES) {
+                            distinctValues.add(new BytesRef(packedValue.clone()));
+                        }
+                    }
+
+                    @Override
+                    public PointValues.Relation compare(byte[] minPackedValue, byte[] maxPackedValue) {
+                        return PointValues.Relation.CELL_CROSSES_QUERY;
+                    }
+                });
+                if (distinctValues.size() > 1 && distinctValues.size() <= MAX_DISTINCT_POINT_VALUES) {
+                    for (BytesRef value : distinctValues) {
+                        encodedPointValues.add(value.bytes);
+                        encodedPointValues.add(value.bytes);
+                    }
+                    return encodedPointValues;
+                }
+            }
+            encodedPointValues.add(values.getMinPackedValue().clone());
+            encodedPointValues.add(values.getMaxPackedValue().clone());
+            return encodedPointValues;
+        }
+
     }
 
     private final boolean mapUnmappedFieldAsText;
@@ -474,10 +540,6 @@ public class PercolatorFieldMapper extends FieldMapper {
         }
     }
 
-    static Query parseQuery(QueryShardContext context, boolean mapUnmappedFieldsAsString, XContentParser parser) throws IOException {
-        return toQuery(context, mapUnmappedFieldsAsString, parseQueryBuilder(parser, parser.getTokenLocation()));
-    }
-
     static Query toQuery(QueryShardContext context, boolean mapUnmappedFieldsAsString, QueryBuilder queryBuilder) throws IOException {
         // This means that fields in the query need to exist in the mapping prior to registering this query
         // The reason that this is required, is that if a field doesn't exist then the query assumes defaults, which may be undesired.
@@ -496,7 +558,7 @@ public class PercolatorFieldMapper extends FieldMapper {
         return queryBuilder.toQuery(context);
     }
 
-    private static QueryBuilder parseQueryBuilder(XContentParser parser, XContentLocation location) {
+    static QueryBuilder parseQueryBuilder(XContentParser parser, XContentLocation location) {
         try {
             return parseInnerQueryBuilder(parser);
         } catch (IOException e) {
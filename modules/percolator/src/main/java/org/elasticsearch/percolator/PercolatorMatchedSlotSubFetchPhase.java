@@ -23,12 +23,11 @@ import org.apache.lucene.index.ReaderUtil;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Scorer;
-import org.apache.lucene.search.Sort;
-import org.apache.lucene.search.SortField;
-import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.SimpleCollector;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.BitSet;
 import org.apache.lucene.util.BitSetIterator;
+import org.apache.lucene.util.FixedBitSet;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.document.DocumentField;
 import org.elasticsearch.common.lucene.search.Queries;
@@ -95,8 +94,29 @@ final class PercolatorMatchedSlotSubFetchPhase implements FetchSubPhase {
                     continue;
                 }
 
-                TopDocs topDocs = percolatorIndexSearcher.search(query, memoryIndexMaxDoc, new Sort(SortField.FIELD_DOC));
-                if (topDocs.totalHits == 0) {
+                // Collect the matching documents in a bit set rather than sorting the top documents by doc id,
+                // which would need to reserve space for all the percolated documents:
+                FixedBitSet matchingDocs = new FixedBitSet(memoryIndexMaxDoc);
+                percolatorIndexSearcher.search(query, new SimpleCollector() {
+
+                    private int docBase;
+
+                    @Override
+                    protected void doSetNextReader(LeafReaderContext context) throws IOException {
+                        docBase = context.docBase;
+                    }
+
+                    @Override
+                    public void collect(int doc) throws IOException {
+                        matchingDocs.set(docBase + doc);
+                    }
+
+                    @Override
+                    public boolean needsScores() {
+                        return false;
+                    }
+                });
+                if (matchingDocs.nextSetBit(0) == NO_MORE_DOCS) {
                     // This hit didn't match with a percolate query,
                     // likely to happen when percolating multiple documents
                     continue;
@@ -107,15 +127,19 @@ final class PercolatorMatchedSlotSubFetchPhase implements FetchSubPhase {
                     fields = new HashMap<>();
                     hit.fields(fields);
                 }
-                IntStream slots = convertTopDocsToSlots(topDocs, rootDocsBySlot);
+                IntStream slots = convertMatchingDocsToSlots(matchingDocs, rootDocsBySlot);
                 fields.put(fieldName, new DocumentField(fieldName, slots.boxed().collect(Collectors.toList())));
             }
         }
     }
 
-    static IntStream convertTopDocsToSlots(TopDocs topDocs, int[] rootDocsBySlot) {
-        IntStream stream = Arrays.stream(topDocs.scoreDocs)
-            .mapToInt(scoreDoc -> scoreDoc.doc);
+    static IntStream convertMatchingDocsToSlots(BitSet matchingDocs, int[] rootDocsBySlot) {
+        IntStream.Builder docs = IntStream.builder();
+        BitSetIterator iterator = new BitSetIterator(matchingDocs, 0);
+        for (int docId = iterator.nextDoc(); docId != NO_MORE_DOCS; docId = iterator.nextDoc()) {
+            docs.add(docId);
+        }
+        IntStream stream = docs.build();
         if (rootDocsBySlot != null) {
             stream = stream.map(docId -> Arrays.binarySearch(rootDocsBySlot, docId));
         }
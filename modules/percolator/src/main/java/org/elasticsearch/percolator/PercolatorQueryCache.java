@@ -0,0 +1,232 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.CheckedFunction;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.cache.RemovalNotification;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.query.QueryBuilder;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the stored queries of percolator fields in their deserialized form, per segment, so that candidate matches don't have
+ * to read and parse their query again every time a document is percolated. The cache is shared by all percolator fields of the
+ * node, is bounded by an estimate of the heap that the cached queries take and drops the queries of a segment when the segment
+ * is closed. Also keeps track of how many candidate matches were verified against the percolated documents.
+ */
+final class PercolatorQueryCache {
+
+    /**
+     * The maximum estimated heap that the cached stored queries may take. Defaults to <code>0</code>, which disables the cache, so
+     * that nodes only spend heap on it when it is explicitly configured.
+     */
+    static final Setting<ByteSizeValue> CACHE_SIZE_SETTING =
+        Setting.memorySizeSetting("percolator.query_cache.size", "0b", Property.NodeScope);
+
+    // rough per entry overhead of the cache, the key and the key's entry in the keys of its segment
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+    // deserialized query builders take roughly this many times the size of their serialized form on the heap,
+    // mostly because strings are stored as UTF-16 and every query and value is its own object
+    private static final long SERIALIZED_BYTES_FACTOR = 4;
+
+    private final Cache<CacheKey, CachedQuery> cache;
+    // the keys that are cached per segment, so that closing a segment doesn't have to go over the keys of all segments
+    private final ConcurrentMap<IndexReader.CacheKey, Set<CacheKey>> segments = new ConcurrentHashMap<>();
+
+    private final CounterMetric verifications = new CounterMetric();
+    private final CounterMetric verificationTimeInNanos = new CounterMetric();
+    private final CounterMetric verifiedMatches = new CounterMetric();
+    private final CounterMetric skippedVerifications = new CounterMetric();
+
+    PercolatorQueryCache(Settings settings) {
+        this(CACHE_SIZE_SETTING.get(settings).getBytes());
+    }
+
+    /**
+     * @param maxSizeInBytes the maximum estimated heap that the cached queries may take, <code>0</code> disables the cache
+     */
+    PercolatorQueryCache(long maxSizeInBytes) {
+        if (maxSizeInBytes > 0) {
+            this.cache = CacheBuilder.<CacheKey, CachedQuery>builder()
+                .setMaximumWeight(maxSizeInBytes)
+                .weigher((key, query) -> ENTRY_OVERHEAD_BYTES + query.ramBytesUsed)
+                .removalListener(this::onRemoval)
+                .build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Returns the query that is stored for a document in a percolator field, deserializing it if it isn't cached yet.
+     * @param reader the segment that holds the document
+     * @param field the name of the field that holds the serialized query
+     * @param serializedQueries reads the serialized query of a document, returns <code>null</code> if the document has no query
+     * @param parser deserializes a serialized query
+     */
+    QueryBuilder getQuery(LeafReader reader, String field, int docId,
+                          CheckedFunction<Integer, BytesRef, IOException> serializedQueries,
+                          CheckedFunction<BytesRef, QueryBuilder, IOException> parser) throws IOException {
+        IndexReader.CacheHelper cacheHelper = cache == null ? null : reader.getCoreCacheHelper();
+        if (cacheHelper == null) {
+            BytesRef serializedQuery = serializedQueries.apply(docId);
+            return serializedQuery == null ? null : parser.apply(serializedQuery);
+        }
+        IndexReader.CacheKey segment = cacheHelper.getKey();
+        CacheKey key = new CacheKey(segment, field, docId);
+        CachedQuery cached = cache.get(key);
+        if (cached != null) {
+            return cached.queryBuilder;
+        }
+        // the closed listener is registered before the query is loaded so that a segment that is closed in the meantime is noticed
+        Set<CacheKey> segmentKeys = segmentKeys(cacheHelper);
+        BytesRef serializedQuery = serializedQueries.apply(docId);
+        if (serializedQuery == null) {
+            return null;
+        }
+        QueryBuilder queryBuilder = parser.apply(serializedQuery);
+        segmentKeys.add(key);
+        cache.put(key, new CachedQuery(queryBuilder, serializedQuery.length * SERIALIZED_BYTES_FACTOR));
+        if (segments.get(segment) != segmentKeys) {
+            // the segment was closed while its query was loaded, so its closed listener may have missed the entry
+            cache.invalidate(key);
+        }
+        return queryBuilder;
+    }
+
+    private Set<CacheKey> segmentKeys(IndexReader.CacheHelper cacheHelper) {
+        Set<CacheKey> keys = segments.get(cacheHelper.getKey());
+        if (keys == null) {
+            Set<CacheKey> newKeys = ConcurrentHashMap.newKeySet();
+            keys = segments.putIfAbsent(cacheHelper.getKey(), newKeys);
+            if (keys == null) {
+                keys = newKeys;
+                cacheHelper.addClosedListener(this::onClose);
+            }
+        }
+        return keys;
+    }
+
+    private void onClose(IndexReader.CacheKey segment) {
+        Set<CacheKey> keys = segments.remove(segment);
+        if (keys != null) {
+            for (CacheKey key : keys) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    private void onRemoval(RemovalNotification<CacheKey, CachedQuery> notification) {
+        if (notification.getRemovalReason() == RemovalNotification.RemovalReason.EVICTED) {
+            Set<CacheKey> keys = segments.get(notification.getKey().segment);
+            if (keys != null) {
+                keys.remove(notification.getKey());
+            }
+        }
+    }
+
+    /**
+     * Counts that a candidate match was verified by running its query against the percolated documents.
+     */
+    void onVerification(long tookInNanos, boolean matched) {
+        verifications.inc();
+        verificationTimeInNanos.inc(tookInNanos);
+        if (matched) {
+            verifiedMatches.inc();
+        }
+    }
+
+    /**
+     * Counts that a candidate match didn't need to be verified because its query was known to match from the extracted terms.
+     */
+    void onSkippedVerification() {
+        skippedVerifications.inc();
+    }
+
+    PercolatorStats stats() {
+        long hits = 0, misses = 0, evictions = 0, memorySizeInBytes = 0, count = 0;
+        if (cache != null) {
+            Cache.CacheStats cacheStats = cache.stats();
+            hits = cacheStats.getHits();
+            misses = cacheStats.getMisses();
+            evictions = cacheStats.getEvictions();
+            memorySizeInBytes = cache.weight();
+            count = cache.count();
+        }
+        return new PercolatorStats(verifications.count(), TimeUnit.NANOSECONDS.toMillis(verificationTimeInNanos.count()),
+            verifiedMatches.count(), skippedVerifications.count(), count, memorySizeInBytes, hits, misses, evictions);
+    }
+
+    private static final class CachedQuery {
+
+        private final QueryBuilder queryBuilder;
+        private final long ramBytesUsed;
+
+        CachedQuery(QueryBuilder queryBuilder, long ramBytesUsed) {
+            this.queryBuilder = queryBuilder;
+            this.ramBytesUsed = ramBytesUsed;
+        }
+    }
+
+    private static final class CacheKey {
+
+        private final IndexReader.CacheKey segment;
+        private final String field;
+        private final int docId;
+
+        CacheKey(IndexReader.CacheKey segment, String field, int docId) {
+            this.segment = segment;
+            this.field = field;
+            this.docId = docId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey) o;
+            return docId == cacheKey.docId && segment == cacheKey.segment && field.equals(cacheKey.field);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(segment, field, docId);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.ToXContentFragment;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Statistics of the percolator of a node: how many candidate matches were verified against the percolated documents and how
+ * long that took, and how well the cache of deserialized stored queries works.
+ */
+public class PercolatorStats implements Writeable, ToXContentFragment {
+
+    private final long verifications;
+    private final long verificationTimeInMillis;
+    private final long verifiedMatches;
+    private final long skippedVerifications;
+    private final long cacheCount;
+    private final long cacheMemorySizeInBytes;
+    private final long cacheHits;
+    private final long cacheMisses;
+    private final long cacheEvictions;
+
+    public PercolatorStats(long verifications, long verificationTimeInMillis, long verifiedMatches, long skippedVerifications,
+                           long cacheCount, long cacheMemorySizeInBytes, long cacheHits, long cacheMisses, long cacheEvictions) {
+        this.verifications = verifications;
+        this.verificationTimeInMillis = verificationTimeInMillis;
+        this.verifiedMatches = verifiedMatches;
+        this.skippedVerifications = skippedVerifications;
+        this.cacheCount = cacheCount;
+        this.cacheMemorySizeInBytes = cacheMemorySizeInBytes;
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+        this.cacheEvictions = cacheEvictions;
+    }
+
+    public PercolatorStats(StreamInput in) throws IOException {
+        verifications = in.readVLong();
+        verificationTimeInMillis = in.readVLong();
+        verifiedMatches = in.readVLong();
+        skippedVerifications = in.readVLong();
+        cacheCount = in.readVLong();
+        cacheMemorySizeInBytes = in.readVLong();
+        cacheHits = in.readVLong();
+        cacheMisses = in.readVLong();
+        cacheEvictions = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVLong(verifications);
+        out.writeVLong(verificationTimeInMillis);
+        out.writeVLong(verifiedMatches);
+        out.writeVLong(skippedVerifications);
+        out.writeVLong(cacheCount);
+        out.writeVLong(cacheMemorySizeInBytes);
+        out.writeVLong(cacheHits);
+        out.writeVLong(cacheMisses);
+        out.writeVLong(cacheEvictions);
+    }
+
+    /**
+     * @return how many candidate matches were verified by running their query against the percolated documents
+     */
+    public long getVerifications() {
+        return verifications;
+    }
+
+    public long getVerificationTimeInMillis() {
+        return verificationTimeInMillis;
+    }
+
+    /**
+     * @return how many of the {@link #getVerifications() verified} candidate matches matched the percolated documents
+     */
+    public long getVerifiedMatches() {
+        return verifiedMatches;
+    }
+
+    /**
+     * @return how many candidate matches didn't need to be verified because all terms of their query were extracted
+     */
+    public long getSkippedVerifications() {
+        return skippedVerifications;
+    }
+
+    public long getCacheCount() {
+        return cacheCount;
+    }
+
+    public long getCacheMemorySizeInBytes() {
+        return cacheMemorySizeInBytes;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public long getCacheEvictions() {
+        return cacheEvictions;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(Fields.PERCOLATOR);
+        builder.field(Fields.VERIFICATIONS, verifications);
+        builder.humanReadableField(Fields.VERIFICATION_TIME_IN_MILLIS, Fields.VERIFICATION_TIME,
+            new TimeValue(verificationTimeInMillis));
+        builder.field(Fields.VERIFIED_MATCHES, verifiedMatches);
+        builder.field(Fields.SKIPPED_VERIFICATIONS, skippedVerifications);
+        builder.startObject(Fields.QUERY_CACHE);
+        builder.field(Fields.COUNT, cacheCount);
+        builder.humanReadableField(Fields.MEMORY_SIZE_IN_BYTES, Fields.MEMORY_SIZE, new ByteSizeValue(cacheMemorySizeInBytes));
+        builder.field(Fields.HITS, cacheHits);
+        builder.field(Fields.MISSES, cacheMisses);
+        builder.field(Fields.EVICTIONS, cacheEvictions);
+        builder.endObject();
+        builder.endObject();
+        return builder;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PercolatorStats that = (PercolatorStats) o;
+        return verifications == that.verifications &&
+            verificationTimeInMillis == that.verificationTimeInMillis &&
+            verifiedMatches == that.verifiedMatches &&
+            skippedVerifications == that.skippedVerifications &&
+            cacheCount == that.cacheCount &&
+            cacheMemorySizeInBytes == that.cacheMemorySizeInBytes &&
+            cacheHits == that.cacheHits &&
+            cacheMisses == that.cacheMisses &&
+            cacheEvictions == that.cacheEvictions;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(verifications, verificationTimeInMillis, verifiedMatches, skippedVerifications, cacheCount,
+            cacheMemorySizeInBytes, cacheHits, cacheMisses, cacheEvictions);
+    }
+
+    static final class Fields {
+        static final String PERCOLATOR = "percolator";
+        static final String VERIFICATIONS = "verifications";
+        static final String VERIFICATION_TIME = "verification_time";
+        static final String VERIFICATION_TIME_IN_MILLIS = "verification_time_in_millis";
+        static final String VERIFIED_MATCHES = "verified_matches";
+        static final String SKIPPED_VERIFICATIONS = "skipped_verifications";
+        static final String QUERY_CACHE = "query_cache";
+        static final String COUNT = "count";
+        static final String MEMORY_SIZE = "memory_size";
+        static final String MEMORY_SIZE_IN_BYTES = "memory_size_in_bytes";
+        static final String HITS = "hits";
+        static final String MISSES = "misses";
+        static final String EVICTIONS = "evictions";
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.FailedNodeException;
+import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.nodes.BaseNodeRequest;
+import org.elasticsearch.action.support.nodes.BaseNodeResponse;
+import org.elasticsearch.action.support.nodes.BaseNodesRequest;
+import org.elasticsearch.action.support.nodes.BaseNodesResponse;
+import org.elasticsearch.action.support.nodes.NodesOperationRequestBuilder;
+import org.elasticsearch.action.support.nodes.TransportNodesAction;
+import org.elasticsearch.client.ElasticsearchClient;
+import org.elasticsearch.client.node.NodeClient;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.ToXContentFragment;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.rest.BaseRestHandler;
+import org.elasticsearch.rest.RestController;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.action.RestActions;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.elasticsearch.rest.RestRequest.Method.GET;
+
+/**
+ * Returns the {@link PercolatorStats} of the nodes.
+ */
+public class PercolatorStatsAction extends Action<PercolatorStatsAction.Request, PercolatorStatsAction.Response,
+    PercolatorStatsAction.RequestBuilder> {
+
+    static final PercolatorStatsAction INSTANCE = new PercolatorStatsAction();
+    private static final String NAME = "cluster:monitor/percolator/stats";
+
+    private PercolatorStatsAction() {
+        super(NAME);
+    }
+
+    @Override
+    public RequestBuilder newRequestBuilder(ElasticsearchClient client) {
+        return new RequestBuilder(client);
+    }
+
+    @Override
+    public Response newResponse() {
+        return new Response();
+    }
+
+    public static class Request extends BaseNodesRequest<Request> {
+
+        public Request(String... nodesIds) {
+            super(nodesIds);
+        }
+    }
+
+    public static class RequestBuilder extends NodesOperationRequestBuilder<Request, Response, RequestBuilder> {
+
+        RequestBuilder(ElasticsearchClient client) {
+            super(client, INSTANCE, new Request());
+        }
+    }
+
+    public static class NodeRequest extends BaseNodeRequest {
+
+        public NodeRequest() {
+        }
+
+        NodeRequest(String nodeId) {
+            super(nodeId);
+        }
+    }
+
+    public static class NodeResponse extends BaseNodeResponse implements ToXContentFragment {
+
+        private PercolatorStats stats;
+
+        NodeResponse() {
+        }
+
+        NodeResponse(DiscoveryNode node, PercolatorStats stats) {
+            super(node);
+            this.stats = stats;
+        }
+
+        public PercolatorStats getStats() {
+            return stats;
+        }
+
+        static NodeResponse readNodeResponse(StreamInput in) throws IOException {
+            NodeResponse response = new NodeResponse();
+            response.readFrom(in);
+            return response;
+        }
+
+        @Override
+        public void readFrom(StreamInput in) throws IOException {
+            super.readFrom(in);
+            stats = new PercolatorStats(in);
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            super.writeTo(out);
+            stats.writeTo(out);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.field("name", getNode().getName());
+            return stats.toXContent(builder, params);
+        }
+    }
+
+    public static class Response extends BaseNodesResponse<NodeResponse> implements ToXContentFragment {
+
+        Response() {
+        }
+
+        Response(ClusterName clusterName, List<NodeResponse> nodes, List<FailedNodeException> failures) {
+            super(clusterName, nodes, failures);
+        }
+
+        @Override
+        protected List<NodeResponse> readNodesFrom(StreamInput in) throws IOException {
+            return in.readList(NodeResponse::readNodeResponse);
+        }
+
+        @Override
+        protected void writeNodesTo(StreamOutput out, List<NodeResponse> nodes) throws IOException {
+            out.writeStreamableList(nodes);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject("nodes");
+            for (NodeResponse node : getNodes()) {
+                builder.startObject(node.getNode().getId());
+                node.toXContent(builder, params);
+                builder.endObject();
+            }
+            builder.endObject();
+            return builder;
+        }
+    }
+
+    public static class TransportAction extends TransportNodesAction<Request, Response, NodeRequest, NodeResponse> {
+
+        private final PercolatorQueryCache queryCache;
+
+        @Inject
+        public TransportAction(Settings settings, ThreadPool threadPool, ClusterService clusterService,
+                               TransportService transportService, ActionFilters actionFilters,
+                               IndexNameExpressionResolver indexNameExpressionResolver, PercolatorQueryCache queryCache) {
+            super(settings, NAME, threadPool, clusterService, transportService, actionFilters, indexNameExpressionResolver,
+                Request::new, NodeRequest::new, ThreadPool.Names.MANAGEMENT, NodeResponse.class);
+            this.queryCache = queryCache;
+        }
+
+        @Override
+        protected Response newResponse(Request request, List<NodeResponse> responses, List<FailedNodeException> failures) {
+            return new Response(clusterService.getClusterName(), responses, failures);
+        }
+
+        @Override
+        protected NodeRequest newNodeRequest(String nodeId, Request request) {
+            return new NodeRequest(nodeId);
+        }
+
+        @Override
+        protected NodeResponse newNodeResponse() {
+            return new NodeResponse();
+        }
+
+        @Override
+        protected NodeResponse nodeOperation(NodeRequest request) {
+            return new NodeResponse(clusterService.localNode(), queryCache.stats());
+        }
+    }
+
+    static class RestAction extends BaseRestHandler {
+
+        RestAction(Settings settings, RestController controller) {
+            super(settings);
+            controller.registerHandler(GET, "/_percolator/stats", this);
+            controller.registerHandler(GET, "/_percolator/stats/{node_id}", this);
+        }
+
+        @Override
+        public String getName() {
+            return "percolator_stats_action";
+        }
+
+        @Override
+        protected RestChannelConsumer prepareRequest(RestRequest restRequest, NodeClient client) throws IOException {
+            Request request = new Request(Strings.splitStringByCommaToArray(restRequest.param("node_id")));
+            request.timeout(restRequest.param("timeout"));
+            return channel -> client.executeLocally(INSTANCE, request, new RestActions.NodesResponseRestListener<>(channel));
+        }
+
+        @Override
+        public boolean canTripCircuitBreaker() {
+            return false;
+        }
+    }
+}
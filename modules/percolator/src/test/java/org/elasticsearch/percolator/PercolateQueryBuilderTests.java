@@ -281,14 +281,11 @@ public class PercolateQueryBuilderTests extends AbstractQueryTestCase<PercolateQ
         Analyzer analyzer = new WhitespaceAnalyzer();
         IndexSearcher indexSearcher = PercolateQueryBuilder.createMultiDocumentSearcher(analyzer, docs);
         assertThat(indexSearcher.getIndexReader().numDocs(), equalTo(numDocs));
+        assertThat(indexSearcher.getIndexReader().leaves().size(), equalTo(1));
 
-        // ensure that any query get modified so that the nested docs are never included as hits:
+        // without nested docs queries don't need to be modified:
         Query query = new MatchAllDocsQuery();
-        BooleanQuery result = (BooleanQuery) indexSearcher.createNormalizedWeight(query, true).getQuery();
-        assertThat(result.clauses().size(), equalTo(2));
-        assertThat(result.clauses().get(0).getQuery(), sameInstance(query));
-        assertThat(result.clauses().get(0).getOccur(), equalTo(BooleanClause.Occur.MUST));
-        assertThat(result.clauses().get(1).getOccur(), equalTo(BooleanClause.Occur.MUST_NOT));
+        assertThat(indexSearcher.createNormalizedWeight(query, true).getQuery(), sameInstance(query));
     }
 
     public void testSerializationBwc() throws IOException {
@@ -452,10 +452,59 @@ public class PercolatorFieldMapperTests extends ESSingleNodeTestCase {
         assertEquals(50D, DoublePoint.decodeDimension(range.get(0), 0), 0D);
         assertEquals(50D, DoublePoint.decodeDimension(range.get(1), 0), 0D);
 
+        // multiple values are extracted as a range per distinct value
         range = rangesMap.get("number_field7");
         assertNotNull(range);
+        assertEquals(6, range.size());
         assertEquals(InetAddresses.forString("192.168.1.12"), InetAddressPoint.decode(range.get(0)));
-        assertEquals(InetAddresses.forString("192.168.1.24"), InetAddressPoint.decode(range.get(1)));
+        assertEquals(InetAddresses.forString("192.168.1.12"), InetAddressPoint.decode(range.get(1)));
+        assertEquals(InetAddresses.forString("192.168.1.20"), InetAddressPoint.decode(range.get(2)));
+        assertEquals(InetAddresses.forString("192.168.1.20"), InetAddressPoint.decode(range.get(3)));
+        assertEquals(InetAddresses.forString("192.168.1.24"), InetAddressPoint.decode(range.get(4)));
+        assertEquals(InetAddresses.forString("192.168.1.24"), InetAddressPoint.decode(range.get(5)));
+    }
+
+    public void testExtractTermsAndRanges_manyNumberValues() throws Exception {
+        addQueryFieldMappings();
+
+        MemoryIndex memoryIndex = new MemoryIndex(false);
+        int numValues = PercolatorFieldMapper.MAX_DISTINCT_POINT_VALUES + randomIntBetween(1, 8);
+        for (int i = 0; i < numValues; i++) {
+            memoryIndex.addField(new LongPoint("number_field2", 10L + i), new WhitespaceAnalyzer());
+            // duplicated values count once
+            memoryIndex.addField(new IntPoint("number_field1", i % PercolatorFieldMapper.MAX_DISTINCT_POINT_VALUES),
+                new WhitespaceAnalyzer());
+        }
+        IndexReader indexReader = memoryIndex.createSearcher().getIndexReader();
+
+        Map<String, List<byte[]>> rangesMap = fieldType.extractTermsAndRanges(indexReader).v2();
+        // too many distinct values to match them one by one, so the range between the smallest and the largest value is used
+        List<byte[]> range = rangesMap.get("number_field2");
+        assertEquals(2, range.size());
+        assertEquals(10L, LongPoint.decodeDimension(range.get(0), 0));
+        assertEquals(10L + numValues - 1, LongPoint.decodeDimension(range.get(1), 0));
+
+        range = rangesMap.get("number_field1");
+        assertEquals(PercolatorFieldMapper.MAX_DISTINCT_POINT_VALUES * 2, range.size());
+        for (int i = 0; i < PercolatorFieldMapper.MAX_DISTINCT_POINT_VALUES; i++) {
+            assertEquals(i, IntPoint.decodeDimension(range.get(i * 2), 0));
+            assertEquals(i, IntPoint.decodeDimension(range.get(i * 2 + 1), 0));
+        }
+
+        // an index created before 6.1.0 doesn't use a CoveringQuery, which makes it possible to check the range clauses
+        Tuple<BooleanQuery, Boolean> t = fieldType.createCandidateQuery(indexReader, Version.V_6_0_0);
+        assertEquals(4, t.v1().clauses().size());
+        int distinctValuesQueries = 0;
+        for (int i = 1; i < 3; i++) {
+            Query query = t.v1().clauses().get(i).getQuery();
+            if (query instanceof BooleanQuery) {
+                distinctValuesQueries++;
+                assertEquals(PercolatorFieldMapper.MAX_DISTINCT_POINT_VALUES, ((BooleanQuery) query).clauses().size());
+            } else {
+                assertThat(query.toString(), containsString(fieldName + ".range_field:<ranges:"));
+            }
+        }
+        assertEquals(1, distinctValuesQueries);
     }
 
     public void testPercolatorFieldMapper() throws Exception {
@@ -20,6 +20,8 @@ package org.elasticsearch.percolator;
 
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.RandomIndexWriter;
 import org.apache.lucene.index.Term;
@@ -27,16 +29,17 @@ import org.apache.lucene.index.memory.MemoryIndex;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
-import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TermQuery;
-import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.FixedBitSet;
+import org.elasticsearch.index.mapper.ParseContext;
+import org.elasticsearch.index.mapper.ParsedDocument;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.test.ESTestCase;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.stream.IntStream;
+import java.util.List;
 
 public class PercolatorMatchedSlotSubFetchPhaseTests extends ESTestCase {
 
@@ -94,30 +97,67 @@ public class PercolatorMatchedSlotSubFetchPhaseTests extends ESTestCase {
         }
     }
 
-    public void testConvertTopDocsToSlots() {
-        ScoreDoc[] scoreDocs = new ScoreDoc[randomInt(128)];
-        for (int i = 0; i < scoreDocs.length; i++) {
-            scoreDocs[i] = new ScoreDoc(i, 1f);
+    public void testHitsExecuteMultipleDocuments() throws Exception {
+        try (Directory directory = newDirectory()) {
+            try (RandomIndexWriter indexWriter = new RandomIndexWriter(random(), directory)) {
+                indexWriter.addDocument(new Document());
+            }
+
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher indexSearcher = new IndexSearcher(reader);
+                int numDocs = randomIntBetween(2, 256);
+                List<ParsedDocument> docs = new ArrayList<>(numDocs);
+                List<Integer> expectedSlots = new ArrayList<>();
+                for (int i = 0; i < numDocs; i++) {
+                    ParseContext.Document document = new ParseContext.Document();
+                    boolean matches = randomBoolean();
+                    if (matches) {
+                        expectedSlots.add(i);
+                    }
+                    document.add(new StringField("field", matches ? "value" : "other", Field.Store.NO));
+                    docs.add(new ParsedDocument(null, null, "_id", "_type", null, Collections.singletonList(document), null, null, null));
+                }
+                IndexSearcher percolatorIndexSearcher = PercolateQueryBuilder.createMultiDocumentSearcher(new WhitespaceAnalyzer(), docs);
+
+                SearchHit[] hits = new SearchHit[]{new SearchHit(0)};
+                PercolateQuery.QueryStore queryStore = ctx -> docId -> new TermQuery(new Term("field", "value"));
+                PercolateQuery percolateQuery = new PercolateQuery("_name", queryStore, Collections.emptyList(),
+                    new MatchAllDocsQuery(), percolatorIndexSearcher, new MatchNoDocsQuery());
+
+                PercolatorMatchedSlotSubFetchPhase.innerHitsExecute(percolateQuery, indexSearcher, hits);
+                if (expectedSlots.isEmpty()) {
+                    assertNull(hits[0].field(PercolatorMatchedSlotSubFetchPhase.FIELD_NAME_PREFIX));
+                } else {
+                    assertEquals(expectedSlots, hits[0].field(PercolatorMatchedSlotSubFetchPhase.FIELD_NAME_PREFIX).getValues());
+                }
+            }
         }
+    }
 
-        TopDocs topDocs = new TopDocs(scoreDocs.length, scoreDocs, 1f);
-        IntStream stream = PercolatorMatchedSlotSubFetchPhase.convertTopDocsToSlots(topDocs, null);
+    public void testConvertMatchingDocsToSlots() {
+        FixedBitSet matchingDocs = new FixedBitSet(randomIntBetween(1, 128));
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < matchingDocs.length(); i++) {
+            if (randomBoolean()) {
+                matchingDocs.set(i);
+                expected.add(i);
+            }
+        }
 
-        int[] result = stream.toArray();
-        assertEquals(scoreDocs.length, result.length);
-        for (int i = 0; i < scoreDocs.length; i++) {
-            assertEquals(scoreDocs[i].doc, result[i]);
+        int[] result = PercolatorMatchedSlotSubFetchPhase.convertMatchingDocsToSlots(matchingDocs, null).toArray();
+        assertEquals(expected.size(), result.length);
+        for (int i = 0; i < result.length; i++) {
+            assertEquals((int) expected.get(i), result[i]);
         }
     }
 
-    public void testConvertTopDocsToSlots_nestedDocs() {
-        ScoreDoc[] scoreDocs = new ScoreDoc[5];
-        scoreDocs[0] = new ScoreDoc(2, 1f);
-        scoreDocs[1] = new ScoreDoc(5, 1f);
-        scoreDocs[2] = new ScoreDoc(8, 1f);
-        scoreDocs[3] = new ScoreDoc(11, 1f);
-        scoreDocs[4] = new ScoreDoc(14, 1f);
-        TopDocs topDocs = new TopDocs(scoreDocs.length, scoreDocs, 1f);
+    public void testConvertMatchingDocsToSlots_nestedDocs() {
+        FixedBitSet matchingDocs = new FixedBitSet(15);
+        matchingDocs.set(2);
+        matchingDocs.set(5);
+        matchingDocs.set(8);
+        matchingDocs.set(11);
+        matchingDocs.set(14);
 
         FixedBitSet bitSet = new FixedBitSet(15);
         bitSet.set(2);
@@ -127,8 +167,8 @@ public class PercolatorMatchedSlotSubFetchPhaseTests extends ESTestCase {
         bitSet.set(14);
 
         int[] rootDocsBySlot = PercolatorMatchedSlotSubFetchPhase.buildRootDocsSlots(bitSet);
-        int[] result = PercolatorMatchedSlotSubFetchPhase.convertTopDocsToSlots(topDocs, rootDocsBySlot).toArray();
-        assertEquals(scoreDocs.length, result.length);
+        int[] result = PercolatorMatchedSlotSubFetchPhase.convertMatchingDocsToSlots(matchingDocs, rootDocsBySlot).toArray();
+        assertEquals(5, result.length);
         assertEquals(0, result[0]);
         assertEquals(1, result[1]);
         assertEquals(2, result[2]);
@@ -0,0 +1,49 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.test.AbstractWireSerializingTestCase;
+
+public class PercolatorStatsTests extends AbstractWireSerializingTestCase<PercolatorStats> {
+
+    @Override
+    protected PercolatorStats createTestInstance() {
+        return new PercolatorStats(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(),
+            randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong());
+    }
+
+    @Override
+    protected Writeable.Reader<PercolatorStats> instanceReader() {
+        return PercolatorStats::new;
+    }
+
+    public void testVerificationStats() {
+        PercolatorQueryCache queryCache = new PercolatorQueryCache(0);
+        queryCache.onVerification(2_000_000, true);
+        queryCache.onVerification(3_000_000, false);
+        queryCache.onSkippedVerification();
+        PercolatorStats stats = queryCache.stats();
+        assertEquals(2, stats.getVerifications());
+        assertEquals(5, stats.getVerificationTimeInMillis());
+        assertEquals(1, stats.getVerifiedMatches());
+        assertEquals(1, stats.getSkippedVerifications());
+    }
+}
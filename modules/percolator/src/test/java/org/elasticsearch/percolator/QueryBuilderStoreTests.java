@@ -23,11 +23,13 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.Version;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.common.CheckedFunction;
@@ -48,6 +50,8 @@ import org.elasticsearch.test.ESTestCase;
 import java.io.IOException;
 import java.util.Collections;
 
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -108,4 +112,144 @@ public class QueryBuilderStoreTests extends ESTestCase {
         }
     }
 
+    public void testCachingQueryBuilders() throws IOException {
+        try (Directory directory = newDirectory()) {
+            TermQueryBuilder[] queryBuilders = new TermQueryBuilder[randomIntBetween(1, 16)];
+            IndexWriterConfig config = new IndexWriterConfig(new WhitespaceAnalyzer());
+            config.setMergePolicy(NoMergePolicy.INSTANCE);
+            Settings settings = Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT).build();
+            BinaryFieldMapper fieldMapper = PercolatorFieldMapper.Builder.createQueryBuilderFieldBuilder(
+                new Mapper.BuilderContext(settings, new ContentPath(0)));
+
+            try (IndexWriter indexWriter = new IndexWriter(directory, config)) {
+                for (int i = 0; i < queryBuilders.length; i++) {
+                    queryBuilders[i] = new TermQueryBuilder(randomAlphaOfLength(4), randomAlphaOfLength(8));
+                    ParseContext parseContext = mock(ParseContext.class);
+                    ParseContext.Document document = new ParseContext.Document();
+                    when(parseContext.doc()).thenReturn(document);
+                    PercolatorFieldMapper.createQueryBuilderField(Version.CURRENT, fieldMapper, queryBuilders[i], parseContext);
+                    indexWriter.addDocument(document);
+                }
+            }
+
+            QueryShardContext queryShardContext = mock(QueryShardContext.class);
+            when(queryShardContext.indexVersionCreated()).thenReturn(Version.CURRENT);
+            when(queryShardContext.getWriteableRegistry()).thenReturn(writableRegistry());
+            when(queryShardContext.getXContentRegistry()).thenReturn(xContentRegistry());
+            when(queryShardContext.getForField(fieldMapper.fieldType()))
+                .thenReturn(new BytesBinaryDVIndexFieldData(new Index("index", "uuid"), fieldMapper.name()));
+            PercolatorQueryCache queryCache = new PercolatorQueryCache(1024 * 1024);
+            PercolateQuery.QueryStore queryStore =
+                PercolateQueryBuilder.createStore(fieldMapper.fieldType(), queryShardContext, false, queryCache);
+
+            try (IndexReader indexReader = DirectoryReader.open(directory)) {
+                LeafReaderContext leafContext = indexReader.leaves().get(0);
+                for (int round = 0; round < 2; round++) {
+                    CheckedFunction<Integer, Query, IOException> queries = queryStore.getQueries(leafContext);
+                    for (int i = 0; i < queryBuilders.length; i++) {
+                        TermQuery query = (TermQuery) queries.apply(i);
+                        assertEquals(queryBuilders[i].fieldName(), query.getTerm().field());
+                        assertEquals(queryBuilders[i].value(), query.getTerm().text());
+                    }
+                }
+                PercolatorStats stats = queryCache.stats();
+                assertEquals(queryBuilders.length, stats.getCacheCount());
+                assertEquals(queryBuilders.length, stats.getCacheHits());
+                assertEquals(queryBuilders.length, stats.getCacheMisses());
+                assertThat(stats.getCacheMemorySizeInBytes(), greaterThan(0L));
+            }
+            // the queries of a segment are dropped when the segment is closed
+            assertEquals(0, queryCache.stats().getCacheCount());
+            assertEquals(0, queryCache.stats().getCacheMemorySizeInBytes());
+        }
+    }
+
+    public void testCacheIsBoundedByMemory() throws IOException {
+        try (Directory directory = newDirectory()) {
+            IndexWriterConfig config = new IndexWriterConfig(new WhitespaceAnalyzer());
+            Settings settings = Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT).build();
+            BinaryFieldMapper fieldMapper = PercolatorFieldMapper.Builder.createQueryBuilderFieldBuilder(
+                new Mapper.BuilderContext(settings, new ContentPath(0)));
+            int numQueries = randomIntBetween(32, 64);
+            try (IndexWriter indexWriter = new IndexWriter(directory, config)) {
+                for (int i = 0; i < numQueries; i++) {
+                    ParseContext parseContext = mock(ParseContext.class);
+                    ParseContext.Document document = new ParseContext.Document();
+                    when(parseContext.doc()).thenReturn(document);
+                    PercolatorFieldMapper.createQueryBuilderField(Version.CURRENT, fieldMapper,
+                        new TermQueryBuilder(randomAlphaOfLength(4), randomAlphaOfLength(8)), parseContext);
+                    indexWriter.addDocument(document);
+                }
+                indexWriter.forceMerge(1);
+            }
+
+            QueryShardContext queryShardContext = mock(QueryShardContext.class);
+            when(queryShardContext.indexVersionCreated()).thenReturn(Version.CURRENT);
+            when(queryShardContext.getWriteableRegistry()).thenReturn(writableRegistry());
+            when(queryShardContext.getXContentRegistry()).thenReturn(xContentRegistry());
+            when(queryShardContext.getForField(fieldMapper.fieldType()))
+                .thenReturn(new BytesBinaryDVIndexFieldData(new Index("index", "uuid"), fieldMapper.name()));
+            long maxSizeInBytes = 2048;
+            PercolatorQueryCache queryCache = new PercolatorQueryCache(maxSizeInBytes);
+            PercolateQuery.QueryStore queryStore =
+                PercolateQueryBuilder.createStore(fieldMapper.fieldType(), queryShardContext, false, queryCache);
+
+            try (IndexReader indexReader = DirectoryReader.open(directory)) {
+                CheckedFunction<Integer, Query, IOException> queries = queryStore.getQueries(indexReader.leaves().get(0));
+                for (int i = 0; i < numQueries; i++) {
+                    assertNotNull(queries.apply(i));
+                }
+                PercolatorStats stats = queryCache.stats();
+                assertThat(stats.getCacheMemorySizeInBytes(), lessThanOrEqualTo(maxSizeInBytes));
+                assertThat(stats.getCacheEvictions(), greaterThan(0L));
+                assertEquals(numQueries, stats.getCacheMisses());
+            }
+        }
+    }
+
+    public void testQueryOfSegmentClosedWhileLoadingIsNotCached() throws IOException {
+        PercolatorQueryCache queryCache = new PercolatorQueryCache(1024 * 1024);
+        TermQueryBuilder queryBuilder = new TermQueryBuilder("field", "value");
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig(new WhitespaceAnalyzer()))) {
+                indexWriter.addDocument(new ParseContext.Document());
+                indexWriter.addDocument(new ParseContext.Document());
+            }
+            IndexReader indexReader = DirectoryReader.open(directory);
+            LeafReader leafReader = indexReader.leaves().get(0).reader();
+            assertSame(queryBuilder, queryCache.getQuery(leafReader, "field", 0, docId -> new BytesRef("query"), bytes -> queryBuilder));
+            assertEquals(1, queryCache.stats().getCacheCount());
+            // the segment is closed after its closed listener was registered but before the query is put in the cache
+            assertSame(queryBuilder, queryCache.getQuery(leafReader, "field", 1, docId -> new BytesRef("query"), bytes -> {
+                indexReader.close();
+                return queryBuilder;
+            }));
+        }
+        assertEquals(0, queryCache.stats().getCacheCount());
+        assertEquals(0, queryCache.stats().getCacheMemorySizeInBytes());
+    }
+
+    public void testDisabledCache() throws IOException {
+        // the cache is disabled by default
+        PercolatorQueryCache queryCache = new PercolatorQueryCache(randomBoolean() ? Settings.EMPTY : Settings.builder()
+            .put(PercolatorQueryCache.CACHE_SIZE_SETTING.getKey(), "0b").build());
+        assertEquals(0, queryCache.stats().getCacheCount());
+        TermQueryBuilder queryBuilder = new TermQueryBuilder("field", "value");
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig(new WhitespaceAnalyzer()))) {
+                indexWriter.addDocument(new ParseContext.Document());
+            }
+            try (IndexReader indexReader = DirectoryReader.open(directory)) {
+                for (int i = 0; i < 2; i++) {
+                    assertSame(queryBuilder, queryCache.getQuery(indexReader.leaves().get(0).reader(), "field", 0,
+                        docId -> new BytesRef("query"), bytes -> queryBuilder));
+                }
+            }
+        }
+        PercolatorStats stats = queryCache.stats();
+        assertEquals(0, stats.getCacheCount());
+        assertEquals(0, stats.getCacheHits());
+        assertEquals(0, stats.getCacheMisses());
+    }
+
 }
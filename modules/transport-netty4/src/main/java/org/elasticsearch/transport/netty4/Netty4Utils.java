@@ -28,14 +28,13 @@ import io.netty.util.NettyRuntime;
 import io.netty.util.internal.logging.InternalLogger;
 import io.netty.util.internal.logging.InternalLoggerFactory;
 import org.apache.logging.log4j.Logger;
-import org.apache.lucene.util.BytesRef;
-import org.apache.lucene.util.BytesRefIterator;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.common.Booleans;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.logging.ESLoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -106,21 +105,25 @@ public class Netty4Utils {
         if (reference instanceof ByteBufBytesReference) {
             return ((ByteBufBytesReference) reference).toByteBuf();
         } else {
-            final BytesRefIterator iterator = reference.iterator();
-            // usually we have one, two, or three components from the header, the message, and a buffer
-            final List<ByteBuf> buffers = new ArrayList<>(3);
-            try {
-                BytesRef slice;
-                while ((slice = iterator.next()) != null) {
-                    buffers.add(Unpooled.wrappedBuffer(slice.bytes, slice.offset, slice.length));
-                }
-                final CompositeByteBuf composite = Unpooled.compositeBuffer(buffers.size());
-                composite.addComponents(true, buffers);
-                return composite;
-            } catch (IOException ex) {
-                throw new AssertionError("no IO happens here", ex);
-            }
+            // direct pages are wrapped as they are so that they can be written to the socket without being copied
+            return toByteBuf(BytesReference.toByteBuffers(reference));
+        }
+    }
+
+    /**
+     * Turns the given byte buffers into a composite ByteBuf that references them without copying.
+     */
+    public static ByteBuf toByteBuf(final ByteBuffer[] byteBuffers) {
+        if (byteBuffers.length == 0) {
+            return Unpooled.EMPTY_BUFFER;
+        }
+        final List<ByteBuf> buffers = new ArrayList<>(byteBuffers.length);
+        for (ByteBuffer byteBuffer : byteBuffers) {
+            buffers.add(Unpooled.wrappedBuffer(byteBuffer));
         }
+        final CompositeByteBuf composite = Unpooled.compositeBuffer(buffers.size());
+        composite.addComponents(true, buffers);
+        return composite;
     }
 
     /**
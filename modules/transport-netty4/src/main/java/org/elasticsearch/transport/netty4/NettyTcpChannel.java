@@ -19,6 +19,7 @@
 
 package org.elasticsearch.transport.netty4;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelOption;
@@ -32,6 +33,7 @@ import org.elasticsearch.transport.TcpChannel;
 import org.elasticsearch.transport.TransportException;
 
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.nio.channels.ClosedSelectorException;
 import java.util.concurrent.CompletableFuture;
 
@@ -107,7 +109,16 @@ public class NettyTcpChannel implements TcpChannel {
                 listener.onFailure((Exception) cause);
             }
         });
-        channel.writeAndFlush(Netty4Utils.toByteBuf(reference), writePromise);
+        final ByteBuf message;
+        if (reference instanceof ByteBufBytesReference) {
+            message = Netty4Utils.toByteBuf(reference);
+        } else {
+            // the heap buffers of the message are copied to direct memory by netty when it writes them to the socket
+            final ByteBuffer[] buffers = BytesReference.toByteBuffers(reference);
+            TcpChannel.onCopiedBytes(listener, buffers);
+            message = Netty4Utils.toByteBuf(buffers);
+        }
+        channel.writeAndFlush(message, writePromise);
 
         if (channel.eventLoop().isShutdown()) {
             listener.onFailure(new TransportException("Cannot send message, event loop is shutting down."));
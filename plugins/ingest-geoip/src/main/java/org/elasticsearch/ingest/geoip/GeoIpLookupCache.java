@@ -0,0 +1,140 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest.geoip;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Caches the geo data that was looked up for an ip address in a database, so that ip addresses that are seen again, which
+ * is the common case for access logs, don't have to walk the search tree of the database, decode its data and map the
+ * response again. The cache is bounded by an estimate of the heap that the cached geo data takes.
+ */
+final class GeoIpLookupCache {
+
+    // rough per entry overhead of the cache and of the key, which holds an ip address
+    private static final long ENTRY_OVERHEAD_BYTES = 160;
+    // rough overhead of a hash map entry and of a boxed number
+    private static final long MAP_ENTRY_BYTES = 48;
+    private static final long NUMBER_BYTES = 16;
+
+    private final Cache<CacheKey, Map<String, Object>> cache;
+
+    /**
+     * @param maxSizeInBytes the maximum estimated size of the cached geo data, <code>0</code> disables the cache
+     */
+    GeoIpLookupCache(long maxSizeInBytes) {
+        if (maxSizeInBytes > 0) {
+            this.cache = CacheBuilder.<CacheKey, Map<String, Object>>builder()
+                .setMaximumWeight(maxSizeInBytes)
+                .weigher((key, geoData) -> ENTRY_OVERHEAD_BYTES + ramBytesUsed(geoData))
+                .build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Returns the cached geo data of the ip address in the given database, looking it up and caching it if it isn't cached
+     * yet. The returned map must not be modified.
+     */
+    Map<String, Object> computeIfAbsent(InetAddress ip, String databaseFile, Function<InetAddress, Map<String, Object>> lookup) {
+        if (cache == null) {
+            return lookup.apply(ip);
+        }
+        try {
+            return cache.computeIfAbsent(new CacheKey(ip, databaseFile), key -> Collections.unmodifiableMap(lookup.apply(ip)));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ElasticsearchException(cause);
+        }
+    }
+
+    /**
+     * @return how many entries were evicted from the cache to make room for others
+     */
+    long getEvictions() {
+        return cache == null ? 0 : cache.stats().getEvictions();
+    }
+
+    /**
+     * @return the estimated size of the cached geo data
+     */
+    long getSizeInBytes() {
+        return cache == null ? 0 : cache.weight();
+    }
+
+    static long ramBytesUsed(Map<String, Object> geoData) {
+        long bytes = 0;
+        for (Map.Entry<String, Object> entry : geoData.entrySet()) {
+            bytes += MAP_ENTRY_BYTES + ramBytesUsed(entry.getKey()) + ramBytesUsed(entry.getValue());
+        }
+        return bytes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long ramBytesUsed(Object value) {
+        if (value instanceof String) {
+            return 40 + 2L * ((String) value).length();
+        } else if (value instanceof Map) {
+            return MAP_ENTRY_BYTES + ramBytesUsed((Map<String, Object>) value);
+        }
+        return NUMBER_BYTES;
+    }
+
+    private static final class CacheKey {
+
+        private final InetAddress ip;
+        private final String databaseFile;
+
+        CacheKey(InetAddress ip, String databaseFile) {
+            this.ip = ip;
+            this.databaseFile = databaseFile;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey) o;
+            return ip.equals(cacheKey.ip) && databaseFile.equals(cacheKey.databaseFile);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ip, databaseFile);
+        }
+    }
+}
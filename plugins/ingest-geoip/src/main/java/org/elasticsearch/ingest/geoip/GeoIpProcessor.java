@@ -31,6 +31,7 @@ import com.maxmind.geoip2.record.Location;
 import com.maxmind.geoip2.record.Subdivision;
 import org.elasticsearch.ElasticsearchParseException;
 import org.elasticsearch.SpecialPermission;
+import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.network.InetAddresses;
 import org.elasticsearch.common.network.NetworkAddress;
 import org.elasticsearch.ingest.AbstractProcessor;
@@ -44,6 +45,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -66,14 +68,25 @@ public final class GeoIpProcessor extends AbstractProcessor {
     private final DatabaseReader dbReader;
     private final Set<Property> properties;
     private final boolean ignoreMissing;
+    private final String databaseFile;
+    private final GeoIpLookupCache lookupCache;
+    private final CounterMetric lookups = new CounterMetric();
+    private final CounterMetric cacheMisses = new CounterMetric();
 
     GeoIpProcessor(String tag, String field, DatabaseReader dbReader, String targetField, Set<Property> properties, boolean ignoreMissing) {
+        this(tag, field, dbReader, targetField, properties, ignoreMissing, "", new GeoIpLookupCache(0));
+    }
+
+    GeoIpProcessor(String tag, String field, DatabaseReader dbReader, String targetField, Set<Property> properties, boolean ignoreMissing,
+                   String databaseFile, GeoIpLookupCache lookupCache) {
         super(tag);
         this.field = field;
         this.targetField = targetField;
         this.dbReader = dbReader;
         this.properties = properties;
         this.ignoreMissing = ignoreMissing;
+        this.databaseFile = databaseFile;
+        this.lookupCache = lookupCache;
     }
 
     boolean isIgnoreMissing() {
@@ -92,34 +105,44 @@ public final class GeoIpProcessor extends AbstractProcessor {
 
         final InetAddress ipAddress = InetAddresses.forString(ip);
 
-        Map<String, Object> geoData;
-        String databaseType = dbReader.getMetadata().getDatabaseType();
-
-        if (databaseType.endsWith(CITY_DB_SUFFIX)) {
-            try {
-                geoData = retrieveCityGeoData(ipAddress);
-            } catch (AddressNotFoundRuntimeException e) {
-                geoData = Collections.emptyMap();
-            }
-        } else if (databaseType.endsWith(COUNTRY_DB_SUFFIX)) {
-            try {
-                geoData = retrieveCountryGeoData(ipAddress);
-            } catch (AddressNotFoundRuntimeException e) {
-                geoData = Collections.emptyMap();
+        // all properties of an address are looked up and cached, so that processors that use other properties share them
+        lookups.inc();
+        Map<String, Object> allGeoData = lookupCache.computeIfAbsent(ipAddress, databaseFile, this::retrieveAllGeoData);
+        if (allGeoData.isEmpty() == false) {
+            Map<String, Object> geoData = new HashMap<>();
+            for (Property property : properties) {
+                Object value = allGeoData.get(property.fieldName());
+                if (value instanceof Map) {
+                    // documents may be modified further, so they must not share the cached location
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> location = (Map<String, Object>) value;
+                    geoData.put(property.fieldName(), new HashMap<>(location));
+                } else if (value != null) {
+                    geoData.put(property.fieldName(), value);
+                }
             }
-        } else if (databaseType.endsWith(ASN_DB_SUFFIX)) {
-            try {
-                geoData = retrieveAsnGeoData(ipAddress);
-            } catch (AddressNotFoundRuntimeException e) {
-                geoData = Collections.emptyMap();
+            if (geoData.isEmpty() == false) {
+                ingestDocument.setFieldValue(targetField, geoData);
             }
-        } else {
-            throw new ElasticsearchParseException("Unsupported database type [" + dbReader.getMetadata().getDatabaseType()
-                    + "]", new IllegalStateException());
         }
-        if (geoData.isEmpty() == false) {
-            ingestDocument.setFieldValue(targetField, geoData);
+    }
+
+    private Map<String, Object> retrieveAllGeoData(InetAddress ipAddress) {
+        cacheMisses.inc();
+        String databaseType = dbReader.getMetadata().getDatabaseType();
+        try {
+            if (databaseType.endsWith(CITY_DB_SUFFIX)) {
+                return retrieveCityGeoData(ipAddress, Property.ALL_CITY_PROPERTIES);
+            } else if (databaseType.endsWith(COUNTRY_DB_SUFFIX)) {
+                return retrieveCountryGeoData(ipAddress, Property.ALL_COUNTRY_PROPERTIES);
+            } else if (databaseType.endsWith(ASN_DB_SUFFIX)) {
+                return retrieveAsnGeoData(ipAddress, Property.ALL_ASN_PROPERTIES);
+            }
+        } catch (AddressNotFoundRuntimeException e) {
+            // addresses that aren't in the database are cached too, so that they aren't looked up again
+            return Collections.emptyMap();
         }
+        throw new ElasticsearchParseException("Unsupported database type [" + databaseType + "]", new IllegalStateException());
     }
 
     @Override
@@ -127,6 +150,20 @@ public final class GeoIpProcessor extends AbstractProcessor {
         return TYPE;
     }
 
+    /**
+     * @return how many lookups of this processor were served by the lookup cache and how many had to go to the database, and
+     * how many entries were evicted from the lookup cache, which is shared by all geoip processors of the node
+     */
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        long misses = cacheMisses.count();
+        counters.put("cache_hits", lookups.count() - misses);
+        counters.put("cache_misses", misses);
+        counters.put("cache_evictions", lookupCache.getEvictions());
+        return counters;
+    }
+
     String getField() {
         return field;
     }
@@ -143,7 +180,7 @@ public final class GeoIpProcessor extends AbstractProcessor {
         return properties;
     }
 
-    private Map<String, Object> retrieveCityGeoData(InetAddress ipAddress) {
+    private Map<String, Object> retrieveCityGeoData(InetAddress ipAddress, Set<Property> properties) {
         SpecialPermission.check();
         CityResponse response = AccessController.doPrivileged((PrivilegedAction<CityResponse>) () -> {
             try {
@@ -162,7 +199,7 @@ public final class GeoIpProcessor extends AbstractProcessor {
         Subdivision subdivision = response.getMostSpecificSubdivision();
 
         Map<String, Object> geoData = new HashMap<>();
-        for (Property property : this.properties) {
+        for (Property property : properties) {
             switch (property) {
                 case IP:
                     geoData.put("ip", NetworkAddress.format(ipAddress));
@@ -218,7 +255,7 @@ public final class GeoIpProcessor extends AbstractProcessor {
         return geoData;
     }
 
-    private Map<String, Object> retrieveCountryGeoData(InetAddress ipAddress) {
+    private Map<String, Object> retrieveCountryGeoData(InetAddress ipAddress, Set<Property> properties) {
         SpecialPermission.check();
         CountryResponse response = AccessController.doPrivileged((PrivilegedAction<CountryResponse>) () -> {
             try {
@@ -234,7 +271,7 @@ public final class GeoIpProcessor extends AbstractProcessor {
         Continent continent = response.getContinent();
 
         Map<String, Object> geoData = new HashMap<>();
-        for (Property property : this.properties) {
+        for (Property property : properties) {
             switch (property) {
                 case IP:
                     geoData.put("ip", NetworkAddress.format(ipAddress));
@@ -262,7 +299,7 @@ public final class GeoIpProcessor extends AbstractProcessor {
         return geoData;
     }
 
-    private Map<String, Object> retrieveAsnGeoData(InetAddress ipAddress) {
+    private Map<String, Object> retrieveAsnGeoData(InetAddress ipAddress, Set<Property> properties) {
         SpecialPermission.check();
         AsnResponse response = AccessController.doPrivileged((PrivilegedAction<AsnResponse>) () -> {
             try {
@@ -278,7 +315,7 @@ public final class GeoIpProcessor extends AbstractProcessor {
         String organization_name = response.getAutonomousSystemOrganization();
 
         Map<String, Object> geoData = new HashMap<>();
-        for (Property property : this.properties) {
+        for (Property property : properties) {
             switch (property) {
                 case IP:
                     geoData.put("ip", NetworkAddress.format(ipAddress));
@@ -311,9 +348,15 @@ public final class GeoIpProcessor extends AbstractProcessor {
         );
 
         private final Map<String, DatabaseReaderLazyLoader> databaseReaders;
+        private final GeoIpLookupCache lookupCache;
 
         public Factory(Map<String, DatabaseReaderLazyLoader> databaseReaders) {
+            this(databaseReaders, new GeoIpLookupCache(0));
+        }
+
+        Factory(Map<String, DatabaseReaderLazyLoader> databaseReaders, GeoIpLookupCache lookupCache) {
             this.databaseReaders = databaseReaders;
+            this.lookupCache = lookupCache;
         }
 
         @Override
@@ -357,7 +400,8 @@ public final class GeoIpProcessor extends AbstractProcessor {
                 }
             }
 
-            return new GeoIpProcessor(processorTag, ipField, databaseReader, targetField, properties, ignoreMissing);
+            return new GeoIpProcessor(processorTag, ipField, databaseReader, targetField, properties, ignoreMissing, databaseFile,
+                lookupCache);
         }
     }
 
@@ -395,6 +439,13 @@ public final class GeoIpProcessor extends AbstractProcessor {
             Property.IP, Property.ASN, Property.ORGANIZATION_NAME
         );
 
+        /**
+         * @return the name of the field that holds this property in the geo data of a document
+         */
+        String fieldName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
         public static Property parseProperty(String databaseType, String value) {
             Set<Property> validProperties = EnumSet.noneOf(Property.class);
             if (databaseType.endsWith(CITY_DB_SUFFIX)) {
@@ -27,6 +27,8 @@ import org.elasticsearch.core.internal.io.IOUtils;
 import org.elasticsearch.common.Booleans;
 import org.elasticsearch.common.SuppressForbidden;
 import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.ingest.Processor;
 import org.elasticsearch.plugins.IngestPlugin;
 import org.elasticsearch.plugins.Plugin;
@@ -47,12 +49,14 @@ import java.util.stream.Stream;
 public class IngestGeoIpPlugin extends Plugin implements IngestPlugin, Closeable {
     public static final Setting<Long> CACHE_SIZE =
         Setting.longSetting("ingest.geoip.cache_size", 1000, 0, Setting.Property.NodeScope);
+    public static final Setting<ByteSizeValue> LOOKUP_CACHE_SIZE =
+        Setting.byteSizeSetting("ingest.geoip.lookup_cache_size", new ByteSizeValue(16, ByteSizeUnit.MB), Setting.Property.NodeScope);
 
     private Map<String, DatabaseReaderLazyLoader> databaseReaders;
 
     @Override
     public List<Setting<?>> getSettings() {
-        return Arrays.asList(CACHE_SIZE);
+        return Arrays.asList(CACHE_SIZE, LOOKUP_CACHE_SIZE);
     }
 
     @Override
@@ -73,7 +77,8 @@ public class IngestGeoIpPlugin extends Plugin implements IngestPlugin, Closeable
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        return Collections.singletonMap(GeoIpProcessor.TYPE, new GeoIpProcessor.Factory(databaseReaders));
+        GeoIpLookupCache lookupCache = new GeoIpLookupCache(LOOKUP_CACHE_SIZE.get(parameters.env.settings()).getBytes());
+        return Collections.singletonMap(GeoIpProcessor.TYPE, new GeoIpProcessor.Factory(databaseReaders, lookupCache));
     }
 
     static Map<String, DatabaseReaderLazyLoader> loadDatabaseReaders(Path geoIpConfigDirectory, NodeCache cache) throws IOException {
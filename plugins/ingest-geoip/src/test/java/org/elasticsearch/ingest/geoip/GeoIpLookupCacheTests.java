@@ -0,0 +1,102 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest.geoip;
+
+import org.elasticsearch.common.network.InetAddresses;
+import org.elasticsearch.test.ESTestCase;
+
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class GeoIpLookupCacheTests extends ESTestCase {
+
+    public void testCachesLookups() {
+        GeoIpLookupCache cache = new GeoIpLookupCache(1024 * 1024);
+        AtomicInteger lookups = new AtomicInteger();
+        Function<InetAddress, Map<String, Object>> lookup = ip -> {
+            lookups.incrementAndGet();
+            return Collections.singletonMap("ip", InetAddresses.toAddrString(ip));
+        };
+
+        InetAddress ip = InetAddresses.forString("82.171.64.0");
+        Map<String, Object> geoData = cache.computeIfAbsent(ip, "GeoLite2-City.mmdb", lookup);
+        assertThat(geoData, equalTo(Collections.singletonMap("ip", "82.171.64.0")));
+        assertSame(geoData, cache.computeIfAbsent(ip, "GeoLite2-City.mmdb", lookup));
+        assertThat(lookups.get(), equalTo(1));
+        expectThrows(UnsupportedOperationException.class, () -> geoData.put("city_name", "Hoensbroek"));
+
+        // the same address in another database is a different entry
+        cache.computeIfAbsent(ip, "GeoLite2-Country.mmdb", lookup);
+        assertThat(lookups.get(), equalTo(2));
+        cache.computeIfAbsent(InetAddresses.forString("82.171.64.1"), "GeoLite2-City.mmdb", lookup);
+        assertThat(lookups.get(), equalTo(3));
+        assertThat(cache.getEvictions(), equalTo(0L));
+        assertThat(cache.getSizeInBytes(), greaterThan(0L));
+    }
+
+    public void testEvictsBySize() {
+        Map<String, Object> location = new HashMap<>();
+        location.put("lat", 50.9167);
+        location.put("lon", 5.9333);
+        Map<String, Object> geoData = new HashMap<>();
+        geoData.put("city_name", "Hoensbroek");
+        geoData.put("location", location);
+        long maxSizeInBytes = 5 * GeoIpLookupCache.ramBytesUsed(geoData);
+        GeoIpLookupCache cache = new GeoIpLookupCache(maxSizeInBytes);
+
+        int addresses = randomIntBetween(10, 100);
+        for (int i = 0; i < addresses; i++) {
+            cache.computeIfAbsent(InetAddresses.forString("10.0.0." + i), "GeoLite2-City.mmdb", ip -> geoData);
+            assertThat(cache.getSizeInBytes(), lessThanOrEqualTo(maxSizeInBytes));
+        }
+        assertThat(cache.getEvictions(), greaterThan(0L));
+    }
+
+    public void testDisabled() {
+        GeoIpLookupCache cache = new GeoIpLookupCache(0);
+        AtomicInteger lookups = new AtomicInteger();
+        InetAddress ip = InetAddresses.forString("82.171.64.0");
+        for (int i = 0; i < 3; i++) {
+            cache.computeIfAbsent(ip, "GeoLite2-City.mmdb", address -> {
+                lookups.incrementAndGet();
+                return Collections.emptyMap();
+            });
+        }
+        assertThat(lookups.get(), equalTo(3));
+        assertThat(cache.getSizeInBytes(), equalTo(0L));
+    }
+
+    public void testRethrowsLookupFailures() {
+        GeoIpLookupCache cache = new GeoIpLookupCache(1024);
+        IllegalStateException e = expectThrows(IllegalStateException.class,
+            () -> cache.computeIfAbsent(InetAddresses.forString("82.171.64.0"), "GeoLite2-City.mmdb", ip -> {
+                throw new IllegalStateException("broken database");
+            }));
+        assertThat(e.getMessage(), equalTo("broken database"));
+    }
+}
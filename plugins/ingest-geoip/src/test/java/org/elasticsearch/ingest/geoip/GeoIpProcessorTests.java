@@ -61,6 +61,36 @@ public class GeoIpProcessorTests extends ESTestCase {
         assertThat(geoData.get("location"), equalTo(location));
     }
 
+    public void testLookupCacheIsShared() throws Exception {
+        InputStream database = getDatabaseFileInputStream("/GeoLite2-City.mmdb");
+        DatabaseReader databaseReader = new DatabaseReader.Builder(database).build();
+        GeoIpLookupCache lookupCache = new GeoIpLookupCache(1024 * 1024);
+        GeoIpProcessor countryProcessor = new GeoIpProcessor(randomAlphaOfLength(10), "source_field", databaseReader, "country",
+            EnumSet.of(GeoIpProcessor.Property.COUNTRY_ISO_CODE), false, "GeoLite2-City.mmdb", lookupCache);
+        GeoIpProcessor locationProcessor = new GeoIpProcessor(randomAlphaOfLength(10), "source_field", databaseReader, "location",
+            EnumSet.of(GeoIpProcessor.Property.LOCATION), false, "GeoLite2-City.mmdb", lookupCache);
+
+        for (int i = 0; i < 2; i++) {
+            IngestDocument ingestDocument = RandomDocumentPicks.randomIngestDocument(random(),
+                Collections.singletonMap("source_field", "8.8.8.8"));
+            countryProcessor.execute(ingestDocument);
+            locationProcessor.execute(ingestDocument);
+            assertThat(ingestDocument.getFieldValue("country", Map.class), equalTo(Collections.singletonMap("country_iso_code", "US")));
+            Map<String, Object> location = new HashMap<>();
+            location.put("lat", 37.751d);
+            location.put("lon", -97.822d);
+            assertThat(ingestDocument.getFieldValue("location", Map.class), equalTo(Collections.singletonMap("location", location)));
+            // the location of a document must not be the cached one
+            ingestDocument.setFieldValue("location.location.lat", 0d);
+        }
+
+        assertThat(countryProcessor.getCounters().get("cache_hits"), equalTo(1L));
+        assertThat(countryProcessor.getCounters().get("cache_misses"), equalTo(1L));
+        assertThat(locationProcessor.getCounters().get("cache_hits"), equalTo(2L));
+        assertThat(locationProcessor.getCounters().get("cache_misses"), equalTo(0L));
+        assertThat(locationProcessor.getCounters().get("cache_evictions"), equalTo(0L));
+    }
+
     public void testNullValueWithIgnoreMissing() throws Exception {
         InputStream database = getDatabaseFileInputStream("/GeoLite2-City.mmdb");
         GeoIpProcessor processor = new GeoIpProcessor(randomAlphaOfLength(10), "source_field",
@@ -27,6 +27,7 @@ import org.elasticsearch.transport.TcpChannel;
 
 import java.io.IOException;
 import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
 
 public class TcpNioSocketChannel extends NioSocketChannel implements TcpChannel {
@@ -39,7 +40,9 @@ public class TcpNioSocketChannel extends NioSocketChannel implements TcpChannel
     }
 
     public void sendMessage(BytesReference reference, ActionListener<Void> listener) {
-        getContext().sendMessage(BytesReference.toByteBuffers(reference), ActionListener.toBiConsumer(listener));
+        ByteBuffer[] buffers = BytesReference.toByteBuffers(reference);
+        TcpChannel.onCopiedBytes(listener, buffers);
+        getContext().sendMessage(buffers, ActionListener.toBiConsumer(listener));
     }
 
     @Override
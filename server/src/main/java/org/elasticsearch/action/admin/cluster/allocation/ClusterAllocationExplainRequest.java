@@ -56,6 +56,7 @@ public class ClusterAllocationExplainRequest extends MasterNodeRequest<ClusterAl
     private String currentNode;
     private boolean includeYesDecisions = false;
     private boolean includeDiskInfo = false;
+    private boolean includeDeciderTimings = false;
 
     /**
      * Create a new allocation explain request to explain any unassigned shard in the cluster.
@@ -76,6 +77,9 @@ public class ClusterAllocationExplainRequest extends MasterNodeRequest<ClusterAl
         this.currentNode = in.readOptionalString();
         this.includeYesDecisions = in.readBoolean();
         this.includeDiskInfo = in.readBoolean();
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            this.includeDeciderTimings = in.readBoolean();
+        }
     }
 
     /**
@@ -102,6 +106,9 @@ public class ClusterAllocationExplainRequest extends MasterNodeRequest<ClusterAl
         out.writeOptionalString(currentNode);
         out.writeBoolean(includeYesDecisions);
         out.writeBoolean(includeDiskInfo);
+        if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            out.writeBoolean(includeDeciderTimings);
+        }
     }
 
     @Override
@@ -226,6 +233,20 @@ public class ClusterAllocationExplainRequest extends MasterNodeRequest<ClusterAl
         return this.includeDiskInfo;
     }
 
+    /**
+     * Set to {@code true} to include how often each allocation decider was asked for a decision and how long the decisions took.
+     */
+    public void includeDeciderTimings(boolean includeDeciderTimings) {
+        this.includeDeciderTimings = includeDeciderTimings;
+    }
+
+    /**
+     * Returns {@code true} if the timings of the allocation deciders should also be returned.
+     */
+    public boolean includeDeciderTimings() {
+        return this.includeDeciderTimings;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("ClusterAllocationExplainRequest[");
@@ -64,6 +64,12 @@ public class ClusterAllocationExplainRequestBuilder
         return this;
     }
 
+    /** Whether to include the number of decisions and the time taken by each allocation decider */
+    public ClusterAllocationExplainRequestBuilder setIncludeDeciderTimings(boolean includeDeciderTimings) {
+        request.includeDeciderTimings(includeDeciderTimings);
+        return this;
+    }
+
     /**
      * Requests the explain API to explain an already assigned replica shard currently allocated to
      * the given node.
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.action.admin.cluster.allocation;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.cluster.ClusterInfo;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.routing.ShardRouting;
@@ -26,6 +27,7 @@ import org.elasticsearch.cluster.routing.ShardRoutingState;
 import org.elasticsearch.cluster.routing.UnassignedInfo;
 import org.elasticsearch.cluster.routing.allocation.AllocationDecision;
 import org.elasticsearch.cluster.routing.allocation.ShardAllocationDecision;
+import org.elasticsearch.cluster.routing.allocation.decider.AllocationDeciderTimings;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
@@ -51,15 +53,24 @@ public final class ClusterAllocationExplanation implements ToXContentObject, Wri
     private final DiscoveryNode relocationTargetNode;
     private final ClusterInfo clusterInfo;
     private final ShardAllocationDecision shardAllocationDecision;
+    private final AllocationDeciderTimings deciderTimings;
 
     public ClusterAllocationExplanation(ShardRouting shardRouting, @Nullable DiscoveryNode currentNode,
                                         @Nullable DiscoveryNode relocationTargetNode, @Nullable ClusterInfo clusterInfo,
                                         ShardAllocationDecision shardAllocationDecision) {
+        this(shardRouting, currentNode, relocationTargetNode, clusterInfo, shardAllocationDecision, null);
+    }
+
+    public ClusterAllocationExplanation(ShardRouting shardRouting, @Nullable DiscoveryNode currentNode,
+                                        @Nullable DiscoveryNode relocationTargetNode, @Nullable ClusterInfo clusterInfo,
+                                        ShardAllocationDecision shardAllocationDecision,
+                                        @Nullable AllocationDeciderTimings deciderTimings) {
         this.shardRouting = shardRouting;
         this.currentNode = currentNode;
         this.relocationTargetNode = relocationTargetNode;
         this.clusterInfo = clusterInfo;
         this.shardAllocationDecision = shardAllocationDecision;
+        this.deciderTimings = deciderTimings;
     }
 
     public ClusterAllocationExplanation(StreamInput in) throws IOException {
@@ -68,6 +79,11 @@ public final class ClusterAllocationExplanation implements ToXContentObject, Wri
         this.relocationTargetNode = in.readOptionalWriteable(DiscoveryNode::new);
         this.clusterInfo = in.readOptionalWriteable(ClusterInfo::new);
         this.shardAllocationDecision = new ShardAllocationDecision(in);
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            this.deciderTimings = in.readOptionalWriteable(AllocationDeciderTimings::new);
+        } else {
+            this.deciderTimings = null;
+        }
     }
 
     @Override
@@ -77,6 +93,9 @@ public final class ClusterAllocationExplanation implements ToXContentObject, Wri
         out.writeOptionalWriteable(relocationTargetNode);
         out.writeOptionalWriteable(clusterInfo);
         shardAllocationDecision.writeTo(out);
+        if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            out.writeOptionalWriteable(deciderTimings);
+        }
     }
 
     /**
@@ -139,6 +158,15 @@ public final class ClusterAllocationExplanation implements ToXContentObject, Wri
         return shardAllocationDecision;
     }
 
+    /**
+     * Returns how often each allocation decider was asked for a decision while explaining the shard and how long the decisions
+     * took, or {@code null} if the timings were not requested.
+     */
+    @Nullable
+    public AllocationDeciderTimings getDeciderTimings() {
+        return deciderTimings;
+    }
+
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject(); {
             builder.field("index", shardRouting.getIndexName());
@@ -179,6 +207,9 @@ public final class ClusterAllocationExplanation implements ToXContentObject, Wri
                 }
                 builder.field("explanation", explanation);
             }
+            if (deciderTimings != null) {
+                deciderTimings.toXContent(builder, params);
+            }
         }
         builder.endObject(); // end wrapping object
         return builder;
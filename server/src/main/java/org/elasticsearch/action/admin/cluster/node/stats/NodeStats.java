@@ -25,10 +25,12 @@ import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.util.PageCacheRecyclerStats;
 import org.elasticsearch.common.xcontent.ToXContent.Params;
 import org.elasticsearch.common.xcontent.ToXContentFragment;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.discovery.DiscoveryStats;
+import org.elasticsearch.gateway.MetaStateStats;
 import org.elasticsearch.http.HttpStats;
 import org.elasticsearch.indices.NodeIndicesStats;
 import org.elasticsearch.indices.breaker.AllCircuitBreakerStats;
@@ -91,6 +93,12 @@ public class NodeStats extends BaseNodeResponse implements ToXContentFragment {
     @Nullable
     private AdaptiveSelectionStats adaptiveSelectionStats;
 
+    @Nullable
+    private PageCacheRecyclerStats pageCacheRecyclerStats;
+
+    @Nullable
+    private MetaStateStats metaStateStats;
+
     NodeStats() {
     }
 
@@ -101,7 +109,9 @@ public class NodeStats extends BaseNodeResponse implements ToXContentFragment {
                      @Nullable ScriptStats scriptStats,
                      @Nullable DiscoveryStats discoveryStats,
                      @Nullable IngestStats ingestStats,
-                     @Nullable AdaptiveSelectionStats adaptiveSelectionStats) {
+                     @Nullable AdaptiveSelectionStats adaptiveSelectionStats,
+                     @Nullable PageCacheRecyclerStats pageCacheRecyclerStats,
+                     @Nullable MetaStateStats metaStateStats) {
         super(node);
         this.timestamp = timestamp;
         this.indices = indices;
@@ -117,6 +127,8 @@ public class NodeStats extends BaseNodeResponse implements ToXContentFragment {
         this.discoveryStats = discoveryStats;
         this.ingestStats = ingestStats;
         this.adaptiveSelectionStats = adaptiveSelectionStats;
+        this.pageCacheRecyclerStats = pageCacheRecyclerStats;
+        this.metaStateStats = metaStateStats;
     }
 
     public long getTimestamp() {
@@ -211,6 +223,16 @@ public class NodeStats extends BaseNodeResponse implements ToXContentFragment {
         return adaptiveSelectionStats;
     }
 
+    @Nullable
+    public PageCacheRecyclerStats getPageCacheRecyclerStats() {
+        return pageCacheRecyclerStats;
+    }
+
+    @Nullable
+    public MetaStateStats getMetaStateStats() {
+        return metaStateStats;
+    }
+
     public static NodeStats readNodeStats(StreamInput in) throws IOException {
         NodeStats nodeInfo = new NodeStats();
         nodeInfo.readFrom(in);
@@ -240,6 +262,13 @@ public class NodeStats extends BaseNodeResponse implements ToXContentFragment {
         } else {
             adaptiveSelectionStats = null;
         }
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            pageCacheRecyclerStats = in.readOptionalWriteable(PageCacheRecyclerStats::new);
+            metaStateStats = in.readOptionalWriteable(MetaStateStats::new);
+        } else {
+            pageCacheRecyclerStats = null;
+            metaStateStats = null;
+        }
     }
 
     @Override
@@ -266,6 +295,10 @@ public class NodeStats extends BaseNodeResponse implements ToXContentFragment {
         if (out.getVersion().onOrAfter(Version.V_6_1_0)) {
             out.writeOptionalWriteable(adaptiveSelectionStats);
         }
+        if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            out.writeOptionalWriteable(pageCacheRecyclerStats);
+            out.writeOptionalWriteable(metaStateStats);
+        }
     }
 
     @Override
@@ -329,6 +362,12 @@ public class NodeStats extends BaseNodeResponse implements ToXContentFragment {
         if (getAdaptiveSelectionStats() != null) {
             getAdaptiveSelectionStats().toXContent(builder, params);
         }
+        if (getPageCacheRecyclerStats() != null) {
+            getPageCacheRecyclerStats().toXContent(builder, params);
+        }
+        if (getMetaStateStats() != null) {
+            getMetaStateStats().toXContent(builder, params);
+        }
         return builder;
     }
 }
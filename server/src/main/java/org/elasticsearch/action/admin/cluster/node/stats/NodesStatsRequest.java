@@ -45,6 +45,8 @@ public class NodesStatsRequest extends BaseNodesRequest<NodesStatsRequest> {
     private boolean discovery;
     private boolean ingest;
     private boolean adaptiveSelection;
+    private boolean pageCacheRecycler;
+    private boolean metaState;
 
     public NodesStatsRequest() {
     }
@@ -74,6 +76,8 @@ public class NodesStatsRequest extends BaseNodesRequest<NodesStatsRequest> {
         this.discovery = true;
         this.ingest = true;
         this.adaptiveSelection = true;
+        this.pageCacheRecycler = true;
+        this.metaState = true;
         return this;
     }
 
@@ -94,6 +98,8 @@ public class NodesStatsRequest extends BaseNodesRequest<NodesStatsRequest> {
         this.discovery = false;
         this.ingest = false;
         this.adaptiveSelection = false;
+        this.pageCacheRecycler = false;
+        this.metaState = false;
         return this;
     }
 
@@ -281,6 +287,30 @@ public class NodesStatsRequest extends BaseNodesRequest<NodesStatsRequest> {
         return this;
     }
 
+    public boolean pageCacheRecycler() {
+        return pageCacheRecycler;
+    }
+
+    /**
+     * Should page cache recycler statistics be returned.
+     */
+    public NodesStatsRequest pageCacheRecycler(boolean pageCacheRecycler) {
+        this.pageCacheRecycler = pageCacheRecycler;
+        return this;
+    }
+
+    public boolean metaState() {
+        return metaState;
+    }
+
+    /**
+     * Should statistics about loading and writing the meta state on disk be returned.
+     */
+    public NodesStatsRequest metaState(boolean metaState) {
+        this.metaState = metaState;
+        return this;
+    }
+
     @Override
     public void readFrom(StreamInput in) throws IOException {
         super.readFrom(in);
@@ -301,6 +331,13 @@ public class NodesStatsRequest extends BaseNodesRequest<NodesStatsRequest> {
         } else {
             adaptiveSelection = false;
         }
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            pageCacheRecycler = in.readBoolean();
+            metaState = in.readBoolean();
+        } else {
+            pageCacheRecycler = false;
+            metaState = false;
+        }
     }
 
     @Override
@@ -321,5 +358,9 @@ public class NodesStatsRequest extends BaseNodesRequest<NodesStatsRequest> {
         if (out.getVersion().onOrAfter(Version.V_6_1_0)) {
             out.writeBoolean(adaptiveSelection);
         }
+        if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            out.writeBoolean(pageCacheRecycler);
+            out.writeBoolean(metaState);
+        }
     }
 }
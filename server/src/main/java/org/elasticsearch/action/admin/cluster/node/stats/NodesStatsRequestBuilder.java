@@ -148,4 +148,20 @@ public class NodesStatsRequestBuilder extends NodesOperationRequestBuilder<Nodes
         return this;
     }
 
+    /**
+     * Should page cache recycler statistics be returned.
+     */
+    public NodesStatsRequestBuilder setPageCacheRecycler(boolean pageCacheRecycler) {
+        request.pageCacheRecycler(pageCacheRecycler);
+        return this;
+    }
+
+    /**
+     * Should statistics about loading and writing the meta state on disk be returned.
+     */
+    public NodesStatsRequestBuilder setMetaState(boolean metaState) {
+        request.metaState(metaState);
+        return this;
+    }
+
 }
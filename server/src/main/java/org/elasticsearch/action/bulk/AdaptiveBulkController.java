@@ -0,0 +1,107 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.bulk;
+
+/**
+ * Sizes the bulk requests of an adaptive {@link BulkProcessor} and limits how many of them are executed concurrently, with
+ * additive increase and multiplicative decrease: every bulk request that completes within the target latency and without
+ * rejections increases the size by a fixed step and allows one more concurrent request, a bulk request that was rejected
+ * halves both, and a bulk request that was slower than the target latency halves the size.
+ */
+final class AdaptiveBulkController {
+
+    // in how many steps the size grows from the minimum to the maximum
+    private static final int SIZE_STEPS = 16;
+
+    private final long minBulkSize;
+    private final long maxBulkSize;
+    private final long sizeStep;
+    private final long targetLatencyNanos;
+    private final int maxConcurrentRequests;
+
+    private volatile long bulkSize;
+    private volatile int concurrentRequests;
+
+    /**
+     * @param minBulkSize           the size in bytes that bulk requests start with and never go below
+     * @param maxBulkSize           the size in bytes that bulk requests never go above
+     * @param targetLatencyNanos    bulk requests that take longer than this make the size of bulk requests decrease
+     * @param maxConcurrentRequests the maximum number of concurrent requests
+     */
+    AdaptiveBulkController(long minBulkSize, long maxBulkSize, long targetLatencyNanos, int maxConcurrentRequests) {
+        if (minBulkSize <= 0 || maxBulkSize < minBulkSize) {
+            throw new IllegalArgumentException("bulk size must be between a positive minimum [" + minBulkSize
+                + "] and a maximum that isn't lower than the minimum [" + maxBulkSize + "]");
+        }
+        if (targetLatencyNanos <= 0) {
+            throw new IllegalArgumentException("target latency must be positive but was [" + targetLatencyNanos + "]");
+        }
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("adaptive bulk processing needs at least one concurrent request but was ["
+                + maxConcurrentRequests + "]");
+        }
+        this.minBulkSize = minBulkSize;
+        this.maxBulkSize = maxBulkSize;
+        this.sizeStep = Math.max(1, (maxBulkSize - minBulkSize) / SIZE_STEPS);
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.bulkSize = minBulkSize;
+        this.concurrentRequests = 1;
+    }
+
+    /**
+     * @return the size in bytes at which the next bulk request should be executed
+     */
+    long bulkSize() {
+        return bulkSize;
+    }
+
+    /**
+     * @return how many bulk requests may currently be executed concurrently
+     */
+    int concurrentRequests() {
+        return concurrentRequests;
+    }
+
+    int maxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * Adjusts the limits after an attempt to execute a bulk request completed.
+     *
+     * @param tookInNanos how long the attempt took
+     * @param rejected    whether the request or any of its items were rejected because the cluster was overloaded
+     * @return by how much the number of concurrent requests changed
+     */
+    synchronized int onCompletion(long tookInNanos, boolean rejected) {
+        final int previousConcurrentRequests = concurrentRequests;
+        if (rejected) {
+            bulkSize = Math.max(minBulkSize, bulkSize / 2);
+            concurrentRequests = Math.max(1, concurrentRequests / 2);
+        } else if (tookInNanos > targetLatencyNanos) {
+            bulkSize = Math.max(minBulkSize, bulkSize / 2);
+        } else {
+            bulkSize = Math.min(maxBulkSize, bulkSize + sizeStep);
+            concurrentRequests = Math.min(maxConcurrentRequests, concurrentRequests + 1);
+        }
+        return concurrentRequests - previousConcurrentRequests;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.bulk;
+
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.index.translog.Translog;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executes the items of a shard level bulk request on multiple threads. Items are grouped by the document that they
+ * apply to, the items of a group are executed one after the other in the order of the request and different groups
+ * are executed concurrently. The calling thread executes groups too and additional threads are only used if the
+ * executor has threads to spare, so that a busy write thread pool can never block a bulk request.
+ */
+final class BulkItemGroupExecutor {
+
+    /**
+     * Executes the items of a group, in order, and returns the translog location to sync for them or {@code null}
+     * if none of the items needs to be synced.
+     */
+    @FunctionalInterface
+    interface GroupExecution {
+        Translog.Location execute(List<Integer> itemIndices) throws Exception;
+    }
+
+    private BulkItemGroupExecutor() {}
+
+    /**
+     * Executes all items and returns the highest translog location to sync.
+     *
+     * @param parallelism the maximum number of threads, including the calling thread, that execute items
+     */
+    static Translog.Location execute(BulkItemRequest[] items, int parallelism, Executor executor,
+                                     GroupExecution execution) throws Exception {
+        final List<List<Integer>> groups = parallelism > 1 ? groupByDocument(items) : null;
+        if (groups == null || groups.size() <= 1) {
+            final List<Integer> all = new ArrayList<>(items.length);
+            for (int i = 0; i < items.length; i++) {
+                all.add(i);
+            }
+            return execution.execute(all);
+        }
+
+        final ConcurrentExecution concurrentExecution = new ConcurrentExecution(groups, execution);
+        final int helpers = Math.min(parallelism, groups.size()) - 1;
+        for (int i = 0; i < helpers; i++) {
+            try {
+                executor.execute(concurrentExecution::help);
+            } catch (EsRejectedExecutionException e) {
+                // the calling thread executes the groups that helpers don't pick up
+                break;
+            }
+        }
+        return concurrentExecution.run();
+    }
+
+    /**
+     * Groups the items by the document they apply to, in order of the first item of each group.
+     */
+    static List<List<Integer>> groupByDocument(BulkItemRequest[] items) {
+        final Map<Tuple<String, String>, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < items.length; i++) {
+            final DocWriteRequest request = items[i].request();
+            groups.computeIfAbsent(new Tuple<>(request.type(), request.id()), k -> new ArrayList<>()).add(i);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    static Translog.Location max(Translog.Location first, Translog.Location second) {
+        if (first == null) {
+            return second;
+        } else if (second == null) {
+            return first;
+        } else {
+            return first.compareTo(second) >= 0 ? first : second;
+        }
+    }
+
+    private static final class ConcurrentExecution {
+
+        private final List<List<Integer>> groups;
+        private final GroupExecution execution;
+        private final AtomicInteger nextGroup = new AtomicInteger();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final Object mutex = new Object();
+        private int activeHelpers = 0;
+        private Translog.Location location = null;
+
+        ConcurrentExecution(List<List<Integer>> groups, GroupExecution execution) {
+            this.groups = groups;
+            this.execution = execution;
+        }
+
+        /**
+         * Executes groups on a helper thread until all groups are picked up.
+         */
+        void help() {
+            synchronized (mutex) {
+                activeHelpers++;
+            }
+            try {
+                executeGroups();
+            } finally {
+                synchronized (mutex) {
+                    activeHelpers--;
+                    mutex.notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Executes groups on the calling thread until all groups are picked up, waits for the helpers to finish
+         * the groups they picked up and then either returns the translog location to sync or throws the first failure.
+         */
+        Translog.Location run() throws Exception {
+            executeGroups();
+            synchronized (mutex) {
+                while (activeHelpers > 0) {
+                    mutex.wait();
+                }
+            }
+            final Throwable t = failure.get();
+            if (t instanceof Error) {
+                throw (Error) t;
+            } else if (t != null) {
+                throw (Exception) t;
+            }
+            synchronized (mutex) {
+                return location;
+            }
+        }
+
+        private void executeGroups() {
+            for (int group = nextGroup.getAndIncrement(); group < groups.size(); group = nextGroup.getAndIncrement()) {
+                if (failure.get() != null) {
+                    // stop picking up groups after a failure, like the failure would stop a sequential execution
+                    return;
+                }
+                try {
+                    final Translog.Location groupLocation = execution.execute(groups.get(group));
+                    synchronized (mutex) {
+                        location = max(location, groupLocation);
+                    }
+                } catch (Exception | Error e) {
+                    failure.compareAndSet(null, e);
+                    return;
+                }
+            }
+        }
+    }
+}
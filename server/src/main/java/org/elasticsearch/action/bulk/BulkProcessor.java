@@ -88,6 +88,9 @@ public class BulkProcessor implements Closeable {
         private ByteSizeValue bulkSize = new ByteSizeValue(5, ByteSizeUnit.MB);
         private TimeValue flushInterval = null;
         private BackoffPolicy backoffPolicy = BackoffPolicy.exponentialBackoff();
+        private ByteSizeValue minBulkSize = null;
+        private ByteSizeValue maxBulkSize = null;
+        private TimeValue targetLatency = null;
 
         private Builder(BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer, Listener listener,
                         Scheduler scheduler, Runnable onClose) {
@@ -152,12 +155,34 @@ public class BulkProcessor implements Closeable {
             return this;
         }
 
+        /**
+         * Makes the bulk processor adapt the size of bulk requests and the number of concurrent requests to how fast the cluster
+         * handles them. Bulk requests start at {@code minBulkSize} and a single concurrent request. Every bulk request that completes
+         * within {@code targetLatency} without rejections grows the size towards {@code maxBulkSize} and allows one more concurrent
+         * request, up to {@link #setConcurrentRequests(int)}. Bulk requests that are rejected halve both and bulk requests that take
+         * longer than {@code targetLatency} halve the size. The size set with {@link #setBulkSize(ByteSizeValue)} is ignored in
+         * adaptive mode while {@link #setBulkActions(int)} still caps the number of actions per bulk request. Defaults to not set.
+         */
+        public Builder setAdaptive(ByteSizeValue minBulkSize, ByteSizeValue maxBulkSize, TimeValue targetLatency) {
+            this.minBulkSize = Objects.requireNonNull(minBulkSize, "minBulkSize");
+            this.maxBulkSize = Objects.requireNonNull(maxBulkSize, "maxBulkSize");
+            this.targetLatency = Objects.requireNonNull(targetLatency, "targetLatency");
+            return this;
+        }
+
         /**
          * Builds a new bulk processor.
          */
         public BulkProcessor build() {
+            final AdaptiveBulkController controller;
+            if (targetLatency != null) {
+                controller = new AdaptiveBulkController(minBulkSize.getBytes(), maxBulkSize.getBytes(), targetLatency.nanos(),
+                    concurrentRequests);
+            } else {
+                controller = null;
+            }
             return new BulkProcessor(consumer, backoffPolicy, listener, concurrentRequests, bulkActions, bulkSize, flushInterval,
-                    scheduler, onClose);
+                    scheduler, onClose, controller);
         }
     }
 
@@ -192,10 +217,16 @@ public class BulkProcessor implements Closeable {
     BulkProcessor(BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer, BackoffPolicy backoffPolicy, Listener listener,
                   int concurrentRequests, int bulkActions, ByteSizeValue bulkSize, @Nullable TimeValue flushInterval,
                   Scheduler scheduler, Runnable onClose) {
+        this(consumer, backoffPolicy, listener, concurrentRequests, bulkActions, bulkSize, flushInterval, scheduler, onClose, null);
+    }
+
+    BulkProcessor(BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer, BackoffPolicy backoffPolicy, Listener listener,
+                  int concurrentRequests, int bulkActions, ByteSizeValue bulkSize, @Nullable TimeValue flushInterval,
+                  Scheduler scheduler, Runnable onClose, @Nullable AdaptiveBulkController controller) {
         this.bulkActions = bulkActions;
         this.bulkSize = bulkSize.getBytes();
         this.bulkRequest = new BulkRequest();
-        this.bulkRequestHandler = new BulkRequestHandler(consumer, backoffPolicy, listener, scheduler, concurrentRequests);
+        this.bulkRequestHandler = new BulkRequestHandler(consumer, backoffPolicy, listener, scheduler, concurrentRequests, controller);
         // Start period flushing task after everything is setup
         this.cancellableFlushTask = startFlushTask(flushInterval, scheduler);
         this.onClose = onClose;
@@ -341,12 +372,21 @@ public class BulkProcessor implements Closeable {
         if (bulkActions != -1 && bulkRequest.numberOfActions() >= bulkActions) {
             return true;
         }
+        final long adaptiveBulkSize = bulkRequestHandler.adaptiveBulkSize();
+        final long bulkSize = adaptiveBulkSize != -1 ? adaptiveBulkSize : this.bulkSize;
         if (bulkSize != -1 && bulkRequest.estimatedSizeInBytes() >= bulkSize) {
             return true;
         }
         return false;
     }
 
+    /**
+     * Returns statistics about the bulk requests that this processor executed so far.
+     */
+    public Stats stats() {
+        return bulkRequestHandler.stats(bulkSize);
+    }
+
     /**
      * Flush pending delete or index requests.
      */
@@ -372,4 +412,115 @@ public class BulkProcessor implements Closeable {
             }
         }
     }
+
+    /**
+     * Statistics about the bulk requests executed by a bulk processor.
+     */
+    public static final class Stats {
+
+        private final long bulkSize;
+        private final long executedRequests;
+        private final long failedRequests;
+        private final long executedActions;
+        private final long executedBytes;
+        private final long rejectedActions;
+        private final long attempts;
+        private final long attemptsTookInMillis;
+        private final long inFlightRequests;
+        private final long inFlightBytes;
+        private final int concurrentRequests;
+
+        Stats(long bulkSize, long executedRequests, long failedRequests, long executedActions, long executedBytes, long rejectedActions,
+              long attempts, long attemptsTookInMillis, long inFlightRequests, long inFlightBytes, int concurrentRequests) {
+            this.bulkSize = bulkSize;
+            this.executedRequests = executedRequests;
+            this.failedRequests = failedRequests;
+            this.executedActions = executedActions;
+            this.executedBytes = executedBytes;
+            this.rejectedActions = rejectedActions;
+            this.attempts = attempts;
+            this.attemptsTookInMillis = attemptsTookInMillis;
+            this.inFlightRequests = inFlightRequests;
+            this.inFlightBytes = inFlightBytes;
+            this.concurrentRequests = concurrentRequests;
+        }
+
+        /**
+         * The size at which bulk requests are executed, which changes over time in adaptive mode, or {@code -1} if bulk requests
+         * aren't executed based on their size.
+         */
+        public ByteSizeValue getBulkSize() {
+            return new ByteSizeValue(bulkSize);
+        }
+
+        /**
+         * The number of bulk requests that completed with a response, which may contain failed items.
+         */
+        public long getExecutedRequests() {
+            return executedRequests;
+        }
+
+        /**
+         * The number of bulk requests that failed as a whole.
+         */
+        public long getFailedRequests() {
+            return failedRequests;
+        }
+
+        /**
+         * The number of actions in the bulk requests that completed with a response.
+         */
+        public long getExecutedActions() {
+            return executedActions;
+        }
+
+        /**
+         * The estimated size in bytes of the bulk requests that completed with a response.
+         */
+        public ByteSizeValue getExecutedSize() {
+            return new ByteSizeValue(executedBytes);
+        }
+
+        /**
+         * The number of actions that were rejected because the cluster was overloaded, counted on every attempt including retries.
+         */
+        public long getRejectedActions() {
+            return rejectedActions;
+        }
+
+        /**
+         * The number of attempts to execute bulk requests, including retries.
+         */
+        public long getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * The total time that the attempts to execute bulk requests took.
+         */
+        public TimeValue getAttemptsTook() {
+            return new TimeValue(attemptsTookInMillis);
+        }
+
+        /**
+         * The number of bulk requests that are currently being executed or retried.
+         */
+        public long getInFlightRequests() {
+            return inFlightRequests;
+        }
+
+        /**
+         * The estimated size in bytes of the bulk requests that are currently being executed or retried.
+         */
+        public ByteSizeValue getInFlightSize() {
+            return new ByteSizeValue(inFlightBytes);
+        }
+
+        /**
+         * The number of bulk requests that may currently be executed concurrently, which changes over time in adaptive mode.
+         */
+        public int getConcurrentRequests() {
+            return concurrentRequests;
+        }
+    }
 }
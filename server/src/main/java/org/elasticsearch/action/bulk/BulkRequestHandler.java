@@ -20,9 +20,14 @@ package org.elasticsearch.action.bulk;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.threadpool.Scheduler;
 
 import java.util.concurrent.CountDownLatch;
@@ -37,19 +42,101 @@ public final class BulkRequestHandler {
     private final Logger logger;
     private final BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer;
     private final BulkProcessor.Listener listener;
-    private final Semaphore semaphore;
+    private final ResizableSemaphore semaphore;
     private final Retry retry;
     private final int concurrentRequests;
+    @Nullable
+    private final AdaptiveBulkController controller;
+    private final Object limitMutex = new Object();
+    private boolean closing = false;
+
+    private final CounterMetric executedRequests = new CounterMetric();
+    private final CounterMetric failedRequests = new CounterMetric();
+    private final CounterMetric executedActions = new CounterMetric();
+    private final CounterMetric executedBytes = new CounterMetric();
+    private final CounterMetric rejectedActions = new CounterMetric();
+    private final CounterMetric attempts = new CounterMetric();
+    private final CounterMetric attemptsTookInNanos = new CounterMetric();
+    private final CounterMetric inFlightRequests = new CounterMetric();
+    private final CounterMetric inFlightBytes = new CounterMetric();
 
     BulkRequestHandler(BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer, BackoffPolicy backoffPolicy,
                        BulkProcessor.Listener listener, Scheduler scheduler, int concurrentRequests) {
+        this(consumer, backoffPolicy, listener, scheduler, concurrentRequests, null);
+    }
+
+    /**
+     * @param controller if not {@code null}, adjusts the number of concurrent requests between one and {@code concurrentRequests}
+     *                   after every attempt to execute a bulk request
+     */
+    BulkRequestHandler(BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer, BackoffPolicy backoffPolicy,
+                       BulkProcessor.Listener listener, Scheduler scheduler, int concurrentRequests,
+                       @Nullable AdaptiveBulkController controller) {
         assert concurrentRequests >= 0;
+        assert controller == null || controller.maxConcurrentRequests() == concurrentRequests;
         this.logger = Loggers.getLogger(getClass());
-        this.consumer = consumer;
+        this.consumer = observeAttempts(consumer);
         this.listener = listener;
         this.concurrentRequests = concurrentRequests;
+        this.controller = controller;
         this.retry = new Retry(backoffPolicy, scheduler);
-        this.semaphore = new Semaphore(concurrentRequests > 0 ? concurrentRequests : 1);
+        if (controller != null) {
+            this.semaphore = new ResizableSemaphore(controller.concurrentRequests());
+        } else {
+            this.semaphore = new ResizableSemaphore(concurrentRequests > 0 ? concurrentRequests : 1);
+        }
+    }
+
+    /**
+     * Wraps the consumer so that every attempt to execute a bulk request, including the retries, is measured and, in adaptive
+     * mode, adjusts the number of concurrent requests.
+     */
+    private BiConsumer<BulkRequest, ActionListener<BulkResponse>> observeAttempts(
+            BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer) {
+        return (request, attemptListener) -> {
+            final long startTime = System.nanoTime();
+            consumer.accept(request, new ActionListener<BulkResponse>() {
+                @Override
+                public void onResponse(BulkResponse response) {
+                    int rejected = 0;
+                    if (response.hasFailures()) {
+                        for (BulkItemResponse item : response) {
+                            if (item.isFailed() && item.status() == RestStatus.TOO_MANY_REQUESTS) {
+                                rejected++;
+                            }
+                        }
+                    }
+                    onAttemptCompleted(System.nanoTime() - startTime, rejected);
+                    attemptListener.onResponse(response);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    final boolean rejected = ExceptionsHelper.unwrapCause(e) instanceof EsRejectedExecutionException;
+                    onAttemptCompleted(System.nanoTime() - startTime, rejected ? request.numberOfActions() : 0);
+                    attemptListener.onFailure(e);
+                }
+            });
+        };
+    }
+
+    private void onAttemptCompleted(long tookInNanos, int rejected) {
+        attempts.inc();
+        attemptsTookInNanos.inc(tookInNanos);
+        rejectedActions.inc(rejected);
+        if (controller != null) {
+            synchronized (limitMutex) {
+                // the limit must not change while close waits for all permits
+                if (closing == false) {
+                    final int delta = controller.onCompletion(tookInNanos, rejected > 0);
+                    if (delta > 0) {
+                        semaphore.release(delta);
+                    } else if (delta < 0) {
+                        semaphore.reducePermits(-delta);
+                    }
+                }
+            }
+        }
     }
 
     public void execute(BulkRequest bulkRequest, long executionId) {
@@ -58,28 +145,44 @@ public final class BulkRequestHandler {
         try {
             listener.beforeBulk(executionId, bulkRequest);
             semaphore.acquire();
-            toRelease = semaphore::release;
+            final long sizeInBytes = bulkRequest.estimatedSizeInBytes();
+            inFlightRequests.inc();
+            inFlightBytes.inc(sizeInBytes);
+            toRelease = () -> {
+                inFlightRequests.dec();
+                inFlightBytes.dec(sizeInBytes);
+                semaphore.release();
+            };
             CountDownLatch latch = new CountDownLatch(1);
             retry.withBackoff(consumer, bulkRequest, new ActionListener<BulkResponse>() {
                 @Override
                 public void onResponse(BulkResponse response) {
                     try {
+                        executedRequests.inc();
+                        executedActions.inc(bulkRequest.numberOfActions());
+                        executedBytes.inc(sizeInBytes);
                         listener.afterBulk(executionId, bulkRequest, response);
                     } finally {
-                        semaphore.release();
-                        latch.countDown();
+                        release();
                     }
                 }
 
                 @Override
                 public void onFailure(Exception e) {
                     try {
+                        failedRequests.inc();
                         listener.afterBulk(executionId, bulkRequest, e);
                     } finally {
-                        semaphore.release();
-                        latch.countDown();
+                        release();
                     }
                 }
+
+                private void release() {
+                    inFlightRequests.dec();
+                    inFlightBytes.dec(sizeInBytes);
+                    semaphore.release();
+                    latch.countDown();
+                }
             }, Settings.EMPTY);
             bulkRequestSetupSuccessful = true;
             if (concurrentRequests == 0) {
@@ -100,10 +203,55 @@ public final class BulkRequestHandler {
     }
 
     boolean awaitClose(long timeout, TimeUnit unit) throws InterruptedException {
-        if (semaphore.tryAcquire(this.concurrentRequests, timeout, unit)) {
-            semaphore.release(this.concurrentRequests);
+        final int permits;
+        synchronized (limitMutex) {
+            closing = true;
+            permits = controller != null ? controller.concurrentRequests() : this.concurrentRequests;
+        }
+        if (semaphore.tryAcquire(permits, timeout, unit)) {
+            semaphore.release(permits);
             return true;
         }
         return false;
     }
+
+    /**
+     * @return the size in bytes at which bulk requests are executed in adaptive mode, or {@code -1} if not in adaptive mode
+     */
+    long adaptiveBulkSize() {
+        return controller != null ? controller.bulkSize() : -1;
+    }
+
+    /**
+     * @param bulkSize the size in bytes at which bulk requests are executed if not in adaptive mode
+     */
+    BulkProcessor.Stats stats(long bulkSize) {
+        return new BulkProcessor.Stats(
+            controller != null ? controller.bulkSize() : bulkSize,
+            executedRequests.count(),
+            failedRequests.count(),
+            executedActions.count(),
+            executedBytes.count(),
+            rejectedActions.count(),
+            attempts.count(),
+            TimeUnit.NANOSECONDS.toMillis(attemptsTookInNanos.count()),
+            inFlightRequests.count(),
+            inFlightBytes.count(),
+            controller != null ? controller.concurrentRequests() : concurrentRequests);
+    }
+
+    /**
+     * A semaphore whose number of permits can be reduced while permits are held.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+
+        ResizableSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
 }
@@ -64,6 +64,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -492,10 +493,11 @@ public class TransportBulkAction extends HandledTransportAction<BulkRequest, Bul
     void processBulkIndexIngestRequest(Task task, BulkRequest original, ActionListener<BulkResponse> listener) {
         long ingestStartTimeInNanos = System.nanoTime();
         BulkRequestModifier bulkRequestModifier = new BulkRequestModifier(original);
-        ingestService.getPipelineExecutionService().executeBulkRequest(() -> bulkRequestModifier, (indexRequest, exception) -> {
-            logger.debug(() -> new ParameterizedMessage("failed to execute pipeline [{}] for document [{}/{}/{}]",
-                indexRequest.getPipeline(), indexRequest.index(), indexRequest.type(), indexRequest.id()), exception);
-            bulkRequestModifier.markCurrentItemAsFailed(exception);
+        ingestService.getPipelineExecutionService().executeBulkRequest(() -> bulkRequestModifier, (slot, exception) -> {
+            DocWriteRequest request = original.requests().get(slot);
+            logger.debug(() -> new ParameterizedMessage("failed to execute pipeline for document [{}/{}/{}]",
+                request.index(), request.type(), request.id()), exception);
+            bulkRequestModifier.markItemAsFailed(slot, exception);
         }, (exception) -> {
             if (exception != null) {
                 logger.error("failed to execute pipeline for a bulk request", exception);
@@ -571,19 +573,21 @@ public class TransportBulkAction extends HandledTransportAction<BulkRequest, Bul
                                 response.getTook().getMillis(), ingestTookInMillis)),
                         actionListener::onFailure);
             } else {
+                // items may have failed out of order when pipelines were executed concurrently
+                itemResponses.sort(Comparator.comparingInt(BulkItemResponse::getItemId));
                 return new IngestBulkResponseListener(ingestTookInMillis, originalSlots, itemResponses, actionListener);
             }
         }
 
-        void markCurrentItemAsFailed(Exception e) {
-            IndexRequest indexRequest = (IndexRequest) bulkRequest.requests().get(currentSlot);
+        synchronized void markItemAsFailed(int slot, Exception e) {
+            DocWriteRequest request = bulkRequest.requests().get(slot);
             // We hit a error during preprocessing a request, so we:
             // 1) Remember the request item slot from the bulk, so that we're done processing all requests we know what failed
             // 2) Add a bulk item failure for this request
             // 3) Continue with the next request in the bulk.
-            failedSlots.set(currentSlot);
-            BulkItemResponse.Failure failure = new BulkItemResponse.Failure(indexRequest.index(), indexRequest.type(), indexRequest.id(), e);
-            itemResponses.add(new BulkItemResponse(currentSlot, indexRequest.opType(), failure));
+            failedSlots.set(slot);
+            BulkItemResponse.Failure failure = new BulkItemResponse.Failure(request.index(), request.type(), request.id(), e);
+            itemResponses.add(new BulkItemResponse(slot, request.opType(), failure));
         }
 
     }
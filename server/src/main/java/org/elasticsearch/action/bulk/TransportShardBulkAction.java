@@ -48,7 +48,10 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.logging.ESLoggerFactory;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.engine.Engine;
@@ -67,6 +70,9 @@ import org.elasticsearch.transport.TransportService;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.function.Function;
 import java.util.function.LongSupplier;
 
@@ -77,8 +83,18 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
 
     private static final Logger logger = ESLoggerFactory.getLogger(TransportShardBulkAction.class);
 
+    /**
+     * The maximum number of threads that execute the items of a shard level bulk request, on the primary as well as on
+     * the replicas. Items of different documents are executed concurrently while items of the same document are executed
+     * in the order of the request. Threads other than the one that executes the request are only used if the write
+     * thread pool has threads to spare.
+     */
+    public static final Setting<Integer> SHARD_PARALLELISM_SETTING =
+        Setting.intSetting("action.bulk.shard_parallelism", 1, 1, Property.Dynamic, Property.NodeScope);
+
     private final UpdateHelper updateHelper;
     private final MappingUpdatedAction mappingUpdatedAction;
+    private volatile int shardParallelism;
 
     @Inject
     public TransportShardBulkAction(Settings settings, TransportService transportService, ClusterService clusterService,
@@ -89,6 +105,12 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
             indexNameExpressionResolver, BulkShardRequest::new, BulkShardRequest::new, ThreadPool.Names.WRITE);
         this.updateHelper = updateHelper;
         this.mappingUpdatedAction = mappingUpdatedAction;
+        this.shardParallelism = SHARD_PARALLELISM_SETTING.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(SHARD_PARALLELISM_SETTING, this::setShardParallelism);
+    }
+
+    private void setShardParallelism(int shardParallelism) {
+        this.shardParallelism = shardParallelism;
     }
 
     @Override
@@ -109,7 +131,22 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
     @Override
     public WritePrimaryResult<BulkShardRequest, BulkShardResponse> shardOperationOnPrimary(
             BulkShardRequest request, IndexShard primary) throws Exception {
-        return performOnPrimary(request, primary, updateHelper, threadPool::absoluteTimeInMillis, new ConcreteMappingUpdatePerformer());
+        return performOnPrimary(request, primary, updateHelper, threadPool::absoluteTimeInMillis, new ConcreteMappingUpdatePerformer(),
+            shardParallelism, itemExecutor());
+    }
+
+    private Executor itemExecutor() {
+        final ExecutorService executor = threadPool.executor(ThreadPool.Names.WRITE);
+        return command -> {
+            if (executor instanceof ThreadPoolExecutor) {
+                final ThreadPoolExecutor writeExecutor = (ThreadPoolExecutor) executor;
+                if (writeExecutor.getActiveCount() >= writeExecutor.getMaximumPoolSize()) {
+                    // don't queue up behind other write requests, the calling thread executes the items instead
+                    throw new EsRejectedExecutionException("no idle [" + ThreadPool.Names.WRITE + "] threads");
+                }
+            }
+            executor.execute(threadPool.getThreadContext().preserveContext(command));
+        };
     }
 
     public static WritePrimaryResult<BulkShardRequest, BulkShardResponse> performOnPrimary(
@@ -118,14 +155,28 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
             UpdateHelper updateHelper,
             LongSupplier nowInMillisSupplier,
             MappingUpdatePerformer mappingUpdater) throws Exception {
+        return performOnPrimary(request, primary, updateHelper, nowInMillisSupplier, mappingUpdater, 1, Runnable::run);
+    }
+
+    public static WritePrimaryResult<BulkShardRequest, BulkShardResponse> performOnPrimary(
+            BulkShardRequest request,
+            IndexShard primary,
+            UpdateHelper updateHelper,
+            LongSupplier nowInMillisSupplier,
+            MappingUpdatePerformer mappingUpdater,
+            int parallelism,
+            Executor executor) throws Exception {
         final IndexMetaData metaData = primary.indexSettings().getIndexMetaData();
-        Translog.Location location = null;
-        for (int requestIndex = 0; requestIndex < request.items().length; requestIndex++) {
-            if (isAborted(request.items()[requestIndex].getPrimaryResponse()) == false) {
-                location = executeBulkItemRequest(metaData, primary, request, location, requestIndex,
-                    updateHelper, nowInMillisSupplier, mappingUpdater);
+        final Translog.Location location = BulkItemGroupExecutor.execute(request.items(), parallelism, executor, itemIndices -> {
+            Translog.Location groupLocation = null;
+            for (int requestIndex : itemIndices) {
+                if (isAborted(request.items()[requestIndex].getPrimaryResponse()) == false) {
+                    groupLocation = executeBulkItemRequest(metaData, primary, request, groupLocation, requestIndex,
+                        updateHelper, nowInMillisSupplier, mappingUpdater);
+                }
             }
-        }
+            return groupLocation;
+        });
         BulkItemResponse[] responses = new BulkItemResponse[request.items().length];
         BulkItemRequest[] items = request.items();
         for (int i = 0; i < items.length; i++) {
@@ -476,42 +527,54 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
 
     @Override
     public WriteReplicaResult<BulkShardRequest> shardOperationOnReplica(BulkShardRequest request, IndexShard replica) throws Exception {
-        final Translog.Location location = performOnReplica(request, replica);
+        final Translog.Location location = performOnReplica(request, replica, shardParallelism, itemExecutor());
         return new WriteReplicaResult<>(request, location, null, replica, logger);
     }
 
     public static Translog.Location performOnReplica(BulkShardRequest request, IndexShard replica) throws Exception {
-        Translog.Location location = null;
-        for (int i = 0; i < request.items().length; i++) {
-            BulkItemRequest item = request.items()[i];
-            final Engine.Result operationResult;
-            DocWriteRequest docWriteRequest = item.request();
-            try {
-                switch (replicaItemExecutionMode(item, i)) {
-                    case NORMAL:
-                        final DocWriteResponse primaryResponse = item.getPrimaryResponse().getResponse();
-                        operationResult = performOpOnReplica(primaryResponse, docWriteRequest, replica);
-                        assert operationResult != null : "operation result must never be null when primary response has no failure";
-                        location = syncOperationResultOrThrow(operationResult, location);
-                        break;
-                    case NOOP:
-                        break;
-                    case FAILURE:
-                        final BulkItemResponse.Failure failure = item.getPrimaryResponse().getFailure();
-                        assert failure.getSeqNo() != SequenceNumbers.UNASSIGNED_SEQ_NO : "seq no must be assigned";
-                        operationResult = replica.markSeqNoAsNoop(failure.getSeqNo(), failure.getMessage());
-                        assert operationResult != null : "operation result must never be null when primary response has no failure";
-                        location = syncOperationResultOrThrow(operationResult, location);
-                        break;
-                    default:
-                        throw new IllegalStateException("illegal replica item execution mode for: " + docWriteRequest);
-               }
-            } catch (Exception e) {
-                // if its not an ignore replica failure, we need to make sure to bubble up the failure
-                // so we will fail the shard
-                if (!TransportActions.isShardNotAvailableException(e)) {
-                    throw e;
-                }
+        return performOnReplica(request, replica, 1, Runnable::run);
+    }
+
+    public static Translog.Location performOnReplica(BulkShardRequest request, IndexShard replica,
+                                                     int parallelism, Executor executor) throws Exception {
+        return BulkItemGroupExecutor.execute(request.items(), parallelism, executor, itemIndices -> {
+            Translog.Location location = null;
+            for (int i : itemIndices) {
+                location = performItemOnReplica(request.items()[i], i, replica, location);
+            }
+            return location;
+        });
+    }
+
+    private static Translog.Location performItemOnReplica(BulkItemRequest item, int i, IndexShard replica,
+                                                          Translog.Location location) throws Exception {
+        final Engine.Result operationResult;
+        DocWriteRequest docWriteRequest = item.request();
+        try {
+            switch (replicaItemExecutionMode(item, i)) {
+                case NORMAL:
+                    final DocWriteResponse primaryResponse = item.getPrimaryResponse().getResponse();
+                    operationResult = performOpOnReplica(primaryResponse, docWriteRequest, replica);
+                    assert operationResult != null : "operation result must never be null when primary response has no failure";
+                    location = syncOperationResultOrThrow(operationResult, location);
+                    break;
+                case NOOP:
+                    break;
+                case FAILURE:
+                    final BulkItemResponse.Failure failure = item.getPrimaryResponse().getFailure();
+                    assert failure.getSeqNo() != SequenceNumbers.UNASSIGNED_SEQ_NO : "seq no must be assigned";
+                    operationResult = replica.markSeqNoAsNoop(failure.getSeqNo(), failure.getMessage());
+                    assert operationResult != null : "operation result must never be null when primary response has no failure";
+                    location = syncOperationResultOrThrow(operationResult, location);
+                    break;
+                default:
+                    throw new IllegalStateException("illegal replica item execution mode for: " + docWriteRequest);
+           }
+        } catch (Exception e) {
+            // if its not an ignore replica failure, we need to make sure to bubble up the failure
+            // so we will fail the shard
+            if (!TransportActions.isShardNotAvailableException(e)) {
+                throw e;
             }
         }
         return location;
@@ -28,6 +28,7 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ShardOperationFailedException;
 import org.elasticsearch.action.support.TransportActions;
 import org.elasticsearch.cluster.routing.GroupShardsIterator;
+import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
 import org.elasticsearch.search.SearchPhaseResult;
@@ -98,6 +99,37 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
         this.clusters = clusters;
     }
 
+    @Override
+    long getHedgeDelayNanos(ShardRouting shard) {
+        return request.hedgeRequests() ? searchTransportService.getHedgeDelayNanos(shard.currentNodeId()) : -1;
+    }
+
+    @Override
+    void scheduleHedge(long delayNanos, Runnable hedge) {
+        searchTransportService.scheduleHedge(delayNanos, hedge);
+    }
+
+    @Override
+    void onIgnoredShardResult(Result result) {
+        try {
+            SearchShardTarget searchShardTarget = result.getSearchShardTarget();
+            Transport.Connection connection = getConnection(searchShardTarget.getClusterAlias(), searchShardTarget.getNodeId());
+            sendReleaseSearchContext(result.getRequestId(), connection, searchShardTarget.getOriginalIndices());
+        } catch (Exception e) {
+            logger.trace("failed to release context", e);
+        }
+    }
+
+    @Override
+    void onHedgedRequest() {
+        searchTransportService.onHedgedRequest();
+    }
+
+    @Override
+    void onWastedHedgedRequest() {
+        searchTransportService.onWastedHedgedRequest();
+    }
+
     /**
      * Builds how long it took to execute the search.
      */
@@ -72,6 +72,11 @@ final class CanMatchPreFilterSearchPhase extends AbstractSearchAsyncAction<Searc
             buildShardSearchRequest(shardIt), getTask(), listener);
     }
 
+    @Override
+    void onIgnoredShardResult(SearchTransportService.CanMatchResponse result) {
+        // can match requests do not open a search context on the shard, there is nothing to release
+    }
+
     @Override
     protected SearchPhase getNextPhase(SearchPhaseResults<SearchTransportService.CanMatchResponse> results,
                                        SearchPhaseContext context) {
@@ -43,7 +43,8 @@ import java.util.stream.Stream;
  * the shards replica iterator is exhausted. Each shard is referenced by position in the {@link GroupShardsIterator} which is later
  * referred to as the {@code shardIndex}.
  * The fan out and collect algorithm is traditionally used as the initial phase which can either be a query execution or collection
- * distributed frequencies
+ * distributed frequencies. If hedging is enabled, a shard request that takes longer than expected is sent to the next replica of the
+ * shard as well and the first successful response is used.
  */
 abstract class InitialSearchPhase<FirstResult extends SearchPhaseResult> extends SearchPhase {
     private final SearchRequest request;
@@ -209,30 +210,83 @@ abstract class InitialSearchPhase<FirstResult extends SearchPhaseResult> extends
         if (shard == null) {
             fork(() -> onShardFailure(shardIndex, null, null, shardIt, new NoShardAvailableActionException(shardIt.shardId())));
         } else {
-            try {
-                executePhaseOnShard(shardIt, shard, new SearchActionListener<FirstResult>(new SearchShardTarget(shard.currentNodeId(),
-                    shardIt.shardId(), shardIt.getClusterAlias(), shardIt.getOriginalIndices()), shardIndex) {
-                    @Override
-                    public void innerOnResponse(FirstResult result) {
+            final long hedgeDelayNanos = shardIt.remaining() > 0 ? getHedgeDelayNanos(shard) : -1;
+            if (hedgeDelayNanos >= 0) {
+                final HedgedShardExecution execution = new HedgedShardExecution(shardIndex, shardIt);
+                performPhaseOnShardCopy(shardIndex, shardIt, shard, thread, execution, false);
+                scheduleHedge(hedgeDelayNanos, execution::hedge);
+            } else {
+                performPhaseOnShardCopy(shardIndex, shardIt, shard, thread, null, false);
+            }
+        }
+    }
+
+    private void performPhaseOnShardCopy(final int shardIndex, final SearchShardIterator shardIt, final ShardRouting shard,
+                                         final Thread thread, @Nullable final HedgedShardExecution execution, final boolean hedge) {
+        try {
+            executePhaseOnShard(shardIt, shard, new SearchActionListener<FirstResult>(new SearchShardTarget(shard.currentNodeId(),
+                shardIt.shardId(), shardIt.getClusterAlias(), shardIt.getOriginalIndices()), shardIndex) {
+                @Override
+                public void innerOnResponse(FirstResult result) {
+                    if (execution == null) {
                         maybeFork(thread, () -> onShardResult(result, shardIt));
+                    } else {
+                        final int ignoredOps = execution.onResponse(hedge);
+                        if (ignoredOps >= 0) {
+                            maybeFork(thread, () -> onShardResult(result, shardIt, ignoredOps));
+                        } else {
+                            // another copy of the shard responded first, this result is not needed anymore
+                            onIgnoredShardResult(result);
+                        }
                     }
+                }
 
-                    @Override
-                    public void onFailure(Exception t) {
-                        maybeFork(thread, () -> onShardFailure(shardIndex, shard, shard.currentNodeId(), shardIt, t));
-                    }
-                });
-            } catch (final Exception e) {
-                /*
-                 * It is possible to run into connection exceptions here because we are getting the connection early and might run in to
-                 * nodes that are not connected. In this case, on shard failure will move us to the next shard copy.
-                 */
-                fork(() -> onShardFailure(shardIndex, shard, shard.currentNodeId(), shardIt, e));
+                @Override
+                public void onFailure(Exception t) {
+                    onShardCopyFailure(shardIndex, shard, shardIt, thread, execution, t);
+                }
+            });
+        } catch (final Exception e) {
+            /*
+             * It is possible to run into connection exceptions here because we are getting the connection early and might run in to
+             * nodes that are not connected. In this case, on shard failure will move us to the next shard copy.
+             */
+            onShardCopyFailure(shardIndex, shard, shardIt, null, execution, e);
+        }
+    }
+
+    private void onShardCopyFailure(final int shardIndex, final ShardRouting shard, final SearchShardIterator shardIt,
+                                    @Nullable final Thread thread, @Nullable final HedgedShardExecution execution, final Exception e) {
+        final Runnable onFailure;
+        if (execution == null) {
+            onFailure = () -> onShardFailure(shardIndex, shard, shard.currentNodeId(), shardIt, e);
+        } else {
+            final int failedCopies = execution.onFailure();
+            if (failedCopies < 0) {
+                // another copy of the shard is still executing the request or responded already
+                return;
             }
+            onFailure = () -> {
+                // account for the copies that failed while this copy was still executing the request
+                totalOps.addAndGet(failedCopies);
+                onShardFailure(shardIndex, shard, shard.currentNodeId(), shardIt, e);
+            };
+        }
+        if (thread == null) {
+            fork(onFailure);
+        } else {
+            maybeFork(thread, onFailure);
         }
     }
 
     private void onShardResult(FirstResult result, SearchShardIterator shardIt) {
+        onShardResult(result, shardIt, 0);
+    }
+
+    /**
+     * @param ignoredOps the number of other copies of the shard that executed the same hedged request and whose outcome is ignored
+     */
+    private void onShardResult(FirstResult result, SearchShardIterator shardIt, int ignoredOps) {
         assert result.getShardIndex() != -1 : "shard index is not set";
         assert result.getSearchShardTarget() != null : "search shard target must not be null";
         onShardSuccess(result);
@@ -241,15 +295,15 @@ abstract class InitialSearchPhase<FirstResult extends SearchPhaseResult> extends
         // cause the successor to read a wrong value from successfulOps if second phase is very fast ie. count etc.
         // increment all the "future" shards to update the total ops since we some may work and some may not...
         // and when that happens, we break on total ops, so we must maintain them
-        successfulShardExecution(shardIt);
+        successfulShardExecution(shardIt, ignoredOps);
     }
 
-    private void successfulShardExecution(SearchShardIterator shardsIt) {
+    private void successfulShardExecution(SearchShardIterator shardsIt, int ignoredOps) {
         final int remainingOpsOnIterator;
         if (shardsIt.skip()) {
             remainingOpsOnIterator = shardsIt.remaining();
         } else {
-            remainingOpsOnIterator = shardsIt.remaining() + 1;
+            remainingOpsOnIterator = shardsIt.remaining() + 1 + ignoredOps;
         }
         final int xTotalOps = totalOps.addAndGet(remainingOpsOnIterator);
         if (xTotalOps == expectedTotalOps) {
@@ -296,6 +350,110 @@ abstract class InitialSearchPhase<FirstResult extends SearchPhaseResult> extends
     protected abstract void executePhaseOnShard(SearchShardIterator shardIt, ShardRouting shard,
                                                 SearchActionListener<FirstResult> listener);
 
+    /**
+     * Returns the delay in nanoseconds after which the request for the given shard copy is also sent to the next copy of the shard
+     * if it did not respond yet, or <code>-1</code> if requests to this copy should not be hedged.
+     */
+    long getHedgeDelayNanos(ShardRouting shard) {
+        return -1;
+    }
+
+    /**
+     * Schedules the given hedge to run after the given delay. This is only called if {@link #getHedgeDelayNanos(ShardRouting)} returned
+     * a non-negative delay.
+     */
+    abstract void scheduleHedge(long delayNanos, Runnable hedge);
+
+    /**
+     * Executed for every successful shard level response that is ignored because another copy of the same shard executed the hedged
+     * request and responded first. Implementations must release all resources that the shard copy holds on to for this result.
+     * @param result the ignored result returned from the shard
+     */
+    abstract void onIgnoredShardResult(FirstResult result);
+
+    /**
+     * Executed once for every shard level request that is hedged and sent to another copy of the shard.
+     */
+    void onHedgedRequest() {
+    }
+
+    /**
+     * Executed if the shard copy that was queried first responds first after the request was hedged, which means that the hedged
+     * request was not needed.
+     */
+    void onWastedHedgedRequest() {
+    }
+
+    /**
+     * Tracks the copies of a single shard that execute the same request concurrently once the request was hedged. The first
+     * successful response wins and the outcome of all other copies is ignored. A failure of one copy is only handed over to
+     * the regular failure handling, which moves on to the next copy, if no other copy is executing the request anymore. Copies
+     * whose outcome is ignored are accounted for once the shard is done so that the total number of operations stays correct.
+     */
+    private final class HedgedShardExecution {
+        private final int shardIndex;
+        private final SearchShardIterator shardIt;
+        private int inFlight = 1;
+        private int failedCopies;
+        private boolean hedged;
+        private boolean done;
+
+        private HedgedShardExecution(int shardIndex, SearchShardIterator shardIt) {
+            this.shardIndex = shardIndex;
+            this.shardIt = shardIt;
+        }
+
+        void hedge() {
+            final ShardRouting nextShard;
+            synchronized (this) {
+                if (done || hedged || inFlight == 0) {
+                    return;
+                }
+                nextShard = shardIt.nextOrNull();
+                if (nextShard == null) {
+                    return;
+                }
+                hedged = true;
+                inFlight++;
+            }
+            onHedgedRequest();
+            performPhaseOnShardCopy(shardIndex, shardIt, nextShard, Thread.currentThread(), this, true);
+        }
+
+        /**
+         * Returns the number of other copies whose outcome is ignored if this is the first successful response
+         * or <code>-1</code> if the response must be ignored.
+         */
+        synchronized int onResponse(boolean hedge) {
+            inFlight--;
+            if (done) {
+                return -1;
+            }
+            done = true;
+            if (hedged && hedge == false) {
+                onWastedHedgedRequest();
+            }
+            return inFlight + failedCopies;
+        }
+
+        /**
+         * Returns the number of other copies that failed already if this failure must be handled by the regular failure
+         * handling or <code>-1</code> if the failure must be ignored.
+         */
+        synchronized int onFailure() {
+            inFlight--;
+            if (done) {
+                return -1;
+            } else if (inFlight > 0) {
+                failedCopies++;
+                return -1;
+            }
+            // hand over to the regular failure handling which might start a new execution on the next copy
+            done = true;
+            return failedCopies;
+        }
+    }
+
     /**
      * This class acts as a basic result collection that can be extended to do on-the-fly reduction or result processing
      */
@@ -374,7 +532,7 @@ abstract class InitialSearchPhase<FirstResult extends SearchPhaseResult> extends
 
     protected void skipShard(SearchShardIterator iterator) {
         assert iterator.skip();
-        successfulShardExecution(iterator);
+        successfulShardExecution(iterator, 0);
     }
 
 }
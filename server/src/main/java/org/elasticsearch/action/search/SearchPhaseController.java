@@ -34,6 +34,8 @@ import org.apache.lucene.search.TopFieldDocs;
 import org.apache.lucene.search.grouping.CollapseTopFieldDocs;
 import org.elasticsearch.common.collect.HppcMaps;
 import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.script.ScriptService;
@@ -41,9 +43,11 @@ import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
 import org.elasticsearch.search.SearchPhaseResult;
+import org.elasticsearch.search.aggregations.Aggregation;
 import org.elasticsearch.search.aggregations.InternalAggregation;
 import org.elasticsearch.search.aggregations.InternalAggregation.ReduceContext;
 import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.InternalMultiBucketAggregation;
 import org.elasticsearch.search.aggregations.pipeline.SiblingPipelineAggregator;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.dfs.AggregatedDfs;
@@ -74,7 +78,17 @@ public final class SearchPhaseController extends AbstractComponent {
 
     private static final ScoreDoc[] EMPTY_DOCS = new ScoreDoc[0];
 
+    /**
+     * The maximum number of aggregation buckets the coordinating node buffers from shard responses before it eagerly
+     * runs a partial reduce, even if the batched reduce buffer is not exhausted yet. A value of {@code 0} reduces every
+     * shard response into the partially reduced result as soon as it arrives. Unlimited by default, in which case only the
+     * batched reduce size of the request triggers partial reduces.
+     */
+    public static final Setting<Integer> MAX_BUFFERED_BUCKETS_SETTING =
+        Setting.intSetting("search.batched_reduce.max_buffered_buckets", Integer.MAX_VALUE, 0, Property.NodeScope);
+
     private final Function<Boolean, ReduceContext> reduceContextFunction;
+    private final int maxBufferedBuckets;
 
     /**
      * Constructor.
@@ -84,6 +98,7 @@ public final class SearchPhaseController extends AbstractComponent {
     public SearchPhaseController(Settings settings, Function<Boolean, ReduceContext> reduceContextFunction) {
         super(settings);
         this.reduceContextFunction = reduceContextFunction;
+        this.maxBufferedBuckets = MAX_BUFFERED_BUCKETS_SETTING.get(settings);
     }
 
     public AggregatedDfs aggregateDfs(Collection<DfsSearchResult> results) {
@@ -614,7 +629,9 @@ public final class SearchPhaseController extends AbstractComponent {
      * A {@link InitialSearchPhase.ArraySearchPhaseResults} implementation
      * that incrementally reduces aggregation results as shard results are consumed.
      * This implementation can be configured to batch up a certain amount of results and only reduce them
-     * iff the buffer is exhausted.
+     * iff the buffer is exhausted. Independently of the buffer size a partial reduce is triggered once the buffered
+     * shard results hold more than a configured number of aggregation buckets, which bounds the memory held on the
+     * coordinating node for high cardinality aggregations to roughly one reduced aggregation tree plus a bounded buffer.
      */
     static final class QueryPhaseResultConsumer extends InitialSearchPhase.ArraySearchPhaseResults<SearchPhaseResult> {
         private final InternalAggregations[] aggsBuffer;
@@ -622,7 +639,9 @@ public final class SearchPhaseController extends AbstractComponent {
         private final boolean hasAggs;
         private final boolean hasTopDocs;
         private final int bufferSize;
+        private final int maxBufferedBuckets;
         private int index;
+        private long numBufferedBuckets;
         private final SearchPhaseController controller;
         private int numReducePhases = 0;
         private final TopDocsStats topDocsStats = new TopDocsStats();
@@ -633,9 +652,11 @@ public final class SearchPhaseController extends AbstractComponent {
          * @param expectedResultSize the expected number of query results. Corresponds to the number of shards queried
          * @param bufferSize the size of the reduce buffer. if the buffer size is smaller than the number of expected results
          *                   the buffer is used to incrementally reduce aggregation results before all shards responded.
+         * @param maxBufferedBuckets the maximum number of aggregation buckets to buffer before results are reduced incrementally
+         *                           even if the buffer is not exhausted yet.
          */
         private QueryPhaseResultConsumer(SearchPhaseController controller, int expectedResultSize, int bufferSize,
-                                         boolean hasTopDocs, boolean hasAggs) {
+                                         int maxBufferedBuckets, boolean hasTopDocs, boolean hasAggs) {
             super(expectedResultSize);
             if (expectedResultSize != 1 && bufferSize < 2) {
                 throw new IllegalArgumentException("buffer size must be >= 2 if there is more than one expected result");
@@ -653,7 +674,7 @@ public final class SearchPhaseController extends AbstractComponent {
             this.hasTopDocs = hasTopDocs;
             this.hasAggs = hasAggs;
             this.bufferSize = bufferSize;
-
+            this.maxBufferedBuckets = maxBufferedBuckets;
         }
 
         @Override
@@ -664,14 +685,19 @@ public final class SearchPhaseController extends AbstractComponent {
         }
 
         private synchronized void consumeInternal(QuerySearchResult querySearchResult) {
-            if (index == bufferSize) {
+            // reduce once the buffer is exhausted or if the buffered shard results hold too many buckets. Reducing a single
+            // entry is pointless so we always buffer at least the already reduced result and one shard result.
+            if (index == bufferSize || (index > 1 && numBufferedBuckets > maxBufferedBuckets)) {
                 if (hasAggs) {
-                    InternalAggregations reducedAggs = controller.reduceAggsIncrementally(Arrays.asList(aggsBuffer));
+                    InternalAggregations reducedAggs = controller.reduceAggsIncrementally(Arrays.asList(aggsBuffer).subList(0, index));
                     Arrays.fill(aggsBuffer, null);
                     aggsBuffer[0] = reducedAggs;
+                    // only buckets of results that are not reduced yet count towards the limit, otherwise we would
+                    // reduce on every result once the reduced result alone holds more buckets than the limit
+                    numBufferedBuckets = 0;
                 }
                 if (hasTopDocs) {
-                    TopDocs reducedTopDocs = controller.mergeTopDocs(Arrays.asList(topDocsBuffer),
+                    TopDocs reducedTopDocs = controller.mergeTopDocs(Arrays.asList(topDocsBuffer).subList(0, index),
                         querySearchResult.from() + querySearchResult.size() // we have to merge here in the same way we collect on a shard
                         , 0);
                     Arrays.fill(topDocsBuffer, null);
@@ -682,7 +708,9 @@ public final class SearchPhaseController extends AbstractComponent {
             }
             final int i = index++;
             if (hasAggs) {
-                aggsBuffer[i] = (InternalAggregations) querySearchResult.consumeAggs();
+                InternalAggregations aggs = (InternalAggregations) querySearchResult.consumeAggs();
+                numBufferedBuckets += countBuckets(aggs);
+                aggsBuffer[i] = aggs;
             }
             if (hasTopDocs) {
                 final TopDocs topDocs = querySearchResult.consumeTopDocs(); // can't be null
@@ -692,6 +720,16 @@ public final class SearchPhaseController extends AbstractComponent {
             }
         }
 
+        private static long countBuckets(InternalAggregations aggregations) {
+            long count = 0;
+            if (aggregations != null) {
+                for (Aggregation aggregation : aggregations) {
+                    count += InternalMultiBucketAggregation.countInnerBucket(aggregation);
+                }
+            }
+            return count;
+        }
+
         private synchronized List<InternalAggregations> getRemainingAggs() {
             return hasAggs ? Arrays.asList(aggsBuffer).subList(0, index) : null;
         }
@@ -715,6 +753,13 @@ public final class SearchPhaseController extends AbstractComponent {
         }
 
         int getNumReducePhases() { return numReducePhases; }
+
+        /**
+         * Returns the number of aggregation buckets held by the buffered shard results that are not reduced yet
+         */
+        synchronized long getNumBufferedBuckets() {
+            return numBufferedBuckets;
+        }
     }
 
     /**
@@ -731,7 +776,8 @@ public final class SearchPhaseController extends AbstractComponent {
             // no incremental reduce if scroll is used - we only hit a single shard or sometimes more...
             if (request.getBatchedReduceSize() < numShards) {
                 // only use this if there are aggs and if there are more shards than we should reduce at once
-                return new QueryPhaseResultConsumer(this, numShards, request.getBatchedReduceSize(), hasTopDocs, hasAggs);
+                return new QueryPhaseResultConsumer(this, numShards, request.getBatchedReduceSize(), maxBufferedBuckets,
+                    hasTopDocs, hasAggs);
             }
         }
         return new InitialSearchPhase.ArraySearchPhaseResults(numShards) {
@@ -85,6 +85,8 @@ public final class SearchRequest extends ActionRequest implements IndicesRequest
 
     private int preFilterShardSize = DEFAULT_PRE_FILTER_SHARD_SIZE;
 
+    private boolean hedgeRequests = false;
+
     private String[] types = Strings.EMPTY_ARRAY;
 
     public static final IndicesOptions DEFAULT_INDICES_OPTIONS = IndicesOptions.strictExpandOpenAndForbidClosed();
@@ -140,7 +142,10 @@ public final class SearchRequest extends ActionRequest implements IndicesRequest
         }
         if (in.getVersion().onOrAfter(Version.V_6_3_0)) {
             allowPartialSearchResults = in.readOptionalBoolean();
-        }           
+        }
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            hedgeRequests = in.readBoolean();
+        }
     }
 
     @Override
@@ -165,7 +170,10 @@ public final class SearchRequest extends ActionRequest implements IndicesRequest
         }
         if (out.getVersion().onOrAfter(Version.V_6_3_0)) {
             out.writeOptionalBoolean(allowPartialSearchResults);
-        }         
+        }
+        if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            out.writeBoolean(hedgeRequests);
+        }
     }
 
     @Override
@@ -439,6 +447,23 @@ public final class SearchRequest extends ActionRequest implements IndicesRequest
         return preFilterShardSize;
     }
 
+    /**
+     * Sets if shard level requests should be hedged. If a shard copy does not respond within a delay derived from the
+     * response times observed for its node, the same request is sent to another copy of the shard and the first response
+     * is used. This trades additional load for lower tail latencies. The default is <code>false</code>.
+     */
+    public SearchRequest hedgeRequests(boolean hedgeRequests) {
+        this.hedgeRequests = hedgeRequests;
+        return this;
+    }
+
+    /**
+     * Returns <code>true</code> iff shard level requests should be hedged.
+     */
+    public boolean hedgeRequests() {
+        return hedgeRequests;
+    }
+
     /**
      * Returns <code>true</code> iff the maxConcurrentShardRequest is set.
      */
@@ -504,14 +529,15 @@ public final class SearchRequest extends ActionRequest implements IndicesRequest
                 Objects.equals(maxConcurrentShardRequests, that.maxConcurrentShardRequests) &&
                 Objects.equals(preFilterShardSize, that.preFilterShardSize) &&
                 Objects.equals(indicesOptions, that.indicesOptions) &&
-                Objects.equals(allowPartialSearchResults, that.allowPartialSearchResults);
+                Objects.equals(allowPartialSearchResults, that.allowPartialSearchResults) &&
+                hedgeRequests == that.hedgeRequests;
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(searchType, Arrays.hashCode(indices), routing, preference, source, requestCache,
                 scroll, Arrays.hashCode(types), indicesOptions, batchedReduceSize, maxConcurrentShardRequests, preFilterShardSize, 
-                allowPartialSearchResults);
+                allowPartialSearchResults, hedgeRequests);
     }
 
     @Override
@@ -529,6 +555,7 @@ public final class SearchRequest extends ActionRequest implements IndicesRequest
                 ", batchedReduceSize=" + batchedReduceSize +
                 ", preFilterShardSize=" + preFilterShardSize +
                 ", allowPartialSearchResults=" + allowPartialSearchResults +
+                ", hedgeRequests=" + hedgeRequests +
                 ", source=" + source + '}';
     }
 }
@@ -501,6 +501,15 @@ public class SearchRequestBuilder extends ActionRequestBuilder<SearchRequest, Se
         return this;
     }    
 
+    /**
+     * Sets if shard level requests should be hedged and sent to another copy of the shard if a copy is slow to respond.
+     * Defaults to <code>false</code>
+     */
+    public SearchRequestBuilder setHedgeRequests(boolean hedgeRequests) {
+        request.hedgeRequests(hedgeRequests);
+        return this;
+    }
+
     /**
      * Should the query be profiled. Defaults to <code>false</code>
      */
@@ -26,11 +26,14 @@ import org.elasticsearch.action.IndicesRequest;
 import org.elasticsearch.action.OriginalIndices;
 import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.search.SearchPhaseResult;
 import org.elasticsearch.search.SearchService;
 import org.elasticsearch.search.dfs.DfsSearchResult;
@@ -85,13 +88,25 @@ public class SearchTransportService extends AbstractComponent {
     public static final String QUERY_CAN_MATCH_NAME = "indices:data/read/search[can_match]";
 
     private final TransportService transportService;
+    private final ResponseCollectorService responseCollectorService;
     private final BiFunction<Transport.Connection, SearchActionListener, ActionListener> responseWrapper;
     private final Map<String, Long> clientConnections = ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency();
 
     public SearchTransportService(Settings settings, TransportService transportService,
                                   BiFunction<Transport.Connection, SearchActionListener, ActionListener> responseWrapper) {
+        this(settings, transportService, null, responseWrapper);
+    }
+
+    /**
+     * @param responseCollectorService the service collecting the response times of other nodes. It is used to decide when to hedge
+     *                                 slow shard level requests, hedging is disabled if it is <code>null</code>
+     */
+    public SearchTransportService(Settings settings, TransportService transportService,
+                                  @Nullable ResponseCollectorService responseCollectorService,
+                                  BiFunction<Transport.Connection, SearchActionListener, ActionListener> responseWrapper) {
         super(settings);
         this.transportService = transportService;
+        this.responseCollectorService = responseCollectorService;
         this.responseWrapper = responseWrapper;
     }
 
@@ -202,6 +217,35 @@ public class SearchTransportService extends AbstractComponent {
         return transportService.getRemoteClusterService();
     }
 
+    /**
+     * Returns the time in nanoseconds a shard level request to the given node may take before it is hedged and sent to
+     * another copy of the shard, or <code>-1</code> if requests to the node can't be hedged.
+     */
+    long getHedgeDelayNanos(String nodeId) {
+        return responseCollectorService == null ? -1 : responseCollectorService.getHedgeDelayNanos(nodeId);
+    }
+
+    /**
+     * Schedules the given hedge to run after the given delay. The hedge is expected to be a no-op if the shard responded already.
+     */
+    void scheduleHedge(long delayNanos, Runnable hedge) {
+        final ThreadPool threadPool = transportService.getThreadPool();
+        threadPool.schedule(TimeValue.timeValueNanos(delayNanos), ThreadPool.Names.GENERIC,
+            threadPool.getThreadContext().preserveContext(hedge));
+    }
+
+    void onHedgedRequest() {
+        if (responseCollectorService != null) {
+            responseCollectorService.onHedgedRequest();
+        }
+    }
+
+    void onWastedHedgedRequest() {
+        if (responseCollectorService != null) {
+            responseCollectorService.onWastedHedgedRequest();
+        }
+    }
+
     /**
      * Return a map of nodeId to pending number of search requests.
      * This is a snapshot of the current pending search and not a live map.
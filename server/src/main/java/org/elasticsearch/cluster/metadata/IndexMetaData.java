@@ -662,10 +662,10 @@ public class IndexMetaData implements Diffable<IndexMetaData>, ToXContentFragmen
             state = State.fromId(in.readByte());
             settings = Settings.readSettingsFromStream(in);
             primaryTerms = in.readVLongArray();
-            mappings = DiffableUtils.readImmutableOpenMapDiff(in, DiffableUtils.getStringKeySerializer(), MappingMetaData::new,
-                MappingMetaData::readDiffFrom);
-            aliases = DiffableUtils.readImmutableOpenMapDiff(in, DiffableUtils.getStringKeySerializer(), AliasMetaData::new,
-                AliasMetaData::readDiffFrom);
+            mappings = DiffableUtils.readImmutableOpenMapDiff(in, DiffableUtils.getStringKeySerializer(), MetaDataInterner::readMapping,
+                MetaDataInterner::readMappingDiff);
+            aliases = DiffableUtils.readImmutableOpenMapDiff(in, DiffableUtils.getStringKeySerializer(), MetaDataInterner::readAlias,
+                MetaDataInterner::readAliasDiff);
             customs = DiffableUtils.readImmutableOpenMapDiff(in, DiffableUtils.getStringKeySerializer(),
                 new DiffableUtils.DiffableValueSerializer<String, Custom>() {
                     @Override
@@ -722,12 +722,12 @@ public class IndexMetaData implements Diffable<IndexMetaData>, ToXContentFragmen
         builder.primaryTerms(in.readVLongArray());
         int mappingsSize = in.readVInt();
         for (int i = 0; i < mappingsSize; i++) {
-            MappingMetaData mappingMd = new MappingMetaData(in);
+            MappingMetaData mappingMd = MetaDataInterner.readMapping(in);
             builder.putMapping(mappingMd);
         }
         int aliasesSize = in.readVInt();
         for (int i = 0; i < aliasesSize; i++) {
-            AliasMetaData aliasMd = new AliasMetaData(in);
+            AliasMetaData aliasMd = MetaDataInterner.readAlias(in);
             builder.putAlias(aliasMd);
         }
         int customSize = in.readVInt();
@@ -224,7 +224,7 @@ public class IndexTemplateMetaData extends AbstractDiffable<IndexTemplateMetaDat
         }
         int aliasesSize = in.readVInt();
         for (int i = 0; i < aliasesSize; i++) {
-            AliasMetaData aliasMd = new AliasMetaData(in);
+            AliasMetaData aliasMd = MetaDataInterner.readAlias(in);
             builder.putAlias(aliasMd);
         }
         int customSize = in.readVInt();
@@ -0,0 +1,155 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cluster.metadata;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.xcontent.ToXContentFragment;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+/**
+ * Statistics about the mappings and aliases that a node's {@link MetaDataInterner} shares between the index metadata it has received.
+ */
+public class MetaDataInternStats implements Writeable, ToXContentFragment {
+
+    private final Stats mappings;
+    private final Stats aliases;
+
+    public MetaDataInternStats(Stats mappings, Stats aliases) {
+        this.mappings = mappings;
+        this.aliases = aliases;
+    }
+
+    public MetaDataInternStats(StreamInput in) throws IOException {
+        mappings = new Stats(in);
+        aliases = new Stats(in);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        mappings.writeTo(out);
+        aliases.writeTo(out);
+    }
+
+    public Stats getMappings() {
+        return mappings;
+    }
+
+    public Stats getAliases() {
+        return aliases;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(Fields.INTERNED_MAPPINGS_AND_ALIASES);
+        builder.startObject(Fields.MAPPINGS);
+        mappings.toXContent(builder, params);
+        builder.endObject();
+        builder.startObject(Fields.ALIASES);
+        aliases.toXContent(builder, params);
+        builder.endObject();
+        builder.endObject();
+        return builder;
+    }
+
+    public static class Stats implements Writeable, ToXContentFragment {
+
+        private final long count;
+        private final long sizeInBytes;
+        private final long deduplicated;
+        private final long deduplicatedSizeInBytes;
+
+        public Stats(long count, long sizeInBytes, long deduplicated, long deduplicatedSizeInBytes) {
+            this.count = count;
+            this.sizeInBytes = sizeInBytes;
+            this.deduplicated = deduplicated;
+            this.deduplicatedSizeInBytes = deduplicatedSizeInBytes;
+        }
+
+        public Stats(StreamInput in) throws IOException {
+            count = in.readVLong();
+            sizeInBytes = in.readVLong();
+            deduplicated = in.readVLong();
+            deduplicatedSizeInBytes = in.readVLong();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(count);
+            out.writeVLong(sizeInBytes);
+            out.writeVLong(deduplicated);
+            out.writeVLong(deduplicatedSizeInBytes);
+        }
+
+        /**
+         * Returns the number of distinct instances that are shared
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the estimated heap used by the distinct instances that are shared
+         */
+        public long getSizeInBytes() {
+            return sizeInBytes;
+        }
+
+        /**
+         * Returns how many instances that were read were replaced by an equal shared instance
+         */
+        public long getDeduplicated() {
+            return deduplicated;
+        }
+
+        /**
+         * Returns the estimated heap of the instances that were replaced by an equal shared instance
+         */
+        public long getDeduplicatedSizeInBytes() {
+            return deduplicatedSizeInBytes;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.field(Fields.COUNT, count);
+            builder.humanReadableField(Fields.SIZE_IN_BYTES, Fields.SIZE, new ByteSizeValue(sizeInBytes));
+            builder.field(Fields.DEDUPLICATED, deduplicated);
+            builder.humanReadableField(Fields.DEDUPLICATED_SIZE_IN_BYTES, Fields.DEDUPLICATED_SIZE,
+                new ByteSizeValue(deduplicatedSizeInBytes));
+            return builder;
+        }
+    }
+
+    static final class Fields {
+        static final String INTERNED_MAPPINGS_AND_ALIASES = "interned_mappings_and_aliases";
+        static final String MAPPINGS = "mappings";
+        static final String ALIASES = "aliases";
+        static final String COUNT = "count";
+        static final String SIZE = "size";
+        static final String SIZE_IN_BYTES = "size_in_bytes";
+        static final String DEDUPLICATED = "deduplicated";
+        static final String DEDUPLICATED_SIZE = "deduplicated_size";
+        static final String DEDUPLICATED_SIZE_IN_BYTES = "deduplicated_size_in_bytes";
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cluster.metadata;
+
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.cluster.AbstractDiffable;
+import org.elasticsearch.cluster.Diff;
+import org.elasticsearch.common.compress.CompressedXContent;
+import org.elasticsearch.common.io.stream.FilterStreamInput;
+import org.elasticsearch.common.io.stream.NamedWriteable;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.util.WeakInterner;
+
+import java.io.IOException;
+
+/**
+ * Shares equal mappings and aliases between all the index metadata that a node reads from the cluster states it receives. Time-based
+ * indices that are created from the same template usually have identical mappings and aliases, so without interning every one of them
+ * would hold its own copy of the same, possibly large, mapping. Each node owns its own interner, which only applies to streams that
+ * were wrapped with {@link #wrap(StreamInput)}.
+ */
+public final class MetaDataInterner {
+
+    private static final long MAPPING_SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(MappingMetaData.class)
+        + RamUsageEstimator.shallowSizeOfInstance(MappingMetaData.Routing.class);
+    private static final long ALIAS_SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(AliasMetaData.class);
+    private static final long COMPRESSED_XCONTENT_SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(CompressedXContent.class);
+    private static final long STRING_SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(String.class);
+
+    private final WeakInterner<MappingMetaData> mappings = new WeakInterner<>(MetaDataInterner::sizeOf);
+    private final WeakInterner<AliasMetaData> aliases = new WeakInterner<>(MetaDataInterner::sizeOf);
+
+    /**
+     * Wraps the given stream so that the mappings and aliases of the index metadata that is read from it are interned by this interner.
+     */
+    public StreamInput wrap(StreamInput in) {
+        return new InterningStreamInput(in, this);
+    }
+
+    static MappingMetaData readMapping(StreamInput in) throws IOException {
+        final MappingMetaData mapping = new MappingMetaData(in);
+        return in instanceof InterningStreamInput ? ((InterningStreamInput) in).interner.mappings.intern(mapping) : mapping;
+    }
+
+    static Diff<MappingMetaData> readMappingDiff(StreamInput in) throws IOException {
+        return AbstractDiffable.readDiffFrom(MetaDataInterner::readMapping, in);
+    }
+
+    static AliasMetaData readAlias(StreamInput in) throws IOException {
+        final AliasMetaData alias = new AliasMetaData(in);
+        return in instanceof InterningStreamInput ? ((InterningStreamInput) in).interner.aliases.intern(alias) : alias;
+    }
+
+    static Diff<AliasMetaData> readAliasDiff(StreamInput in) throws IOException {
+        return AbstractDiffable.readDiffFrom(MetaDataInterner::readAlias, in);
+    }
+
+    public MetaDataInternStats stats() {
+        return new MetaDataInternStats(
+            new MetaDataInternStats.Stats(mappings.count(), mappings.sizeInBytes(), mappings.deduplicated(),
+                mappings.deduplicatedSizeInBytes()),
+            new MetaDataInternStats.Stats(aliases.count(), aliases.sizeInBytes(), aliases.deduplicated(),
+                aliases.deduplicatedSizeInBytes()));
+    }
+
+    private static long sizeOf(MappingMetaData mapping) {
+        return MAPPING_SHALLOW_SIZE + sizeOf(mapping.type()) + sizeOf(mapping.source());
+    }
+
+    private static long sizeOf(AliasMetaData alias) {
+        return ALIAS_SHALLOW_SIZE + sizeOf(alias.alias()) + sizeOf(alias.filter()) + sizeOf(alias.indexRouting())
+            + sizeOf(alias.searchRouting());
+    }
+
+    private static long sizeOf(CompressedXContent compressedXContent) {
+        if (compressedXContent == null) {
+            return 0;
+        }
+        return COMPRESSED_XCONTENT_SHALLOW_SIZE + RamUsageEstimator.sizeOf(compressedXContent.compressed());
+    }
+
+    private static long sizeOf(String string) {
+        if (string == null) {
+            return 0;
+        }
+        return STRING_SHALLOW_SIZE + RamUsageEstimator.alignObjectSize(RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + 2L * string.length());
+    }
+
+    private static final class InterningStreamInput extends FilterStreamInput {
+
+        private final MetaDataInterner interner;
+
+        private InterningStreamInput(StreamInput delegate, MetaDataInterner interner) {
+            super(delegate);
+            this.interner = interner;
+        }
+
+        @Override
+        public <C extends NamedWriteable> C readNamedWriteable(Class<C> categoryClass) throws IOException {
+            return delegate.readNamedWriteable(categoryClass);
+        }
+
+        @Override
+        public <C extends NamedWriteable> C readNamedWriteable(Class<C> categoryClass, String name) throws IOException {
+            return delegate.readNamedWriteable(categoryClass, name);
+        }
+    }
+}
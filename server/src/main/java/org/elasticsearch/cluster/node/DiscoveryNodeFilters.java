@@ -27,6 +27,7 @@ import org.elasticsearch.common.regex.Regex;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.TransportAddress;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiConsumer;
@@ -73,9 +74,16 @@ public class DiscoveryNodeFilters {
 
     private final OpType opType;
 
+    private final int hashCode;
+
     DiscoveryNodeFilters(OpType opType, Map<String, String[]> filters) {
         this.opType = opType;
         this.filters = filters;
+        int hashCode = opType.hashCode();
+        for (Map.Entry<String, String[]> entry : filters.entrySet()) {
+            hashCode += entry.getKey().hashCode() ^ Arrays.hashCode(entry.getValue());
+        }
+        this.hashCode = hashCode;
     }
 
     private boolean matchByIP(String[] values, @Nullable String hostIp, @Nullable String publishIp) {
@@ -219,6 +227,35 @@ public class DiscoveryNodeFilters {
         }
     }
 
+    /**
+     * Filters are equal if they match the same nodes because they have the same type and the same values for the same attributes,
+     * which lets indices with the same filters share the results of matching nodes.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final DiscoveryNodeFilters other = (DiscoveryNodeFilters) o;
+        if (hashCode != other.hashCode || opType != other.opType || filters.size() != other.filters.size()) {
+            return false;
+        }
+        for (Map.Entry<String, String[]> entry : filters.entrySet()) {
+            if (Arrays.equals(entry.getValue(), other.filters.get(entry.getKey())) == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
     /**
      * Generates a human-readable string for the DiscoverNodeFilters.
      * Example: {@code _id:"id1 OR blah",name:"blah OR name2"}
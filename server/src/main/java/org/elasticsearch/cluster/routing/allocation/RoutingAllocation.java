@@ -28,8 +28,10 @@ import org.elasticsearch.cluster.routing.RoutingChangesObserver;
 import org.elasticsearch.cluster.routing.RoutingNodes;
 import org.elasticsearch.cluster.routing.RoutingTable;
 import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.routing.allocation.decider.AllocationDeciderTimings;
 import org.elasticsearch.cluster.routing.allocation.decider.AllocationDeciders;
 import org.elasticsearch.cluster.routing.allocation.decider.Decision;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.collect.ImmutableOpenMap;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.snapshots.RestoreService.RestoreInProgressUpdater;
@@ -38,6 +40,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableSet;
@@ -80,6 +83,13 @@ public class RoutingAllocation {
         nodesChangedObserver, indexMetaDataUpdater, restoreInProgressUpdater
     );
 
+    private final Map<String, Map<Object, Object>> memoized = new HashMap<>();
+    private final Map<String, Map<Object, Object>> memoizedUntilRoutingChanges = new HashMap<>();
+    private long memoizedRoutingChangeCount = 0;
+
+    @Nullable
+    private AllocationDeciderTimings deciderTimings = null;
+
 
     /**
      * Creates a new {@link RoutingAllocation}
@@ -181,6 +191,57 @@ public class RoutingAllocation {
         return this.debugDecision;
     }
 
+    /**
+     * Returns the value that was computed for the given name and key earlier in this allocation, or computes and remembers it.
+     * Deciders use this for facts that they would otherwise compute for every shard, such as whether the filters of an index
+     * match a node. The value must only depend on the cluster state that the allocation started from and not on where shards
+     * are allocated, see {@link #memoizeUntilRoutingChanges(String, Object, Supplier)} for those.
+     */
+    public <T> T memoize(String name, Object key, Supplier<T> supplier) {
+        return memoize(memoized, name, key, supplier);
+    }
+
+    /**
+     * Like {@link #memoize(String, Object, Supplier)} but for values that depend on where shards are allocated, such as the disk
+     * usage of a node including its relocating shards. These values are dropped whenever a shard is initialized, started, relocated
+     * or failed in this allocation.
+     */
+    public <T> T memoizeUntilRoutingChanges(String name, Object key, Supplier<T> supplier) {
+        final long changeCount = nodesChangedObserver.changeCount();
+        if (memoizedRoutingChangeCount != changeCount) {
+            memoizedUntilRoutingChanges.clear();
+            memoizedRoutingChangeCount = changeCount;
+        }
+        return memoize(memoizedUntilRoutingChanges, name, key, supplier);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T memoize(Map<String, Map<Object, Object>> memoized, String name, Object key, Supplier<T> supplier) {
+        final Map<Object, Object> values = memoized.computeIfAbsent(name, k -> new HashMap<>());
+        T value = (T) values.get(key);
+        if (value == null) {
+            // not computeIfAbsent, the supplier may memoize other values
+            value = supplier.get();
+            values.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Makes the {@link AllocationDeciders} record how long each decider takes in this allocation.
+     */
+    public void setDeciderTimings(@Nullable AllocationDeciderTimings deciderTimings) {
+        this.deciderTimings = deciderTimings;
+    }
+
+    /**
+     * Returns the timings that the {@link AllocationDeciders} record in, or {@code null} if they aren't recorded.
+     */
+    @Nullable
+    public AllocationDeciderTimings getDeciderTimings() {
+        return deciderTimings;
+    }
+
     public void addIgnoreShardForNode(ShardId shardId, String nodeId) {
         if (ignoredShardToNodes == null) {
             ignoredShardToNodes = new HashMap<>();
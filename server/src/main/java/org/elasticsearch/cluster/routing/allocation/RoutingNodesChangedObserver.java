@@ -29,6 +29,7 @@ import org.elasticsearch.cluster.routing.UnassignedInfo;
  */
 public class RoutingNodesChangedObserver implements RoutingChangesObserver {
     private boolean changed;
+    private long changeCount;
 
     /**
      * Returns whether changes were made
@@ -37,6 +38,13 @@ public class RoutingNodesChangedObserver implements RoutingChangesObserver {
         return changed;
     }
 
+    /**
+     * Returns the number of changes that were made so far
+     */
+    public long changeCount() {
+        return changeCount;
+    }
+
     @Override
     public void shardInitialized(ShardRouting unassignedShard, ShardRouting initializedShard) {
         assert unassignedShard.unassigned() : "expected unassigned shard " + unassignedShard;
@@ -112,5 +120,6 @@ public class RoutingNodesChangedObserver implements RoutingChangesObserver {
      */
     private void setChanged() {
         changed = true;
+        changeCount++;
     }
 }
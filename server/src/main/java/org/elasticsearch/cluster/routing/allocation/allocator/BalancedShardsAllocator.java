@@ -485,6 +485,12 @@ public class BalancedShardsAllocator extends AbstractComponent implements Shards
             final ModelNode[] modelNodes = sorter.modelNodes;
             final float[] weights = sorter.weights;
             for (String index : buildWeightOrderedIndices()) {
+                if (lessThan(weightRange(index), threshold)) {
+                    /* the weight delta between any two nodes is within the threshold, which means that no relocation is going to
+                     * happen for this index. Skip it before asking the deciders about every node, which dominates the cost of
+                     * balancing large clusters where most indices are balanced already */
+                    continue;
+                }
                 IndexMetaData indexMetaData = metaData.index(index);
 
                 // find nodes that have a shard of this index or where shards of this index are allowed to be allocated to,
@@ -593,8 +599,7 @@ public class BalancedShardsAllocator extends AbstractComponent implements Shards
             final String[] indices = allocation.routingTable().indicesRouting().keys().toArray(String.class);
             final float[] deltas = new float[indices.length];
             for (int i = 0; i < deltas.length; i++) {
-                sorter.reset(indices[i]);
-                deltas[i] = sorter.delta();
+                deltas[i] = weightRange(indices[i]);
             }
             new IntroSorter() {
 
@@ -629,6 +634,21 @@ public class BalancedShardsAllocator extends AbstractComponent implements Shards
             return indices;
         }
 
+        /**
+         * Returns the difference between the highest and the lowest weight of all nodes with respect to the given index, which is
+         * what {@link NodeSorter#delta()} returns after a {@link NodeSorter#reset(String)} without sorting the nodes.
+         */
+        private float weightRange(String index) {
+            float min = Float.POSITIVE_INFINITY;
+            float max = Float.NEGATIVE_INFINITY;
+            for (ModelNode node : sorter.modelNodes) {
+                final float nodeWeight = weight.weight(this, node, index);
+                min = Math.min(min, nodeWeight);
+                max = Math.max(max, nodeWeight);
+            }
+            return max - min;
+        }
+
         /**
          * Move started shards that can not be allocated to a node anymore
          *
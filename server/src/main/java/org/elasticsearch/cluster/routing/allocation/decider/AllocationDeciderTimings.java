@@ -0,0 +1,149 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cluster.routing.allocation.decider;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.ToXContentFragment;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How often each {@link AllocationDecider} was asked for a decision by the {@link AllocationDeciders} and how long the
+ * decisions took, keyed by the simple class name of the decider.
+ */
+public final class AllocationDeciderTimings implements Writeable, ToXContentFragment {
+
+    private final Map<String, Timing> timings;
+
+    public AllocationDeciderTimings() {
+        this.timings = new TreeMap<>();
+    }
+
+    public AllocationDeciderTimings(StreamInput in) throws IOException {
+        final int size = in.readVInt();
+        this.timings = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            timings.put(in.readString(), new Timing(in.readVLong(), in.readVLong()));
+        }
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(timings.size());
+        for (Map.Entry<String, Timing> entry : timings.entrySet()) {
+            out.writeString(entry.getKey());
+            out.writeVLong(entry.getValue().count);
+            out.writeVLong(entry.getValue().timeInNanos);
+        }
+    }
+
+    /**
+     * Records that the given decider took the given time for a decision.
+     */
+    public void record(AllocationDecider decider, long timeInNanos) {
+        final Timing timing = timings.computeIfAbsent(decider.getClass().getSimpleName(), name -> new Timing(0, 0));
+        timing.count++;
+        timing.timeInNanos += Math.max(0, timeInNanos);
+    }
+
+    public Map<String, Timing> getTimings() {
+        return Collections.unmodifiableMap(timings);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject("decider_timings");
+        for (Map.Entry<String, Timing> entry : timings.entrySet()) {
+            builder.startObject(entry.getKey());
+            builder.field("count", entry.getValue().count);
+            if (builder.humanReadable()) {
+                builder.field("time", new TimeValue(entry.getValue().timeInNanos, TimeUnit.NANOSECONDS).toString());
+            }
+            builder.field("time_in_nanos", entry.getValue().timeInNanos);
+            builder.endObject();
+        }
+        builder.endObject();
+        return builder;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return timings.equals(((AllocationDeciderTimings) o).timings);
+    }
+
+    @Override
+    public int hashCode() {
+        return timings.hashCode();
+    }
+
+    /**
+     * The number of decisions of a decider and the time they took.
+     */
+    public static final class Timing {
+
+        private long count;
+        private long timeInNanos;
+
+        Timing(long count, long timeInNanos) {
+            this.count = count;
+            this.timeInNanos = timeInNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTimeInNanos() {
+            return timeInNanos;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Timing timing = (Timing) o;
+            return count == timing.count && timeInNanos == timing.timeInNanos;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(count, timeInNanos);
+        }
+    }
+}
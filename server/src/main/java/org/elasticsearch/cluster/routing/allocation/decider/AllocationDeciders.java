@@ -46,8 +46,13 @@ public class AllocationDeciders extends AllocationDecider {
     @Override
     public Decision canRebalance(ShardRouting shardRouting, RoutingAllocation allocation) {
         Decision.Multi ret = new Decision.Multi();
+        final AllocationDeciderTimings timings = allocation.getDeciderTimings();
         for (AllocationDecider allocationDecider : allocations) {
+            final long startTime = timings != null ? System.nanoTime() : 0L;
             Decision decision = allocationDecider.canRebalance(shardRouting, allocation);
+            if (timings != null) {
+                timings.record(allocationDecider, System.nanoTime() - startTime);
+            }
             // short track if a NO is returned.
             if (decision == Decision.NO) {
                 if (!allocation.debugDecision()) {
@@ -69,8 +74,13 @@ public class AllocationDeciders extends AllocationDecider {
             return Decision.NO;
         }
         Decision.Multi ret = new Decision.Multi();
+        final AllocationDeciderTimings timings = allocation.getDeciderTimings();
         for (AllocationDecider allocationDecider : allocations) {
+            final long startTime = timings != null ? System.nanoTime() : 0L;
             Decision decision = allocationDecider.canAllocate(shardRouting, node, allocation);
+            if (timings != null) {
+                timings.record(allocationDecider, System.nanoTime() - startTime);
+            }
             // short track if a NO is returned.
             if (decision == Decision.NO) {
                 if (logger.isTraceEnabled()) {
@@ -101,8 +111,13 @@ public class AllocationDeciders extends AllocationDecider {
             return Decision.NO;
         }
         Decision.Multi ret = new Decision.Multi();
+        final AllocationDeciderTimings timings = allocation.getDeciderTimings();
         for (AllocationDecider allocationDecider : allocations) {
+            final long startTime = timings != null ? System.nanoTime() : 0L;
             Decision decision = allocationDecider.canRemain(shardRouting, node, allocation);
+            if (timings != null) {
+                timings.record(allocationDecider, System.nanoTime() - startTime);
+            }
             // short track if a NO is returned.
             if (decision == Decision.NO) {
                 if (logger.isTraceEnabled()) {
@@ -124,8 +139,13 @@ public class AllocationDeciders extends AllocationDecider {
     @Override
     public Decision canAllocate(IndexMetaData indexMetaData, RoutingNode node, RoutingAllocation allocation) {
         Decision.Multi ret = new Decision.Multi();
+        final AllocationDeciderTimings timings = allocation.getDeciderTimings();
         for (AllocationDecider allocationDecider : allocations) {
+            final long startTime = timings != null ? System.nanoTime() : 0L;
             Decision decision = allocationDecider.canAllocate(indexMetaData, node, allocation);
+            if (timings != null) {
+                timings.record(allocationDecider, System.nanoTime() - startTime);
+            }
             // short track if a NO is returned.
             if (decision == Decision.NO) {
                 if (!allocation.debugDecision()) {
@@ -144,8 +164,13 @@ public class AllocationDeciders extends AllocationDecider {
     @Override
     public Decision canAllocate(ShardRouting shardRouting, RoutingAllocation allocation) {
         Decision.Multi ret = new Decision.Multi();
+        final AllocationDeciderTimings timings = allocation.getDeciderTimings();
         for (AllocationDecider allocationDecider : allocations) {
+            final long startTime = timings != null ? System.nanoTime() : 0L;
             Decision decision = allocationDecider.canAllocate(shardRouting, allocation);
+            if (timings != null) {
+                timings.record(allocationDecider, System.nanoTime() - startTime);
+            }
             // short track if a NO is returned.
             if (decision == Decision.NO) {
                 if (!allocation.debugDecision()) {
@@ -164,8 +189,13 @@ public class AllocationDeciders extends AllocationDecider {
     @Override
     public Decision canAllocate(RoutingNode node, RoutingAllocation allocation) {
         Decision.Multi ret = new Decision.Multi();
+        final AllocationDeciderTimings timings = allocation.getDeciderTimings();
         for (AllocationDecider allocationDecider : allocations) {
+            final long startTime = timings != null ? System.nanoTime() : 0L;
             Decision decision = allocationDecider.canAllocate(node, allocation);
+            if (timings != null) {
+                timings.record(allocationDecider, System.nanoTime() - startTime);
+            }
             // short track if a NO is returned.
             if (decision == Decision.NO) {
                 if (!allocation.debugDecision()) {
@@ -184,8 +214,13 @@ public class AllocationDeciders extends AllocationDecider {
     @Override
     public Decision canRebalance(RoutingAllocation allocation) {
         Decision.Multi ret = new Decision.Multi();
+        final AllocationDeciderTimings timings = allocation.getDeciderTimings();
         for (AllocationDecider allocationDecider : allocations) {
+            final long startTime = timings != null ? System.nanoTime() : 0L;
             Decision decision = allocationDecider.canRebalance(allocation);
+            if (timings != null) {
+                timings.record(allocationDecider, System.nanoTime() - startTime);
+            }
             // short track if a NO is returned.
             if (decision == Decision.NO) {
                 if (!allocation.debugDecision()) {
@@ -209,8 +244,13 @@ public class AllocationDeciders extends AllocationDecider {
             return Decision.NO;
         }
         Decision.Multi ret = new Decision.Multi();
+        final AllocationDeciderTimings timings = allocation.getDeciderTimings();
         for (AllocationDecider decider : allocations) {
+            final long startTime = timings != null ? System.nanoTime() : 0L;
             Decision decision = decider.canForceAllocatePrimary(shardRouting, node, allocation);
+            if (timings != null) {
+                timings.record(decider, System.nanoTime() - startTime);
+            }
             // short track if a NO is returned.
             if (decision == Decision.NO) {
                 if (logger.isTraceEnabled()) {
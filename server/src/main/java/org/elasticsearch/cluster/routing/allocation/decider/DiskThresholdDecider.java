@@ -305,6 +305,13 @@ public class DiskThresholdDecider extends AllocationDecider {
 
     private DiskUsage getDiskUsage(RoutingNode node, RoutingAllocation allocation,
                                    ImmutableOpenMap<String, DiskUsage> usages, boolean subtractLeavingShards) {
+        // the usage includes the sizes of the shards that are relocating to or from the node, so it changes with the routing
+        return allocation.memoizeUntilRoutingChanges(subtractLeavingShards ? NAME + "_remain" : NAME, node.nodeId(),
+            () -> computeDiskUsage(node, allocation, usages, subtractLeavingShards));
+    }
+
+    private DiskUsage computeDiskUsage(RoutingNode node, RoutingAllocation allocation,
+                                       ImmutableOpenMap<String, DiskUsage> usages, boolean subtractLeavingShards) {
         DiskUsage usage = usages.get(node.nodeId());
         if (usage == null) {
             // If there is no usage, and we have other nodes in the cluster,
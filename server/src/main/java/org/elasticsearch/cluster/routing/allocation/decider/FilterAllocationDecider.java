@@ -25,6 +25,7 @@ import org.elasticsearch.cluster.routing.RecoverySource;
 import org.elasticsearch.cluster.routing.RoutingNode;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.allocation.RoutingAllocation;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
@@ -116,7 +117,7 @@ public class FilterAllocationDecider extends AllocationDecider {
             DiscoveryNodeFilters initialRecoveryFilters = indexMd.getInitialRecoveryFilters();
             if (initialRecoveryFilters != null  &&
                 INITIAL_RECOVERY_TYPES.contains(shardRouting.recoverySource().getType()) &&
-                initialRecoveryFilters.match(node.node()) == false) {
+                matches(initialRecoveryFilters, node, allocation) == false) {
                 String explanation = (shardRouting.recoverySource().getType() == RecoverySource.Type.LOCAL_SHARDS) ?
                     "initial allocation of the shrunken index is only allowed on nodes [%s] that hold a copy of every shard in the index" :
                     "initial allocation of the index is only allowed on nodes [%s]";
@@ -137,13 +138,7 @@ public class FilterAllocationDecider extends AllocationDecider {
     }
 
     private Decision shouldFilter(ShardRouting shardRouting, RoutingNode node, RoutingAllocation allocation) {
-        Decision decision = shouldClusterFilter(node, allocation);
-        if (decision != null) return decision;
-
-        decision = shouldIndexFilter(allocation.metaData().getIndexSafe(shardRouting.index()), node, allocation);
-        if (decision != null) return decision;
-
-        return allocation.decision(Decision.YES, NAME, "node passes include/exclude/require filters");
+        return shouldFilter(allocation.metaData().getIndexSafe(shardRouting.index()), node, allocation);
     }
 
     private Decision shouldFilter(IndexMetaData indexMd, RoutingNode node, RoutingAllocation allocation) {
@@ -158,19 +153,19 @@ public class FilterAllocationDecider extends AllocationDecider {
 
     private Decision shouldIndexFilter(IndexMetaData indexMd, RoutingNode node, RoutingAllocation allocation) {
         if (indexMd.requireFilters() != null) {
-            if (!indexMd.requireFilters().match(node.node())) {
+            if (!matches(indexMd.requireFilters(), node, allocation)) {
                 return allocation.decision(Decision.NO, NAME, "node does not match index setting [%s] filters [%s]",
                     IndexMetaData.INDEX_ROUTING_REQUIRE_GROUP_PREFIX, indexMd.requireFilters());
             }
         }
         if (indexMd.includeFilters() != null) {
-            if (!indexMd.includeFilters().match(node.node())) {
+            if (!matches(indexMd.includeFilters(), node, allocation)) {
                 return allocation.decision(Decision.NO, NAME, "node does not match index setting [%s] filters [%s]",
                     IndexMetaData.INDEX_ROUTING_INCLUDE_GROUP_PREFIX, indexMd.includeFilters());
             }
         }
         if (indexMd.excludeFilters() != null) {
-            if (indexMd.excludeFilters().match(node.node())) {
+            if (matches(indexMd.excludeFilters(), node, allocation)) {
                 return allocation.decision(Decision.NO, NAME, "node matches index setting [%s] filters [%s]",
                     IndexMetaData.INDEX_ROUTING_EXCLUDE_GROUP_SETTING.getKey(), indexMd.excludeFilters());
             }
@@ -180,19 +175,19 @@ public class FilterAllocationDecider extends AllocationDecider {
 
     private Decision shouldClusterFilter(RoutingNode node, RoutingAllocation allocation) {
         if (clusterRequireFilters != null) {
-            if (!clusterRequireFilters.match(node.node())) {
+            if (!matches(clusterRequireFilters, node, allocation)) {
                 return allocation.decision(Decision.NO, NAME, "node does not match cluster setting [%s] filters [%s]",
                     CLUSTER_ROUTING_REQUIRE_GROUP_PREFIX, clusterRequireFilters);
             }
         }
         if (clusterIncludeFilters != null) {
-            if (!clusterIncludeFilters.match(node.node())) {
+            if (!matches(clusterIncludeFilters, node, allocation)) {
                 return allocation.decision(Decision.NO, NAME, "node does not cluster setting [%s] filters [%s]",
                     CLUSTER_ROUTING_INCLUDE_GROUP_PREFIX, clusterIncludeFilters);
             }
         }
         if (clusterExcludeFilters != null) {
-            if (clusterExcludeFilters.match(node.node())) {
+            if (matches(clusterExcludeFilters, node, allocation)) {
                 return allocation.decision(Decision.NO, NAME, "node matches cluster setting [%s] filters [%s]",
                     CLUSTER_ROUTING_EXCLUDE_GROUP_PREFIX, clusterExcludeFilters);
             }
@@ -200,6 +195,14 @@ public class FilterAllocationDecider extends AllocationDecider {
         return null;
     }
 
+    /**
+     * Returns whether the filters match the node. The result is remembered for the rest of the allocation, which saves matching
+     * the same filters against the same node for every shard, and indices with the same filters share it.
+     */
+    private static boolean matches(DiscoveryNodeFilters filters, RoutingNode node, RoutingAllocation allocation) {
+        return allocation.memoize(NAME, new Tuple<>(filters, node.nodeId()), () -> filters.match(node.node()));
+    }
+
     private void setClusterRequireFilters(Map<String, String> filters) {
         clusterRequireFilters = DiscoveryNodeFilters.buildFromKeyValue(AND, filters);
     }
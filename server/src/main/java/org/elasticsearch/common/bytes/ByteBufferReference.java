@@ -22,6 +22,7 @@ package org.elasticsearch.common.bytes;
 import org.apache.lucene.util.BytesRef;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * This is a {@link BytesReference} backed by a {@link ByteBuffer}. The byte buffer can either be a heap or
@@ -82,6 +83,14 @@ public class ByteBufferReference extends BytesReference {
         return new BytesRef(copy);
     }
 
+    @Override
+    void addByteBuffers(List<ByteBuffer> buffers) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offset + length);
+        view.position(offset);
+        buffers.add(view);
+    }
+
     @Override
     public long ramBytesUsed() {
         return buffer.capacity();
@@ -33,6 +33,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.function.ToIntBiFunction;
 
 /**
@@ -169,18 +170,39 @@ public abstract class BytesReference implements Accountable, Comparable<BytesRef
     }
 
     /**
-     * Returns an array of byte buffers from the given BytesReference.
+     * Returns an array of byte buffers from the given BytesReference. Parts of the reference that are backed by direct memory
+     * are returned as direct byte buffers so that they can be handed to a channel without being copied.
      */
     public static ByteBuffer[] toByteBuffers(BytesReference reference) {
-        BytesRefIterator byteRefIterator = reference.iterator();
+        ArrayList<ByteBuffer> buffers = new ArrayList<>();
+        reference.addByteBuffers(buffers);
+        return buffers.toArray(new ByteBuffer[buffers.size()]);
+    }
+
+    /**
+     * Returns the number of bytes of the given byte buffers that are not backed by direct memory and hence need to be copied
+     * before they can be written to a channel.
+     */
+    public static long heapBytes(ByteBuffer[] buffers) {
+        long heapBytes = 0;
+        for (ByteBuffer buffer : buffers) {
+            if (buffer.isDirect() == false) {
+                heapBytes += buffer.remaining();
+            }
+        }
+        return heapBytes;
+    }
+
+    /**
+     * Adds views of the bytes of this reference, in order, to the given list of byte buffers.
+     */
+    void addByteBuffers(List<ByteBuffer> buffers) {
+        BytesRefIterator byteRefIterator = iterator();
         BytesRef r;
         try {
-            ArrayList<ByteBuffer> buffers = new ArrayList<>();
             while ((r = byteRefIterator.next()) != null) {
                 buffers.add(ByteBuffer.wrap(r.bytes, r.offset, r.length));
             }
-            return buffers.toArray(new ByteBuffer[buffers.size()]);
-
         } catch (IOException e) {
             // this is really an error since we don't do IO in our bytesreferences
             throw new AssertionError("won't happen", e);
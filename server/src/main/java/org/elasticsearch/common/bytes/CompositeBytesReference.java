@@ -25,7 +25,9 @@ import org.apache.lucene.util.BytesRefIterator;
 import org.apache.lucene.util.RamUsageEstimator;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -144,6 +146,13 @@ public final class CompositeBytesReference extends BytesReference {
 
     }
 
+    @Override
+    void addByteBuffers(List<ByteBuffer> buffers) {
+        for (BytesReference reference : references) {
+            reference.addByteBuffers(buffers);
+        }
+    }
+
     @Override
     public long ramBytesUsed() {
        return ramBytesUsed;
@@ -25,6 +25,8 @@ import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.ByteArray;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * A page based bytes reference, internally holding the bytes in a paged
@@ -90,12 +92,25 @@ public class PagedBytesReference extends BytesReference {
             int nextFragmentSize = Math.min(length, initialFragmentSize);
             // this BytesRef is reused across the iteration on purpose - BytesRefIterator interface was designed for this
             final BytesRef slice = new BytesRef();
+            // pages in direct memory are copied into this buffer which is reused across the iteration for the same reason
+            byte[] directCopy;
 
             @Override
             public BytesRef next() throws IOException {
                 if (nextFragmentSize != 0) {
-                    final boolean materialized = byteArray.get(offset + position, nextFragmentSize, slice);
-                    assert materialized == false : "iteration should be page aligned but array got materialized";
+                    final ByteBuffer direct = byteArray.getDirect(offset + position, nextFragmentSize);
+                    if (direct != null) {
+                        if (directCopy == null) {
+                            directCopy = new byte[PAGE_SIZE];
+                        }
+                        direct.get(directCopy, 0, nextFragmentSize);
+                        slice.bytes = directCopy;
+                        slice.offset = 0;
+                        slice.length = nextFragmentSize;
+                    } else {
+                        final boolean materialized = byteArray.get(offset + position, nextFragmentSize, slice);
+                        assert materialized == false : "iteration should be page aligned but array got materialized";
+                    }
                     position += nextFragmentSize;
                     final int remaining = length - position;
                     nextFragmentSize = Math.min(remaining, PAGE_SIZE);
@@ -108,6 +123,25 @@ public class PagedBytesReference extends BytesReference {
         };
     }
 
+    @Override
+    void addByteBuffers(List<ByteBuffer> buffers) {
+        // same page aligned iteration as in #iterator() so that direct pages can be exposed without copying them
+        int position = 0;
+        int fragmentSize = Math.min(length, offset != 0 ? PAGE_SIZE - (offset % PAGE_SIZE) : PAGE_SIZE);
+        final BytesRef slice = new BytesRef();
+        while (fragmentSize != 0) {
+            final ByteBuffer direct = byteArray.getDirect(offset + position, fragmentSize);
+            if (direct != null) {
+                buffers.add(direct);
+            } else {
+                byteArray.get(offset + position, fragmentSize, slice);
+                buffers.add(ByteBuffer.wrap(slice.bytes, slice.offset, slice.length));
+            }
+            position += fragmentSize;
+            fragmentSize = Math.min(length - position, PAGE_SIZE);
+        }
+    }
+
     @Override
     public long ramBytesUsed() {
         return byteArray.ramBytesUsed();
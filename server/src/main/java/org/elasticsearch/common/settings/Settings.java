@@ -37,6 +37,7 @@ import org.elasticsearch.common.unit.MemorySizeValue;
 import org.elasticsearch.common.unit.RatioValue;
 import org.elasticsearch.common.unit.SizeValue;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.StringLiteralDeduplicator;
 import org.elasticsearch.common.xcontent.DeprecationHandler;
 import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
@@ -85,6 +86,12 @@ public final class Settings implements ToXContentFragment {
 
     public static final Settings EMPTY = new Builder().build();
 
+    /**
+     * Setting keys repeat across the many settings that are read from the wire, most notably the settings of every index in the
+     * cluster state, so they are shared rather than kept as one copy per settings instance.
+     */
+    private static final StringLiteralDeduplicator KEY_DEDUPLICATOR = new StringLiteralDeduplicator();
+
     /** The raw settings from the full key to raw string value. */
     private final Map<String, Object> settings;
 
@@ -557,7 +564,7 @@ public final class Settings implements ToXContentFragment {
         int numberOfSettings = in.readVInt();
         if (in.getVersion().onOrAfter(Version.V_6_1_0)) {
             for (int i = 0; i < numberOfSettings; i++) {
-                String key = in.readString();
+                String key = KEY_DEDUPLICATOR.deduplicate(in.readString());
                 Object value = in.readGenericValue();
                 if (value == null) {
                     builder.putNull(key);
@@ -569,7 +576,7 @@ public final class Settings implements ToXContentFragment {
             }
         } else {
             for (int i = 0; i < numberOfSettings; i++) {
-                String key = in.readString();
+                String key = KEY_DEDUPLICATOR.deduplicate(in.readString());
                 String value = in.readOptionalString();
                 builder.put(key, value);
             }
@@ -25,6 +25,8 @@ import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.recycler.Recycler;
 
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
 /** Common implementation for array lists that slice data into fixed-size blocks. */
@@ -112,6 +114,19 @@ abstract class AbstractBigArray extends AbstractArray {
         return v.v();
       }
 
+    protected final ByteBuffer newDirectPage(int page) {
+        if (recycler != null) {
+            final Recycler.V<ByteBuffer> v = recycler.directPage(clearOnResize);
+            cache = grow(cache, page + 1);
+            assert cache[page] == null;
+            cache[page] = v;
+            assert v.v().capacity() == BigArrays.PAGE_SIZE_IN_BYTES;
+            return v.v();
+        } else {
+            return ByteBuffer.allocateDirect(BigArrays.PAGE_SIZE_IN_BYTES).order(ByteOrder.nativeOrder());
+        }
+    }
+
     protected final byte[] newBytePage(int page) {
         if (recycler != null) {
             final Recycler.V<byte[]> v = recycler.bytePage(clearOnResize);
@@ -31,6 +31,7 @@ import org.elasticsearch.common.recycler.Recycler;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /** Utility class to work with arrays. */
@@ -150,6 +151,17 @@ public class BigArrays implements Releasable {
             return false;
         }
 
+        @Override
+        public ByteBuffer getDirect(long index, int len) {
+            return null;
+        }
+
+        @Override
+        public int getInt(long index) {
+            assert indexIsInt(index);
+            return ByteUtils.readIntLE(array, (int) index);
+        }
+
         @Override
         public void set(long index, byte[] buf, int offset, int len) {
             assert indexIsInt(index);
@@ -438,6 +450,11 @@ public class BigArrays implements Releasable {
         return this.circuitBreakingInstance.breakerService;
     }
 
+    /** Whether big byte, int, long and double arrays are backed by direct memory rather than heap arrays. */
+    private boolean isDirect() {
+        return recycler != null && recycler.isDirect();
+    }
+
     private <T extends AbstractBigArray> T resizeInPlace(T array, long newSize) {
         final long oldMemSize = array.ramBytesUsed();
         final long oldSize = array.size();
@@ -472,6 +489,10 @@ public class BigArrays implements Releasable {
         if (size > BYTE_PAGE_SIZE) {
             // when allocating big arrays, we want to first ensure we have the capacity by
             // checking with the circuit breaker before attempting to allocate
+            if (isDirect()) {
+                adjustBreaker(BigDirectByteArray.estimateRamBytes(size), false);
+                return new BigDirectByteArray(size, this, clearOnResize);
+            }
             adjustBreaker(BigByteArray.estimateRamBytes(size), false);
             return new BigByteArray(size, this, clearOnResize);
         } else if (size >= BYTE_PAGE_SIZE / 2 && recycler != null) {
@@ -494,6 +515,8 @@ public class BigArrays implements Releasable {
     public ByteArray resize(ByteArray array, long size) {
         if (array instanceof BigByteArray) {
             return resizeInPlace((BigByteArray) array, size);
+        } else if (array instanceof BigDirectByteArray) {
+            return resizeInPlace((BigDirectByteArray) array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final ByteArray newArray = newByteArray(size, arr.clearOnResize);
@@ -555,6 +578,10 @@ public class BigArrays implements Releasable {
         if (size > INT_PAGE_SIZE) {
             // when allocating big arrays, we want to first ensure we have the capacity by
             // checking with the circuit breaker before attempting to allocate
+            if (isDirect()) {
+                adjustBreaker(BigDirectIntArray.estimateRamBytes(size), false);
+                return new BigDirectIntArray(size, this, clearOnResize);
+            }
             adjustBreaker(BigIntArray.estimateRamBytes(size), false);
             return new BigIntArray(size, this, clearOnResize);
         } else if (size >= INT_PAGE_SIZE / 2 && recycler != null) {
@@ -577,6 +604,8 @@ public class BigArrays implements Releasable {
     public IntArray resize(IntArray array, long size) {
         if (array instanceof BigIntArray) {
             return resizeInPlace((BigIntArray) array, size);
+        } else if (array instanceof BigDirectIntArray) {
+            return resizeInPlace((BigDirectIntArray) array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final IntArray newArray = newIntArray(size, arr.clearOnResize);
@@ -606,6 +635,10 @@ public class BigArrays implements Releasable {
         if (size > LONG_PAGE_SIZE) {
             // when allocating big arrays, we want to first ensure we have the capacity by
             // checking with the circuit breaker before attempting to allocate
+            if (isDirect()) {
+                adjustBreaker(BigDirectLongArray.estimateRamBytes(size), false);
+                return new BigDirectLongArray(size, this, clearOnResize);
+            }
             adjustBreaker(BigLongArray.estimateRamBytes(size), false);
             return new BigLongArray(size, this, clearOnResize);
         } else if (size >= LONG_PAGE_SIZE / 2 && recycler != null) {
@@ -628,6 +661,8 @@ public class BigArrays implements Releasable {
     public LongArray resize(LongArray array, long size) {
         if (array instanceof BigLongArray) {
             return resizeInPlace((BigLongArray) array, size);
+        } else if (array instanceof BigDirectLongArray) {
+            return resizeInPlace((BigDirectLongArray) array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final LongArray newArray = newLongArray(size, arr.clearOnResize);
@@ -657,6 +692,10 @@ public class BigArrays implements Releasable {
         if (size > LONG_PAGE_SIZE) {
             // when allocating big arrays, we want to first ensure we have the capacity by
             // checking with the circuit breaker before attempting to allocate
+            if (isDirect()) {
+                adjustBreaker(BigDirectDoubleArray.estimateRamBytes(size), false);
+                return new BigDirectDoubleArray(size, this, clearOnResize);
+            }
             adjustBreaker(BigDoubleArray.estimateRamBytes(size), false);
             return new BigDoubleArray(size, this, clearOnResize);
         } else if (size >= LONG_PAGE_SIZE / 2 && recycler != null) {
@@ -676,6 +715,8 @@ public class BigArrays implements Releasable {
     public DoubleArray resize(DoubleArray array, long size) {
         if (array instanceof BigDoubleArray) {
             return resizeInPlace((BigDoubleArray) array, size);
+        } else if (array instanceof BigDirectDoubleArray) {
+            return resizeInPlace((BigDirectDoubleArray) array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final DoubleArray newArray = newDoubleArray(size, arr.clearOnResize);
@@ -23,6 +23,7 @@ import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.RamUsageEstimator;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import static org.elasticsearch.common.util.BigArrays.BYTE_PAGE_SIZE;
@@ -89,6 +90,22 @@ final class BigByteArray extends AbstractBigArray implements ByteArray {
         }
     }
 
+    @Override
+    public ByteBuffer getDirect(long index, int len) {
+        return null;
+    }
+
+    @Override
+    public int getInt(long index) {
+        assert index + 4 <= size();
+        final int pageIndex = pageIndex(index);
+        final int indexInPage = indexInPage(index);
+        if (indexInPage + 4 > pageSize()) {
+            return (get(index) & 0xFF) | (get(index + 1) & 0xFF) << 8 | (get(index + 2) & 0xFF) << 16 | (get(index + 3) & 0xFF) << 24;
+        }
+        return ByteUtils.readIntLE(pages[pageIndex], indexInPage);
+    }
+
     @Override
     public void set(long index, byte[] buf, int offset, int len) {
         assert index + len <= size();
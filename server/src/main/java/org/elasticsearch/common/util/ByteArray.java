@@ -21,6 +21,8 @@ package org.elasticsearch.common.util;
 
 import org.apache.lucene.util.BytesRef;
 
+import java.nio.ByteBuffer;
+
 /**
  * Abstraction of an array of byte values.
  */
@@ -43,6 +45,18 @@ public interface ByteArray extends BigArray {
      */
     boolean get(long index, int len, BytesRef ref);
 
+    /**
+     * Get a view of a slice that is backed by direct memory, without copying.
+     *
+     * @return the slice, or <code>null</code> if the slice is not backed by direct memory or crosses a page boundary.
+     */
+    ByteBuffer getDirect(long index, int len);
+
+    /**
+     * Get the int that is stored in little-endian order in the 4 bytes starting at the given index, without copying them.
+     */
+    int getInt(long index);
+
     /**
      * Bulk set.
      */
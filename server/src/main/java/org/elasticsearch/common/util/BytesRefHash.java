@@ -24,6 +24,8 @@ import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.lease.Releasables;
 
+import java.nio.ByteBuffer;
+
 /**
  *  Specialized hash table implementation similar to Lucene's BytesRefHash that maps
  *  BytesRef values to ids. Collisions are resolved with open addressing and linear
@@ -77,7 +79,7 @@ public final class BytesRefHash extends AbstractHash {
         final long slot = slot(rehash(code), mask);
         for (long index = slot; ; index = nextSlot(index, mask)) {
             final long id = id(index);
-            if (id == -1L || key.bytesEquals(get(id, spare))) {
+            if (id == -1L || keyEquals(id, key)) {
                 return id;
             }
         }
@@ -99,12 +101,36 @@ public final class BytesRefHash extends AbstractHash {
                 append(id, key, code);
                 ++size;
                 return id;
-            } else if (key.bytesEquals(get(curId, spare))) {
+            } else if (keyEquals(curId, key)) {
                 return -1 - curId;
             }
         }
     }
 
+    /**
+     * Whether the key with the given id is equal to <code>key</code>. Keys in direct memory are compared in place rather than
+     * being copied to the heap first.
+     */
+    private boolean keyEquals(long id, BytesRef key) {
+        final long startOffset = startOffsets.get(id);
+        final int length = (int) (startOffsets.get(id + 1) - startOffset);
+        if (length != key.length) {
+            return false;
+        }
+        final ByteBuffer direct = bytes.getDirect(startOffset, length);
+        if (direct == null) {
+            // on heap or crossing a page boundary
+            bytes.get(startOffset, length, spare);
+            return key.bytesEquals(spare);
+        }
+        for (int i = 0; i < length; ++i) {
+            if (direct.get(i) != key.bytes[key.offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void append(long id, BytesRef key, int code) {
         assert size == id;
         final long startOffset = startOffsets.get(size);
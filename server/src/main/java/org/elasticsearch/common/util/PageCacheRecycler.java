@@ -27,11 +27,15 @@ import org.elasticsearch.common.recycler.Recycler;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.elasticsearch.common.recycler.Recyclers.concurrent;
 import static org.elasticsearch.common.recycler.Recyclers.concurrentDeque;
@@ -54,15 +58,29 @@ public class PageCacheRecycler extends AbstractComponent implements Releasable {
     // object pages are less useful to us so we give them a lower weight by default
     public static final Setting<Double> WEIGHT_OBJECTS_SETTING  =
         Setting.doubleSetting("cache.recycler.page.weight.objects", 0.1d, 0d, Property.NodeScope);
+    // when enabled, big byte, int, long and double arrays are backed by direct memory pages instead of heap arrays, up to
+    // cache.recycler.page.limit.direct after which they get heap pages
+    public static final Setting<Boolean> DIRECT_SETTING =
+        Setting.boolSetting("cache.recycler.page.direct", false, Property.NodeScope);
+    public static final Setting<ByteSizeValue> LIMIT_DIRECT_SETTING =
+        Setting.byteSizeSetting("cache.recycler.page.limit.direct", new ByteSizeValue(256, ByteSizeUnit.MB), Property.NodeScope);
 
     private final Recycler<byte[]> bytePage;
     private final Recycler<int[]> intPage;
     private final Recycler<long[]> longPage;
     private final Recycler<Object[]> objectPage;
+    private final Recycler<ByteBuffer> directPage;
+
+    private final boolean direct;
+    private final int maxDirectPageCount;
+    private final AtomicLong directPagesAllocated = new AtomicLong();
+    private final AtomicLong directPagesRecycled = new AtomicLong();
+    private final AtomicLong directPagesInUse = new AtomicLong();
+    private final AtomicLong heapFallbackPages = new AtomicLong();
 
     @Override
     public void close() {
-        Releasables.close(true, bytePage, intPage, longPage, objectPage);
+        Releasables.close(true, bytePage, intPage, longPage, objectPage, directPage);
     }
 
     public PageCacheRecycler(Settings settings) {
@@ -141,6 +159,26 @@ public class PageCacheRecycler extends AbstractComponent implements Releasable {
         });
 
         assert BigArrays.PAGE_SIZE_IN_BYTES * (maxBytePageCount + maxIntPageCount + maxLongPageCount + maxObjectPageCount) <= limit;
+
+        // direct pages are pooled separately since they do not count against the heap limit, and since all
+        // primitive types can be read from a ByteBuffer there is no need to split the pool per data type.
+        // The limit is a hard bound on the direct memory that is ever allocated: no more than the limit is handed
+        // out at any time, and the pool can hold all of them so that a released page is never left to the GC.
+        direct = DIRECT_SETTING.get(settings);
+        maxDirectPageCount = direct ?
+            (int) Math.min(Integer.MAX_VALUE, LIMIT_DIRECT_SETTING.get(settings).getBytes() / BigArrays.PAGE_SIZE_IN_BYTES) : 0;
+        final Recycler.C<ByteBuffer> directPageFactory = new AbstractRecyclerC<ByteBuffer>() {
+            @Override
+            public ByteBuffer newInstance(int sizing) {
+                directPagesAllocated.incrementAndGet();
+                return ByteBuffer.allocateDirect(BigArrays.PAGE_SIZE_IN_BYTES).order(ByteOrder.nativeOrder());
+            }
+            @Override
+            public void recycle(ByteBuffer value) {
+                // nothing to do
+            }
+        };
+        directPage = maxDirectPageCount == 0 ? none(directPageFactory) : concurrentDeque(directPageFactory, maxDirectPageCount);
     }
 
     public Recycler.V<byte[]> bytePage(boolean clear) {
@@ -172,6 +210,84 @@ public class PageCacheRecycler extends AbstractComponent implements Releasable {
         return objectPage.obtain();
     }
 
+    /** Whether big primitive arrays should be backed by {@link #directPage(boolean) direct pages}. */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Obtain a page of {@link BigArrays#PAGE_SIZE_IN_BYTES} bytes of direct memory. The returned buffer uses the native byte
+     * order and must only be accessed through absolute get and put operations. Once {@link #LIMIT_DIRECT_SETTING} worth of
+     * direct pages are in use, the returned buffer wraps a heap page instead.
+     */
+    public Recycler.V<ByteBuffer> directPage(boolean clear) {
+        if (tryAcquireDirectPage() == false) {
+            heapFallbackPages.incrementAndGet();
+            final Recycler.V<byte[]> heapPage = bytePage(clear);
+            final ByteBuffer buffer = ByteBuffer.wrap(heapPage.v()).order(ByteOrder.nativeOrder());
+            return new Recycler.V<ByteBuffer>() {
+                @Override
+                public ByteBuffer v() {
+                    return buffer;
+                }
+
+                @Override
+                public boolean isRecycled() {
+                    return heapPage.isRecycled();
+                }
+
+                @Override
+                public void close() {
+                    heapPage.close();
+                }
+            };
+        }
+        final Recycler.V<ByteBuffer> v = directPage.obtain();
+        if (v.isRecycled()) {
+            directPagesRecycled.incrementAndGet();
+            if (clear) {
+                final ByteBuffer buffer = v.v();
+                for (int i = 0; i < BigArrays.PAGE_SIZE_IN_BYTES; i += Long.BYTES) {
+                    buffer.putLong(i, 0L);
+                }
+            }
+        }
+        return new Recycler.V<ByteBuffer>() {
+            @Override
+            public ByteBuffer v() {
+                return v.v();
+            }
+
+            @Override
+            public boolean isRecycled() {
+                return v.isRecycled();
+            }
+
+            @Override
+            public void close() {
+                v.close();
+                directPagesInUse.decrementAndGet();
+            }
+        };
+    }
+
+    private boolean tryAcquireDirectPage() {
+        while (true) {
+            final long inUse = directPagesInUse.get();
+            if (inUse >= maxDirectPageCount) {
+                return false;
+            }
+            if (directPagesInUse.compareAndSet(inUse, inUse + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public PageCacheRecyclerStats stats() {
+        return new PageCacheRecyclerStats(direct, directPagesInUse.get() * BigArrays.PAGE_SIZE_IN_BYTES,
+            directPagesAllocated.get(), directPagesRecycled.get(), heapFallbackPages.get());
+    }
+
     private static <T> Recycler<T> build(Type type, int limit, int availableProcessors, Recycler.C<T> c) {
         final Recycler<T> recycler;
         if (limit == 0) {
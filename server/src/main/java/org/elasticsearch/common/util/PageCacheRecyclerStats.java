@@ -0,0 +1,124 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.util;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.xcontent.ToXContentFragment;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+/**
+ * Statistics about the direct memory pages that {@link PageCacheRecycler} hands out to big arrays.
+ */
+public class PageCacheRecyclerStats implements Writeable, ToXContentFragment {
+
+    private final boolean direct;
+    private final long directInUseInBytes;
+    private final long directPagesAllocated;
+    private final long directPagesRecycled;
+    private final long heapFallbackPages;
+
+    public PageCacheRecyclerStats(boolean direct, long directInUseInBytes, long directPagesAllocated, long directPagesRecycled,
+                                  long heapFallbackPages) {
+        this.direct = direct;
+        this.directInUseInBytes = directInUseInBytes;
+        this.directPagesAllocated = directPagesAllocated;
+        this.directPagesRecycled = directPagesRecycled;
+        this.heapFallbackPages = heapFallbackPages;
+    }
+
+    public PageCacheRecyclerStats(StreamInput in) throws IOException {
+        this.direct = in.readBoolean();
+        this.directInUseInBytes = in.readVLong();
+        this.directPagesAllocated = in.readVLong();
+        this.directPagesRecycled = in.readVLong();
+        this.heapFallbackPages = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeBoolean(direct);
+        out.writeVLong(directInUseInBytes);
+        out.writeVLong(directPagesAllocated);
+        out.writeVLong(directPagesRecycled);
+        out.writeVLong(heapFallbackPages);
+    }
+
+    /**
+     * Whether big arrays are backed by direct memory on this node
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory currently held by big arrays
+     */
+    public long getDirectInUseInBytes() {
+        return directInUseInBytes;
+    }
+
+    /**
+     * Returns the total number of direct pages that had to be allocated because none could be recycled
+     */
+    public long getDirectPagesAllocated() {
+        return directPagesAllocated;
+    }
+
+    /**
+     * Returns the total number of direct pages that were served from the pool
+     */
+    public long getDirectPagesRecycled() {
+        return directPagesRecycled;
+    }
+
+    /**
+     * Returns the total number of heap pages that were handed out instead of direct pages because the direct memory limit was reached
+     */
+    public long getHeapFallbackPages() {
+        return heapFallbackPages;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(Fields.PAGE_CACHE_RECYCLER);
+        builder.field(Fields.DIRECT, direct);
+        builder.humanReadableField(Fields.DIRECT_IN_USE_IN_BYTES, Fields.DIRECT_IN_USE, new ByteSizeValue(directInUseInBytes));
+        builder.field(Fields.DIRECT_PAGES_ALLOCATED, directPagesAllocated);
+        builder.field(Fields.DIRECT_PAGES_RECYCLED, directPagesRecycled);
+        builder.field(Fields.HEAP_FALLBACK_PAGES, heapFallbackPages);
+        builder.endObject();
+        return builder;
+    }
+
+    static final class Fields {
+        static final String PAGE_CACHE_RECYCLER = "page_cache_recycler";
+        static final String DIRECT = "direct";
+        static final String DIRECT_IN_USE = "direct_in_use";
+        static final String DIRECT_IN_USE_IN_BYTES = "direct_in_use_in_bytes";
+        static final String DIRECT_PAGES_ALLOCATED = "direct_pages_allocated";
+        static final String DIRECT_PAGES_RECYCLED = "direct_pages_recycled";
+        static final String HEAP_FALLBACK_PAGES = "heap_fallback_pages";
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.util;
+
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+
+import java.util.Map;
+
+/**
+ * Deduplicates strings that are known to repeat a lot, such as setting keys, so that a single instance is shared rather than
+ * keeping a fresh copy for every time the string is read from the wire. The number of deduplicated strings is bounded: once the
+ * limit is reached the cache is cleared, which only means that strings deduplicated from then on are shared with fewer copies.
+ */
+public final class StringLiteralDeduplicator {
+
+    private static final int MAX_SIZE = 1000;
+
+    private final Map<String, String> map = ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency();
+
+    public String deduplicate(String string) {
+        final String deduplicated = map.get(string);
+        if (deduplicated != null) {
+            return deduplicated;
+        }
+        if (map.size() >= MAX_SIZE) {
+            map.clear();
+        }
+        map.put(string, string);
+        return string;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.util;
+
+import org.elasticsearch.common.metrics.CounterMetric;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Canonicalizes equal instances of an immutable type so that a single instance can be shared instead of keeping many equal copies
+ * on heap. Interned instances are only weakly referenced and are released as soon as nothing else references them anymore.
+ */
+public final class WeakInterner<T> {
+
+    private final Map<T, WeakReference<T>> instances = new WeakHashMap<>();
+    private final ToLongFunction<T> sizeInBytes;
+    private final CounterMetric deduplicated = new CounterMetric();
+    private final CounterMetric deduplicatedSizeInBytes = new CounterMetric();
+
+    /**
+     * @param sizeInBytes estimates how much heap an instance uses, which is used to report how much heap interning saved
+     */
+    public WeakInterner(ToLongFunction<T> sizeInBytes) {
+        this.sizeInBytes = sizeInBytes;
+    }
+
+    /**
+     * Returns the interned instance that is equal to the given one, or interns and returns the given instance if there is none.
+     */
+    public T intern(T value) {
+        synchronized (instances) {
+            final WeakReference<T> reference = instances.get(value);
+            final T interned = reference == null ? null : reference.get();
+            if (interned != null) {
+                deduplicated.inc();
+                deduplicatedSizeInBytes.inc(sizeInBytes.applyAsLong(value));
+                return interned;
+            }
+            instances.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    /**
+     * Returns the number of interned instances that are still in use.
+     */
+    public int count() {
+        synchronized (instances) {
+            return instances.size();
+        }
+    }
+
+    /**
+     * Returns the estimated heap used by the interned instances that are still in use.
+     */
+    public long sizeInBytes() {
+        long size = 0;
+        synchronized (instances) {
+            for (T value : instances.keySet()) {
+                if (value != null) {
+                    size += sizeInBytes.applyAsLong(value);
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns how many times an instance was replaced by an equal interned instance.
+     */
+    public long deduplicated() {
+        return deduplicated.count();
+    }
+
+    /**
+     * Returns the estimated heap of all instances that were replaced by an equal interned instance.
+     */
+    public long deduplicatedSizeInBytes() {
+        return deduplicatedSizeInBytes.count();
+    }
+}
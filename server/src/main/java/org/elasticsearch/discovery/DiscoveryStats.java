@@ -20,6 +20,7 @@
 package org.elasticsearch.discovery;
 
 import org.elasticsearch.Version;
+import org.elasticsearch.cluster.metadata.MetaDataInternStats;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
@@ -35,10 +36,17 @@ public class DiscoveryStats implements Writeable, ToXContentFragment {
 
     private final PendingClusterStateStats queueStats;
     private final PublishClusterStateStats publishStats;
+    private final MetaDataInternStats internStats;
 
     public DiscoveryStats(PendingClusterStateStats queueStats, PublishClusterStateStats publishStats) {
+        this(queueStats, publishStats, null);
+    }
+
+    public DiscoveryStats(PendingClusterStateStats queueStats, PublishClusterStateStats publishStats,
+                          @Nullable MetaDataInternStats internStats) {
         this.queueStats = queueStats;
         this.publishStats = publishStats;
+        this.internStats = internStats;
     }
 
     public DiscoveryStats(StreamInput in) throws IOException {
@@ -49,6 +57,12 @@ public class DiscoveryStats implements Writeable, ToXContentFragment {
         } else {
             publishStats = null;
         }
+
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            internStats = in.readOptionalWriteable(MetaDataInternStats::new);
+        } else {
+            internStats = null;
+        }
     }
 
     @Override
@@ -58,6 +72,10 @@ public class DiscoveryStats implements Writeable, ToXContentFragment {
         if (out.getVersion().onOrAfter(Version.V_6_1_0)) {
             out.writeOptionalWriteable(publishStats);
         }
+
+        if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            out.writeOptionalWriteable(internStats);
+        }
     }
 
     @Override
@@ -69,6 +87,9 @@ public class DiscoveryStats implements Writeable, ToXContentFragment {
         if (publishStats != null) {
             publishStats.toXContent(builder, params);
         }
+        if (internStats != null) {
+            internStats.toXContent(builder, params);
+        }
         builder.endObject();
         return builder;
     }
@@ -84,4 +105,9 @@ public class DiscoveryStats implements Writeable, ToXContentFragment {
     public PublishClusterStateStats getPublishStats() {
         return publishStats;
     }
+
+    @Nullable
+    public MetaDataInternStats getInternStats() {
+        return internStats;
+    }
 }
@@ -28,6 +28,7 @@ import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.Diff;
 import org.elasticsearch.cluster.IncompatibleClusterStateVersionException;
+import org.elasticsearch.cluster.metadata.MetaDataInterner;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.common.bytes.BytesReference;
@@ -41,6 +42,9 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.common.util.concurrent.EsThreadPoolExecutor;
+import org.elasticsearch.common.util.concurrent.FutureUtils;
 import org.elasticsearch.discovery.AckClusterStatePublishResponseHandler;
 import org.elasticsearch.discovery.BlockingClusterStatePublishResponseHandler;
 import org.elasticsearch.discovery.Discovery;
@@ -56,22 +60,30 @@ import org.elasticsearch.transport.TransportRequestOptions;
 import org.elasticsearch.transport.TransportResponse;
 import org.elasticsearch.transport.TransportService;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
-public class PublishClusterStateAction extends AbstractComponent {
+public class PublishClusterStateAction extends AbstractComponent implements Closeable {
 
     public static final String SEND_ACTION_NAME = "internal:discovery/zen/publish/send";
     public static final String COMMIT_ACTION_NAME = "internal:discovery/zen/publish/commit";
 
+    // a cluster state rarely needs more than a few copies, one per node version for the full state and one for the diff
+    private static final int MAX_SERIALIZATION_THREADS = 4;
+
     public interface IncomingClusterStateListener {
 
         /**
@@ -90,28 +102,52 @@ public class PublishClusterStateAction extends AbstractComponent {
     private final NamedWriteableRegistry namedWriteableRegistry;
     private final IncomingClusterStateListener incomingClusterStateListener;
     private final DiscoverySettings discoverySettings;
+    private final MetaDataInterner metaDataInterner;
+    // serializes the copies of a published cluster state for the different node versions in parallel
+    private final EsThreadPoolExecutor serializationExecutor;
 
     private final AtomicLong fullClusterStateReceivedCount = new AtomicLong();
     private final AtomicLong incompatibleClusterStateDiffReceivedCount = new AtomicLong();
     private final AtomicLong compatibleClusterStateDiffReceivedCount = new AtomicLong();
+    private final AtomicLong fullClusterStateSerializedCount = new AtomicLong();
+    private final AtomicLong clusterStateDiffSerializedCount = new AtomicLong();
+    private final AtomicLong serializedSizeInBytes = new AtomicLong();
+    private final AtomicLong serializationTimeInNanos = new AtomicLong();
+    private final AtomicLong sendTimeInNanos = new AtomicLong();
 
     public PublishClusterStateAction(
             Settings settings,
             TransportService transportService,
             NamedWriteableRegistry namedWriteableRegistry,
             IncomingClusterStateListener incomingClusterStateListener,
-            DiscoverySettings discoverySettings) {
+            DiscoverySettings discoverySettings,
+            MetaDataInterner metaDataInterner) {
         super(settings);
         this.transportService = transportService;
         this.namedWriteableRegistry = namedWriteableRegistry;
         this.incomingClusterStateListener = incomingClusterStateListener;
         this.discoverySettings = discoverySettings;
+        this.metaDataInterner = metaDataInterner;
+        final ThreadFactory threadFactory = EsExecutors.daemonThreadFactory(settings, "[publish_serialize]");
+        this.serializationExecutor = EsExecutors.newScaling(
+                nodeName() + "/" + "publish_serialize",
+                0,
+                Math.min(MAX_SERIALIZATION_THREADS, EsExecutors.numberOfProcessors(settings)),
+                60,
+                TimeUnit.SECONDS,
+                threadFactory,
+                transportService.getThreadPool().getThreadContext());
         transportService.registerRequestHandler(SEND_ACTION_NAME, BytesTransportRequest::new, ThreadPool.Names.SAME, false, false,
             new SendClusterStateRequestHandler());
         transportService.registerRequestHandler(COMMIT_ACTION_NAME, CommitClusterStateRequest::new, ThreadPool.Names.SAME, false, false,
             new CommitClusterStateRequestHandler());
     }
 
+    @Override
+    public void close() {
+        ThreadPool.terminate(serializationExecutor, 10, TimeUnit.SECONDS);
+    }
+
     /**
      * publishes a cluster change event to other nodes. if at least minMasterNodes acknowledge the change it is committed and will
      * be processed by the master and the other nodes.
@@ -182,20 +218,21 @@ public class PublishClusterStateAction extends AbstractComponent {
 
         final long publishingStartInNanos = System.nanoTime();
 
-        for (final DiscoveryNode node : nodesToPublishTo) {
-            // try and serialize the cluster state once (or per version), so we don't serialize it
-            // per node when we send it over the wire, compress it while we are at it...
-            // we don't send full version if node didn't exist in the previous version of cluster state
-            if (sendFullVersion || !previousState.nodes().nodeExists(node)) {
-                sendFullClusterState(clusterState, serializedStates, node, publishTimeout, sendingController);
-            } else {
-                sendClusterStateDiff(clusterState, serializedDiffs, serializedStates, node, publishTimeout, sendingController);
+        // the send time is also recorded when the state fails to be committed
+        try {
+            for (final DiscoveryNode node : nodesToPublishTo) {
+                // try and serialize the cluster state once (or per version), so we don't serialize it
+                // per node when we send it over the wire, compress it while we are at it...
+                // we don't send full version if node didn't exist in the previous version of cluster state
+                if (sendFullVersion || !previousState.nodes().nodeExists(node)) {
+                    sendFullClusterState(clusterState, serializedStates, node, publishTimeout, sendingController);
+                } else {
+                    sendClusterStateDiff(clusterState, serializedDiffs, serializedStates, node, publishTimeout, sendingController);
+                }
             }
-        }
 
-        sendingController.waitForCommit(discoverySettings.getCommitTimeout());
+            sendingController.waitForCommit(discoverySettings.getCommitTimeout());
 
-        try {
             long timeLeftInNanos = Math.max(0, publishTimeout.nanos() - (System.nanoTime() - publishingStartInNanos));
             final BlockingClusterStatePublishResponseHandler publishResponseHandler = sendingController.getPublishResponseHandler();
             sendingController.setPublishingTimedOut(!publishResponseHandler.awaitAllNodes(TimeValue.timeValueNanos(timeLeftInNanos)));
@@ -210,32 +247,64 @@ public class PublishClusterStateAction extends AbstractComponent {
         } catch (InterruptedException e) {
             // ignore & restore interrupt
             Thread.currentThread().interrupt();
+        } finally {
+            sendTimeInNanos.addAndGet(System.nanoTime() - publishingStartInNanos);
         }
     }
 
+    /**
+     * Serializes the full cluster state and the diff once for every node version that needs them. If more than one copy needs to be
+     * serialized, for instance while a cluster is upgraded or when some nodes just joined, the copies are serialized in parallel on a
+     * small dedicated executor rather than one after another on the thread that publishes the cluster state.
+     */
     private void buildDiffAndSerializeStates(ClusterState clusterState, ClusterState previousState, Set<DiscoveryNode> nodesToPublishTo,
                                              boolean sendFullVersion, Map<Version, BytesReference> serializedStates,
                                              Map<Version, BytesReference> serializedDiffs) {
-        Diff<ClusterState> diff = null;
+        final Set<Version> fullVersions = new HashSet<>();
+        final Set<Version> diffVersions = new HashSet<>();
         for (final DiscoveryNode node : nodesToPublishTo) {
-            try {
-                if (sendFullVersion || !previousState.nodes().nodeExists(node)) {
-                    // will send a full reference
-                    if (serializedStates.containsKey(node.getVersion()) == false) {
-                        serializedStates.put(node.getVersion(), serializeFullClusterState(clusterState, node.getVersion()));
-                    }
-                } else {
-                    // will send a diff
-                    if (diff == null) {
-                        diff = clusterState.diff(previousState);
-                    }
-                    if (serializedDiffs.containsKey(node.getVersion()) == false) {
-                        serializedDiffs.put(node.getVersion(), serializeDiffClusterState(diff, node.getVersion()));
-                    }
-                }
-            } catch (IOException e) {
-                throw new ElasticsearchException("failed to serialize cluster_state for publishing to node {}", e, node);
+            if (sendFullVersion || !previousState.nodes().nodeExists(node)) {
+                // will send a full reference
+                fullVersions.add(node.getVersion());
+            } else {
+                // will send a diff
+                diffVersions.add(node.getVersion());
+            }
+        }
+        final Diff<ClusterState> diff = diffVersions.isEmpty() ? null : clusterState.diff(previousState);
+
+        final List<Callable<BytesReference>> serializations = new ArrayList<>(fullVersions.size() + diffVersions.size());
+        final List<Map<Version, BytesReference>> targets = new ArrayList<>(serializations.size());
+        final List<Version> versions = new ArrayList<>(serializations.size());
+        for (Version version : fullVersions) {
+            serializations.add(() -> serializeFullClusterStateWithStats(clusterState, version));
+            targets.add(serializedStates);
+            versions.add(version);
+        }
+        for (Version version : diffVersions) {
+            serializations.add(() -> serializeDiffClusterStateWithStats(diff, version));
+            targets.add(serializedDiffs);
+            versions.add(version);
+        }
+        if (serializations.isEmpty()) {
+            return;
+        }
+
+        // fork all but the last serialization and run that one on the current thread while the others are running
+        final List<Future<BytesReference>> futures = new ArrayList<>(serializations.size() - 1);
+        try {
+            for (Callable<BytesReference> serialization : serializations.subList(0, serializations.size() - 1)) {
+                futures.add(serializationExecutor.submit(serialization));
             }
+            final int last = serializations.size() - 1;
+            targets.get(last).put(versions.get(last), serializations.get(last).call());
+            for (int i = 0; i < futures.size(); i++) {
+                targets.get(i).put(versions.get(i), FutureUtils.get(futures.get(i)));
+            }
+        } catch (Exception e) {
+            futures.forEach(FutureUtils::cancel);
+            throw new ElasticsearchException("failed to serialize cluster_state for publishing to nodes of versions {}", e,
+                versions);
         }
     }
 
@@ -244,7 +313,7 @@ public class PublishClusterStateAction extends AbstractComponent {
         BytesReference bytes = serializedStates.get(node.getVersion());
         if (bytes == null) {
             try {
-                bytes = serializeFullClusterState(clusterState, node.getVersion());
+                bytes = serializeFullClusterStateWithStats(clusterState, node.getVersion());
                 serializedStates.put(node.getVersion(), bytes);
             } catch (Exception e) {
                 logger.warn(() -> new ParameterizedMessage("failed to serialize cluster_state before publishing it to node {}", node), e);
@@ -341,6 +410,24 @@ public class PublishClusterStateAction extends AbstractComponent {
     }
 
 
+    private BytesReference serializeFullClusterStateWithStats(ClusterState clusterState, Version nodeVersion) throws IOException {
+        final long startTimeInNanos = System.nanoTime();
+        final BytesReference bytes = serializeFullClusterState(clusterState, nodeVersion);
+        serializationTimeInNanos.addAndGet(System.nanoTime() - startTimeInNanos);
+        serializedSizeInBytes.addAndGet(bytes.length());
+        fullClusterStateSerializedCount.incrementAndGet();
+        return bytes;
+    }
+
+    private BytesReference serializeDiffClusterStateWithStats(Diff diff, Version nodeVersion) throws IOException {
+        final long startTimeInNanos = System.nanoTime();
+        final BytesReference bytes = serializeDiffClusterState(diff, nodeVersion);
+        serializationTimeInNanos.addAndGet(System.nanoTime() - startTimeInNanos);
+        serializedSizeInBytes.addAndGet(bytes.length());
+        clusterStateDiffSerializedCount.incrementAndGet();
+        return bytes;
+    }
+
     public static BytesReference serializeFullClusterState(ClusterState clusterState, Version nodeVersion) throws IOException {
         BytesStreamOutput bStream = new BytesStreamOutput();
         try (StreamOutput stream = CompressorFactory.COMPRESSOR.streamOutput(bStream)) {
@@ -371,7 +458,7 @@ public class PublishClusterStateAction extends AbstractComponent {
             if (compressor != null) {
                 in = compressor.streamInput(in);
             }
-            in = new NamedWriteableAwareStreamInput(in, namedWriteableRegistry);
+            in = metaDataInterner.wrap(new NamedWriteableAwareStreamInput(in, namedWriteableRegistry));
             in.setVersion(request.version());
             synchronized (lastSeenClusterStateMutex) {
                 final ClusterState incomingState;
@@ -644,6 +731,11 @@ public class PublishClusterStateAction extends AbstractComponent {
         return new PublishClusterStateStats(
             fullClusterStateReceivedCount.get(),
             incompatibleClusterStateDiffReceivedCount.get(),
-            compatibleClusterStateDiffReceivedCount.get());
+            compatibleClusterStateDiffReceivedCount.get(),
+            fullClusterStateSerializedCount.get(),
+            clusterStateDiffSerializedCount.get(),
+            serializedSizeInBytes.get(),
+            serializationTimeInNanos.get(),
+            sendTimeInNanos.get());
     }
 }
@@ -19,13 +19,17 @@
 
 package org.elasticsearch.discovery.zen;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.ToXContentObject;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class encapsulating stats about the PublishClusterStateAction
@@ -35,6 +39,11 @@ public class PublishClusterStateStats implements Writeable, ToXContentObject {
     private final long fullClusterStateReceivedCount;
     private final long incompatibleClusterStateDiffReceivedCount;
     private final long compatibleClusterStateDiffReceivedCount;
+    private final long fullClusterStateSerializedCount;
+    private final long clusterStateDiffSerializedCount;
+    private final long serializedSizeInBytes;
+    private final long serializationTimeInNanos;
+    private final long sendTimeInNanos;
 
     /**
      * @param fullClusterStateReceivedCount the number of times this node has received a full copy of the cluster state from the master.
@@ -44,15 +53,52 @@ public class PublishClusterStateStats implements Writeable, ToXContentObject {
     public PublishClusterStateStats(long fullClusterStateReceivedCount,
                                     long incompatibleClusterStateDiffReceivedCount,
                                     long compatibleClusterStateDiffReceivedCount) {
+        this(fullClusterStateReceivedCount, incompatibleClusterStateDiffReceivedCount, compatibleClusterStateDiffReceivedCount,
+            0, 0, 0, 0, 0);
+    }
+
+    /**
+     * @param fullClusterStateSerializedCount the number of times this node has serialized a full copy of the cluster state to publish it
+     * @param clusterStateDiffSerializedCount the number of times this node has serialized a cluster-state diff to publish it
+     * @param serializedSizeInBytes the total size of the compressed cluster states and diffs that this node serialized
+     * @param serializationTimeInNanos the total time this node spent serializing and compressing cluster states and diffs
+     * @param sendTimeInNanos the total time this node spent waiting for the nodes to receive and process published cluster states
+     */
+    public PublishClusterStateStats(long fullClusterStateReceivedCount,
+                                    long incompatibleClusterStateDiffReceivedCount,
+                                    long compatibleClusterStateDiffReceivedCount,
+                                    long fullClusterStateSerializedCount,
+                                    long clusterStateDiffSerializedCount,
+                                    long serializedSizeInBytes,
+                                    long serializationTimeInNanos,
+                                    long sendTimeInNanos) {
         this.fullClusterStateReceivedCount = fullClusterStateReceivedCount;
         this.incompatibleClusterStateDiffReceivedCount = incompatibleClusterStateDiffReceivedCount;
         this.compatibleClusterStateDiffReceivedCount = compatibleClusterStateDiffReceivedCount;
+        this.fullClusterStateSerializedCount = fullClusterStateSerializedCount;
+        this.clusterStateDiffSerializedCount = clusterStateDiffSerializedCount;
+        this.serializedSizeInBytes = serializedSizeInBytes;
+        this.serializationTimeInNanos = serializationTimeInNanos;
+        this.sendTimeInNanos = sendTimeInNanos;
     }
 
     public PublishClusterStateStats(StreamInput in) throws IOException {
         fullClusterStateReceivedCount = in.readVLong();
         incompatibleClusterStateDiffReceivedCount = in.readVLong();
         compatibleClusterStateDiffReceivedCount = in.readVLong();
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            fullClusterStateSerializedCount = in.readVLong();
+            clusterStateDiffSerializedCount = in.readVLong();
+            serializedSizeInBytes = in.readVLong();
+            serializationTimeInNanos = in.readVLong();
+            sendTimeInNanos = in.readVLong();
+        } else {
+            fullClusterStateSerializedCount = 0;
+            clusterStateDiffSerializedCount = 0;
+            serializedSizeInBytes = 0;
+            serializationTimeInNanos = 0;
+            sendTimeInNanos = 0;
+        }
     }
 
     @Override
@@ -60,6 +106,13 @@ public class PublishClusterStateStats implements Writeable, ToXContentObject {
         out.writeVLong(fullClusterStateReceivedCount);
         out.writeVLong(incompatibleClusterStateDiffReceivedCount);
         out.writeVLong(compatibleClusterStateDiffReceivedCount);
+        if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            out.writeVLong(fullClusterStateSerializedCount);
+            out.writeVLong(clusterStateDiffSerializedCount);
+            out.writeVLong(serializedSizeInBytes);
+            out.writeVLong(serializationTimeInNanos);
+            out.writeVLong(sendTimeInNanos);
+        }
     }
 
     @Override
@@ -69,6 +122,12 @@ public class PublishClusterStateStats implements Writeable, ToXContentObject {
             builder.field("full_states", fullClusterStateReceivedCount);
             builder.field("incompatible_diffs", incompatibleClusterStateDiffReceivedCount);
             builder.field("compatible_diffs", compatibleClusterStateDiffReceivedCount);
+            builder.field("serialized_full_states", fullClusterStateSerializedCount);
+            builder.field("serialized_diffs", clusterStateDiffSerializedCount);
+            builder.humanReadableField("serialized_size_in_bytes", "serialized_size", new ByteSizeValue(serializedSizeInBytes));
+            builder.humanReadableField("serialization_time_in_nanos", "serialization_time",
+                new TimeValue(serializationTimeInNanos, TimeUnit.NANOSECONDS));
+            builder.humanReadableField("send_time_in_nanos", "send_time", new TimeValue(sendTimeInNanos, TimeUnit.NANOSECONDS));
         }
         builder.endObject();
         return builder;
@@ -80,11 +139,26 @@ public class PublishClusterStateStats implements Writeable, ToXContentObject {
 
     long getCompatibleClusterStateDiffReceivedCount() { return compatibleClusterStateDiffReceivedCount; }
 
+    long getFullClusterStateSerializedCount() { return fullClusterStateSerializedCount; }
+
+    long getClusterStateDiffSerializedCount() { return clusterStateDiffSerializedCount; }
+
+    long getSerializedSizeInBytes() { return serializedSizeInBytes; }
+
+    long getSerializationTimeInNanos() { return serializationTimeInNanos; }
+
+    long getSendTimeInNanos() { return sendTimeInNanos; }
+
     @Override
     public String toString() {
         return "PublishClusterStateStats(full=" + fullClusterStateReceivedCount
             + ", incompatible=" + incompatibleClusterStateDiffReceivedCount
             + ", compatible=" + compatibleClusterStateDiffReceivedCount
+            + ", serializedFull=" + fullClusterStateSerializedCount
+            + ", serializedDiffs=" + clusterStateDiffSerializedCount
+            + ", serializedSize=" + serializedSizeInBytes
+            + ", serializationTime=" + serializationTimeInNanos
+            + ", sendTime=" + sendTimeInNanos
             + ")";
     }
 }
@@ -36,6 +36,7 @@ import org.elasticsearch.cluster.NotMasterException;
 import org.elasticsearch.cluster.block.ClusterBlocks;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.cluster.metadata.MetaDataInterner;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.routing.allocation.AllocationService;
@@ -121,6 +122,8 @@ public class ZenDiscovery extends AbstractLifecycleComponent implements Discover
     private final MasterFaultDetection masterFD;
     private final NodesFaultDetection nodesFD;
     private final PublishClusterStateAction publishClusterState;
+    // shares equal mappings and aliases of the index metadata in the cluster states that this node receives
+    private final MetaDataInterner metaDataInterner = new MetaDataInterner();
     private final MembershipAction membership;
     private final ThreadPool threadPool;
 
@@ -215,7 +218,8 @@ public class ZenDiscovery extends AbstractLifecycleComponent implements Discover
                         transportService,
                         namedWriteableRegistry,
                         this,
-                        discoverySettings);
+                        discoverySettings,
+                        metaDataInterner);
         this.membership = new MembershipAction(settings, transportService, new MembershipListener(), onJoinValidators);
         this.joinThreadControl = new JoinThreadControl();
 
@@ -312,7 +316,7 @@ public class ZenDiscovery extends AbstractLifecycleComponent implements Discover
 
     @Override
     protected void doClose() throws IOException {
-        IOUtils.close(masterFD, nodesFD);
+        IOUtils.close(masterFD, nodesFD, publishClusterState);
     }
 
     @Override
@@ -406,7 +410,7 @@ public class ZenDiscovery extends AbstractLifecycleComponent implements Discover
 
     @Override
     public DiscoveryStats stats() {
-        return new DiscoveryStats(pendingStatesQueue.stats(), publishClusterState.stats());
+        return new DiscoveryStats(pendingStatesQueue.stats(), publishClusterState.stats(), metaDataInterner.stats());
     }
 
     public DiscoverySettings getDiscoverySettings() {
@@ -68,6 +68,13 @@ public class GatewayMetaState extends AbstractComponent implements ClusterStateA
 
     private volatile Set<Index> previouslyWrittenIndices = emptySet();
 
+    /**
+     * The meta data that was loaded from disk when the node started, which is known to be what is on disk until the first cluster
+     * state is persisted.
+     */
+    @Nullable
+    private volatile MetaData loadedMetaData;
+
     public GatewayMetaState(Settings settings, NodeEnvironment nodeEnv, MetaStateService metaStateService,
                             MetaDataIndexUpgradeService metaDataIndexUpgradeService, MetaDataUpgrader metaDataUpgrader) throws IOException {
         super(settings);
@@ -85,7 +92,9 @@ public class GatewayMetaState extends AbstractComponent implements ClusterStateA
             try {
                 ensureNoPre019State();
                 IndexFolderUpgrader.upgradeIndicesIfNeeded(settings, nodeEnv);
+                long startNS = System.nanoTime();
                 final MetaData metaData = metaStateService.loadFullState();
+                logger.debug("took {} to load state", TimeValue.timeValueMillis(TimeValue.nsecToMSec(System.nanoTime() - startNS)));
                 final MetaData upgradedMetaData = upgradeMetaData(metaData, metaDataIndexUpgradeService, metaDataUpgrader);
                 // We finished global state validation and successfully checked all indices for backward compatibility
                 // and found no non-upgradable indices, which means the upgrade can continue.
@@ -100,9 +109,9 @@ public class GatewayMetaState extends AbstractComponent implements ClusterStateA
                         }
                     }
                 }
-                long startNS = System.nanoTime();
-                metaStateService.loadFullState();
-                logger.debug("took {} to load state", TimeValue.timeValueMillis(TimeValue.nsecToMSec(System.nanoTime() - startNS)));
+                // keep what is now on disk so that the initial state recovery doesn't have to load it again, and the first cluster
+                // state that is persisted only has to write what changed since
+                loadedMetaData = upgradedMetaData;
             } catch (Exception e) {
                 logger.error("failed to read local state, exiting...", e);
                 throw e;
@@ -111,6 +120,10 @@ public class GatewayMetaState extends AbstractComponent implements ClusterStateA
     }
 
     public MetaData loadMetaState() throws IOException {
+        final MetaData metaData = loadedMetaData;
+        if (metaData != null) {
+            return metaData;
+        }
         return metaStateService.loadFullState();
     }
 
@@ -124,6 +137,8 @@ public class GatewayMetaState extends AbstractComponent implements ClusterStateA
             previouslyWrittenIndices = emptySet();
             return;
         }
+        final MetaData loadedMetaData = this.loadedMetaData;
+        this.loadedMetaData = null;
 
         MetaData newMetaData = state.metaData();
         // we don't check if metaData changed, since we might be called several times and we need to check dangling...
@@ -131,7 +146,16 @@ public class GatewayMetaState extends AbstractComponent implements ClusterStateA
         boolean success = true;
         // write the state if this node is a master eligible node or if it is a data node and has shards allocated on it
         if (state.nodes().getLocalNode().isMasterNode() || state.nodes().getLocalNode().isDataNode()) {
-            if (previousMetaData == null) {
+            MetaData lastWrittenMetaData = previousMetaData;
+            if (lastWrittenMetaData == null && loadedMetaData != null) {
+                // nothing has been written since the node started, so what is on disk is what was loaded then
+                lastWrittenMetaData = loadedMetaData;
+                Set<Index> loadedIndices = new HashSet<>(loadedMetaData.indices().size());
+                for (IndexMetaData indexMetaData : loadedMetaData) {
+                    loadedIndices.add(indexMetaData.getIndex());
+                }
+                previouslyWrittenIndices = unmodifiableSet(loadedIndices);
+            } else if (previousMetaData == null) {
                 try {
                     // we determine if or if not we write meta data on data only nodes by looking at the shard routing
                     // and only write if a shard of this index is allocated on this node
@@ -158,7 +182,7 @@ public class GatewayMetaState extends AbstractComponent implements ClusterStateA
                 }
             }
             // check if the global state changed?
-            if (previousMetaData == null || !MetaData.isGlobalStateEquals(previousMetaData, newMetaData)) {
+            if (lastWrittenMetaData == null || !MetaData.isGlobalStateEquals(lastWrittenMetaData, newMetaData)) {
                 try {
                     metaStateService.writeGlobalState("changed", newMetaData);
                 } catch (Exception e) {
@@ -168,7 +192,8 @@ public class GatewayMetaState extends AbstractComponent implements ClusterStateA
 
 
             relevantIndices = getRelevantIndices(event.state(), event.previousState(), previouslyWrittenIndices);
-            final Iterable<IndexMetaWriteInfo> writeInfo = resolveStatesToBeWritten(previouslyWrittenIndices, relevantIndices, previousMetaData, event.state().metaData());
+            final Iterable<IndexMetaWriteInfo> writeInfo = resolveStatesToBeWritten(previouslyWrittenIndices, relevantIndices,
+                lastWrittenMetaData, event.state().metaData());
             // check and write changes in indices
             for (IndexMetaWriteInfo indexMetaWrite : writeInfo) {
                 try {
@@ -24,7 +24,9 @@ import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.index.Index;
@@ -42,6 +44,13 @@ public class MetaStateService extends AbstractComponent {
     private final NodeEnvironment nodeEnv;
     private final NamedXContentRegistry namedXContentRegistry;
 
+    private final CounterMetric fullStateLoadCount = new CounterMetric();
+    private final CounterMetric fullStateLoadTimeInNanos = new CounterMetric();
+    private final CounterMetric globalStateWriteCount = new CounterMetric();
+    private final CounterMetric globalStateWriteTimeInNanos = new CounterMetric();
+    private final CounterMetric indexStateWriteCount = new CounterMetric();
+    private final CounterMetric indexStateWriteTimeInNanos = new CounterMetric();
+
     public MetaStateService(Settings settings, NodeEnvironment nodeEnv, NamedXContentRegistry namedXContentRegistry) {
         super(settings);
         this.nodeEnv = nodeEnv;
@@ -53,6 +62,16 @@ public class MetaStateService extends AbstractComponent {
      * meta state.
      */
     MetaData loadFullState() throws IOException {
+        final long startTimeInNanos = System.nanoTime();
+        try {
+            return innerLoadFullState();
+        } finally {
+            fullStateLoadCount.inc();
+            fullStateLoadTimeInNanos.inc(System.nanoTime() - startTimeInNanos);
+        }
+    }
+
+    private MetaData innerLoadFullState() throws IOException {
         MetaData globalMetaData = loadGlobalState();
         MetaData.Builder metaDataBuilder;
         if (globalMetaData != null) {
@@ -120,12 +139,16 @@ public class MetaStateService extends AbstractComponent {
     public void writeIndex(String reason, IndexMetaData indexMetaData) throws IOException {
         final Index index = indexMetaData.getIndex();
         logger.trace("[{}] writing state, reason [{}]", index, reason);
+        final long startTimeInNanos = System.nanoTime();
         try {
             IndexMetaData.FORMAT.write(indexMetaData,
                 nodeEnv.indexPaths(indexMetaData.getIndex()));
         } catch (Exception ex) {
             logger.warn(() -> new ParameterizedMessage("[{}]: failed to write index state", index), ex);
             throw new IOException("failed to write state for [" + index + "]", ex);
+        } finally {
+            indexStateWriteCount.inc();
+            indexStateWriteTimeInNanos.inc(System.nanoTime() - startTimeInNanos);
         }
     }
 
@@ -134,11 +157,22 @@ public class MetaStateService extends AbstractComponent {
      */
     void writeGlobalState(String reason, MetaData metaData) throws IOException {
         logger.trace("[_global] writing state, reason [{}]",  reason);
+        final long startTimeInNanos = System.nanoTime();
         try {
             MetaData.FORMAT.write(metaData, nodeEnv.nodeDataPaths());
         } catch (Exception ex) {
             logger.warn("[_global]: failed to write global state", ex);
             throw new IOException("failed to write global state", ex);
+        } finally {
+            globalStateWriteCount.inc();
+            globalStateWriteTimeInNanos.inc(System.nanoTime() - startTimeInNanos);
         }
     }
+
+    public MetaStateStats stats() {
+        return new MetaStateStats(
+            fullStateLoadCount.count(), TimeValue.nsecToMSec(fullStateLoadTimeInNanos.count()),
+            globalStateWriteCount.count(), TimeValue.nsecToMSec(globalStateWriteTimeInNanos.count()),
+            indexStateWriteCount.count(), TimeValue.nsecToMSec(indexStateWriteTimeInNanos.count()));
+    }
 }
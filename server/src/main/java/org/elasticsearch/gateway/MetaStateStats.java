@@ -0,0 +1,142 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.gateway;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.ToXContentFragment;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+/**
+ * Statistics about loading and writing the global and index meta state that {@link MetaStateService} persists on disk.
+ */
+public class MetaStateStats implements Writeable, ToXContentFragment {
+
+    private final long fullStateLoadCount;
+    private final long fullStateLoadTimeInMillis;
+    private final long globalStateWriteCount;
+    private final long globalStateWriteTimeInMillis;
+    private final long indexStateWriteCount;
+    private final long indexStateWriteTimeInMillis;
+
+    public MetaStateStats(long fullStateLoadCount, long fullStateLoadTimeInMillis, long globalStateWriteCount,
+                          long globalStateWriteTimeInMillis, long indexStateWriteCount, long indexStateWriteTimeInMillis) {
+        this.fullStateLoadCount = fullStateLoadCount;
+        this.fullStateLoadTimeInMillis = fullStateLoadTimeInMillis;
+        this.globalStateWriteCount = globalStateWriteCount;
+        this.globalStateWriteTimeInMillis = globalStateWriteTimeInMillis;
+        this.indexStateWriteCount = indexStateWriteCount;
+        this.indexStateWriteTimeInMillis = indexStateWriteTimeInMillis;
+    }
+
+    public MetaStateStats(StreamInput in) throws IOException {
+        this.fullStateLoadCount = in.readVLong();
+        this.fullStateLoadTimeInMillis = in.readVLong();
+        this.globalStateWriteCount = in.readVLong();
+        this.globalStateWriteTimeInMillis = in.readVLong();
+        this.indexStateWriteCount = in.readVLong();
+        this.indexStateWriteTimeInMillis = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVLong(fullStateLoadCount);
+        out.writeVLong(fullStateLoadTimeInMillis);
+        out.writeVLong(globalStateWriteCount);
+        out.writeVLong(globalStateWriteTimeInMillis);
+        out.writeVLong(indexStateWriteCount);
+        out.writeVLong(indexStateWriteTimeInMillis);
+    }
+
+    /**
+     * Returns how many times the global state and the state of all indices have been loaded from disk
+     */
+    public long getFullStateLoadCount() {
+        return fullStateLoadCount;
+    }
+
+    /**
+     * Returns the total time spent loading the global state and the state of all indices from disk
+     */
+    public long getFullStateLoadTimeInMillis() {
+        return fullStateLoadTimeInMillis;
+    }
+
+    /**
+     * Returns how many times the global state has been written to disk
+     */
+    public long getGlobalStateWriteCount() {
+        return globalStateWriteCount;
+    }
+
+    /**
+     * Returns the total time spent writing the global state to disk
+     */
+    public long getGlobalStateWriteTimeInMillis() {
+        return globalStateWriteTimeInMillis;
+    }
+
+    /**
+     * Returns how many times the state of an index has been written to disk
+     */
+    public long getIndexStateWriteCount() {
+        return indexStateWriteCount;
+    }
+
+    /**
+     * Returns the total time spent writing the state of indices to disk
+     */
+    public long getIndexStateWriteTimeInMillis() {
+        return indexStateWriteTimeInMillis;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(Fields.META_STATE);
+        builder.startObject(Fields.FULL_STATE_LOADS);
+        builder.field(Fields.COUNT, fullStateLoadCount);
+        builder.humanReadableField(Fields.TIME_IN_MILLIS, Fields.TIME, new TimeValue(fullStateLoadTimeInMillis));
+        builder.endObject();
+        builder.startObject(Fields.GLOBAL_STATE_WRITES);
+        builder.field(Fields.COUNT, globalStateWriteCount);
+        builder.humanReadableField(Fields.TIME_IN_MILLIS, Fields.TIME, new TimeValue(globalStateWriteTimeInMillis));
+        builder.endObject();
+        builder.startObject(Fields.INDEX_STATE_WRITES);
+        builder.field(Fields.COUNT, indexStateWriteCount);
+        builder.humanReadableField(Fields.TIME_IN_MILLIS, Fields.TIME, new TimeValue(indexStateWriteTimeInMillis));
+        builder.endObject();
+        builder.endObject();
+        return builder;
+    }
+
+    static final class Fields {
+        static final String META_STATE = "meta_state";
+        static final String FULL_STATE_LOADS = "full_state_loads";
+        static final String GLOBAL_STATE_WRITES = "global_state_writes";
+        static final String INDEX_STATE_WRITES = "index_state_writes";
+        static final String COUNT = "count";
+        static final String TIME = "time";
+        static final String TIME_IN_MILLIS = "time_in_millis";
+    }
+}
@@ -20,6 +20,8 @@ package org.elasticsearch.index;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.MergePolicy;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.Constants;
 import org.elasticsearch.Version;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.common.logging.Loggers;
@@ -62,6 +64,13 @@ public final class IndexSettings {
     public static final Setting<TimeValue> INDEX_TRANSLOG_SYNC_INTERVAL_SETTING =
         Setting.timeSetting("index.translog.sync_interval", TimeValue.timeValueSeconds(5), TimeValue.timeValueMillis(100),
             Property.IndexScope);
+    /**
+     * How long the translog fsync of a durable write request is delayed so that it can be grouped with the fsyncs of other requests to
+     * the same shard. The grouped fsyncs of all shards run on the node's generic thread pool rather than on the write threads. The
+     * default of zero fsyncs right away.
+     */
+    public static final Setting<TimeValue> TRANSLOG_GROUP_COMMIT_WINDOW_SETTING =
+        Setting.timeSetting("indices.translog.group_commit_window", TimeValue.ZERO, TimeValue.ZERO, Property.NodeScope);
     public static final Setting<TimeValue> INDEX_SEARCH_IDLE_AFTER =
         Setting.timeSetting("index.search.idle.after", TimeValue.timeValueSeconds(30),
             TimeValue.timeValueMinutes(0), Property.IndexScope, Property.Dynamic);
@@ -100,6 +109,13 @@ public final class IndexSettings {
     public static final Setting<Integer> MAX_INNER_RESULT_WINDOW_SETTING =
         Setting.intSetting("index.max_inner_result_window", 100, 1, Property.Dynamic, Property.IndexScope);
 
+    /**
+     * Index setting describing the maximum number of slices that the segments of a shard are split into in order to search them
+     * concurrently on the search_slice thread pool. The default of 1 searches all segments sequentially on the search thread.
+     */
+    public static final Setting<Integer> MAX_CONCURRENT_SEARCH_SLICES_SETTING =
+        Setting.intSetting("index.search.max_concurrent_slices", 1, 1, Property.Dynamic, Property.IndexScope);
+
     /**
      * Index setting describing the maximum value of allowed `script_fields`that can be retrieved
      * per search request. The default maximum of 32 is defensive for the reason that retrieving
@@ -209,6 +225,15 @@ public final class IndexSettings {
         Setting.byteSizeSetting("index.translog.retention.size", new ByteSizeValue(512, ByteSizeUnit.MB), Property.Dynamic,
             Property.IndexScope);
 
+    /**
+     * Controls whether operations of sealed translog generations are read from a memory mapped view of the file
+     * when replaying the translog or sending it to a recovery target. Enabled by default where memory mapped files
+     * can be unmapped reliably.
+     */
+    public static final Setting<Boolean> INDEX_TRANSLOG_MMAP_SETTING =
+        Setting.boolSetting("index.translog.mmap", Constants.JRE_IS_64BIT && MMapDirectory.UNMAP_SUPPORTED, Property.Dynamic,
+            Property.IndexScope);
+
     /**
      * The maximum size of a translog generation. This is independent of the maximum size of
      * translog operations that have not been flushed.
@@ -267,6 +292,7 @@ public final class IndexSettings {
     private final boolean queryStringLenient;
     private final boolean queryStringAnalyzeWildcard;
     private final boolean queryStringAllowLeadingWildcard;
+    private final TimeValue translogGroupCommitWindow;
     private final boolean defaultAllowUnmappedFields;
     private volatile Translog.Durability durability;
     private final TimeValue syncInterval;
@@ -275,6 +301,7 @@ public final class IndexSettings {
     private volatile TimeValue translogRetentionAge;
     private volatile ByteSizeValue translogRetentionSize;
     private volatile ByteSizeValue generationThresholdSize;
+    private volatile boolean translogMmap;
     private final MergeSchedulerConfig mergeSchedulerConfig;
     private final MergePolicyConfig mergePolicyConfig;
     private final IndexSortConfig indexSortConfig;
@@ -283,6 +310,7 @@ public final class IndexSettings {
     private volatile boolean warmerEnabled;
     private volatile int maxResultWindow;
     private volatile int maxInnerResultWindow;
+    private volatile int maxConcurrentSearchSlices;
     private volatile int maxAdjacencyMatrixFilters;
     private volatile int maxRescoreWindow;
     private volatile int maxDocvalueFields;
@@ -379,6 +407,7 @@ public final class IndexSettings {
         this.queryStringLenient = QUERY_STRING_LENIENT_SETTING.get(settings);
         this.queryStringAnalyzeWildcard = QUERY_STRING_ANALYZE_WILDCARD.get(nodeSettings);
         this.queryStringAllowLeadingWildcard = QUERY_STRING_ALLOW_LEADING_WILDCARD.get(nodeSettings);
+        this.translogGroupCommitWindow = TRANSLOG_GROUP_COMMIT_WINDOW_SETTING.get(nodeSettings);
         this.defaultAllowUnmappedFields = scopedSettings.get(ALLOW_UNMAPPED);
         this.durability = scopedSettings.get(INDEX_TRANSLOG_DURABILITY_SETTING);
         defaultFields = scopedSettings.get(DEFAULT_FIELD_SETTING);
@@ -388,11 +417,13 @@ public final class IndexSettings {
         translogRetentionAge = scopedSettings.get(INDEX_TRANSLOG_RETENTION_AGE_SETTING);
         translogRetentionSize = scopedSettings.get(INDEX_TRANSLOG_RETENTION_SIZE_SETTING);
         generationThresholdSize = scopedSettings.get(INDEX_TRANSLOG_GENERATION_THRESHOLD_SIZE_SETTING);
+        translogMmap = scopedSettings.get(INDEX_TRANSLOG_MMAP_SETTING);
         mergeSchedulerConfig = new MergeSchedulerConfig(this);
         gcDeletesInMillis = scopedSettings.get(INDEX_GC_DELETES_SETTING).getMillis();
         warmerEnabled = scopedSettings.get(INDEX_WARMER_ENABLED_SETTING);
         maxResultWindow = scopedSettings.get(MAX_RESULT_WINDOW_SETTING);
         maxInnerResultWindow = scopedSettings.get(MAX_INNER_RESULT_WINDOW_SETTING);
+        maxConcurrentSearchSlices = scopedSettings.get(MAX_CONCURRENT_SEARCH_SLICES_SETTING);
         maxAdjacencyMatrixFilters = scopedSettings.get(MAX_ADJACENCY_MATRIX_FILTERS_SETTING);
         maxRescoreWindow = scopedSettings.get(MAX_RESCORE_WINDOW_SETTING);
         maxDocvalueFields = scopedSettings.get(MAX_DOCVALUE_FIELDS_SEARCH_SETTING);
@@ -424,6 +455,7 @@ public final class IndexSettings {
         scopedSettings.addSettingsUpdateConsumer(INDEX_TRANSLOG_DURABILITY_SETTING, this::setTranslogDurability);
         scopedSettings.addSettingsUpdateConsumer(MAX_RESULT_WINDOW_SETTING, this::setMaxResultWindow);
         scopedSettings.addSettingsUpdateConsumer(MAX_INNER_RESULT_WINDOW_SETTING, this::setMaxInnerResultWindow);
+        scopedSettings.addSettingsUpdateConsumer(MAX_CONCURRENT_SEARCH_SLICES_SETTING, this::setMaxConcurrentSearchSlices);
         scopedSettings.addSettingsUpdateConsumer(MAX_ADJACENCY_MATRIX_FILTERS_SETTING, this::setMaxAdjacencyMatrixFilters);
         scopedSettings.addSettingsUpdateConsumer(MAX_RESCORE_WINDOW_SETTING, this::setMaxRescoreWindow);
         scopedSettings.addSettingsUpdateConsumer(MAX_DOCVALUE_FIELDS_SEARCH_SETTING, this::setMaxDocvalueFields);
@@ -439,6 +471,7 @@ public final class IndexSettings {
                 this::setGenerationThresholdSize);
         scopedSettings.addSettingsUpdateConsumer(INDEX_TRANSLOG_RETENTION_AGE_SETTING, this::setTranslogRetentionAge);
         scopedSettings.addSettingsUpdateConsumer(INDEX_TRANSLOG_RETENTION_SIZE_SETTING, this::setTranslogRetentionSize);
+        scopedSettings.addSettingsUpdateConsumer(INDEX_TRANSLOG_MMAP_SETTING, this::setTranslogMmap);
         scopedSettings.addSettingsUpdateConsumer(INDEX_REFRESH_INTERVAL_SETTING, this::setRefreshInterval);
         scopedSettings.addSettingsUpdateConsumer(MAX_REFRESH_LISTENERS_PER_SHARD, this::setMaxRefreshListeners);
         scopedSettings.addSettingsUpdateConsumer(MAX_ANALYZED_OFFSET_SETTING, this::setHighlightMaxAnalyzedOffset);
@@ -463,6 +496,10 @@ public final class IndexSettings {
         this.translogRetentionAge = age;
     }
 
+    private void setTranslogMmap(boolean translogMmap) {
+        this.translogMmap = translogMmap;
+    }
+
     private void setGenerationThresholdSize(final ByteSizeValue generationThresholdSize) {
         this.generationThresholdSize = generationThresholdSize;
     }
@@ -627,6 +664,16 @@ public final class IndexSettings {
      */
     public TimeValue getTranslogRetentionAge() { return translogRetentionAge; }
 
+    /**
+     * Returns how long translog fsyncs of durable write requests are delayed so that they can be grouped. The default is zero
+     */
+    public TimeValue getTranslogGroupCommitWindow() { return translogGroupCommitWindow; }
+
+    /**
+     * Returns <code>true</code> if sealed translog generations should be read through a memory mapped view of the file
+     */
+    public boolean isTranslogMmap() { return translogMmap; }
+
     /**
      * Returns the generation threshold size. As sequence numbers can cause multiple generations to
      * be preserved for rollback purposes, we want to keep the size of individual generations from
@@ -667,6 +714,17 @@ public final class IndexSettings {
         this.maxInnerResultWindow = maxInnerResultWindow;
     }
 
+    /**
+     * Returns the maximum number of slices that the segments of a shard are split into to search them concurrently.
+     */
+    public int getMaxConcurrentSearchSlices() {
+        return maxConcurrentSearchSlices;
+    }
+
+    private void setMaxConcurrentSearchSlices(int maxConcurrentSearchSlices) {
+        this.maxConcurrentSearchSlices = maxConcurrentSearchSlices;
+    }
+
     /**
      * Returns the max number of filters in adjacency_matrix aggregation search requests
      */
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.index.cache.request;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Streamable;
@@ -35,15 +36,28 @@ public class RequestCacheStats implements Streamable, ToXContentFragment {
     long evictions;
     long hitCount;
     long missCount;
+    long withHitsMemorySize;
+    long withHitsEvictions;
+    long withHitsHitCount;
+    long withHitsMissCount;
 
     public RequestCacheStats() {
     }
 
     public RequestCacheStats(long memorySize, long evictions, long hitCount, long missCount) {
+        this(memorySize, evictions, hitCount, missCount, 0, 0, 0, 0);
+    }
+
+    public RequestCacheStats(long memorySize, long evictions, long hitCount, long missCount, long withHitsMemorySize,
+                             long withHitsEvictions, long withHitsHitCount, long withHitsMissCount) {
         this.memorySize = memorySize;
         this.evictions = evictions;
         this.hitCount = hitCount;
         this.missCount = missCount;
+        this.withHitsMemorySize = withHitsMemorySize;
+        this.withHitsEvictions = withHitsEvictions;
+        this.withHitsHitCount = withHitsHitCount;
+        this.withHitsMissCount = withHitsMissCount;
     }
 
     public void add(RequestCacheStats stats) {
@@ -51,6 +65,10 @@ public class RequestCacheStats implements Streamable, ToXContentFragment {
         this.evictions += stats.evictions;
         this.hitCount += stats.hitCount;
         this.missCount += stats.missCount;
+        this.withHitsMemorySize += stats.withHitsMemorySize;
+        this.withHitsEvictions += stats.withHitsEvictions;
+        this.withHitsHitCount += stats.withHitsHitCount;
+        this.withHitsMissCount += stats.withHitsMissCount;
     }
 
     public long getMemorySizeInBytes() {
@@ -73,12 +91,41 @@ public class RequestCacheStats implements Streamable, ToXContentFragment {
         return this.missCount;
     }
 
+    /**
+     * The memory used by the results of requests that return hits, which is included in {@link #getMemorySizeInBytes()}.
+     */
+    public long getWithHitsMemorySizeInBytes() {
+        return this.withHitsMemorySize;
+    }
+
+    public ByteSizeValue getWithHitsMemorySize() {
+        return new ByteSizeValue(withHitsMemorySize);
+    }
+
+    public long getWithHitsEvictions() {
+        return this.withHitsEvictions;
+    }
+
+    public long getWithHitsHitCount() {
+        return this.withHitsHitCount;
+    }
+
+    public long getWithHitsMissCount() {
+        return this.withHitsMissCount;
+    }
+
     @Override
     public void readFrom(StreamInput in) throws IOException {
         memorySize = in.readVLong();
         evictions = in.readVLong();
         hitCount = in.readVLong();
         missCount = in.readVLong();
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            withHitsMemorySize = in.readVLong();
+            withHitsEvictions = in.readVLong();
+            withHitsHitCount = in.readVLong();
+            withHitsMissCount = in.readVLong();
+        }
     }
 
     @Override
@@ -87,6 +134,12 @@ public class RequestCacheStats implements Streamable, ToXContentFragment {
         out.writeVLong(evictions);
         out.writeVLong(hitCount);
         out.writeVLong(missCount);
+        if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            out.writeVLong(withHitsMemorySize);
+            out.writeVLong(withHitsEvictions);
+            out.writeVLong(withHitsHitCount);
+            out.writeVLong(withHitsMissCount);
+        }
     }
 
     @Override
@@ -96,6 +149,12 @@ public class RequestCacheStats implements Streamable, ToXContentFragment {
         builder.field(Fields.EVICTIONS, getEvictions());
         builder.field(Fields.HIT_COUNT, getHitCount());
         builder.field(Fields.MISS_COUNT, getMissCount());
+        builder.startObject(Fields.WITH_HITS);
+        builder.humanReadableField(Fields.MEMORY_SIZE_IN_BYTES, Fields.MEMORY_SIZE, getWithHitsMemorySize());
+        builder.field(Fields.EVICTIONS, getWithHitsEvictions());
+        builder.field(Fields.HIT_COUNT, getWithHitsHitCount());
+        builder.field(Fields.MISS_COUNT, getWithHitsMissCount());
+        builder.endObject();
         builder.endObject();
         return builder;
     }
@@ -107,5 +166,6 @@ public class RequestCacheStats implements Streamable, ToXContentFragment {
         static final String EVICTIONS = "evictions";
         static final String HIT_COUNT = "hit_count";
         static final String MISS_COUNT = "miss_count";
+        static final String WITH_HITS = "with_hits";
     }
 }
@@ -31,26 +31,45 @@ public final class ShardRequestCache {
     final CounterMetric totalMetric = new CounterMetric();
     final CounterMetric hitCount = new CounterMetric();
     final CounterMetric missCount = new CounterMetric();
+    // the entries of requests that return hits, these are included in the totals above
+    final CounterMetric withHitsEvictionsMetric = new CounterMetric();
+    final CounterMetric withHitsTotalMetric = new CounterMetric();
+    final CounterMetric withHitsHitCount = new CounterMetric();
+    final CounterMetric withHitsMissCount = new CounterMetric();
 
     public RequestCacheStats stats() {
-        return new RequestCacheStats(totalMetric.count(), evictionsMetric.count(), hitCount.count(), missCount.count());
+        return new RequestCacheStats(totalMetric.count(), evictionsMetric.count(), hitCount.count(), missCount.count(),
+            withHitsTotalMetric.count(), withHitsEvictionsMetric.count(), withHitsHitCount.count(), withHitsMissCount.count());
     }
 
-    public void onHit() {
+    public void onHit(boolean withHits) {
         hitCount.inc();
+        if (withHits) {
+            withHitsHitCount.inc();
+        }
     }
 
-    public void onMiss() {
+    public void onMiss(boolean withHits) {
         missCount.inc();
+        if (withHits) {
+            withHitsMissCount.inc();
+        }
     }
 
-    public void onCached(Accountable key, Accountable value) {
-        totalMetric.inc(key.ramBytesUsed() + value.ramBytesUsed());
+    public void onCached(Accountable key, Accountable value, boolean withHits) {
+        final long inc = key.ramBytesUsed() + value.ramBytesUsed();
+        totalMetric.inc(inc);
+        if (withHits) {
+            withHitsTotalMetric.inc(inc);
+        }
     }
 
-    public void onRemoval(Accountable key, Accountable value, boolean evicted) {
+    public void onRemoval(Accountable key, Accountable value, boolean evicted, boolean withHits) {
         if (evicted) {
             evictionsMetric.inc();
+            if (withHits) {
+                withHitsEvictionsMetric.inc();
+            }
         }
         long dec = 0;
         if (key != null) {
@@ -60,5 +79,8 @@ public final class ShardRequestCache {
             dec += value.ramBytesUsed();
         }
         totalMetric.dec(dec);
+        if (withHits) {
+            withHitsTotalMetric.dec(dec);
+        }
     }
 }
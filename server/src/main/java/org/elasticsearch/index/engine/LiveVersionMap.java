@@ -25,24 +25,35 @@ import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.RamUsageEstimator;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
-import org.elasticsearch.common.util.concurrent.KeyedLock;
 
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /** Maps _uid value to its version information. */
 final class LiveVersionMap implements ReferenceManager.RefreshListener, Accountable {
 
-    private final KeyedLock<BytesRef> keyedLock = new KeyedLock<>();
+    /**
+     * Number of lock stripes that uids are hashed onto. Unlike a lock per uid, acquiring a stripe doesn't need to allocate anything or
+     * to insert into and remove from a shared map, which is what limited indexing throughput on hot shards with many indexing threads.
+     * The price is that two uids that share a stripe can't be indexed concurrently, which is made unlikely by having many more stripes
+     * than indexing threads. Stripes are created lazily so that shards that are rarely written to only pay for the array.
+     */
+    static final int LOCK_STRIPES = 1024;
+
+    private final AtomicReferenceArray<UidLock> lockStripes = new AtomicReferenceArray<>(LOCK_STRIPES);
 
     private static final class VersionLookup {
 
         /** Tracks bytes used by current map, i.e. what is freed on refresh. For deletes, which are also added to tombstones, we only account
-         *  for the CHM entry here, and account for BytesRef/VersionValue against the tombstones, since refresh would not clear this RAM. */
-        final AtomicLong ramBytesUsed = new AtomicLong();
+         *  for the CHM entry here, and account for BytesRef/VersionValue against the tombstones, since refresh would not clear this RAM.
+         *  This is updated by every indexing operation but only read when checking whether a refresh is needed, hence the adder. */
+        final LongAdder ramBytesUsed = new LongAdder();
 
         private static final VersionLookup EMPTY = new VersionLookup(Collections.emptyMap());
         private final Map<BytesRef, VersionValue> map;
@@ -162,8 +173,7 @@ final class LiveVersionMap implements ReferenceManager.RefreshListener, Accounta
 
         void adjustRam(long value) {
             if (value != 0) {
-                long v = current.ramBytesUsed.addAndGet(value);
-                assert v >= 0 : "bytes=" + v;
+                current.ramBytesUsed.add(value);
             }
         }
 
@@ -391,7 +401,7 @@ final class LiveVersionMap implements ReferenceManager.RefreshListener, Accounta
             // we won't collect the tombstone below since it must be newer than this one.
             if (canRemoveTombstone(maxTimestampToPrune, maxSeqNoToPrune, entry.getValue())) {
                 final BytesRef uid = entry.getKey();
-                try (Releasable lock = keyedLock.tryAcquire(uid)) {
+                try (Releasable lock = tryAcquireLock(uid)) {
                     // we use tryAcquire here since this is a best effort and we try to be least disruptive
                     // this method is also called under lock in the engine under certain situations such that this can lead to deadlocks
                     // if we do use a blocking acquire. see #28714
@@ -423,7 +433,7 @@ final class LiveVersionMap implements ReferenceManager.RefreshListener, Accounta
 
     @Override
     public long ramBytesUsed() {
-        return maps.current.ramBytesUsed.get() + ramBytesUsedTombstones.get();
+        return maps.current.ramBytesUsed.sum() + ramBytesUsedTombstones.get();
     }
 
     /**
@@ -431,7 +441,7 @@ final class LiveVersionMap implements ReferenceManager.RefreshListener, Accounta
      * don't clear on refresh.
      */
     long ramBytesUsedForRefresh() {
-        return maps.current.ramBytesUsed.get();
+        return maps.current.ramBytesUsed.sum();
     }
 
     @Override
@@ -456,14 +466,54 @@ final class LiveVersionMap implements ReferenceManager.RefreshListener, Accounta
      * Acquires a releaseable lock for the given uId. All *UnderLock methods require
      * this lock to be hold by the caller otherwise the visibility guarantees of this version
      * map are broken. We assert on this lock to be hold when calling these methods.
-     * @see KeyedLock
+     * The lock can be acquired by the same thread multiple times and may be shared with
+     * other uIds, so callers must not block on another uId's lock while holding it.
      */
     Releasable acquireLock(BytesRef uid) {
-        return keyedLock.acquire(uid);
+        final UidLock lock = lockFor(uid);
+        lock.lock();
+        return lock;
+    }
+
+    /**
+     * Tries to acquire the lock for the given uId and returns it, or <code>null</code> if it is held by another thread.
+     */
+    private Releasable tryAcquireLock(BytesRef uid) {
+        final UidLock lock = lockFor(uid);
+        return lock.tryLock() ? lock : null;
+    }
+
+    /** Returns the lock stripe that the uid is hashed onto. */
+    static int stripe(BytesRef uid) {
+        final int hash = uid.hashCode();
+        return (hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1);
     }
 
+    private UidLock lockFor(BytesRef uid) {
+        final int stripe = stripe(uid);
+        UidLock lock = lockStripes.get(stripe);
+        if (lock == null) {
+            lockStripes.compareAndSet(stripe, null, new UidLock());
+            lock = lockStripes.get(stripe);
+        }
+        return lock;
+    }
+
+    /**
+     * Checks that the current thread holds the lock stripe of the uid. Since uids share stripes, this doesn't prove that the lock was
+     * acquired for this uid rather than for another uid on the same stripe.
+     */
     private boolean assertKeyedLockHeldByCurrentThread(BytesRef uid) {
-        assert keyedLock.isHeldByCurrentThread(uid) : "Thread [" + Thread.currentThread().getName() + "], uid [" + uid.utf8ToString() + "]";
+        assert lockFor(uid).isHeldByCurrentThread() : "Thread [" + Thread.currentThread().getName() + "] doesn't hold lock stripe ["
+            + stripe(uid) + "] of uid [" + uid.utf8ToString() + "], only the stripe is checked, not the uid itself";
         return true;
     }
+
+    @SuppressWarnings("serial")
+    private static final class UidLock extends ReentrantLock implements Releasable {
+        @Override
+        public void close() {
+            unlock();
+        }
+    }
 }
@@ -64,6 +64,7 @@ import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.util.concurrent.AsyncIOProcessor;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.core.internal.io.IOUtils;
 import org.elasticsearch.index.Index;
@@ -2300,17 +2301,84 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
     private final AsyncIOProcessor<Translog.Location> translogSyncProcessor = new AsyncIOProcessor<Translog.Location>(logger, 1024) {
         @Override
         protected void write(List<Tuple<Translog.Location, Consumer<Exception>>> candidates) throws IOException {
+            syncTranslog(candidates);
+        }
+    };
+
+    private void syncTranslog(List<Tuple<Translog.Location, Consumer<Exception>>> candidates) throws IOException {
+        try {
+            getEngine().ensureTranslogSynced(candidates.stream().map(Tuple::v1));
+        } catch (AlreadyClosedException ex) {
+            // that's fine since we already synced everything on engine close - this also is conform with the methods
+            // documentation
+        } catch (IOException ex) { // if this fails we are in deep shit - fail the request
+            logger.debug("failed to sync translog", ex);
+            throw ex;
+        }
+    }
+
+    private final Object groupCommitMutex = new Object();
+    // guarded by groupCommitMutex
+    private List<Tuple<Translog.Location, Consumer<Exception>>> groupCommitCandidates = new ArrayList<>();
+
+    /**
+     * Adds the given location to the pending group commit and schedules the group commit on the generic thread pool if this is the
+     * first location since the last group commit.
+     */
+    private void addToGroupCommit(Translog.Location location, Consumer<Exception> syncListener, TimeValue window) {
+        final boolean first;
+        synchronized (groupCommitMutex) {
+            first = groupCommitCandidates.isEmpty();
+            groupCommitCandidates.add(new Tuple<>(location, syncListener));
+        }
+        if (first) {
+            try {
+                threadPool.schedule(window, ThreadPool.Names.GENERIC, new AbstractRunnable() {
+                    @Override
+                    public void onFailure(Exception e) {
+                        notifyGroupCommit(drainGroupCommit(), e);
+                    }
+
+                    @Override
+                    protected void doRun() {
+                        runGroupCommit();
+                    }
+                });
+            } catch (EsRejectedExecutionException e) {
+                // the scheduler is shutting down, sync on the calling thread instead
+                runGroupCommit();
+            }
+        }
+    }
+
+    private List<Tuple<Translog.Location, Consumer<Exception>>> drainGroupCommit() {
+        synchronized (groupCommitMutex) {
+            final List<Tuple<Translog.Location, Consumer<Exception>>> candidates = groupCommitCandidates;
+            groupCommitCandidates = new ArrayList<>();
+            return candidates;
+        }
+    }
+
+    private void runGroupCommit() {
+        final List<Tuple<Translog.Location, Consumer<Exception>>> candidates = drainGroupCommit();
+        Exception exception = null;
+        try {
+            syncTranslog(candidates);
+        } catch (Exception e) {
+            exception = e;
+        }
+        notifyGroupCommit(candidates, exception);
+    }
+
+    private void notifyGroupCommit(List<Tuple<Translog.Location, Consumer<Exception>>> candidates, @Nullable Exception exception) {
+        for (Tuple<Translog.Location, Consumer<Exception>> candidate : candidates) {
             try {
-                getEngine().ensureTranslogSynced(candidates.stream().map(Tuple::v1));
-            } catch (AlreadyClosedException ex) {
-                // that's fine since we already synced everything on engine close - this also is conform with the methods
-                // documentation
-            } catch (IOException ex) { // if this fails we are in deep shit - fail the request
-                logger.debug("failed to sync translog", ex);
-                throw ex;
+                candidate.v2().accept(exception);
+            } catch (Exception e) {
+                logger.warn("failed to notify translog sync listener", e);
             }
         }
-    };
+    }
 
     /**
      * Syncs the given location with the underlying storage unless already synced. This method might return immediately without
@@ -2318,12 +2386,19 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
      * the transaction log the caller thread will be hijacked to run the fsync for all pending fsync operations.
      * This method allows indexing threads to continue indexing without blocking on fsync calls. We ensure that there is only
      * one thread blocking on the sync an all others can continue indexing.
+     * If {@link IndexSettings#TRANSLOG_GROUP_COMMIT_WINDOW_SETTING} is set, the location is instead synced together with all other
+     * locations added during that window by a single fsync on the generic thread pool.
      * NOTE: if the syncListener throws an exception when it's processed the exception will only be logged. Users should make sure that the
      * listener handles all exception cases internally.
      */
     public final void sync(Translog.Location location, Consumer<Exception> syncListener) {
         verifyNotClosed();
-        translogSyncProcessor.put(location, syncListener);
+        final TimeValue window = indexSettings.getTranslogGroupCommitWindow();
+        if (window.nanos() > 0) {
+            addToGroupCommit(location, syncListener, window);
+        } else {
+            translogSyncProcessor.put(location, syncListener);
+        }
     }
 
     public void sync() throws IOException {
@@ -33,6 +33,7 @@ import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.lucene.uid.Versions;
+import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.ReleasableLock;
@@ -59,7 +60,6 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -123,6 +123,8 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
     private final LongSupplier primaryTermSupplier;
     private final String translogUUID;
     private final TranslogDeletionPolicy deletionPolicy;
+    private final CounterMetric syncRequests = new CounterMetric();
+    private final CounterMetric syncs = new CounterMetric();
 
     /**
      * Creates a new Translog instance. This method will create a new transaction log unless the given {@link TranslogGeneration} is
@@ -565,11 +567,19 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
             }
             TranslogSnapshot[] snapshots = Stream.concat(readers.stream(), Stream.of(current))
                 .filter(reader -> reader.getGeneration() >= minGeneration)
-                .map(BaseTranslogReader::newSnapshot).toArray(TranslogSnapshot[]::new);
+                .map(this::newSnapshot).toArray(TranslogSnapshot[]::new);
             return newMultiSnapshot(snapshots);
         }
     }
 
+    private TranslogSnapshot newSnapshot(BaseTranslogReader reader) {
+        // only sealed generations are immutable and can safely be mapped
+        if (reader instanceof TranslogReader && config.getIndexSettings().isTranslogMmap()) {
+            return ((TranslogReader) reader).newMappedSnapshot();
+        }
+        return reader.newSnapshot();
+    }
+
     /**
      * Reads and returns the operation from the given location if the generation it references is still available. Otherwise
      * this method will return <code>null</code>.
@@ -603,7 +613,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
     public Snapshot newSnapshotFromMinSeqNo(long minSeqNo) throws IOException {
         try (ReleasableLock ignored = readLock.acquire()) {
             ensureOpen();
-            TranslogSnapshot[] snapshots = readersAboveMinSeqNo(minSeqNo).map(BaseTranslogReader::newSnapshot)
+            TranslogSnapshot[] snapshots = readersAboveMinSeqNo(minSeqNo).map(this::newSnapshot)
                 .toArray(TranslogSnapshot[]::new);
             return newMultiSnapshot(snapshots);
         }
@@ -703,10 +713,19 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
      * @return Returns <code>true</code> iff this call caused an actual sync operation otherwise <code>false</code>
      */
     public boolean ensureSynced(Location location) throws IOException {
+        return ensureSynced(location, 1);
+    }
+
+    private boolean ensureSynced(Location location, long numRequests) throws IOException {
+        syncRequests.inc(numRequests);
         try (ReleasableLock lock = readLock.acquire()) {
             if (location.generation == current.getGeneration()) { // if we have a new one it's already synced
                 ensureOpen();
-                return current.syncUpTo(location.translogLocation + location.size);
+                if (current.syncUpTo(location.translogLocation + location.size)) {
+                    syncs.inc();
+                    return true;
+                }
+                return false;
             }
         } catch (final Exception ex) {
             closeOnTragicEvent(ex);
@@ -723,11 +742,18 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
      * @return Returns <code>true</code> iff this call caused an actual sync operation otherwise <code>false</code>
      */
     public boolean ensureSynced(Stream<Location> locations) throws IOException {
-        final Optional<Location> max = locations.max(Location::compareTo);
+        Location max = null;
+        long numRequests = 0;
+        for (Iterator<Location> iterator = locations.iterator(); iterator.hasNext(); numRequests++) {
+            final Location location = iterator.next();
+            if (max == null || location.compareTo(max) > 0) {
+                max = location;
+            }
+        }
         // we only need to sync the max location since it will sync all other
         // locations implicitly
-        if (max.isPresent()) {
-            return ensureSynced(max.get());
+        if (max != null) {
+            return ensureSynced(max, numRequests);
         } else {
             return false;
         }
@@ -767,7 +793,8 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
         // acquire lock to make the two numbers roughly consistent (no file change half way)
         try (ReleasableLock lock = readLock.acquire()) {
             final long uncommittedGen = deletionPolicy.getTranslogGenerationOfLastCommit();
-            return new TranslogStats(totalOperations(), sizeInBytes(), totalOperationsByMinGen(uncommittedGen), sizeInBytesByMinGen(uncommittedGen), earliestLastModifiedAge());
+            return new TranslogStats(totalOperations(), sizeInBytes(), totalOperationsByMinGen(uncommittedGen), sizeInBytesByMinGen(uncommittedGen), earliestLastModifiedAge(),
+                syncRequests.count(), syncs.count());
         }
     }
 
@@ -20,7 +20,13 @@
 package org.elasticsearch.index.translog;
 
 import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.store.NoLockFactory;
 import org.elasticsearch.common.io.Channels;
+import org.elasticsearch.core.internal.io.IOUtils;
 
 import java.io.Closeable;
 import java.io.EOFException;
@@ -38,6 +44,8 @@ public class TranslogReader extends BaseTranslogReader implements Closeable {
     private final int totalOperations;
     private final Checkpoint checkpoint;
     protected final AtomicBoolean closed = new AtomicBoolean(false);
+    private IndexInput mappedInput; // lazily mapped on the first read of a mapped snapshot
+    private int mappedInputRefCount; // number of snapshots reading from the mapped input, which is unmapped once closed and unused
 
     /**
      * Create a translog writer against the specified translog file channel.
@@ -83,6 +91,58 @@ public class TranslogReader extends BaseTranslogReader implements Closeable {
         return checkpoint;
     }
 
+    /**
+     * Returns a snapshot that reads the operations of this generation from a memory mapped view of the file rather than
+     * through positional reads on the file channel. The file is mapped the first time the snapshot reads an operation.
+     */
+    TranslogSnapshot newMappedSnapshot() {
+        return new TranslogSnapshot(this, sizeInBytes(), this);
+    }
+
+    /**
+     * Returns a clone of the memory mapped view of this generation, mapping it if needed. The view stays mapped, even if this
+     * reader is closed in the meantime, until every acquired clone was released with {@link #releaseMappedInput()}. A clone
+     * must not be used once it is released.
+     */
+    synchronized IndexInput acquireMappedInput() throws IOException {
+        ensureOpen();
+        if (mappedInput == null) {
+            try (Directory directory = new MMapDirectory(path.getParent(), NoLockFactory.INSTANCE)) {
+                mappedInput = directory.openInput(path.getFileName().toString(), IOContext.READ);
+            }
+        }
+        final IndexInput clone = mappedInput.clone();
+        mappedInputRefCount++;
+        return clone;
+    }
+
+    /**
+     * Releases a clone acquired with {@link #acquireMappedInput()} and unmaps the view of this generation if this reader is
+     * closed and no other clone is in use anymore.
+     */
+    synchronized void releaseMappedInput() throws IOException {
+        assert mappedInputRefCount > 0 : "mapped input of " + this + " was released more often than it was acquired";
+        if (--mappedInputRefCount == 0 && isClosed()) {
+            unmap();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if this generation is currently memory mapped
+     */
+    synchronized boolean hasMappedInput() {
+        return mappedInput != null;
+    }
+
+    private void unmap() throws IOException {
+        assert Thread.holdsLock(this);
+        try {
+            IOUtils.close(mappedInput);
+        } finally {
+            mappedInput = null;
+        }
+    }
+
     /**
      * reads an operation at the given position into the given buffer.
      */
@@ -99,7 +159,17 @@ public class TranslogReader extends BaseTranslogReader implements Closeable {
     @Override
     public final void close() throws IOException {
         if (closed.compareAndSet(false, true)) {
-            channel.close();
+            synchronized (this) {
+                try {
+                    channel.close();
+                } finally {
+                    // snapshots that still read from the mapped view unmap it once they are closed, reading from an
+                    // unmapped buffer could crash the JVM
+                    if (mappedInputRefCount == 0) {
+                        unmap();
+                    }
+                }
+            }
         }
     }
 
@@ -18,13 +18,16 @@
  */
 package org.elasticsearch.index.translog;
 
+import org.apache.lucene.store.IndexInput;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.io.Channels;
 
+import java.io.Closeable;
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
-final class TranslogSnapshot extends BaseTranslogReader {
+final class TranslogSnapshot extends BaseTranslogReader implements Closeable {
 
     private final int totalOperations;
     private final Checkpoint checkpoint;
@@ -34,12 +37,24 @@ final class TranslogSnapshot extends BaseTranslogReader {
     private long position;
     private int readOperations;
     private BufferedChecksumStreamInput reuse;
+    @Nullable
+    private final TranslogReader mappedReader;
+    private IndexInput mappedInput;
 
     /**
      * Create a snapshot of translog file channel.
      */
     TranslogSnapshot(final BaseTranslogReader reader, final long length) {
+        this(reader, length, null);
+    }
+
+    /**
+     * Create a snapshot of translog file that reads operations from the memory mapped view of the given reader, or from the
+     * file channel if the reader is <code>null</code>. A mapped snapshot must be closed to release the view.
+     */
+    TranslogSnapshot(final BaseTranslogReader reader, final long length, @Nullable final TranslogReader mappedReader) {
         super(reader.generation, reader.channel, reader.path, reader.header);
+        this.mappedReader = mappedReader;
         this.length = length;
         this.totalOperations = reader.totalOperations();
         this.checkpoint = reader.getCheckpoint();
@@ -90,7 +105,36 @@ final class TranslogSnapshot extends BaseTranslogReader {
         if (position < getFirstOperationOffset()) {
             throw new IOException("read requested before position of first ops. pos [" + position + "] first op on: [" + getFirstOperationOffset() + "], generation: [" + getGeneration() + "], path: [" + path + "]");
         }
-        Channels.readFromFileChannelWithEofException(channel, position, buffer);
+        if (mappedReader == null) {
+            Channels.readFromFileChannelWithEofException(channel, position, buffer);
+        } else {
+            if (mappedInput == null) {
+                mappedInput = mappedReader.acquireMappedInput();
+            }
+            // no system call per read, the bytes are copied straight out of the page cache
+            assert buffer.hasArray() : "translog operations are read into heap buffers";
+            mappedInput.seek(position);
+            mappedInput.readBytes(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if this snapshot reads operations from a memory mapped view of the translog file
+     */
+    boolean isMapped() {
+        return mappedReader != null;
+    }
+
+    /**
+     * Releases the memory mapped view of the translog file if this snapshot read from it
+     */
+    @Override
+    public void close() throws IOException {
+        if (mappedInput != null) {
+            mappedInput = null;
+            mappedReader.releaseMappedInput();
+        }
     }
 
     @Override
@@ -101,6 +145,7 @@ final class TranslogSnapshot extends BaseTranslogReader {
                 ", estimateTotalOperations=" + totalOperations +
                 ", length=" + length +
                 ", generation=" + generation +
+                ", mapped=" + isMapped() +
                 ", reusableBuffer=" + reusableBuffer +
                 '}';
     }
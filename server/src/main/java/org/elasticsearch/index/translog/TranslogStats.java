@@ -36,12 +36,19 @@ public class TranslogStats implements Streamable, ToXContentFragment {
     private long uncommittedSizeInBytes;
     private int  uncommittedOperations;
     private long earliestLastModifiedAge;
+    private long syncRequests;
+    private long syncs;
 
     public TranslogStats() {
     }
 
     public TranslogStats(int numberOfOperations, long translogSizeInBytes, int uncommittedOperations, long uncommittedSizeInBytes,
                          long earliestLastModifiedAge) {
+        this(numberOfOperations, translogSizeInBytes, uncommittedOperations, uncommittedSizeInBytes, earliestLastModifiedAge, 0, 0);
+    }
+
+    public TranslogStats(int numberOfOperations, long translogSizeInBytes, int uncommittedOperations, long uncommittedSizeInBytes,
+                         long earliestLastModifiedAge, long syncRequests, long syncs) {
         if (numberOfOperations < 0) {
             throw new IllegalArgumentException("numberOfOperations must be >= 0");
         }
@@ -57,11 +64,19 @@ public class TranslogStats implements Streamable, ToXContentFragment {
         if (earliestLastModifiedAge < 0) {
             throw new IllegalArgumentException("earliestLastModifiedAge must be >= 0");
         }
+        if (syncRequests < 0) {
+            throw new IllegalArgumentException("syncRequests must be >= 0");
+        }
+        if (syncs < 0) {
+            throw new IllegalArgumentException("syncs must be >= 0");
+        }
         this.numberOfOperations = numberOfOperations;
         this.translogSizeInBytes = translogSizeInBytes;
         this.uncommittedSizeInBytes = uncommittedSizeInBytes;
         this.uncommittedOperations = uncommittedOperations;
         this.earliestLastModifiedAge = earliestLastModifiedAge;
+        this.syncRequests = syncRequests;
+        this.syncs = syncs;
     }
 
     public void add(TranslogStats translogStats) {
@@ -75,6 +90,8 @@ public class TranslogStats implements Streamable, ToXContentFragment {
         this.uncommittedSizeInBytes += translogStats.uncommittedSizeInBytes;
         this.earliestLastModifiedAge =
             Math.min(this.earliestLastModifiedAge, translogStats.earliestLastModifiedAge);
+        this.syncRequests += translogStats.syncRequests;
+        this.syncs += translogStats.syncs;
     }
 
     public long getTranslogSizeInBytes() {
@@ -97,6 +114,16 @@ public class TranslogStats implements Streamable, ToXContentFragment {
 
     public long getEarliestLastModifiedAge() { return earliestLastModifiedAge; }
 
+    /** the number of operation locations that durable write requests asked to be fsynced */
+    public long getSyncRequests() {
+        return syncRequests;
+    }
+
+    /** the number of fsyncs that were executed to serve sync requests, several requests are usually served by a single fsync */
+    public long getSyncs() {
+        return syncs;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject("translog");
@@ -105,6 +132,8 @@ public class TranslogStats implements Streamable, ToXContentFragment {
         builder.field("uncommitted_operations", uncommittedOperations);
         builder.humanReadableField("uncommitted_size_in_bytes", "uncommitted_size", new ByteSizeValue(uncommittedSizeInBytes));
         builder.field("earliest_last_modified_age", earliestLastModifiedAge);
+        builder.field("sync_requests", syncRequests);
+        builder.field("syncs", syncs);
         builder.endObject();
         return builder;
     }
@@ -128,6 +157,10 @@ public class TranslogStats implements Streamable, ToXContentFragment {
         if (in.getVersion().onOrAfter(Version.V_6_3_0)) {
             earliestLastModifiedAge = in.readVLong();
         }
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            syncRequests = in.readVLong();
+            syncs = in.readVLong();
+        }
     }
 
     @Override
@@ -141,5 +174,9 @@ public class TranslogStats implements Streamable, ToXContentFragment {
         if (out.getVersion().onOrAfter(Version.V_6_3_0)) {
             out.writeVLong(earliestLastModifiedAge);
         }
+        if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            out.writeVLong(syncRequests);
+            out.writeVLong(syncs);
+        }
     }
 }
@@ -36,22 +36,22 @@ abstract class AbstractIndexShardCacheEntity implements IndicesRequestCache.Cach
 
     @Override
     public final void onCached(IndicesRequestCache.Key key, BytesReference value) {
-        stats().onCached(key, value);
+        stats().onCached(key, value, key.withHits);
     }
 
     @Override
-    public final void onHit() {
-        stats().onHit();
+    public final void onHit(IndicesRequestCache.Key key) {
+        stats().onHit(key.withHits);
     }
 
     @Override
-    public final void onMiss() {
-        stats().onMiss();
+    public final void onMiss(IndicesRequestCache.Key key) {
+        stats().onMiss(key.withHits);
     }
 
     @Override
     public final void onRemoval(RemovalNotification<IndicesRequestCache.Key, BytesReference> notification) {
         stats().onRemoval(notification.getKey(), notification.getValue(),
-                notification.getRemovalReason() == RemovalNotification.RemovalReason.EVICTED);
+                notification.getRemovalReason() == RemovalNotification.RemovalReason.EVICTED, notification.getKey().withHits);
     }
 }
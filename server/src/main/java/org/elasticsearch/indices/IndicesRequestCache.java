@@ -25,6 +25,7 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.cache.Cache;
 import org.elasticsearch.common.cache.CacheBuilder;
@@ -70,33 +71,57 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
      */
     public static final Setting<Boolean> INDEX_CACHE_REQUEST_ENABLED_SETTING =
         Setting.boolSetting("index.requests.cache.enable", true, Property.Dynamic, Property.IndexScope);
+    /**
+     * The largest {@code size} of a search request that is cached when the request doesn't explicitly enable or disable the request
+     * cache. Defaults to {@code 0} which only caches requests that don't return hits.
+     */
+    public static final Setting<Integer> INDEX_CACHE_REQUEST_MAX_SIZE_SETTING =
+        Setting.intSetting("index.requests.cache.max_size", 0, 0, Property.Dynamic, Property.IndexScope);
     public static final Setting<ByteSizeValue> INDICES_CACHE_QUERY_SIZE =
         Setting.memorySizeSetting("indices.requests.cache.size", "1%", Property.NodeScope);
+    /**
+     * The maximum size of the separate cache that holds the results of requests that return hits. Hits are usually much larger
+     * than aggregation results, so they can be kept apart and evicted on their own rather than pushing aggregation results out.
+     * Defaults to {@code 0} which disables the separate cache, results with hits are then kept in the main cache.
+     */
+    public static final Setting<ByteSizeValue> INDICES_CACHE_QUERY_HITS_SIZE =
+        Setting.memorySizeSetting("indices.requests.cache.hits.size", "0b", Property.NodeScope);
     public static final Setting<TimeValue> INDICES_CACHE_QUERY_EXPIRE =
         Setting.positiveTimeSetting("indices.requests.cache.expire", new TimeValue(0), Property.NodeScope);
 
     private final ConcurrentMap<CleanupKey, Boolean> registeredClosedListeners = ConcurrentCollections.newConcurrentMap();
     private final Set<CleanupKey> keysToClean = ConcurrentCollections.newConcurrentSet();
     private final ByteSizeValue size;
+    private final ByteSizeValue hitsSize;
     private final TimeValue expire;
     private final Cache<Key, BytesReference> cache;
+    @Nullable
+    private final Cache<Key, BytesReference> hitsCache;
 
     IndicesRequestCache(Settings settings) {
         super(settings);
         this.size = INDICES_CACHE_QUERY_SIZE.get(settings);
+        this.hitsSize = INDICES_CACHE_QUERY_HITS_SIZE.get(settings);
         this.expire = INDICES_CACHE_QUERY_EXPIRE.exists(settings) ? INDICES_CACHE_QUERY_EXPIRE.get(settings) : null;
-        long sizeInBytes = size.getBytes();
+        cache = buildCache(size.getBytes());
+        hitsCache = hitsSize.getBytes() > 0 ? buildCache(hitsSize.getBytes()) : null;
+    }
+
+    private Cache<Key, BytesReference> buildCache(long sizeInBytes) {
         CacheBuilder<Key, BytesReference> cacheBuilder = CacheBuilder.<Key, BytesReference>builder()
             .setMaximumWeight(sizeInBytes).weigher((k, v) -> k.ramBytesUsed() + v.ramBytesUsed()).removalListener(this);
         if (expire != null) {
             cacheBuilder.setExpireAfterAccess(expire);
         }
-        cache = cacheBuilder.build();
+        return cacheBuilder.build();
     }
 
     @Override
     public void close() {
         cache.invalidateAll();
+        if (hitsCache != null) {
+            hitsCache.invalidateAll();
+        }
     }
 
     void clear(CacheEntity entity) {
@@ -111,11 +136,20 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
 
     BytesReference getOrCompute(CacheEntity cacheEntity, Supplier<BytesReference> loader,
             DirectoryReader reader, BytesReference cacheKey) throws Exception {
-        final Key key =  new Key(cacheEntity, reader.getVersion(), cacheKey);
+        return getOrCompute(cacheEntity, loader, reader, cacheKey, false);
+    }
+
+    /**
+     * Returns the cached result for the given key, computing it with the given loader if it isn't cached yet.
+     * @param withHits whether the request returns hits, in which case the result is kept in the separate hits cache
+     */
+    BytesReference getOrCompute(CacheEntity cacheEntity, Supplier<BytesReference> loader,
+            DirectoryReader reader, BytesReference cacheKey, boolean withHits) throws Exception {
+        final Key key =  new Key(cacheEntity, reader.getVersion(), cacheKey, withHits);
         Loader cacheLoader = new Loader(cacheEntity, loader);
-        BytesReference value = cache.computeIfAbsent(key, cacheLoader);
+        BytesReference value = cache(withHits).computeIfAbsent(key, cacheLoader);
         if (cacheLoader.isLoaded()) {
-            key.entity.onMiss();
+            key.entity.onMiss(key);
             // see if its the first time we see this reader, and make sure to register a cleanup key
             CleanupKey cleanupKey = new CleanupKey(cacheEntity, reader.getVersion());
             if (!registeredClosedListeners.containsKey(cleanupKey)) {
@@ -125,11 +159,15 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
                 }
             }
         } else {
-            key.entity.onHit();
+            key.entity.onHit(key);
         }
         return value;
     }
 
+    private Cache<Key, BytesReference> cache(boolean withHits) {
+        return withHits && hitsCache != null ? hitsCache : cache;
+    }
+
     /**
      * Invalidates the given the cache entry for the given key and it's context
      * @param cacheEntity the cache entity to invalidate for
@@ -137,7 +175,18 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
      * @param cacheKey the cache key to invalidate
      */
     void invalidate(CacheEntity cacheEntity, DirectoryReader reader, BytesReference cacheKey) {
-        cache.invalidate(new Key(cacheEntity, reader.getVersion(), cacheKey));
+        invalidate(cacheEntity, reader, cacheKey, false);
+    }
+
+    /**
+     * Invalidates the given the cache entry for the given key and it's context
+     * @param cacheEntity the cache entity to invalidate for
+     * @param reader the reader to invalidate the cache entry for
+     * @param cacheKey the cache key to invalidate
+     * @param withHits whether the entry was cached for a request that returns hits
+     */
+    void invalidate(CacheEntity cacheEntity, DirectoryReader reader, BytesReference cacheKey, boolean withHits) {
+        cache(withHits).invalidate(new Key(cacheEntity, reader.getVersion(), cacheKey, withHits));
     }
 
     private static class Loader implements CacheLoader<Key, BytesReference> {
@@ -189,12 +238,12 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
         /**
          * Called each time this entity has a cache hit.
          */
-        void onHit();
+        void onHit(Key key);
 
         /**
          * Called each time this entity has a cache miss.
          */
-        void onMiss();
+        void onMiss(Key key);
 
         /**
          * Called when this entity instance is removed
@@ -208,11 +257,17 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
         public final CacheEntity entity; // use as identity equality
         public final long readerVersion; // use the reader version to now keep a reference to a "short" lived reader until its reaped
         public final BytesReference value;
+        public final boolean withHits; // whether the cached request returns hits, these are kept in a separate cache
 
         Key(CacheEntity entity, long readerVersion, BytesReference value) {
+            this(entity, readerVersion, value, false);
+        }
+
+        Key(CacheEntity entity, long readerVersion, BytesReference value, boolean withHits) {
             this.entity = entity;
             this.readerVersion = readerVersion;
             this.value = value;
+            this.withHits = withHits;
         }
 
         @Override
@@ -232,6 +287,7 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
             if (o == null || getClass() != o.getClass()) return false;
             Key key = (Key) o;
             if (readerVersion != key.readerVersion) return false;
+            if (withHits != key.withHits) return false;
             if (!entity.getCacheIdentity().equals(key.entity.getCacheIdentity())) return false;
             if (!value.equals(key.value)) return false;
             return true;
@@ -242,6 +298,7 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
             int result = entity.getCacheIdentity().hashCode();
             result = 31 * result + Long.hashCode(readerVersion);
             result = 31 * result + value.hashCode();
+            result = 31 * result + Boolean.hashCode(withHits);
             return result;
         }
     }
@@ -301,19 +358,30 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
             }
         }
         if (!currentKeysToClean.isEmpty() || !currentFullClean.isEmpty()) {
-            for (Iterator<Key> iterator = cache.keys().iterator(); iterator.hasNext(); ) {
-                Key key = iterator.next();
-                if (currentFullClean.contains(key.entity.getCacheIdentity())) {
-                    iterator.remove();
-                } else {
-                    if (currentKeysToClean.contains(new CleanupKey(key.entity, key.readerVersion))) {
-                        iterator.remove();
-                    }
-                }
+            cleanCache(cache, currentKeysToClean, currentFullClean);
+            if (hitsCache != null) {
+                cleanCache(hitsCache, currentKeysToClean, currentFullClean);
             }
         }
 
         cache.refresh();
+        if (hitsCache != null) {
+            hitsCache.refresh();
+        }
+    }
+
+    private void cleanCache(Cache<Key, BytesReference> cache, ObjectSet<CleanupKey> currentKeysToClean,
+                            ObjectSet<Object> currentFullClean) {
+        for (Iterator<Key> iterator = cache.keys().iterator(); iterator.hasNext(); ) {
+            Key key = iterator.next();
+            if (currentFullClean.contains(key.entity.getCacheIdentity())) {
+                iterator.remove();
+            } else {
+                if (currentKeysToClean.contains(new CleanupKey(key.entity, key.readerVersion))) {
+                    iterator.remove();
+                }
+            }
+        }
     }
 
 
@@ -321,7 +389,7 @@ public final class IndicesRequestCache extends AbstractComponent implements Remo
      * Returns the current size of the cache
      */
     int count() {
-        return cache.count();
+        return cache.count() + (hitsCache == null ? 0 : hitsCache.count());
     }
 
     int numRegisteredCloseListeners() { // for testing
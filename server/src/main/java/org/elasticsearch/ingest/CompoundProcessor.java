@@ -21,6 +21,7 @@
 package org.elasticsearch.ingest;
 
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.common.collect.Tuple;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -40,6 +41,7 @@ public class CompoundProcessor implements Processor {
 
     private final boolean ignoreFailure;
     private final List<Processor> processors;
+    private final List<Tuple<Processor, IngestMetric>> processorsWithMetrics;
     private final List<Processor> onFailureProcessors;
 
     public CompoundProcessor(Processor... processor) {
@@ -51,6 +53,11 @@ public class CompoundProcessor implements Processor {
         this.ignoreFailure = ignoreFailure;
         this.processors = processors;
         this.onFailureProcessors = onFailureProcessors;
+        List<Tuple<Processor, IngestMetric>> processorsWithMetrics = new ArrayList<>(processors.size());
+        for (Processor processor : processors) {
+            processorsWithMetrics.add(new Tuple<>(processor, new IngestMetric()));
+        }
+        this.processorsWithMetrics = Collections.unmodifiableList(processorsWithMetrics);
     }
 
     public boolean isIgnoreFailure() {
@@ -65,6 +72,14 @@ public class CompoundProcessor implements Processor {
         return processors;
     }
 
+    /**
+     * The processors of this compound processor along with the time they took to process documents. The on failure
+     * processors aren't tracked individually.
+     */
+    List<Tuple<Processor, IngestMetric>> getProcessorsWithMetrics() {
+        return processorsWithMetrics;
+    }
+
     public List<Processor> flattenProcessors() {
         List<Processor> allProcessors = new ArrayList<>(flattenProcessors(processors));
         allProcessors.addAll(flattenProcessors(onFailureProcessors));
@@ -95,16 +110,27 @@ public class CompoundProcessor implements Processor {
 
     @Override
     public void execute(IngestDocument ingestDocument) throws Exception {
-        for (Processor processor : processors) {
+        for (Tuple<Processor, IngestMetric> processorWithMetric : processorsWithMetrics) {
+            final Processor processor = processorWithMetric.v1();
+            final IngestMetric metric = processorWithMetric.v2();
+            final long startTimeInNanos = System.nanoTime();
+            metric.preIngest(1);
+            Exception failure = null;
             try {
                 processor.execute(ingestDocument);
             } catch (Exception e) {
+                failure = e;
+                metric.ingestFailed(1);
+            } finally {
+                metric.postIngest(1, System.nanoTime() - startTimeInNanos);
+            }
+            if (failure != null) {
                 if (ignoreFailure) {
                     continue;
                 }
 
                 ElasticsearchException compoundProcessorException =
-                        newCompoundProcessorException(e, processor.getType(), processor.getTag());
+                        newCompoundProcessorException(failure, processor.getType(), processor.getTag());
                 if (onFailureProcessors.isEmpty()) {
                     throw compoundProcessorException;
                 } else {
@@ -115,6 +141,65 @@ public class CompoundProcessor implements Processor {
         }
     }
 
+    /**
+     * Runs every processor on all documents that are still being processed before moving on to the next processor, so that
+     * processors can amortize their per document setup over the whole batch. Documents that fail and have been handled by the
+     * on failure processors don't run the remaining processors, like when documents are executed one by one.
+     */
+    @Override
+    public void execute(List<IngestDocument> ingestDocuments, Exception[] failures) {
+        assert ingestDocuments.size() == failures.length;
+        final boolean[] handledFailure = new boolean[failures.length];
+        final List<IngestDocument> documents = new ArrayList<>(failures.length);
+        final int[] slots = new int[failures.length];
+        for (Tuple<Processor, IngestMetric> processorWithMetric : processorsWithMetrics) {
+            documents.clear();
+            for (int i = 0; i < failures.length; i++) {
+                if (failures[i] == null && handledFailure[i] == false) {
+                    slots[documents.size()] = i;
+                    documents.add(ingestDocuments.get(i));
+                }
+            }
+            if (documents.isEmpty()) {
+                return;
+            }
+
+            final Processor processor = processorWithMetric.v1();
+            final IngestMetric metric = processorWithMetric.v2();
+            final Exception[] processorFailures = new Exception[documents.size()];
+            final long startTimeInNanos = System.nanoTime();
+            metric.preIngest(documents.size());
+            try {
+                processor.execute(documents, processorFailures);
+            } finally {
+                metric.postIngest(documents.size(), System.nanoTime() - startTimeInNanos);
+            }
+
+            for (int i = 0; i < processorFailures.length; i++) {
+                if (processorFailures[i] == null) {
+                    continue;
+                }
+                metric.ingestFailed(1);
+                if (ignoreFailure) {
+                    continue;
+                }
+                final int slot = slots[i];
+                ElasticsearchException compoundProcessorException =
+                        newCompoundProcessorException(processorFailures[i], processor.getType(), processor.getTag());
+                if (onFailureProcessors.isEmpty()) {
+                    failures[slot] = compoundProcessorException;
+                } else {
+                    try {
+                        executeOnFailure(documents.get(i), compoundProcessorException);
+                    } catch (Exception e) {
+                        failures[slot] = e;
+                    }
+                    handledFailure[slot] = true;
+                }
+            }
+        }
+    }
+
     void executeOnFailure(IngestDocument ingestDocument, ElasticsearchException exception) throws Exception {
         try {
             putFailureMetadata(ingestDocument, exception);
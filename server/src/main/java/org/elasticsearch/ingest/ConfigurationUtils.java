@@ -327,14 +327,10 @@ public final class ConfigurationUtils {
             // is returned.
             if (scriptService.isLangSupported(DEFAULT_TEMPLATE_LANG)) {
                 Script script = new Script(ScriptType.INLINE, DEFAULT_TEMPLATE_LANG, propertyValue, Collections.emptyMap());
-                return scriptService.compile(script, TemplateScript.CONTEXT);
+                TemplateScript.Factory factory = scriptService.compile(script, TemplateScript.CONTEXT);
+                return ConstantTemplate.isTemplate(propertyValue) ? factory : new ConstantTemplate(propertyValue);
             } else {
-                return (params) -> new TemplateScript(params) {
-                    @Override
-                    public String execute() {
-                        return propertyValue;
-                    }
-                };
+                return new ConstantTemplate(propertyValue);
             }
         } catch (Exception e) {
             throw ConfigurationUtils.newConfigurationException(processorType, processorTag, propertyName, e);
@@ -402,4 +398,52 @@ public final class ConfigurationUtils {
         }
         throw newConfigurationException(type, tag, null, "No processor type exists with name [" + type + "]");
     }
+
+    /**
+     * A template that doesn't contain any mustache snippets and always renders to the same string. Documents can use its value
+     * directly instead of building the model of the template and executing it.
+     */
+    static final class ConstantTemplate implements TemplateScript.Factory {
+
+        private final String value;
+        private volatile IngestDocument.ParsedPath parsedPath;
+
+        ConstantTemplate(String value) {
+            this.value = value;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        /**
+         * Returns the value parsed as a path in dot-notation. It is parsed by the first document that uses this template as a path,
+         * concurrent documents may parse it too but the results are equivalent.
+         */
+        IngestDocument.ParsedPath getParsedPath() {
+            IngestDocument.ParsedPath parsedPath = this.parsedPath;
+            if (parsedPath == null) {
+                parsedPath = IngestDocument.ParsedPath.parse(value);
+                this.parsedPath = parsedPath;
+            }
+            return parsedPath;
+        }
+
+        @Override
+        public TemplateScript newInstance(Map<String, Object> params) {
+            return new TemplateScript(params) {
+                @Override
+                public String execute() {
+                    return value;
+                }
+            };
+        }
+
+        /**
+         * Returns whether the provided string contains mustache snippets that must be rendered.
+         */
+        static boolean isTemplate(String value) {
+            return value != null && value.contains("{{");
+        }
+    }
 }
@@ -31,15 +31,18 @@ import org.elasticsearch.script.TemplateScript;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Represents a single document being captured before indexing and holds the source and metadata (like id, type and index).
@@ -102,7 +105,11 @@ public final class IngestDocument {
      * or if the field that is found at the provided path is not of the expected type.
      */
     public <T> T getFieldValue(String path, Class<T> clazz) {
-        FieldPath fieldPath = new FieldPath(path);
+        return getFieldValue(new FieldPath(path), clazz);
+    }
+
+    private <T> T getFieldValue(FieldPath fieldPath, Class<T> clazz) {
+        String path = fieldPath.path;
         Object context = fieldPath.initialContext;
         for (String pathElement : fieldPath.pathElements) {
             context = resolve(pathElement, path, context);
@@ -141,7 +148,7 @@ public final class IngestDocument {
      * or if the field that is found at the provided path is not of the expected type.
      */
     public <T> T getFieldValue(TemplateScript.Factory pathTemplate, Class<T> clazz) {
-        return getFieldValue(renderTemplate(pathTemplate), clazz);
+        return getFieldValue(fieldPath(pathTemplate, null), clazz);
     }
 
     /**
@@ -188,7 +195,7 @@ public final class IngestDocument {
      * @throws IllegalArgumentException if the path is null, empty or invalid
      */
     public boolean hasField(TemplateScript.Factory fieldPathTemplate) {
-        return hasField(renderTemplate(fieldPathTemplate));
+        return hasField(fieldPath(fieldPathTemplate, null), false);
     }
 
     /**
@@ -209,7 +216,11 @@ public final class IngestDocument {
      * @throws IllegalArgumentException if the path is null, empty or invalid.
      */
     public boolean hasField(String path, boolean failOutOfRange) {
-        FieldPath fieldPath = new FieldPath(path);
+        return hasField(new FieldPath(path), failOutOfRange);
+    }
+
+    private boolean hasField(FieldPath fieldPath, boolean failOutOfRange) {
+        String path = fieldPath.path;
         Object context = fieldPath.initialContext;
         for (int i = 0; i < fieldPath.pathElements.length - 1; i++) {
             String pathElement = fieldPath.pathElements[i];
@@ -277,7 +288,7 @@ public final class IngestDocument {
      * @throws IllegalArgumentException if the path is null, empty, invalid or if the field doesn't exist.
      */
     public void removeField(TemplateScript.Factory fieldPathTemplate) {
-        removeField(renderTemplate(fieldPathTemplate));
+        removeField(fieldPath(fieldPathTemplate, null));
     }
 
     /**
@@ -286,7 +297,11 @@ public final class IngestDocument {
      * @throws IllegalArgumentException if the path is null, empty, invalid or if the field doesn't exist.
      */
     public void removeField(String path) {
-        FieldPath fieldPath = new FieldPath(path);
+        removeField(new FieldPath(path));
+    }
+
+    private void removeField(FieldPath fieldPath) {
+        String path = fieldPath.path;
         Object context = fieldPath.initialContext;
         for (int i = 0; i < fieldPath.pathElements.length - 1; i++) {
             context = resolve(fieldPath.pathElements[i], path, context);
@@ -372,7 +387,7 @@ public final class IngestDocument {
      * @throws IllegalArgumentException if the path is null, empty or invalid.
      */
     public void appendFieldValue(String path, Object value) {
-        setFieldValue(path, value, true);
+        setFieldValue(new FieldPath(path), value, true);
     }
 
     /**
@@ -389,7 +404,7 @@ public final class IngestDocument {
      */
     public void appendFieldValue(TemplateScript.Factory fieldPathTemplate, ValueSource valueSource) {
         Map<String, Object> model = createTemplateModel();
-        appendFieldValue(fieldPathTemplate.newInstance(model).execute(), valueSource.copyAndResolve(model));
+        setFieldValue(fieldPath(fieldPathTemplate, model), valueSource.copyAndResolve(model), true);
     }
 
     /**
@@ -403,7 +418,7 @@ public final class IngestDocument {
      * item identified by the provided path.
      */
     public void setFieldValue(String path, Object value) {
-        setFieldValue(path, value, false);
+        setFieldValue(new FieldPath(path), value, false);
     }
 
     /**
@@ -417,11 +432,11 @@ public final class IngestDocument {
      */
     public void setFieldValue(TemplateScript.Factory fieldPathTemplate, ValueSource valueSource) {
         Map<String, Object> model = createTemplateModel();
-        setFieldValue(fieldPathTemplate.newInstance(model).execute(), valueSource.copyAndResolve(model), false);
+        setFieldValue(fieldPath(fieldPathTemplate, model), valueSource.copyAndResolve(model), false);
     }
 
-    private void setFieldValue(String path, Object value, boolean append) {
-        FieldPath fieldPath = new FieldPath(path);
+    private void setFieldValue(FieldPath fieldPath, Object value, boolean append) {
+        String path = fieldPath.path;
         Object context = fieldPath.initialContext;
         for (int i = 0; i < fieldPath.pathElements.length - 1; i++) {
             String pathElement = fieldPath.pathElements[i];
@@ -546,16 +561,32 @@ public final class IngestDocument {
     }
 
     public String renderTemplate(TemplateScript.Factory template) {
+        if (template instanceof ConfigurationUtils.ConstantTemplate) {
+            return ((ConfigurationUtils.ConstantTemplate) template).getValue();
+        }
         return template.newInstance(createTemplateModel()).execute();
     }
 
+    private static String renderTemplate(TemplateScript.Factory template, Map<String, Object> model) {
+        if (template instanceof ConfigurationUtils.ConstantTemplate) {
+            return ((ConfigurationUtils.ConstantTemplate) template).getValue();
+        }
+        return template.newInstance(model).execute();
+    }
+
+    /**
+     * Returns the path that the provided template renders to. Constant templates keep their parsed path so that it isn't split
+     * again for every document, other templates are rendered with the provided model or with a new one if it is {@code null}.
+     */
+    private FieldPath fieldPath(TemplateScript.Factory pathTemplate, Map<String, Object> model) {
+        if (pathTemplate instanceof ConfigurationUtils.ConstantTemplate) {
+            return new FieldPath(((ConfigurationUtils.ConstantTemplate) pathTemplate).getParsedPath());
+        }
+        return new FieldPath(renderTemplate(pathTemplate, model == null ? createTemplateModel() : model));
+    }
+
     private Map<String, Object> createTemplateModel() {
-        Map<String, Object> model = new HashMap<>(sourceAndMetadata);
-        model.put(SourceFieldMapper.NAME, sourceAndMetadata);
-        // If there is a field in the source with the name '_ingest' it gets overwritten here,
-        // if access to that field is required then it get accessed via '_source._ingest'
-        model.put(INGEST_KEY, ingestMetadata);
-        return model;
+        return new TemplateModel(sourceAndMetadata, ingestMetadata);
     }
 
     /**
@@ -668,30 +699,97 @@ public final class IngestDocument {
 
     private class FieldPath {
 
+        private final String path;
         private final String[] pathElements;
         private final Object initialContext;
 
         private FieldPath(String path) {
+            this(ParsedPath.parse(path));
+        }
+
+        private FieldPath(ParsedPath parsedPath) {
+            this.path = parsedPath.path;
+            this.initialContext = parsedPath.ingestMetadata ? ingestMetadata : sourceAndMetadata;
+            this.pathElements = parsedPath.pathElements;
+        }
+
+    }
+
+    /**
+     * The elements of a path in dot-notation. Constant templates keep the parsed path of their value, so the elements are shared
+     * across documents and must not be modified.
+     */
+    static final class ParsedPath {
+
+        private final String path;
+        private final boolean ingestMetadata;
+        private final String[] pathElements;
+
+        private ParsedPath(String path, boolean ingestMetadata, String[] pathElements) {
+            this.path = path;
+            this.ingestMetadata = ingestMetadata;
+            this.pathElements = pathElements;
+        }
+
+        static ParsedPath parse(String path) {
             if (Strings.isEmpty(path)) {
                 throw new IllegalArgumentException("path cannot be null nor empty");
             }
             String newPath;
-            if (path.startsWith(INGEST_KEY_PREFIX)) {
-                initialContext = ingestMetadata;
+            boolean ingestMetadata = path.startsWith(INGEST_KEY_PREFIX);
+            if (ingestMetadata) {
                 newPath = path.substring(INGEST_KEY_PREFIX.length(), path.length());
+            } else if (path.startsWith(SOURCE_PREFIX)) {
+                newPath = path.substring(SOURCE_PREFIX.length(), path.length());
             } else {
-                initialContext = sourceAndMetadata;
-                if (path.startsWith(SOURCE_PREFIX)) {
-                    newPath = path.substring(SOURCE_PREFIX.length(), path.length());
-                } else {
-                    newPath = path;
-                }
+                newPath = path;
             }
-            this.pathElements = newPath.split("\\.");
+            String[] pathElements = newPath.split("\\.");
             if (pathElements.length == 1 && pathElements[0].isEmpty()) {
                 throw new IllegalArgumentException("path [" + path + "] is not valid");
             }
+            return new ParsedPath(path, ingestMetadata, pathElements);
+        }
+    }
+
+    /**
+     * The model that templates are rendered with, a read-only view of the source and metadata that also exposes the source
+     * under {@code _source} and the ingest metadata under {@code _ingest} without copying the document.
+     */
+    private static final class TemplateModel extends AbstractMap<String, Object> {
+
+        private final Map<String, Object> sourceAndMetadata;
+        private final Map<String, Object> ingestMetadata;
+
+        private TemplateModel(Map<String, Object> sourceAndMetadata, Map<String, Object> ingestMetadata) {
+            this.sourceAndMetadata = sourceAndMetadata;
+            this.ingestMetadata = ingestMetadata;
+        }
+
+        @Override
+        public Object get(Object key) {
+            // If there is a field in the source with the name '_ingest' it is hidden here,
+            // if access to that field is required then it get accessed via '_source._ingest'
+            if (INGEST_KEY.equals(key)) {
+                return ingestMetadata;
+            }
+            if (SourceFieldMapper.NAME.equals(key)) {
+                return sourceAndMetadata;
+            }
+            return sourceAndMetadata.get(key);
         }
 
+        @Override
+        public boolean containsKey(Object key) {
+            return INGEST_KEY.equals(key) || SourceFieldMapper.NAME.equals(key) || sourceAndMetadata.containsKey(key);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            Map<String, Object> model = new HashMap<>(sourceAndMetadata);
+            model.put(SourceFieldMapper.NAME, sourceAndMetadata);
+            model.put(INGEST_KEY, ingestMetadata);
+            return Collections.unmodifiableMap(model).entrySet();
+        }
     }
 }
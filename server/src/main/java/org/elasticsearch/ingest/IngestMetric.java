@@ -0,0 +1,55 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.ingest;
+
+import org.elasticsearch.common.metrics.CounterMetric;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks how many documents went through a pipeline or a processor and how long that took. Documents may be counted one by
+ * one or a whole batch at a time, the time is kept in nanoseconds so that short per document times don't get rounded away.
+ */
+final class IngestMetric {
+
+    private final CounterMetric ingestCount = new CounterMetric();
+    private final CounterMetric ingestTimeInNanos = new CounterMetric();
+    private final CounterMetric ingestCurrent = new CounterMetric();
+    private final CounterMetric ingestFailed = new CounterMetric();
+
+    void preIngest(long count) {
+        ingestCurrent.inc(count);
+    }
+
+    void postIngest(long count, long ingestTimeInNanos) {
+        ingestCurrent.dec(count);
+        ingestCount.inc(count);
+        this.ingestTimeInNanos.inc(ingestTimeInNanos);
+    }
+
+    void ingestFailed(long count) {
+        ingestFailed.inc(count);
+    }
+
+    IngestStats.Stats createStats() {
+        return new IngestStats.Stats(ingestCount.count(), TimeUnit.NANOSECONDS.toMillis(ingestTimeInNanos.count()),
+            ingestCurrent.count(), ingestFailed.count());
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.ingest;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -27,17 +28,25 @@ import org.elasticsearch.common.xcontent.ToXContentFragment;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class IngestStats implements Writeable, ToXContentFragment {
     private final Stats totalStats;
     private final Map<String, Stats> statsPerPipeline;
+    private final Map<String, List<ProcessorStat>> processorStats;
 
     public IngestStats(Stats totalStats, Map<String, Stats> statsPerPipeline) {
+        this(totalStats, statsPerPipeline, Collections.emptyMap());
+    }
+
+    public IngestStats(Stats totalStats, Map<String, Stats> statsPerPipeline, Map<String, List<ProcessorStat>> processorStats) {
         this.totalStats = totalStats;
         this.statsPerPipeline = statsPerPipeline;
+        this.processorStats = processorStats;
     }
 
     /**
@@ -50,6 +59,15 @@ public class IngestStats implements Writeable, ToXContentFragment {
         for (int i = 0; i < size; i++) {
             statsPerPipeline.put(in.readString(), new Stats(in));
         }
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            size = in.readVInt();
+            this.processorStats = new HashMap<>(size);
+            for (int i = 0; i < size; i++) {
+                processorStats.put(in.readString(), in.readList(ProcessorStat::new));
+            }
+        } else {
+            this.processorStats = Collections.emptyMap();
+        }
     }
 
     @Override
@@ -60,6 +78,13 @@ public class IngestStats implements Writeable, ToXContentFragment {
             out.writeString(entry.getKey());
             entry.getValue().writeTo(out);
         }
+        if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            out.writeVInt(processorStats.size());
+            for (Map.Entry<String, List<ProcessorStat>> entry : processorStats.entrySet()) {
+                out.writeString(entry.getKey());
+                out.writeList(entry.getValue());
+            }
+        }
     }
 
 
@@ -77,6 +102,13 @@ public class IngestStats implements Writeable, ToXContentFragment {
         return statsPerPipeline;
     }
 
+    /**
+     * @return The stats of the processors of each pipeline, in the order the processors run
+     */
+    public Map<String, List<ProcessorStat>> getProcessorStats() {
+        return processorStats;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject("ingest");
@@ -87,6 +119,21 @@ public class IngestStats implements Writeable, ToXContentFragment {
         for (Map.Entry<String, Stats> entry : statsPerPipeline.entrySet()) {
             builder.startObject(entry.getKey());
             entry.getValue().toXContent(builder, params);
+            List<ProcessorStat> processors = processorStats.get(entry.getKey());
+            if (processors != null) {
+                builder.startArray("processors");
+                for (ProcessorStat processor : processors) {
+                    builder.startObject();
+                    builder.startObject(processor.getName());
+                    processor.getStats().toXContent(builder, params);
+                    for (Map.Entry<String, Long> counter : processor.getCounters().entrySet()) {
+                        builder.field(counter.getKey(), counter.getValue());
+                    }
+                    builder.endObject();
+                    builder.endObject();
+                }
+                builder.endArray();
+            }
             builder.endObject();
         }
         builder.endObject();
@@ -164,4 +211,58 @@ public class IngestStats implements Writeable, ToXContentFragment {
             return builder;
         }
     }
+
+    /**
+     * The stats of a single processor of a pipeline, named after the type and the tag of the processor.
+     */
+    public static class ProcessorStat implements Writeable {
+
+        private final String name;
+        private final Stats stats;
+        private final Map<String, Long> counters;
+
+        public ProcessorStat(String name, Stats stats) {
+            this(name, stats, Collections.emptyMap());
+        }
+
+        public ProcessorStat(String name, Stats stats, Map<String, Long> counters) {
+            this.name = name;
+            this.stats = stats;
+            this.counters = counters;
+        }
+
+        /**
+         * Read from a stream.
+         */
+        public ProcessorStat(StreamInput in) throws IOException {
+            this.name = in.readString();
+            this.stats = new Stats(in);
+            this.counters = in.readMap(StreamInput::readString, StreamInput::readVLong);
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeString(name);
+            stats.writeTo(out);
+            out.writeMap(counters, StreamOutput::writeString, StreamOutput::writeVLong);
+        }
+
+        /**
+         * @return The type of the processor, followed by its tag if it has one, like {@code set:my_tag}
+         */
+        public String getName() {
+            return name;
+        }
+
+        public Stats getStats() {
+            return stats;
+        }
+
+        /**
+         * @return The counters that are specific to the type of the processor
+         */
+        public Map<String, Long> getCounters() {
+            return counters;
+        }
+    }
 }
@@ -58,6 +58,14 @@ public final class Pipeline {
         compoundProcessor.execute(ingestDocument);
     }
 
+    /**
+     * Modifies the data of several documents to be indexed based on the processor this pipeline holds. The failure of a
+     * document is stored in its slot in <code>failures</code>, documents whose slot isn't <code>null</code> are skipped.
+     */
+    public void execute(List<IngestDocument> ingestDocuments, Exception[] failures) {
+        compoundProcessor.execute(ingestDocuments, failures);
+    }
+
     /**
      * The unique id of this pipeline
      */
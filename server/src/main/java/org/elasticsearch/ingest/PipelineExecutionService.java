@@ -25,36 +25,58 @@ import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterStateApplier;
 import org.elasticsearch.common.Strings;
-import org.elasticsearch.common.metrics.CounterMetric;
-import org.elasticsearch.common.metrics.MeanMetric;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
+import org.elasticsearch.common.util.concurrent.CountDown;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 public class PipelineExecutionService implements ClusterStateApplier {
 
+    /**
+     * The maximum number of documents that go through a pipeline together.
+     */
+    static final int BATCH_SIZE = 128;
+
     private final PipelineStore store;
     private final ThreadPool threadPool;
 
-    private final StatsHolder totalStats = new StatsHolder();
-    private volatile Map<String, StatsHolder> statsHolderPerPipeline = Collections.emptyMap();
+    private final IngestMetric totalMetric = new IngestMetric();
+    private volatile Map<String, IngestMetric> metricPerPipeline = Collections.emptyMap();
 
     public PipelineExecutionService(PipelineStore store, ThreadPool threadPool) {
         this.store = store;
         this.threadPool = threadPool;
     }
 
+    /**
+     * Executes the pipelines of the index requests of a bulk request, including the index requests of upserts and of updates
+     * with a partial document. Requests are grouped per pipeline and executed in batches of up to {@link #BATCH_SIZE} documents,
+     * and batches of large bulk requests are executed concurrently on the write thread pool if it has idle threads.
+     *
+     * @param actionRequests the requests of the bulk request
+     * @param itemFailureHandler called with the position of a request in <code>actionRequests</code> if its pipeline failed,
+     *                           which may happen concurrently for several requests
+     * @param completionHandler called once all pipelines have been executed
+     */
     public void executeBulkRequest(Iterable<DocWriteRequest> actionRequests,
-                                   BiConsumer<IndexRequest, Exception> itemFailureHandler,
+                                   BiConsumer<Integer, Exception> itemFailureHandler,
                                    Consumer<Exception> completionHandler) {
         threadPool.executor(ThreadPool.Names.WRITE).execute(new AbstractRunnable() {
 
@@ -65,39 +87,91 @@ public class PipelineExecutionService implements ClusterStateApplier {
 
             @Override
             protected void doRun() throws Exception {
-                for (DocWriteRequest actionRequest : actionRequests) {
-                    IndexRequest indexRequest = null;
-                    if (actionRequest instanceof IndexRequest) {
-                        indexRequest = (IndexRequest) actionRequest;
-                    } else if (actionRequest instanceof UpdateRequest) {
-                        UpdateRequest updateRequest = (UpdateRequest) actionRequest;
-                        indexRequest = updateRequest.docAsUpsert() ? updateRequest.doc() : updateRequest.upsertRequest();
+                final List<Batch> batches = createBatches(actionRequests, itemFailureHandler);
+                final int parallelism = Math.min(batches.size(), threadPool.info(ThreadPool.Names.WRITE).getMax());
+                if (parallelism <= 1) {
+                    for (Batch batch : batches) {
+                        innerExecute(batch, itemFailureHandler);
                     }
-                    if (indexRequest != null && Strings.hasText(indexRequest.getPipeline())) {
+                    completionHandler.accept(null);
+                    return;
+                }
+
+                final AtomicInteger nextBatch = new AtomicInteger();
+                final AtomicReference<Exception> failure = new AtomicReference<>();
+                // completes once every batch was executed, regardless of which thread executed it
+                final CountDown remainingBatches = new CountDown(batches.size());
+                final Runnable executeBatches = () -> {
+                    int batch;
+                    while ((batch = nextBatch.getAndIncrement()) < batches.size()) {
                         try {
-                            innerExecute(indexRequest, getPipeline(indexRequest.getPipeline()));
-                            //this shouldn't be needed here but we do it for consistency with index api
-                            // which requires it to prevent double execution
-                            indexRequest.setPipeline(null);
+                            innerExecute(batches.get(batch), itemFailureHandler);
                         } catch (Exception e) {
-                            itemFailureHandler.accept(indexRequest, e);
+                            if (failure.compareAndSet(null, e) == false) {
+                                failure.get().addSuppressed(e);
+                            }
+                        } finally {
+                            if (remainingBatches.countDown()) {
+                                completionHandler.accept(failure.get());
+                            }
                         }
                     }
+                };
+                final ExecutorService executor = threadPool.executor(ThreadPool.Names.WRITE);
+                for (int i = 1; i < parallelism && hasIdleThreads(executor); i++) {
+                    try {
+                        executor.execute(executeBatches);
+                    } catch (EsRejectedExecutionException e) {
+                        // the calling thread executes the batches that helpers don't pick up
+                        break;
+                    }
                 }
-                completionHandler.accept(null);
+                executeBatches.run();
             }
         });
     }
 
+    /**
+     * Returns whether the executor has threads that could pick up a batch right away, so that helpers never queue up behind
+     * other write requests.
+     */
+    private static boolean hasIdleThreads(ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            final ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executor;
+            return threadPoolExecutor.getActiveCount() < threadPoolExecutor.getMaximumPoolSize();
+        }
+        return false;
+    }
+
     public IngestStats stats() {
-        Map<String, StatsHolder> statsHolderPerPipeline = this.statsHolderPerPipeline;
+        Map<String, IngestMetric> metricPerPipeline = this.metricPerPipeline;
 
-        Map<String, IngestStats.Stats> statsPerPipeline = new HashMap<>(statsHolderPerPipeline.size());
-        for (Map.Entry<String, StatsHolder> entry : statsHolderPerPipeline.entrySet()) {
+        Map<String, IngestStats.Stats> statsPerPipeline = new HashMap<>(metricPerPipeline.size());
+        Map<String, List<IngestStats.ProcessorStat>> processorStats = new HashMap<>(metricPerPipeline.size());
+        for (Map.Entry<String, IngestMetric> entry : metricPerPipeline.entrySet()) {
             statsPerPipeline.put(entry.getKey(), entry.getValue().createStats());
+            // processor stats start over when a pipeline is updated since its processors are replaced
+            Pipeline pipeline = store.get(entry.getKey());
+            if (pipeline != null) {
+                processorStats.put(entry.getKey(), createProcessorStats(pipeline.getCompoundProcessor()));
+            }
         }
 
-        return new IngestStats(totalStats.createStats(), statsPerPipeline);
+        return new IngestStats(totalMetric.createStats(), statsPerPipeline, processorStats);
+    }
+
+    private static List<IngestStats.ProcessorStat> createProcessorStats(CompoundProcessor compoundProcessor) {
+        List<IngestStats.ProcessorStat> processorStats = new ArrayList<>();
+        for (Tuple<Processor, IngestMetric> processorWithMetric : compoundProcessor.getProcessorsWithMetrics()) {
+            Processor processor = processorWithMetric.v1();
+            // processors with on_failure or ignore_failure are wrapped in their own compound processor
+            if (processor instanceof CompoundProcessor && ((CompoundProcessor) processor).getProcessors().size() == 1) {
+                processor = ((CompoundProcessor) processor).getProcessors().get(0);
+            }
+            String name = processor.getTag() == null ? processor.getType() : processor.getType() + ":" + processor.getTag();
+            processorStats.add(new IngestStats.ProcessorStat(name, processorWithMetric.v2().createStats(), processor.getCounters()));
+        }
+        return processorStats;
     }
 
     @Override
@@ -110,8 +184,8 @@ public class PipelineExecutionService implements ClusterStateApplier {
 
     void updatePipelineStats(IngestMetadata ingestMetadata) {
         boolean changed = false;
-        Map<String, StatsHolder> newStatsPerPipeline = new HashMap<>(statsHolderPerPipeline);
-        Iterator<String> iterator = newStatsPerPipeline.keySet().iterator();
+        Map<String, IngestMetric> newMetricPerPipeline = new HashMap<>(metricPerPipeline);
+        Iterator<String> iterator = newMetricPerPipeline.keySet().iterator();
         while (iterator.hasNext()) {
             String pipeline = iterator.next();
             if (ingestMetadata.getPipelines().containsKey(pipeline) == false) {
@@ -120,62 +194,157 @@ public class PipelineExecutionService implements ClusterStateApplier {
             }
         }
         for (String pipeline : ingestMetadata.getPipelines().keySet()) {
-            if (newStatsPerPipeline.containsKey(pipeline) == false) {
-                newStatsPerPipeline.put(pipeline, new StatsHolder());
+            if (newMetricPerPipeline.containsKey(pipeline) == false) {
+                newMetricPerPipeline.put(pipeline, new IngestMetric());
                 changed = true;
             }
         }
 
         if (changed) {
-            statsHolderPerPipeline = Collections.unmodifiableMap(newStatsPerPipeline);
+            metricPerPipeline = Collections.unmodifiableMap(newMetricPerPipeline);
         }
     }
 
-    private void innerExecute(IndexRequest indexRequest, Pipeline pipeline) throws Exception {
+    /**
+     * Groups the requests that have a pipeline per pipeline, in batches of up to {@link #BATCH_SIZE} requests. Requests whose
+     * pipeline doesn't exist are failed right away.
+     */
+    private List<Batch> createBatches(Iterable<DocWriteRequest> actionRequests, BiConsumer<Integer, Exception> itemFailureHandler) {
+        Map<String, List<Tuple<Integer, IndexRequest>>> requestsPerPipeline = new LinkedHashMap<>();
+        int slot = 0;
+        for (DocWriteRequest actionRequest : actionRequests) {
+            IndexRequest indexRequest = null;
+            if (actionRequest instanceof IndexRequest) {
+                indexRequest = (IndexRequest) actionRequest;
+            } else if (actionRequest instanceof UpdateRequest) {
+                UpdateRequest updateRequest = (UpdateRequest) actionRequest;
+                indexRequest = updateRequest.docAsUpsert() ? updateRequest.doc() : updateRequest.upsertRequest();
+            }
+            if (indexRequest != null && Strings.hasText(indexRequest.getPipeline())) {
+                requestsPerPipeline.computeIfAbsent(indexRequest.getPipeline(), k -> new ArrayList<>())
+                    .add(new Tuple<>(slot, indexRequest));
+            }
+            slot++;
+        }
+
+        List<Batch> batches = new ArrayList<>();
+        for (Map.Entry<String, List<Tuple<Integer, IndexRequest>>> entry : requestsPerPipeline.entrySet()) {
+            final Pipeline pipeline;
+            try {
+                pipeline = getPipeline(entry.getKey());
+            } catch (Exception e) {
+                for (Tuple<Integer, IndexRequest> request : entry.getValue()) {
+                    itemFailureHandler.accept(request.v1(), e);
+                }
+                continue;
+            }
+            List<Tuple<Integer, IndexRequest>> requests = entry.getValue();
+            for (int from = 0; from < requests.size(); from += BATCH_SIZE) {
+                batches.add(new Batch(pipeline, requests.subList(from, Math.min(from + BATCH_SIZE, requests.size()))));
+            }
+        }
+        return batches;
+    }
+
+    private void innerExecute(Batch batch, BiConsumer<Integer, Exception> itemFailureHandler) {
+        final Pipeline pipeline = batch.pipeline;
+        final List<Tuple<Integer, IndexRequest>> requests = batch.requests;
         if (pipeline.getProcessors().isEmpty()) {
+            for (Tuple<Integer, IndexRequest> request : requests) {
+                //this shouldn't be needed here but we do it for consistency with index api
+                // which requires it to prevent double execution
+                request.v2().setPipeline(null);
+            }
             return;
         }
 
+        final int size = requests.size();
         long startTimeInNanos = System.nanoTime();
-        // the pipeline specific stat holder may not exist and that is fine:
+        // the pipeline specific metric may not exist and that is fine:
         // (e.g. the pipeline may have been removed while we're ingesting a document
-        Optional<StatsHolder> pipelineStats = Optional.ofNullable(statsHolderPerPipeline.get(pipeline.getId()));
+        Optional<IngestMetric> pipelineMetric = Optional.ofNullable(metricPerPipeline.get(pipeline.getId()));
         try {
-            totalStats.preIngest();
-            pipelineStats.ifPresent(StatsHolder::preIngest);
-            String index = indexRequest.index();
-            String type = indexRequest.type();
-            String id = indexRequest.id();
-            String routing = indexRequest.routing();
-            Long version = indexRequest.version();
-            VersionType versionType = indexRequest.versionType();
-            Map<String, Object> sourceAsMap = indexRequest.sourceAsMap();
-            IngestDocument ingestDocument = new IngestDocument(index, type, id, routing, version, versionType, sourceAsMap);
-            pipeline.execute(ingestDocument);
-
-            Map<IngestDocument.MetaData, Object> metadataMap = ingestDocument.extractMetadata();
-            //it's fine to set all metadata fields all the time, as ingest document holds their starting values
-            //before ingestion, which might also get modified during ingestion.
-            indexRequest.index((String) metadataMap.get(IngestDocument.MetaData.INDEX));
-            indexRequest.type((String) metadataMap.get(IngestDocument.MetaData.TYPE));
-            indexRequest.id((String) metadataMap.get(IngestDocument.MetaData.ID));
-            indexRequest.routing((String) metadataMap.get(IngestDocument.MetaData.ROUTING));
-            indexRequest.version(((Number) metadataMap.get(IngestDocument.MetaData.VERSION)).longValue());
-            if (metadataMap.get(IngestDocument.MetaData.VERSION_TYPE) != null) {
-                indexRequest.versionType(VersionType.fromString((String) metadataMap.get(IngestDocument.MetaData.VERSION_TYPE)));
+            totalMetric.preIngest(size);
+            pipelineMetric.ifPresent(metric -> metric.preIngest(size));
+            final Exception[] failures = new Exception[size];
+            final List<IngestDocument> ingestDocuments = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                IngestDocument ingestDocument = null;
+                try {
+                    ingestDocument = createIngestDocument(requests.get(i).v2());
+                } catch (Exception e) {
+                    failures[i] = e;
+                }
+                ingestDocuments.add(ingestDocument);
+            }
+
+            if (size == 1) {
+                if (failures[0] == null) {
+                    try {
+                        pipeline.execute(ingestDocuments.get(0));
+                    } catch (Exception e) {
+                        failures[0] = e;
+                    }
+                }
+            } else {
+                pipeline.execute(ingestDocuments, failures);
+            }
+
+            int failed = 0;
+            for (int i = 0; i < size; i++) {
+                IndexRequest indexRequest = requests.get(i).v2();
+                if (failures[i] == null) {
+                    try {
+                        updateIndexRequest(indexRequest, ingestDocuments.get(i));
+                    } catch (Exception e) {
+                        failures[i] = e;
+                    }
+                }
+                if (failures[i] == null) {
+                    //this shouldn't be needed here but we do it for consistency with index api
+                    // which requires it to prevent double execution
+                    indexRequest.setPipeline(null);
+                } else {
+                    failed++;
+                    itemFailureHandler.accept(requests.get(i).v1(), failures[i]);
+                }
             }
-            indexRequest.source(ingestDocument.getSourceAndMetadata());
-        } catch (Exception e) {
-            totalStats.ingestFailed();
-            pipelineStats.ifPresent(StatsHolder::ingestFailed);
-            throw e;
+            totalMetric.ingestFailed(failed);
+            final int totalFailed = failed;
+            pipelineMetric.ifPresent(metric -> metric.ingestFailed(totalFailed));
         } finally {
-            long ingestTimeInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeInNanos);
-            totalStats.postIngest(ingestTimeInMillis);
-            pipelineStats.ifPresent(statsHolder -> statsHolder.postIngest(ingestTimeInMillis));
+            long ingestTimeInNanos = System.nanoTime() - startTimeInNanos;
+            totalMetric.postIngest(size, ingestTimeInNanos);
+            pipelineMetric.ifPresent(metric -> metric.postIngest(size, ingestTimeInNanos));
         }
     }
 
+    private static IngestDocument createIngestDocument(IndexRequest indexRequest) {
+        String index = indexRequest.index();
+        String type = indexRequest.type();
+        String id = indexRequest.id();
+        String routing = indexRequest.routing();
+        Long version = indexRequest.version();
+        VersionType versionType = indexRequest.versionType();
+        Map<String, Object> sourceAsMap = indexRequest.sourceAsMap();
+        return new IngestDocument(index, type, id, routing, version, versionType, sourceAsMap);
+    }
+
+    private static void updateIndexRequest(IndexRequest indexRequest, IngestDocument ingestDocument) {
+        Map<IngestDocument.MetaData, Object> metadataMap = ingestDocument.extractMetadata();
+        //it's fine to set all metadata fields all the time, as ingest document holds their starting values
+        //before ingestion, which might also get modified during ingestion.
+        indexRequest.index((String) metadataMap.get(IngestDocument.MetaData.INDEX));
+        indexRequest.type((String) metadataMap.get(IngestDocument.MetaData.TYPE));
+        indexRequest.id((String) metadataMap.get(IngestDocument.MetaData.ID));
+        indexRequest.routing((String) metadataMap.get(IngestDocument.MetaData.ROUTING));
+        indexRequest.version(((Number) metadataMap.get(IngestDocument.MetaData.VERSION)).longValue());
+        if (metadataMap.get(IngestDocument.MetaData.VERSION_TYPE) != null) {
+            indexRequest.versionType(VersionType.fromString((String) metadataMap.get(IngestDocument.MetaData.VERSION_TYPE)));
+        }
+        indexRequest.source(ingestDocument.getSourceAndMetadata());
+    }
+
     private Pipeline getPipeline(String pipelineId) {
         Pipeline pipeline = store.get(pipelineId);
         if (pipeline == null) {
@@ -184,29 +353,17 @@ public class PipelineExecutionService implements ClusterStateApplier {
         return pipeline;
     }
 
-    static class StatsHolder {
+    /**
+     * Requests of a bulk request that are executed by the same pipeline, along with their position in the bulk request.
+     */
+    private static final class Batch {
 
-        private final MeanMetric ingestMetric = new MeanMetric();
-        private final CounterMetric ingestCurrent = new CounterMetric();
-        private final CounterMetric ingestFailed = new CounterMetric();
+        private final Pipeline pipeline;
+        private final List<Tuple<Integer, IndexRequest>> requests;
 
-        void preIngest() {
-            ingestCurrent.inc();
+        private Batch(Pipeline pipeline, List<Tuple<Integer, IndexRequest>> requests) {
+            this.pipeline = pipeline;
+            this.requests = requests;
         }
-
-        void postIngest(long ingestTimeInMillis) {
-            ingestCurrent.dec();
-            ingestMetric.inc(ingestTimeInMillis);
-        }
-
-        void ingestFailed() {
-            ingestFailed.inc();
-        }
-
-        IngestStats.Stats createStats() {
-            return new IngestStats.Stats(ingestMetric.count(), ingestMetric.sum(), ingestCurrent.count(), ingestFailed.count());
-        }
-
     }
-
 }
@@ -24,6 +24,8 @@ import org.elasticsearch.env.Environment;
 import org.elasticsearch.index.analysis.AnalysisRegistry;
 import org.elasticsearch.script.ScriptService;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -39,6 +41,25 @@ public interface Processor {
      */
     void execute(IngestDocument ingestDocument) throws Exception;
 
+    /**
+     * Introspect and potentially modify the incoming data of several documents at once. Only the documents whose slot in
+     * <code>failures</code> is <code>null</code> are processed, and the failure of a document is stored in its slot instead of
+     * being thrown so that it doesn't affect the other documents. Processors with an expensive per document setup can
+     * override this method to amortize that setup over all documents of a bulk request.
+     */
+    default void execute(List<IngestDocument> ingestDocuments, Exception[] failures) {
+        assert ingestDocuments.size() == failures.length;
+        for (int i = 0; i < failures.length; i++) {
+            if (failures[i] == null) {
+                try {
+                    execute(ingestDocuments.get(i));
+                } catch (Exception e) {
+                    failures[i] = e;
+                }
+            }
+        }
+    }
+
     /**
      * Gets the type of a processor
      */
@@ -49,6 +70,14 @@ public interface Processor {
      */
     String getTag();
 
+    /**
+     * Gets counters that are specific to the type of a processor, like how often a grok processor had to try a pattern.
+     * They are reported in the ingest stats next to the count, time and failures that are tracked for every processor.
+     */
+    default Map<String, Long> getCounters() {
+        return Collections.emptyMap();
+    }
+
     /**
      * A factory that knows how to construct a processor based on a map of maps.
      */
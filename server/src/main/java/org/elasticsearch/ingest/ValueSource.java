@@ -77,7 +77,12 @@ public interface ValueSource {
             // modified if templating is not available
             if (scriptService.isLangSupported(DEFAULT_TEMPLATE_LANG)) {
                 Script script = new Script(ScriptType.INLINE, DEFAULT_TEMPLATE_LANG, (String) value, Collections.emptyMap());
-                return new TemplatedValue(scriptService.compile(script, TemplateScript.CONTEXT));
+                TemplateScript.Factory template = scriptService.compile(script, TemplateScript.CONTEXT);
+                // strings without mustache snippets render to themselves, so they don't need to be rendered per document
+                if (ConfigurationUtils.ConstantTemplate.isTemplate((String) value)) {
+                    return new TemplatedValue(template);
+                }
+                return new ObjectValue(value);
             } else {
                 return new ObjectValue(value);
             }
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.node;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -39,28 +40,45 @@ import java.util.stream.Collectors;
 /**
  * Class representing statistics about adaptive replica selection. This includes
  * EWMA of queue size, service time, and response time, as well as outgoing
- * searches to each node and the "rank" based on the ARS formula.
+ * searches to each node and the "rank" based on the ARS formula. It also contains
+ * the number of hedged search requests sent by this node.
  */
 public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
 
     private final Map<String, Long> clientOutgoingConnections;
     private final Map<String, ResponseCollectorService.ComputedNodeStats> nodeComputedStats;
+    private final long hedgedRequests;
+    private final long wastedHedgedRequests;
 
     public AdaptiveSelectionStats(Map<String, Long> clientConnections,
-                                  Map<String, ResponseCollectorService.ComputedNodeStats> nodeComputedStats) {
+                                  Map<String, ResponseCollectorService.ComputedNodeStats> nodeComputedStats,
+                                  long hedgedRequests, long wastedHedgedRequests) {
         this.clientOutgoingConnections = clientConnections;
         this.nodeComputedStats = nodeComputedStats;
+        this.hedgedRequests = hedgedRequests;
+        this.wastedHedgedRequests = wastedHedgedRequests;
     }
 
     public AdaptiveSelectionStats(StreamInput in) throws IOException {
         this.clientOutgoingConnections = in.readMap(StreamInput::readString, StreamInput::readLong);
         this.nodeComputedStats = in.readMap(StreamInput::readString, ResponseCollectorService.ComputedNodeStats::new);
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            this.hedgedRequests = in.readVLong();
+            this.wastedHedgedRequests = in.readVLong();
+        } else {
+            this.hedgedRequests = 0;
+            this.wastedHedgedRequests = 0;
+        }
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeMap(this.clientOutgoingConnections, StreamOutput::writeString, StreamOutput::writeLong);
         out.writeMap(this.nodeComputedStats, StreamOutput::writeString, (stream, stats) -> stats.writeTo(stream));
+        if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            out.writeVLong(hedgedRequests);
+            out.writeVLong(wastedHedgedRequests);
+        }
     }
 
     @Override
@@ -86,6 +104,10 @@ public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
             }
             builder.endObject();
         }
+        builder.startObject("hedged_search_requests");
+        builder.field("total", hedgedRequests);
+        builder.field("wasted", wastedHedgedRequests);
+        builder.endObject();
         builder.endObject();
         return builder;
     }
@@ -104,6 +126,20 @@ public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
         return nodeComputedStats;
     }
 
+    /**
+     * Returns the number of shard level search requests that were hedged and sent to another copy of the shard
+     */
+    public long getHedgedRequests() {
+        return hedgedRequests;
+    }
+
+    /**
+     * Returns the number of hedged search requests that were not needed since the shard copy queried first responded first
+     */
+    public long getWastedHedgedRequests() {
+        return wastedHedgedRequests;
+    }
+
     /**
      * Returns a map of node id to the ranking of the nodes based on the adaptive replica formula
      */
@@ -29,7 +29,10 @@ import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 
 import java.io.IOException;
@@ -39,6 +42,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
@@ -50,10 +54,28 @@ public final class ResponseCollectorService extends AbstractComponent implements
 
     private static final double ALPHA = 0.3;
 
+    /**
+     * The number of standard deviations above the average response time of a node after which a hedged search request
+     * is sent to another copy of the shard. Assuming roughly normally distributed response times this corresponds to
+     * the 97th percentile.
+     */
+    private static final double HEDGE_STANDARD_DEVIATIONS = 2.0;
+
+    /**
+     * The minimum time to wait for a shard copy to respond before a hedged search request is sent to another copy.
+     */
+    public static final Setting<TimeValue> HEDGE_MIN_DELAY_SETTING =
+        Setting.timeSetting("search.hedged_requests.min_delay", TimeValue.timeValueMillis(10), TimeValue.timeValueMillis(0),
+            Property.NodeScope);
+
     private final ConcurrentMap<String, NodeStatistics> nodeIdToStats = ConcurrentCollections.newConcurrentMap();
+    private final long hedgeMinDelayNanos;
+    private final LongAdder hedgedRequests = new LongAdder();
+    private final LongAdder wastedHedgedRequests = new LongAdder();
 
     public ResponseCollectorService(Settings settings, ClusterService clusterService) {
         super(settings);
+        this.hedgeMinDelayNanos = HEDGE_MIN_DELAY_SETTING.get(settings).nanos();
         clusterService.addListener(this);
     }
 
@@ -78,13 +100,46 @@ public final class ResponseCollectorService extends AbstractComponent implements
                 return new NodeStatistics(nodeId, queueEWMA, responseEWMA, avgServiceTimeNanos);
             } else {
                 ns.queueSize.addValue((double) queueSize);
-                ns.responseTime.addValue((double) responseTimeNanos);
+                ns.addResponseTime(responseTimeNanos);
                 ns.serviceTime = avgServiceTimeNanos;
                 return ns;
             }
         });
     }
 
+    /**
+     * Returns the time in nanoseconds a search request to the given node may take before it is hedged, which means
+     * that the same shard level request is sent to another copy of the shard as well. The delay is derived from the
+     * average response time of the node and its variance, but is never lower than {@link #HEDGE_MIN_DELAY_SETTING}.
+     * Returns {@code -1} if there are no statistics for the node yet.
+     */
+    public long getHedgeDelayNanos(String nodeId) {
+        final NodeStatistics ns = nodeIdToStats.get(nodeId);
+        if (ns == null) {
+            return -1;
+        }
+        final double delay;
+        synchronized (ns) {
+            delay = ns.responseTime.getAverage() + HEDGE_STANDARD_DEVIATIONS * Math.sqrt(ns.responseTimeVariance);
+        }
+        return Math.max(hedgeMinDelayNanos, (long) delay);
+    }
+
+    /**
+     * Called whenever a shard level search request is hedged and sent to another copy of the shard.
+     */
+    public void onHedgedRequest() {
+        hedgedRequests.increment();
+    }
+
+    /**
+     * Called whenever the shard copy that was queried first responds before the copy a hedged request was sent to, which
+     * means the hedged request was not needed.
+     */
+    public void onWastedHedgedRequest() {
+        wastedHedgedRequests.increment();
+    }
+
     public Map<String, ComputedNodeStats> getAllNodeStatistics() {
         final int clientNum = nodeIdToStats.size();
         // Transform the mutable object internally used for accounting into the computed version
@@ -96,7 +151,8 @@ public final class ResponseCollectorService extends AbstractComponent implements
     }
 
     public AdaptiveSelectionStats getAdaptiveStats(Map<String, Long> clientSearchConnections) {
-        return new AdaptiveSelectionStats(clientSearchConnections, getAllNodeStatistics());
+        return new AdaptiveSelectionStats(clientSearchConnections, getAllNodeStatistics(), hedgedRequests.sum(),
+            wastedHedgedRequests.sum());
     }
 
     /**
@@ -209,13 +265,14 @@ public final class ResponseCollectorService extends AbstractComponent implements
 
     /**
      * Class encapsulating a node's exponentially weighted queue size, response
-     * time, and service time, however, this class is private and intended only
-     * to be used for the internal accounting of {@code ResponseCollectorService}.
+     * time, response time variance and service time, however, this class is private
+     * and intended only to be used for the internal accounting of {@code ResponseCollectorService}.
      */
     private static class NodeStatistics {
         final String nodeId;
         final ExponentiallyWeightedMovingAverage queueSize;
         final ExponentiallyWeightedMovingAverage responseTime;
+        double responseTimeVariance;
         double serviceTime;
 
         NodeStatistics(String nodeId,
@@ -227,5 +284,13 @@ public final class ResponseCollectorService extends AbstractComponent implements
             this.responseTime = responseTimeEWMA;
             this.serviceTime = serviceTimeEWMA;
         }
+
+        synchronized void addResponseTime(long responseTimeNanos) {
+            // incrementally updates the exponentially weighted variance along with the average
+            final double diff = responseTimeNanos - responseTime.getAverage();
+            final double increment = ALPHA * diff;
+            responseTimeVariance = (1 - ALPHA) * (responseTimeVariance + diff * increment);
+            responseTime.addValue((double) responseTimeNanos);
+        }
     }
 }
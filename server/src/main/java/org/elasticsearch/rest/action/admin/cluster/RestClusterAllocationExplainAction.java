@@ -65,6 +65,7 @@ public class RestClusterAllocationExplainAction extends BaseRestHandler {
 
         req.includeYesDecisions(request.paramAsBoolean("include_yes_decisions", false));
         req.includeDiskInfo(request.paramAsBoolean("include_disk_info", false));
+        req.includeDeciderTimings(request.paramAsBoolean("include_decider_timings", false));
         return channel -> client.admin().cluster().allocationExplain(req,
             new RestBuilderListener<ClusterAllocationExplainResponse>(channel) {
                 @Override
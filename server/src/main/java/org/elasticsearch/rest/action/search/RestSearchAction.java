@@ -145,6 +145,7 @@ public class RestSearchAction extends BaseRestHandler {
         }
         parseSearchSource(searchRequest.source(), request, setSize);
         searchRequest.requestCache(request.paramAsBoolean("request_cache", null));
+        searchRequest.hedgeRequests(request.paramAsBoolean("hedge_requests", searchRequest.hedgeRequests()));
 
         String scroll = request.param("scroll");
         if (scroll != null) {
@@ -43,6 +43,15 @@ public interface ScriptEngine extends Closeable {
      */
     <FactoryType> FactoryType compile(String name, String code, ScriptContext<FactoryType> context, Map<String, String> params);
 
+    /**
+     * Returns how many of the scripts that this engine {@link #compile compiled} were loaded from a script that it compiled
+     * earlier, like before the node restarted, instead of being compiled from their source. Engines that don't keep compiled
+     * scripts around return {@code 0}.
+     */
+    default long getLoadedCompilations() {
+        return 0;
+    }
+
     @Override
     default void close() throws IOException {}
 }
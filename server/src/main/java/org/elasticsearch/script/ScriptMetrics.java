@@ -25,15 +25,21 @@ public class ScriptMetrics {
     final CounterMetric compilationsMetric = new CounterMetric();
     final CounterMetric cacheEvictionsMetric = new CounterMetric();
     final CounterMetric compilationLimitTriggered = new CounterMetric();
+    final CounterMetric cacheHitsMetric = new CounterMetric();
 
-    public ScriptStats stats() {
-        return new ScriptStats(compilationsMetric.count(), cacheEvictionsMetric.count(), compilationLimitTriggered.count());
+    public ScriptStats stats(long loadedCompilations) {
+        return new ScriptStats(compilationsMetric.count(), cacheEvictionsMetric.count(), compilationLimitTriggered.count(),
+            cacheHitsMetric.count(), loadedCompilations);
     }
 
     public void onCompilation() {
         compilationsMetric.inc();
     }
 
+    public void onCacheHit() {
+        cacheHitsMetric.inc();
+    }
+
     public void onCacheEviction() {
         cacheEvictionsMetric.inc();
     }
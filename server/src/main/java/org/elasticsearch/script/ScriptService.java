@@ -313,6 +313,7 @@ public class ScriptService extends AbstractComponent implements Closeable, Clust
         Object compiledScript = cache.get(cacheKey);
 
         if (compiledScript != null) {
+            scriptMetrics.onCacheHit();
             return context.factoryClazz.cast(compiledScript);
         }
 
@@ -344,6 +345,8 @@ public class ScriptService extends AbstractComponent implements Closeable, Clust
                 // invalidate/check the cache if an indexed script changes.
                 scriptMetrics.onCompilation();
                 cache.put(cacheKey, compiledScript);
+            } else {
+                scriptMetrics.onCacheHit();
             }
 
             return context.factoryClazz.cast(compiledScript);
@@ -504,7 +507,11 @@ public class ScriptService extends AbstractComponent implements Closeable, Clust
     }
 
     public ScriptStats stats() {
-        return scriptMetrics.stats();
+        long loadedCompilations = 0;
+        for (ScriptEngine engine : engines.values()) {
+            loadedCompilations += engine.getLoadedCompilations();
+        }
+        return scriptMetrics.stats(loadedCompilations);
     }
 
     @Override
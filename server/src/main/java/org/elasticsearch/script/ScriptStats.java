@@ -32,17 +32,30 @@ public class ScriptStats implements Writeable, ToXContentFragment {
     private final long compilations;
     private final long cacheEvictions;
     private final long compilationLimitTriggered;
+    private final long cacheHits;
+    private final long loadedCompilations;
 
-    public ScriptStats(long compilations, long cacheEvictions, long compilationLimitTriggered) {
+    public ScriptStats(long compilations, long cacheEvictions, long compilationLimitTriggered, long cacheHits,
+                       long loadedCompilations) {
         this.compilations = compilations;
         this.cacheEvictions = cacheEvictions;
         this.compilationLimitTriggered = compilationLimitTriggered;
+        this.cacheHits = cacheHits;
+        this.loadedCompilations = loadedCompilations;
     }
 
     public ScriptStats(StreamInput in) throws IOException {
         compilations = in.readVLong();
         cacheEvictions = in.readVLong();
-        compilationLimitTriggered = in.getVersion().onOrAfter(Version.V_7_0_0_alpha1) ? in.readVLong() : 0;
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            compilationLimitTriggered = in.readVLong();
+            cacheHits = in.readVLong();
+            loadedCompilations = in.readVLong();
+        } else {
+            compilationLimitTriggered = 0;
+            cacheHits = 0;
+            loadedCompilations = 0;
+        }
     }
 
     @Override
@@ -51,6 +64,8 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         out.writeVLong(cacheEvictions);
         if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
             out.writeVLong(compilationLimitTriggered);
+            out.writeVLong(cacheHits);
+            out.writeVLong(loadedCompilations);
         }
     }
 
@@ -66,12 +81,29 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         return compilationLimitTriggered;
     }
 
+    /**
+     * @return how many times a compiled script was found in the cache of compiled scripts
+     */
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return how many of the {@link #getCompilations() compilations} the script engines satisfied by loading a script that
+     * they compiled earlier, like before the node restarted, instead of compiling it from its source
+     */
+    public long getLoadedCompilations() {
+        return loadedCompilations;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject(Fields.SCRIPT_STATS);
         builder.field(Fields.COMPILATIONS, getCompilations());
         builder.field(Fields.CACHE_EVICTIONS, getCacheEvictions());
         builder.field(Fields.COMPILATION_LIMIT_TRIGGERED, getCompilationLimitTriggered());
+        builder.field(Fields.CACHE_HITS, getCacheHits());
+        builder.field(Fields.LOADED_COMPILATIONS, getLoadedCompilations());
         builder.endObject();
         return builder;
     }
@@ -81,5 +113,7 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         static final String COMPILATIONS = "compilations";
         static final String CACHE_EVICTIONS = "cache_evictions";
         static final String COMPILATION_LIMIT_TRIGGERED = "compilation_limit_triggered";
+        static final String CACHE_HITS = "cache_hits";
+        static final String LOADED_COMPILATIONS = "loaded_compilations";
     }
 }
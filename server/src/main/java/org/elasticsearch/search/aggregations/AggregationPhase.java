@@ -62,6 +62,10 @@ public class AggregationPhase implements SearchPhase {
                 if (!collectors.isEmpty()) {
                     Collector collector = BucketCollector.wrap(collectors);
                     ((BucketCollector)collector).preCollection();
+                    if (context.getProfilers() == null && collector.needsScores() == false) {
+                        // collect matching docs in blocks so that aggregators can process them in tight loops
+                        collector = new BatchingBucketCollector((BucketCollector) collector);
+                    }
                     if (context.getProfilers() != null) {
                         collector = new InternalProfileCollector(collector, CollectorResult.REASON_AGGREGATION,
                                 // TODO: report on child aggs as well
@@ -122,6 +126,16 @@ public class AggregationPhase implements SearchPhase {
             }
         }
 
+        final Collector collector = context.queryCollectors().get(AggregationPhase.class);
+        if (collector instanceof BatchingBucketCollector) {
+            try {
+                // collect the docs that are still buffered before building the aggregations
+                ((BatchingBucketCollector) collector).flush();
+            } catch (IOException e) {
+                throw new AggregationExecutionException("Failed to collect the buffered docs of the aggregations", e);
+            }
+        }
+
         List<InternalAggregation> aggregations = new ArrayList<>(aggregators.length);
         context.aggregations().resetBucketMultiConsumer();
         for (Aggregator aggregator : context.aggregations().aggregators()) {
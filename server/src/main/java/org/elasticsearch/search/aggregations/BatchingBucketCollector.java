@@ -0,0 +1,113 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.aggregations;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.Scorer;
+
+import java.io.IOException;
+
+/**
+ * A {@link BucketCollector} for top level aggregators that buffers the matching docs of a segment and passes them to the
+ * wrapped collector in blocks through {@link LeafBucketCollector#collect(int[], int, long)}. Since the scorer moves on
+ * while docs are buffered this collector must only wrap collectors that don't need scores.
+ * <p>
+ * Buffered docs are passed on when the buffer is full, when the next segment is collected and when {@link #flush()} is
+ * called, which must happen once the search is done and before the wrapped aggregators are post collected.
+ */
+final class BatchingBucketCollector extends BucketCollector {
+
+    static final int BLOCK_SIZE = 1024;
+
+    private final BucketCollector in;
+    private final int[] docs;
+    private int count;
+    private LeafBucketCollector current;
+
+    BatchingBucketCollector(BucketCollector in) {
+        this(in, BLOCK_SIZE);
+    }
+
+    BatchingBucketCollector(BucketCollector in, int blockSize) {
+        if (in.needsScores()) {
+            throw new IllegalArgumentException("cannot batch the collection of [" + in + "] since it needs scores");
+        }
+        this.in = in;
+        this.docs = new int[blockSize];
+    }
+
+    @Override
+    public LeafBucketCollector getLeafCollector(LeafReaderContext ctx) throws IOException {
+        flush();
+        current = null;
+        final LeafBucketCollector leafCollector = in.getLeafCollector(ctx);
+        if (leafCollector == LeafBucketCollector.NO_OP_COLLECTOR) {
+            return leafCollector;
+        }
+        current = leafCollector;
+        return new LeafBucketCollector() {
+            @Override
+            public void setScorer(Scorer scorer) throws IOException {
+                leafCollector.setScorer(scorer);
+            }
+
+            @Override
+            public void collect(int doc, long bucket) throws IOException {
+                assert bucket == 0 : "top level collectors only collect into bucket 0 but got " + bucket;
+                docs[count++] = doc;
+                if (count == docs.length) {
+                    flush();
+                }
+            }
+        };
+    }
+
+    /**
+     * Passes the buffered docs of the current segment to the wrapped collector.
+     */
+    void flush() throws IOException {
+        if (count > 0) {
+            final int toCollect = count;
+            count = 0;
+            current.collect(docs, toCollect, 0);
+        }
+    }
+
+    @Override
+    public void preCollection() throws IOException {
+        in.preCollection();
+    }
+
+    @Override
+    public void postCollection() throws IOException {
+        flush();
+        in.postCollection();
+    }
+
+    @Override
+    public boolean needsScores() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return in.toString();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.aggregations.metrics;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.elasticsearch.index.fielddata.NumericDoubleValues;
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+
+import java.io.IOException;
+
+/**
+ * A reusable buffer that reads all values of a block of documents into a primitive array, so that metric aggregators
+ * collecting a block of documents through {@link org.elasticsearch.search.aggregations.LeafBucketCollector#collect(int[], int, long)}
+ * can aggregate them in a tight loop instead of updating their per bucket state for every document.
+ */
+public final class DoubleValuesBuffer {
+
+    private double[] values = new double[16];
+    private int size;
+
+    /**
+     * Reads the values of the first {@code count} docs of the given array, which are sorted in increasing order, in
+     * document order and returns the number of values that were read.
+     */
+    public int read(SortedNumericDoubleValues docValues, int[] docs, int count) throws IOException {
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (docValues.advanceExact(docs[i])) {
+                final int valueCount = docValues.docValueCount();
+                if (size + valueCount > values.length) {
+                    values = ArrayUtil.grow(values, size + valueCount);
+                }
+                for (int j = 0; j < valueCount; j++) {
+                    values[size++] = docValues.nextValue();
+                }
+            }
+        }
+        this.size = size;
+        return size;
+    }
+
+    /**
+     * Reads the value of the first {@code count} docs of the given array, which are sorted in increasing order, in
+     * document order and returns the number of values that were read.
+     */
+    public int read(NumericDoubleValues docValues, int[] docs, int count) throws IOException {
+        if (count > values.length) {
+            values = ArrayUtil.grow(values, count);
+        }
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (docValues.advanceExact(docs[i])) {
+                values[size++] = docValues.doubleValue();
+            }
+        }
+        this.size = size;
+        return size;
+    }
+
+    /**
+     * The values that were read by the last call to {@link #read}, only the first {@link #size()} entries are valid.
+     */
+    public double[] values() {
+        return values;
+    }
+
+    /**
+     * The number of values that were read by the last call to {@link #read}.
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -29,6 +29,7 @@ import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.InternalAggregation;
 import org.elasticsearch.search.aggregations.LeafBucketCollector;
 import org.elasticsearch.search.aggregations.LeafBucketCollectorBase;
+import org.elasticsearch.search.aggregations.metrics.DoubleValuesBuffer;
 import org.elasticsearch.search.aggregations.metrics.NumericMetricsAggregator;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
 import org.elasticsearch.search.aggregations.support.ValuesSource;
@@ -45,6 +46,7 @@ public class AvgAggregator extends NumericMetricsAggregator.SingleValue {
     LongArray counts;
     DoubleArray sums;
     DoubleArray compensations;
+    private final DoubleValuesBuffer buffer = new DoubleValuesBuffer();
     DocValueFormat format;
 
     public AvgAggregator(String name, ValuesSource.Numeric valuesSource, DocValueFormat formatter, SearchContext context,
@@ -103,6 +105,34 @@ public class AvgAggregator extends NumericMetricsAggregator.SingleValue {
                     compensations.set(bucket, compensation);
                 }
             }
+
+            @Override
+            public void collect(int[] docs, int count, long bucket) throws IOException {
+                counts = bigArrays.grow(counts, bucket + 1);
+                sums = bigArrays.grow(sums, bucket + 1);
+                compensations = bigArrays.grow(compensations, bucket + 1);
+
+                final int valuesCount = buffer.read(values, docs, count);
+                if (valuesCount > 0) {
+                    counts.increment(bucket, valuesCount);
+                    final double[] blockValues = buffer.values();
+                    double sum = sums.get(bucket);
+                    double compensation = compensations.get(bucket);
+                    for (int i = 0; i < valuesCount; i++) {
+                        double value = blockValues[i];
+                        if (Double.isFinite(value) == false) {
+                            sum += value;
+                        } else if (Double.isFinite(sum)) {
+                            double corrected = value - compensation;
+                            double newSum = sum + corrected;
+                            compensation = (newSum - sum) - corrected;
+                            sum = newSum;
+                        }
+                    }
+                    sums.set(bucket, sum);
+                    compensations.set(bucket, compensation);
+                }
+            }
         };
     }
 
@@ -30,6 +30,7 @@ import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.InternalAggregation;
 import org.elasticsearch.search.aggregations.LeafBucketCollector;
 import org.elasticsearch.search.aggregations.LeafBucketCollectorBase;
+import org.elasticsearch.search.aggregations.metrics.DoubleValuesBuffer;
 import org.elasticsearch.search.aggregations.metrics.NumericMetricsAggregator;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
 import org.elasticsearch.search.aggregations.support.ValuesSource;
@@ -45,6 +46,7 @@ public class MaxAggregator extends NumericMetricsAggregator.SingleValue {
     final DocValueFormat formatter;
 
     DoubleArray maxes;
+    private final DoubleValuesBuffer buffer = new DoubleValuesBuffer();
 
     public MaxAggregator(String name, ValuesSource.Numeric valuesSource, DocValueFormat formatter,
             SearchContext context,
@@ -90,6 +92,24 @@ public class MaxAggregator extends NumericMetricsAggregator.SingleValue {
                 }
             }
 
+            @Override
+            public void collect(int[] docs, int count, long bucket) throws IOException {
+                if (bucket >= maxes.size()) {
+                    long from = maxes.size();
+                    maxes = bigArrays.grow(maxes, bucket + 1);
+                    maxes.fill(from, maxes.size(), Double.NEGATIVE_INFINITY);
+                }
+                final int valuesCount = buffer.read(values, docs, count);
+                if (valuesCount > 0) {
+                    final double[] blockValues = buffer.values();
+                    double max = maxes.get(bucket);
+                    for (int i = 0; i < valuesCount; i++) {
+                        max = Math.max(max, blockValues[i]);
+                    }
+                    maxes.set(bucket, max);
+                }
+            }
+
         };
     }
 
@@ -30,6 +30,7 @@ import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.InternalAggregation;
 import org.elasticsearch.search.aggregations.LeafBucketCollector;
 import org.elasticsearch.search.aggregations.LeafBucketCollectorBase;
+import org.elasticsearch.search.aggregations.metrics.DoubleValuesBuffer;
 import org.elasticsearch.search.aggregations.metrics.NumericMetricsAggregator;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
 import org.elasticsearch.search.aggregations.support.ValuesSource;
@@ -45,6 +46,7 @@ public class MinAggregator extends NumericMetricsAggregator.SingleValue {
     final DocValueFormat format;
 
     DoubleArray mins;
+    private final DoubleValuesBuffer buffer = new DoubleValuesBuffer();
 
     public MinAggregator(String name, ValuesSource.Numeric valuesSource, DocValueFormat formatter,
             SearchContext context, Aggregator parent, List<PipelineAggregator> pipelineAggregators,
@@ -89,6 +91,24 @@ public class MinAggregator extends NumericMetricsAggregator.SingleValue {
                 }
             }
 
+            @Override
+            public void collect(int[] docs, int count, long bucket) throws IOException {
+                if (bucket >= mins.size()) {
+                    long from = mins.size();
+                    mins = bigArrays.grow(mins, bucket + 1);
+                    mins.fill(from, mins.size(), Double.POSITIVE_INFINITY);
+                }
+                final int valuesCount = buffer.read(values, docs, count);
+                if (valuesCount > 0) {
+                    final double[] blockValues = buffer.values();
+                    double min = mins.get(bucket);
+                    for (int i = 0; i < valuesCount; i++) {
+                        min = Math.min(min, blockValues[i]);
+                    }
+                    mins.set(bucket, min);
+                }
+            }
+
         };
     }
 
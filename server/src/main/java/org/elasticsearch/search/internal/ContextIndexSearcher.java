@@ -34,6 +34,7 @@ import org.apache.lucene.search.QueryCachingPolicy;
 import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.TermStatistics;
 import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.ThreadInterruptedException;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.search.dfs.AggregatedDfs;
@@ -44,8 +45,13 @@ import org.elasticsearch.search.profile.query.QueryProfiler;
 import org.elasticsearch.search.profile.query.QueryTimingType;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Context-aware extension of {@link IndexSearcher}.
@@ -191,6 +197,98 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
         super.search(leaves, cancellableWeight, collector);
     }
 
+    /**
+     * Searches each of the given slices of leaves with the collector at the same position. The first slice is searched by the calling
+     * thread while the other slices are searched concurrently on the given executor, or by the calling thread if the executor rejects
+     * them. This method only returns once all slices have been searched, even if searching one of them failed.
+     */
+    public void search(Query query, List<List<LeafReaderContext>> slices, List<? extends Collector> collectors,
+                       Executor executor) throws IOException {
+        if (slices.size() != collectors.size()) {
+            throw new IllegalArgumentException("got [" + collectors.size() + "] collectors for [" + slices.size() + "] slices");
+        }
+        boolean needsScores = false;
+        for (Collector collector : collectors) {
+            needsScores |= collector.needsScores();
+        }
+        final Weight weight = createNormalizedWeight(query, needsScores);
+        final List<FutureTask<Void>> tasks = new ArrayList<>(slices.size() - 1);
+        for (int i = 1; i < slices.size(); i++) {
+            final List<LeafReaderContext> leaves = slices.get(i);
+            final Collector collector = collectors.get(i);
+            final FutureTask<Void> task = new FutureTask<>(() -> {
+                search(leaves, weight, collector);
+                return null;
+            });
+            tasks.add(task);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+        Throwable failure = null;
+        try {
+            search(slices.get(0), weight, collectors.get(0));
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+        }
+        for (FutureTask<Void> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ThreadInterruptedException(e);
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+    }
+
+    /**
+     * Splits the given leaves into at most {@code maxSlices} slices of consecutive leaves that hold roughly the same number of
+     * documents. Since slices keep the order of the leaves, documents of a slice have lower doc ids than documents of the next slice.
+     */
+    public static List<List<LeafReaderContext>> slices(List<LeafReaderContext> leaves, int maxSlices) {
+        if (maxSlices < 1) {
+            throw new IllegalArgumentException("maxSlices must be >= 1 but was [" + maxSlices + "]");
+        }
+        long totalDocs = 0;
+        for (LeafReaderContext leaf : leaves) {
+            totalDocs += leaf.reader().maxDoc();
+        }
+        final long docsPerSlice = Math.max(1, (totalDocs + maxSlices - 1) / maxSlices);
+        final List<List<LeafReaderContext>> slices = new ArrayList<>();
+        List<LeafReaderContext> slice = new ArrayList<>();
+        long sliceDocs = 0;
+        for (LeafReaderContext leaf : leaves) {
+            if (slice.isEmpty() == false && sliceDocs + leaf.reader().maxDoc() > docsPerSlice && slices.size() < maxSlices - 1) {
+                slices.add(slice);
+                slice = new ArrayList<>();
+                sliceDocs = 0;
+            }
+            slice.add(leaf);
+            sliceDocs += leaf.reader().maxDoc();
+        }
+        if (slice.isEmpty() == false) {
+            slices.add(slice);
+        }
+        return slices;
+    }
+
     @Override
     public Explanation explain(Query query, int doc) throws IOException {
         if (aggregatedDfs != null) {
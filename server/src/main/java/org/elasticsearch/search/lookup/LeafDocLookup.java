@@ -38,7 +38,7 @@ import java.util.function.Function;
 
 public class LeafDocLookup implements Map<String, ScriptDocValues<?>> {
 
-    private final Map<String, ScriptDocValues<?>> localCacheFieldData = new HashMap<>(4);
+    private final Map<String, FieldDocValues> localCacheFieldData = new HashMap<>(4);
 
     private final MapperService mapperService;
     private final Function<MappedFieldType, IndexFieldData<?>> fieldDataLookup;
@@ -74,36 +74,41 @@ public class LeafDocLookup implements Map<String, ScriptDocValues<?>> {
     public ScriptDocValues<?> get(Object key) {
         // assume its a string...
         String fieldName = key.toString();
-        ScriptDocValues<?> scriptValues = localCacheFieldData.get(fieldName);
-        if (scriptValues == null) {
+        FieldDocValues fieldDocValues = localCacheFieldData.get(fieldName);
+        if (fieldDocValues == null) {
             final MappedFieldType fieldType = mapperService.fullName(fieldName);
             if (fieldType == null) {
                 throw new IllegalArgumentException("No field found for [" + fieldName + "] in mapping with types " + Arrays.toString(types));
             }
             // load fielddata on behalf of the script: otherwise it would need additional permissions
             // to deal with pagedbytes/ramusagestimator/etc
-            scriptValues = AccessController.doPrivileged(new PrivilegedAction<ScriptDocValues<?>>() {
+            ScriptDocValues<?> scriptValues = AccessController.doPrivileged(new PrivilegedAction<ScriptDocValues<?>>() {
                 @Override
                 public ScriptDocValues<?> run() {
                     return fieldDataLookup.apply(fieldType).load(reader).getScriptValues();
                 }
             });
-            localCacheFieldData.put(fieldName, scriptValues);
+            fieldDocValues = new FieldDocValues(scriptValues);
+            localCacheFieldData.put(fieldName, fieldDocValues);
         }
-        try {
-            scriptValues.setNextDocId(docId);
-        } catch (IOException e) {
-            throw ExceptionsHelper.convertToElastic(e);
+        // scripts often access the same field more than once per document, only read its values the first time
+        if (fieldDocValues.docId != docId) {
+            try {
+                fieldDocValues.scriptValues.setNextDocId(docId);
+            } catch (IOException e) {
+                throw ExceptionsHelper.convertToElastic(e);
+            }
+            fieldDocValues.docId = docId;
         }
-        return scriptValues;
+        return fieldDocValues.scriptValues;
     }
 
     @Override
     public boolean containsKey(Object key) {
         // assume its a string...
         String fieldName = key.toString();
-        ScriptDocValues<?> scriptValues = localCacheFieldData.get(fieldName);
-        if (scriptValues == null) {
+        FieldDocValues fieldDocValues = localCacheFieldData.get(fieldName);
+        if (fieldDocValues == null) {
             MappedFieldType fieldType = mapperService.fullName(fieldName);
             if (fieldType == null) {
                 return false;
@@ -161,4 +166,17 @@ public class LeafDocLookup implements Map<String, ScriptDocValues<?>> {
     public Set<Map.Entry<String, ScriptDocValues<?>>> entrySet() {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * The script values of a field and the document that they were last read for.
+     */
+    private static final class FieldDocValues {
+
+        private final ScriptDocValues<?> scriptValues;
+        private int docId = -1;
+
+        FieldDocValues(ScriptDocValues<?> scriptValues) {
+            this.scriptValues = scriptValues;
+        }
+    }
 }
@@ -35,8 +35,10 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldDocs;
 import org.apache.lucene.util.Counter;
 import org.elasticsearch.action.search.SearchTask;
+import org.elasticsearch.common.CheckedRunnable;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.concurrent.EsThreadPoolExecutor;
@@ -57,7 +59,11 @@ import org.elasticsearch.search.suggest.SuggestPhase;
 import org.elasticsearch.tasks.TaskCancelledException;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 import static org.elasticsearch.search.query.QueryCollectorContext.createCancellableCollectorContext;
@@ -248,22 +254,53 @@ public class QueryPhase implements SearchPhase {
             collectors.add(createCancellableCollectorContext(searchContext.getTask()::isCancelled));
 
             final boolean doProfile = searchContext.getProfilers() != null;
-            // create the top docs collector last when the other collectors are known
-            final TopDocsCollectorContext topDocsFactory = createTopDocsCollectorContext(searchContext, reader, hasFilterCollector);
-            // add the top docs collector, the first collector context in the chain
-            collectors.addFirst(topDocsFactory);
+            final List<List<LeafReaderContext>> slices = concurrentSlices(searchContext, searcher, reader);
+            final CheckedRunnable<IOException> search;
+            final List<List<QueryCollectorContext>> sliceCollectors;
+            final TopDocsCollectorContext topDocsFactory;
+            if (slices == null) {
+                sliceCollectors = null;
+                // create the top docs collector last when the other collectors are known
+                topDocsFactory = createTopDocsCollectorContext(searchContext, reader, hasFilterCollector);
+                // add the top docs collector, the first collector context in the chain
+                collectors.addFirst(topDocsFactory);
 
-            final Collector queryCollector;
-            if (doProfile) {
-                InternalProfileCollector profileCollector = QueryCollectorContext.createQueryCollectorWithProfiler(collectors);
-                searchContext.getProfilers().getCurrentQueryProfiler().setCollector(profileCollector);
-                queryCollector = profileCollector;
+                final Collector queryCollector;
+                if (doProfile) {
+                    InternalProfileCollector profileCollector = QueryCollectorContext.createQueryCollectorWithProfiler(collectors);
+                    searchContext.getProfilers().getCurrentQueryProfiler().setCollector(profileCollector);
+                    queryCollector = profileCollector;
+                } else {
+                   queryCollector = QueryCollectorContext.createQueryCollector(collectors);
+                }
+                final Query finalQuery = query;
+                search = () -> searcher.search(finalQuery, queryCollector);
             } else {
-               queryCollector = QueryCollectorContext.createQueryCollector(collectors);
+                // each slice gets its own chain of collectors, the top docs of the slices are merged after the search
+                sliceCollectors = new ArrayList<>(slices.size());
+                final List<Collector> queryCollectors = new ArrayList<>(slices.size());
+                for (int i = 0; i < slices.size(); i++) {
+                    final LinkedList<QueryCollectorContext> chain = new LinkedList<>();
+                    if (searchContext.parsedPostFilter() != null) {
+                        chain.add(createFilteredCollectorContext(searcher, searchContext.parsedPostFilter().query()));
+                    }
+                    if (searchContext.minimumScore() != null) {
+                        chain.add(createMinScoreCollectorContext(searchContext.minimumScore()));
+                    }
+                    chain.add(createCancellableCollectorContext(searchContext.getTask()::isCancelled));
+                    // shard level hit counts must not be used since they would be added up once per slice
+                    chain.addFirst(createTopDocsCollectorContext(searchContext, reader, true));
+                    sliceCollectors.add(chain);
+                    queryCollectors.add(QueryCollectorContext.createQueryCollector(chain));
+                }
+                topDocsFactory = (TopDocsCollectorContext) sliceCollectors.get(0).get(0);
+                final Executor executor = searchContext.indexShard().getThreadPool().executor(ThreadPool.Names.SEARCH_SLICE);
+                final Query finalQuery = query;
+                search = () -> ((ContextIndexSearcher) searcher).search(finalQuery, slices, queryCollectors, executor);
             }
 
             try {
-                searcher.search(query, queryCollector);
+                search.run();
             } catch (EarlyTerminatingCollector.EarlyTerminationException e) {
                 queryResult.terminatedEarly(true);
             } catch (TimeExceededException e) {
@@ -279,8 +316,12 @@ public class QueryPhase implements SearchPhase {
             }
 
             final QuerySearchResult result = searchContext.queryResult();
-            for (QueryCollectorContext ctx : collectors) {
-                ctx.postProcess(result);
+            if (sliceCollectors == null) {
+                for (QueryCollectorContext ctx : collectors) {
+                    ctx.postProcess(result);
+                }
+            } else {
+                mergeSlices(searchContext, sliceCollectors, topDocsFactory.numHits(), result);
             }
             EsThreadPoolExecutor executor = (EsThreadPoolExecutor)
                     searchContext.indexShard().getThreadPool().executor(ThreadPool.Names.SEARCH);
@@ -299,6 +340,61 @@ public class QueryPhase implements SearchPhase {
         }
     }
 
+    /**
+     * Returns the slices of segments to search concurrently, or {@code null} if the request must be searched sequentially.
+     * Only requests that just retrieve top docs are searched concurrently since other collectors, like the ones of aggregations,
+     * collect into state that is shared across segments.
+     */
+    private static List<List<LeafReaderContext>> concurrentSlices(SearchContext searchContext, IndexSearcher searcher,
+                                                                  IndexReader reader) {
+        if (searcher instanceof ContextIndexSearcher == false
+                || searchContext.getProfilers() != null
+                || searchContext.size() == 0
+                || searchContext.scrollContext() != null
+                || searchContext.collapse() != null
+                || searchContext.terminateAfter() != SearchContext.DEFAULT_TERMINATE_AFTER
+                || searchContext.queryCollectors().isEmpty() == false) {
+            return null;
+        }
+        final int maxSlices = searchContext.indexShard().indexSettings().getMaxConcurrentSearchSlices();
+        if (maxSlices <= 1 || reader.leaves().size() <= 1) {
+            return null;
+        }
+        final List<List<LeafReaderContext>> slices = ContextIndexSearcher.slices(reader.leaves(), maxSlices);
+        return slices.size() > 1 ? slices : null;
+    }
+
+    /**
+     * Merges the top docs of the slices into the provided <code>result</code>. Slices hold consecutive segments so hits that
+     * compare equal are ordered by slice first in order to break ties by doc id like a sequential search does.
+     */
+    private static void mergeSlices(SearchContext searchContext, List<List<QueryCollectorContext>> sliceCollectors, int numHits,
+                                    QuerySearchResult result) throws IOException {
+        final SortAndFormats sortAndFormats = searchContext.sort();
+        final TopDocs[] sliceTopDocs = sortAndFormats == null ? new TopDocs[sliceCollectors.size()]
+            : new TopFieldDocs[sliceCollectors.size()];
+        for (int i = 0; i < sliceCollectors.size(); i++) {
+            final QuerySearchResult sliceResult = new QuerySearchResult();
+            for (QueryCollectorContext ctx : sliceCollectors.get(i)) {
+                ctx.postProcess(sliceResult);
+            }
+            sliceTopDocs[i] = sliceResult.topDocs();
+            for (ScoreDoc scoreDoc : sliceTopDocs[i].scoreDocs) {
+                scoreDoc.shardIndex = i;
+            }
+        }
+        final TopDocs topDocs;
+        if (sortAndFormats == null) {
+            topDocs = TopDocs.merge(0, numHits, sliceTopDocs, false);
+        } else {
+            topDocs = TopDocs.merge(sortAndFormats.sort, 0, numHits, (TopFieldDocs[]) sliceTopDocs, false);
+        }
+        for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+            scoreDoc.shardIndex = -1;
+        }
+        result.topDocs(topDocs, sortAndFormats == null ? null : sortAndFormats.formats);
+    }
+
     /**
      * Returns true if the provided <code>query</code> returns docs in index order (internal doc ids).
      * @param query The query to execute
@@ -30,6 +30,7 @@ import org.elasticsearch.common.unit.TimeValue;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -107,6 +108,25 @@ public interface TcpChannel extends Releasable {
      */
     void sendMessage(BytesReference reference, ActionListener<Void> listener);
 
+    /**
+     * Notifies the listener of a sent message, if it is a {@link CopiedBytesListener}, of the number of bytes in the given buffers
+     * that are on the heap. Channels call this with the buffers that they write the message from.
+     */
+    static void onCopiedBytes(ActionListener<Void> listener, ByteBuffer[] buffers) {
+        if (listener instanceof CopiedBytesListener) {
+            ((CopiedBytesListener) listener).onCopiedBytes(BytesReference.heapBytes(buffers));
+        }
+    }
+
+    /**
+     * A listener of sent messages that is told how many bytes of a message were on the heap and had to be copied before they
+     * could be written to the socket.
+     */
+    interface CopiedBytesListener {
+
+        void onCopiedBytes(long copiedBytes);
+    }
+
     /**
      * Closes the channel.
      *
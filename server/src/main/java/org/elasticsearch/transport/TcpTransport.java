@@ -224,6 +224,7 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
 
     private final MeanMetric readBytesMetric = new MeanMetric();
     private final MeanMetric transmittedBytesMetric = new MeanMetric();
+    private final CounterMetric transmittedCopiedBytesMetric = new CounterMetric();
 
     public TcpTransport(String transportName, Settings settings, ThreadPool threadPool, BigArrays bigArrays,
                         CircuitBreakerService circuitBreakerService, NamedWriteableRegistry namedWriteableRegistry,
@@ -1736,13 +1737,18 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
     /**
      * This listener increments the transmitted bytes metric on success.
      */
-    private abstract class SendMetricListener extends NotifyOnceListener<Void> {
+    private abstract class SendMetricListener extends NotifyOnceListener<Void> implements TcpChannel.CopiedBytesListener {
         private final long messageSize;
 
         private SendMetricListener(long messageSize) {
             this.messageSize = messageSize;
         }
 
+        @Override
+        public final void onCopiedBytes(long copiedBytes) {
+            transmittedCopiedBytesMetric.inc(copiedBytes);
+        }
+
         @Override
         protected final void innerOnResponse(Void object) {
             transmittedBytesMetric.inc(messageSize);
@@ -1790,7 +1796,7 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
     @Override
     public final TransportStats getStats() {
         return new TransportStats(acceptedChannels.size(), readBytesMetric.count(), readBytesMetric.sum(), transmittedBytesMetric.count(),
-            transmittedBytesMetric.sum());
+            transmittedBytesMetric.sum(), transmittedCopiedBytesMetric.count());
     }
 
     /**
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.transport;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -36,13 +37,15 @@ public class TransportStats implements Writeable, ToXContentFragment {
     private final long rxSize;
     private final long txCount;
     private final long txSize;
+    private final long txCopiedSize;
 
-    public TransportStats(long serverOpen, long rxCount, long rxSize, long txCount, long txSize) {
+    public TransportStats(long serverOpen, long rxCount, long rxSize, long txCount, long txSize, long txCopiedSize) {
         this.serverOpen = serverOpen;
         this.rxCount = rxCount;
         this.rxSize = rxSize;
         this.txCount = txCount;
         this.txSize = txSize;
+        this.txCopiedSize = txCopiedSize;
     }
 
     public TransportStats(StreamInput in) throws IOException {
@@ -51,6 +54,11 @@ public class TransportStats implements Writeable, ToXContentFragment {
         rxSize = in.readVLong();
         txCount = in.readVLong();
         txSize = in.readVLong();
+        if (in.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            txCopiedSize = in.readVLong();
+        } else {
+            txCopiedSize = 0;
+        }
     }
 
     @Override
@@ -60,6 +68,9 @@ public class TransportStats implements Writeable, ToXContentFragment {
         out.writeVLong(rxSize);
         out.writeVLong(txCount);
         out.writeVLong(txSize);
+        if (out.getVersion().onOrAfter(Version.V_7_0_0_alpha1)) {
+            out.writeVLong(txCopiedSize);
+        }
     }
 
     public long serverOpen() {
@@ -102,6 +113,18 @@ public class TransportStats implements Writeable, ToXContentFragment {
         return txSize();
     }
 
+    /**
+     * The number of transmitted bytes that were held on the heap and had to be copied to direct memory before being written
+     * to the network, as opposed to bytes that were sent straight from direct memory.
+     */
+    public ByteSizeValue txCopiedSize() {
+        return new ByteSizeValue(txCopiedSize);
+    }
+
+    public ByteSizeValue getTxCopiedSize() {
+        return txCopiedSize();
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject(Fields.TRANSPORT);
@@ -110,6 +133,7 @@ public class TransportStats implements Writeable, ToXContentFragment {
         builder.humanReadableField(Fields.RX_SIZE_IN_BYTES, Fields.RX_SIZE, new ByteSizeValue(rxSize));
         builder.field(Fields.TX_COUNT, txCount);
         builder.humanReadableField(Fields.TX_SIZE_IN_BYTES, Fields.TX_SIZE, new ByteSizeValue(txSize));
+        builder.humanReadableField(Fields.TX_COPIED_SIZE_IN_BYTES, Fields.TX_COPIED_SIZE, new ByteSizeValue(txCopiedSize));
         builder.endObject();
         return builder;
     }
@@ -123,5 +147,7 @@ public class TransportStats implements Writeable, ToXContentFragment {
         static final String TX_COUNT = "tx_count";
         static final String TX_SIZE = "tx_size";
         static final String TX_SIZE_IN_BYTES = "tx_size_in_bytes";
+        static final String TX_COPIED_SIZE = "tx_copied_size";
+        static final String TX_COPIED_SIZE_IN_BYTES = "tx_copied_size_in_bytes";
     }
 }
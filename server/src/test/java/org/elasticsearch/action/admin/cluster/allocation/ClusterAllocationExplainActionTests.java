@@ -27,7 +27,10 @@ import org.elasticsearch.cluster.routing.ShardRoutingState;
 import org.elasticsearch.cluster.routing.allocation.RoutingAllocation;
 import org.elasticsearch.cluster.routing.allocation.ShardAllocationDecision;
 import org.elasticsearch.cluster.routing.allocation.allocator.ShardsAllocator;
+import org.elasticsearch.cluster.routing.allocation.decider.AllocationDecider;
+import org.elasticsearch.cluster.routing.allocation.decider.AllocationDeciderTimings;
 import org.elasticsearch.cluster.routing.allocation.decider.AllocationDeciders;
+import org.elasticsearch.cluster.routing.allocation.decider.Decision;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.ToXContent;
@@ -40,6 +43,7 @@ import java.util.Collections;
 import java.util.Locale;
 
 import static org.elasticsearch.action.admin.cluster.allocation.TransportClusterAllocationExplainAction.findShardToExplain;
+import static org.hamcrest.Matchers.containsString;
 
 /**
  * Tests for the {@link TransportClusterAllocationExplainAction} class.
@@ -92,6 +96,42 @@ public class ClusterAllocationExplainActionTests extends ESTestCase {
                          "\"},\"explanation\":\"" + explanation + "\"}", Strings.toString(builder));
     }
 
+    public void testDeciderTimings() throws Exception {
+        ClusterState clusterState = ClusterStateCreationUtils.state("idx", randomBoolean(), ShardRoutingState.STARTED);
+        ShardRouting shard = clusterState.getRoutingTable().index("idx").shard(0).primaryShard();
+        AllocationDecider decider = new AllocationDecider(Settings.EMPTY) {
+            @Override
+            public Decision canRemain(ShardRouting shardRouting, RoutingNode node, RoutingAllocation allocation) {
+                return Decision.YES;
+            }
+        };
+        RoutingAllocation allocation = new RoutingAllocation(new AllocationDeciders(Settings.EMPTY, Collections.singletonList(decider)),
+            clusterState.getRoutingNodes(), clusterState, null, System.nanoTime());
+        allocation.setDeciderTimings(new AllocationDeciderTimings());
+        ClusterAllocationExplanation cae = TransportClusterAllocationExplainAction.explainShard(shard, allocation, null, randomBoolean(),
+            new TestGatewayAllocator(), new ShardsAllocator() {
+                @Override
+                public void allocate(RoutingAllocation allocation) {
+                    // no-op
+                }
+
+                @Override
+                public ShardAllocationDecision decideShardAllocation(ShardRouting shard, RoutingAllocation allocation) {
+                    allocation.deciders().canRemain(shard, allocation.routingNodes().node(shard.currentNodeId()), allocation);
+                    return ShardAllocationDecision.NOT_TAKEN;
+                }
+            });
+
+        AllocationDeciderTimings timings = cae.getDeciderTimings();
+        assertNotNull(timings);
+        assertEquals(Collections.singleton(decider.getClass().getSimpleName()), timings.getTimings().keySet());
+        assertEquals(1, timings.getTimings().get(decider.getClass().getSimpleName()).getCount());
+        XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
+        timings.toXContent(builder, ToXContent.EMPTY_PARAMS);
+        assertThat(Strings.toString(builder.endObject()), containsString("\"decider_timings\":{\"" + decider.getClass().getSimpleName() +
+            "\":{\"count\":1,\"time_in_nanos\":"));
+    }
+
     public void testFindAnyUnassignedShardToExplain() {
         // find unassigned primary
         ClusterState clusterState = ClusterStateCreationUtils.state("idx", randomBoolean(), ShardRoutingState.UNASSIGNED);
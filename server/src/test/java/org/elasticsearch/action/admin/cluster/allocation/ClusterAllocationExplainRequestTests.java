@@ -30,6 +30,7 @@ public class ClusterAllocationExplainRequestTests extends ESTestCase {
                                                        randomBoolean() ? randomAlphaOfLength(5) : null);
         request.includeYesDecisions(randomBoolean());
         request.includeDiskInfo(randomBoolean());
+        request.includeDeciderTimings(randomBoolean());
         BytesStreamOutput output = new BytesStreamOutput();
         request.writeTo(output);
 
@@ -39,6 +40,7 @@ public class ClusterAllocationExplainRequestTests extends ESTestCase {
         assertEquals(request.isPrimary(), actual.isPrimary());
         assertEquals(request.includeYesDecisions(), actual.includeYesDecisions());
         assertEquals(request.includeDiskInfo(), actual.includeDiskInfo());
+        assertEquals(request.includeDeciderTimings(), actual.includeDeciderTimings());
         assertEquals(request.getCurrentNode(), actual.getCurrentNode());
     }
 
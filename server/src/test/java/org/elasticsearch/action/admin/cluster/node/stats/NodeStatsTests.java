@@ -19,12 +19,15 @@
 
 package org.elasticsearch.action.admin.cluster.node.stats;
 
+import org.elasticsearch.cluster.metadata.MetaDataInternStats;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.util.PageCacheRecyclerStats;
 import org.elasticsearch.discovery.DiscoveryStats;
 import org.elasticsearch.discovery.zen.PendingClusterStateStats;
 import org.elasticsearch.discovery.zen.PublishClusterStateStats;
+import org.elasticsearch.gateway.MetaStateStats;
 import org.elasticsearch.http.HttpStats;
 import org.elasticsearch.indices.breaker.AllCircuitBreakerStats;
 import org.elasticsearch.indices.breaker.CircuitBreakerStats;
@@ -220,6 +223,7 @@ public class NodeStatsTests extends ESTestCase {
                     assertEquals(nodeStats.getTransport().getServerOpen(), deserializedNodeStats.getTransport().getServerOpen());
                     assertEquals(nodeStats.getTransport().getTxCount(), deserializedNodeStats.getTransport().getTxCount());
                     assertEquals(nodeStats.getTransport().getTxSize(), deserializedNodeStats.getTransport().getTxSize());
+                    assertEquals(nodeStats.getTransport().getTxCopiedSize(), deserializedNodeStats.getTransport().getTxCopiedSize());
                 }
                 if (nodeStats.getHttp() == null) {
                     assertNull(deserializedNodeStats.getHttp());
@@ -247,6 +251,10 @@ public class NodeStatsTests extends ESTestCase {
                 } else {
                     assertEquals(scriptStats.getCacheEvictions(), deserializedNodeStats.getScriptStats().getCacheEvictions());
                     assertEquals(scriptStats.getCompilations(), deserializedNodeStats.getScriptStats().getCompilations());
+                    assertEquals(scriptStats.getCompilationLimitTriggered(),
+                        deserializedNodeStats.getScriptStats().getCompilationLimitTriggered());
+                    assertEquals(scriptStats.getCacheHits(), deserializedNodeStats.getScriptStats().getCacheHits());
+                    assertEquals(scriptStats.getLoadedCompilations(), deserializedNodeStats.getScriptStats().getLoadedCompilations());
                 }
                 DiscoveryStats discoveryStats = nodeStats.getDiscoveryStats();
                 DiscoveryStats deserializedDiscoveryStats = deserializedNodeStats.getDiscoveryStats();
@@ -261,6 +269,14 @@ public class NodeStatsTests extends ESTestCase {
                         assertEquals(queueStats.getTotal(), deserializedDiscoveryStats.getQueueStats().getTotal());
                         assertEquals(queueStats.getPending(), deserializedDiscoveryStats.getQueueStats().getPending());
                     }
+                    MetaDataInternStats internStats = discoveryStats.getInternStats();
+                    if (internStats == null) {
+                        assertNull(deserializedDiscoveryStats.getInternStats());
+                    } else {
+                        MetaDataInternStats deserializedInternStats = deserializedDiscoveryStats.getInternStats();
+                        assertInternStats(internStats.getMappings(), deserializedInternStats.getMappings());
+                        assertInternStats(internStats.getAliases(), deserializedInternStats.getAliases());
+                    }
                 }
                 IngestStats ingestStats = nodeStats.getIngestStats();
                 IngestStats deserializedIngestStats = deserializedNodeStats.getIngestStats();
@@ -289,6 +305,8 @@ public class NodeStatsTests extends ESTestCase {
                 } else {
                     assertEquals(adaptiveStats.getOutgoingConnections(), deserializedAdaptiveStats.getOutgoingConnections());
                     assertEquals(adaptiveStats.getRanks(), deserializedAdaptiveStats.getRanks());
+                    assertEquals(adaptiveStats.getHedgedRequests(), deserializedAdaptiveStats.getHedgedRequests());
+                    assertEquals(adaptiveStats.getWastedHedgedRequests(), deserializedAdaptiveStats.getWastedHedgedRequests());
                     adaptiveStats.getComputedStats().forEach((k, v) -> {
                         ResponseCollectorService.ComputedNodeStats aStats = adaptiveStats.getComputedStats().get(k);
                         ResponseCollectorService.ComputedNodeStats bStats = deserializedAdaptiveStats.getComputedStats().get(k);
@@ -298,10 +316,42 @@ public class NodeStatsTests extends ESTestCase {
                         assertEquals(aStats.responseTime, bStats.responseTime, 0.01);
                     });
                 }
+                PageCacheRecyclerStats recyclerStats = nodeStats.getPageCacheRecyclerStats();
+                PageCacheRecyclerStats deserializedRecyclerStats = deserializedNodeStats.getPageCacheRecyclerStats();
+                if (recyclerStats == null) {
+                    assertNull(deserializedRecyclerStats);
+                } else {
+                    assertEquals(recyclerStats.isDirect(), deserializedRecyclerStats.isDirect());
+                    assertEquals(recyclerStats.getDirectInUseInBytes(), deserializedRecyclerStats.getDirectInUseInBytes());
+                    assertEquals(recyclerStats.getDirectPagesAllocated(), deserializedRecyclerStats.getDirectPagesAllocated());
+                    assertEquals(recyclerStats.getDirectPagesRecycled(), deserializedRecyclerStats.getDirectPagesRecycled());
+                    assertEquals(recyclerStats.getHeapFallbackPages(), deserializedRecyclerStats.getHeapFallbackPages());
+                }
+                MetaStateStats metaStateStats = nodeStats.getMetaStateStats();
+                MetaStateStats deserializedMetaStateStats = deserializedNodeStats.getMetaStateStats();
+                if (metaStateStats == null) {
+                    assertNull(deserializedMetaStateStats);
+                } else {
+                    assertEquals(metaStateStats.getFullStateLoadCount(), deserializedMetaStateStats.getFullStateLoadCount());
+                    assertEquals(metaStateStats.getFullStateLoadTimeInMillis(), deserializedMetaStateStats.getFullStateLoadTimeInMillis());
+                    assertEquals(metaStateStats.getGlobalStateWriteCount(), deserializedMetaStateStats.getGlobalStateWriteCount());
+                    assertEquals(metaStateStats.getGlobalStateWriteTimeInMillis(),
+                        deserializedMetaStateStats.getGlobalStateWriteTimeInMillis());
+                    assertEquals(metaStateStats.getIndexStateWriteCount(), deserializedMetaStateStats.getIndexStateWriteCount());
+                    assertEquals(metaStateStats.getIndexStateWriteTimeInMillis(),
+                        deserializedMetaStateStats.getIndexStateWriteTimeInMillis());
+                }
             }
         }
     }
 
+    private static void assertInternStats(MetaDataInternStats.Stats expected, MetaDataInternStats.Stats actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getSizeInBytes(), actual.getSizeInBytes());
+        assertEquals(expected.getDeduplicated(), actual.getDeduplicated());
+        assertEquals(expected.getDeduplicatedSizeInBytes(), actual.getDeduplicatedSizeInBytes());
+    }
+
     private static NodeStats createNodeStats() {
         DiscoveryNode node = new DiscoveryNode("test_node", buildNewFakeTransportAddress(),
                 emptyMap(), emptySet(), VersionUtils.randomVersion(random()));
@@ -400,7 +450,7 @@ public class NodeStatsTests extends ESTestCase {
             fsInfo = new FsInfo(randomNonNegativeLong(), ioStats, paths);
         }
         TransportStats transportStats = frequently() ? new TransportStats(randomNonNegativeLong(), randomNonNegativeLong(),
-                randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong()) : null;
+                randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong()) : null;
         HttpStats httpStats = frequently() ? new HttpStats(randomNonNegativeLong(), randomNonNegativeLong()) : null;
         AllCircuitBreakerStats allCircuitBreakerStats = null;
         if (frequently()) {
@@ -413,7 +463,8 @@ public class NodeStatsTests extends ESTestCase {
             allCircuitBreakerStats = new AllCircuitBreakerStats(circuitBreakerStatsArray);
         }
         ScriptStats scriptStats = frequently() ?
-                new ScriptStats(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong()) : null;
+                new ScriptStats(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(),
+                    randomNonNegativeLong()) : null;
         DiscoveryStats discoveryStats = frequently()
             ? new DiscoveryStats(
                 randomBoolean()
@@ -421,9 +472,21 @@ public class NodeStatsTests extends ESTestCase {
                 : null,
                 randomBoolean()
                 ? new PublishClusterStateStats(
+                    randomNonNegativeLong(),
+                    randomNonNegativeLong(),
+                    randomNonNegativeLong(),
+                    randomNonNegativeLong(),
+                    randomNonNegativeLong(),
                     randomNonNegativeLong(),
                     randomNonNegativeLong(),
                     randomNonNegativeLong())
+                : null,
+                randomBoolean()
+                ? new MetaDataInternStats(
+                    new MetaDataInternStats.Stats(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(),
+                        randomNonNegativeLong()),
+                    new MetaDataInternStats.Stats(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(),
+                        randomNonNegativeLong()))
                 : null)
             : null;
         IngestStats ingestStats = null;
@@ -459,11 +522,22 @@ public class NodeStatsTests extends ESTestCase {
                     nodeStats.put(nodeId, stats);
                 }
             }
-            adaptiveSelectionStats = new AdaptiveSelectionStats(nodeConnections, nodeStats);
+            adaptiveSelectionStats = new AdaptiveSelectionStats(nodeConnections, nodeStats, randomNonNegativeLong(),
+                randomNonNegativeLong());
+        }
+        PageCacheRecyclerStats pageCacheRecyclerStats = null;
+        if (frequently()) {
+            pageCacheRecyclerStats = new PageCacheRecyclerStats(randomBoolean(), randomNonNegativeLong(),
+                    randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong());
+        }
+        MetaStateStats metaStateStats = null;
+        if (frequently()) {
+            metaStateStats = new MetaStateStats(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(),
+                    randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong());
         }
         //TODO NodeIndicesStats are not tested here, way too complicated to create, also they need to be migrated to Writeable yet
         return new NodeStats(node, randomNonNegativeLong(), null, osStats, processStats, jvmStats, threadPoolStats,
                 fsInfo, transportStats, httpStats, allCircuitBreakerStats, scriptStats, discoveryStats,
-                ingestStats, adaptiveSelectionStats);
+                ingestStats, adaptiveSelectionStats, pageCacheRecyclerStats, metaStateStats);
     }
 }
@@ -0,0 +1,77 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.bulk;
+
+import org.elasticsearch.test.ESTestCase;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class AdaptiveBulkControllerTests extends ESTestCase {
+
+    public void testAdditiveIncrease() {
+        AdaptiveBulkController controller = new AdaptiveBulkController(100, 1700, 1000, 4);
+        assertThat(controller.bulkSize(), equalTo(100L));
+        assertThat(controller.concurrentRequests(), equalTo(1));
+        for (int i = 1; i <= 3; i++) {
+            assertThat(controller.onCompletion(randomIntBetween(0, 1000), false), equalTo(1));
+            assertThat(controller.bulkSize(), equalTo(100L + i * 100L));
+            assertThat(controller.concurrentRequests(), equalTo(1 + i));
+        }
+        for (int i = 4; i <= 20; i++) {
+            assertThat(controller.onCompletion(randomIntBetween(0, 1000), false), equalTo(0));
+            assertThat(controller.bulkSize(), equalTo(Math.min(1700L, 100L + i * 100L)));
+            assertThat(controller.concurrentRequests(), equalTo(4));
+        }
+    }
+
+    public void testMultiplicativeDecreaseOnRejection() {
+        AdaptiveBulkController controller = new AdaptiveBulkController(100, 1700, 1000, 8);
+        for (int i = 0; i < 16; i++) {
+            controller.onCompletion(0, false);
+        }
+        assertThat(controller.bulkSize(), equalTo(1700L));
+        assertThat(controller.concurrentRequests(), equalTo(8));
+        assertThat(controller.onCompletion(0, true), equalTo(-4));
+        assertThat(controller.bulkSize(), equalTo(850L));
+        assertThat(controller.concurrentRequests(), equalTo(4));
+        for (int i = 0; i < 10; i++) {
+            controller.onCompletion(0, true);
+        }
+        assertThat(controller.bulkSize(), equalTo(100L));
+        assertThat(controller.concurrentRequests(), equalTo(1));
+    }
+
+    public void testMultiplicativeDecreaseOfSizeOnHighLatency() {
+        AdaptiveBulkController controller = new AdaptiveBulkController(100, 1700, 1000, 8);
+        for (int i = 0; i < 16; i++) {
+            controller.onCompletion(0, false);
+        }
+        assertThat(controller.onCompletion(randomLongBetween(1001, Long.MAX_VALUE), false), equalTo(0));
+        assertThat(controller.bulkSize(), equalTo(850L));
+        assertThat(controller.concurrentRequests(), equalTo(8));
+    }
+
+    public void testInvalidBounds() {
+        expectThrows(IllegalArgumentException.class, () -> new AdaptiveBulkController(0, 100, 1000, 1));
+        expectThrows(IllegalArgumentException.class, () -> new AdaptiveBulkController(200, 100, 1000, 1));
+        expectThrows(IllegalArgumentException.class, () -> new AdaptiveBulkController(100, 200, 0, 1));
+        expectThrows(IllegalArgumentException.class, () -> new AdaptiveBulkController(100, 200, 1000, 0));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.bulk;
+
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.TestThreadPool;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+
+public class BulkItemGroupExecutorTests extends ESTestCase {
+
+    private ThreadPool threadPool;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        threadPool = new TestThreadPool(getTestName());
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        ThreadPool.terminate(threadPool, 10, TimeUnit.SECONDS);
+        super.tearDown();
+    }
+
+    private static BulkItemRequest[] items(String... ids) {
+        BulkItemRequest[] items = new BulkItemRequest[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            items[i] = new BulkItemRequest(i, randomBoolean() ? new IndexRequest("index", "_doc", ids[i]) :
+                new DeleteRequest("index", "_doc", ids[i]));
+        }
+        return items;
+    }
+
+    public void testGroupByDocument() {
+        List<List<Integer>> groups = BulkItemGroupExecutor.groupByDocument(items("a", "b", "a", "c", "b", "a"));
+        assertThat(groups, equalTo(Arrays.asList(Arrays.asList(0, 2, 5), Arrays.asList(1, 4), Collections.singletonList(3))));
+    }
+
+    public void testSequentialExecution() throws Exception {
+        List<List<Integer>> executed = new ArrayList<>();
+        BulkItemRequest[] items = items("a", "b", "a");
+        Translog.Location location = BulkItemGroupExecutor.execute(items, 1, r -> fail("should not fork"), itemIndices -> {
+            executed.add(itemIndices);
+            return new Translog.Location(0, itemIndices.size(), 1);
+        });
+        assertThat(executed, equalTo(Collections.singletonList(Arrays.asList(0, 1, 2))));
+        assertThat(location, equalTo(new Translog.Location(0, 3, 1)));
+    }
+
+    public void testParallelExecution() throws Exception {
+        int numItems = randomIntBetween(2, 256);
+        String[] ids = new String[numItems];
+        for (int i = 0; i < numItems; i++) {
+            ids[i] = Integer.toString(randomInt(numItems / 2));
+        }
+        BulkItemRequest[] items = items(ids);
+        Set<List<Integer>> executed = ConcurrentHashMap.newKeySet();
+        Translog.Location location = BulkItemGroupExecutor.execute(items, randomIntBetween(2, 8),
+            threadPool.executor(ThreadPool.Names.GENERIC), itemIndices -> {
+                executed.add(itemIndices);
+                return new Translog.Location(0, itemIndices.get(0), 1);
+            });
+        List<List<Integer>> groups = BulkItemGroupExecutor.groupByDocument(items);
+        assertThat(executed, containsInAnyOrder(groups.toArray()));
+        // the highest location of all groups is returned
+        assertThat(location, equalTo(new Translog.Location(0, groups.get(groups.size() - 1).get(0), 1)));
+    }
+
+    public void testRejectedHelpersLeaveItemsToCallingThread() throws Exception {
+        BulkItemRequest[] items = items("a", "b", "c", "d");
+        List<List<Integer>> executed = Collections.synchronizedList(new ArrayList<>());
+        String callingThread = Thread.currentThread().getName();
+        BulkItemGroupExecutor.execute(items, 4, r -> {
+            throw new EsRejectedExecutionException("rejected");
+        }, itemIndices -> {
+            assertThat(Thread.currentThread().getName(), equalTo(callingThread));
+            executed.add(itemIndices);
+            return null;
+        });
+        assertThat(executed, equalTo(BulkItemGroupExecutor.groupByDocument(items)));
+    }
+
+    public void testFailure() throws Exception {
+        int numItems = randomIntBetween(2, 64);
+        String[] ids = new String[numItems];
+        for (int i = 0; i < numItems; i++) {
+            ids[i] = Integer.toString(i);
+        }
+        int failingItem = randomInt(numItems - 1);
+        IllegalStateException e = expectThrows(IllegalStateException.class, () ->
+            BulkItemGroupExecutor.execute(items(ids), randomIntBetween(2, 8), threadPool.executor(ThreadPool.Names.GENERIC),
+                itemIndices -> {
+                    if (itemIndices.get(0) == failingItem) {
+                        throw new IllegalStateException("item [" + failingItem + "] failed");
+                    }
+                    return null;
+                }));
+        assertThat(e.getMessage(), equalTo("item [" + failingItem + "] failed"));
+    }
+}
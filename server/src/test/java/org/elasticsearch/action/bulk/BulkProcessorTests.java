@@ -20,10 +20,12 @@
 package org.elasticsearch.action.bulk;
 
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
@@ -36,6 +38,9 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
 public class BulkProcessorTests extends ESTestCase {
 
     private ThreadPool threadPool;
@@ -124,4 +129,59 @@ public class BulkProcessorTests extends ESTestCase {
         bulkProcessor.awaitClose(100, TimeUnit.MILLISECONDS);
         assertTrue(called.get());
     }
+
+    public void testAdaptiveBulkSizeAndConcurrency() throws Exception {
+        final AtomicBoolean reject = new AtomicBoolean(false);
+        final BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer = (request, listener) -> {
+            final BulkItemResponse[] items = new BulkItemResponse[reject.get() ? request.numberOfActions() : 0];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = new BulkItemResponse(i, DocWriteRequest.OpType.INDEX,
+                    new BulkItemResponse.Failure("index", "type", "id", new EsRejectedExecutionException("rejected")));
+            }
+            listener.onResponse(new BulkResponse(items, 0));
+        };
+        final BulkProcessor bulkProcessor = BulkProcessor.builder(consumer, new BulkProcessor.Listener() {
+            @Override
+            public void beforeBulk(long executionId, BulkRequest request) {
+            }
+
+            @Override
+            public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+            }
+
+            @Override
+            public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+            }
+        }).setConcurrentRequests(4).setBulkActions(-1).setBackoffPolicy(BackoffPolicy.noBackoff())
+            .setAdaptive(new ByteSizeValue(100), new ByteSizeValue(1700), TimeValue.timeValueHours(1)).build();
+        try {
+            BulkProcessor.Stats stats = bulkProcessor.stats();
+            assertThat(stats.getBulkSize().getBytes(), equalTo(100L));
+            assertThat(stats.getConcurrentRequests(), equalTo(1));
+
+            for (int i = 0; i < 1000; i++) {
+                bulkProcessor.add(new IndexRequest("index", "type", Integer.toString(i)).source("field", "value"));
+            }
+            stats = bulkProcessor.stats();
+            assertThat(stats.getBulkSize().getBytes(), equalTo(1700L));
+            assertThat(stats.getConcurrentRequests(), equalTo(4));
+            assertThat(stats.getExecutedRequests(), greaterThan(16L));
+            assertThat(stats.getAttempts(), equalTo(stats.getExecutedRequests()));
+            assertThat(stats.getRejectedActions(), equalTo(0L));
+            assertThat(stats.getInFlightRequests(), equalTo(0L));
+            assertThat(stats.getInFlightSize().getBytes(), equalTo(0L));
+
+            reject.set(true);
+            for (int i = 0; i < 1000; i++) {
+                bulkProcessor.add(new IndexRequest("index", "type", Integer.toString(i)).source("field", "value"));
+            }
+            stats = bulkProcessor.stats();
+            assertThat(stats.getBulkSize().getBytes(), equalTo(100L));
+            assertThat(stats.getConcurrentRequests(), equalTo(1));
+            assertThat(stats.getRejectedActions(), greaterThan(0L));
+            assertThat(stats.getFailedRequests(), equalTo(0L));
+        } finally {
+            assertTrue(bulkProcessor.awaitClose(10, TimeUnit.SECONDS));
+        }
+    }
 }
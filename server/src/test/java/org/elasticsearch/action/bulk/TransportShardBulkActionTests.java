@@ -50,6 +50,7 @@ import org.elasticsearch.index.shard.IndexShardTestCase;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -253,6 +254,48 @@ public class TransportShardBulkActionTests extends IndexShardTestCase {
         closeShards(shard);
     }
 
+    public void testParallelExecution() throws Exception {
+        IndexShard shard = newStartedShard(true);
+
+        int numIds = randomIntBetween(2, 16);
+        BulkItemRequest[] items = new BulkItemRequest[randomIntBetween(numIds, 64)];
+        for (int i = 0; i < items.length; i++) {
+            // make sure that every id is used, and that some ids are used multiple times
+            String id = "id_" + (i < numIds ? i : randomInt(numIds - 1));
+            DocWriteRequest writeRequest = new IndexRequest("index", "_doc", id)
+                .source(Requests.INDEX_CONTENT_TYPE)
+                .opType(DocWriteRequest.OpType.INDEX);
+            items[i] = new BulkItemRequest(i, writeRequest);
+        }
+        BulkShardRequest bulkShardRequest = new BulkShardRequest(shardId, RefreshPolicy.NONE, items);
+
+        int parallelism = randomIntBetween(2, 4);
+        WritePrimaryResult<BulkShardRequest, BulkShardResponse> result = TransportShardBulkAction.performOnPrimary(
+            bulkShardRequest, shard, null, threadPool::absoluteTimeInMillis, new NoopMappingUpdatePerformer(),
+            parallelism, threadPool.executor(ThreadPool.Names.GENERIC));
+
+        assertThat(result.location, notNullValue());
+        assertThat(result.finalResponseIfSuccessful.getResponses(), arrayWithSize(items.length));
+        // items of the same document are executed in the order of the request
+        Map<String, Long> versions = new HashMap<>();
+        for (int i = 0; i < items.length; i++) {
+            BulkItemResponse response = result.finalResponseIfSuccessful.getResponses()[i];
+            assertThat(response.getItemId(), equalTo(i));
+            assertFalse(response.isFailed());
+            long expectedVersion = versions.merge(response.getId(), 1L, Long::sum);
+            assertThat(response.getVersion(), equalTo(expectedVersion));
+        }
+        assertDocCount(shard, numIds);
+
+        IndexShard replica = newStartedShard(false);
+        Translog.Location location = TransportShardBulkAction.performOnReplica(result.replicaRequest(), replica,
+            parallelism, threadPool.executor(ThreadPool.Names.GENERIC));
+        assertThat(location, notNullValue());
+        assertDocCount(replica, numIds);
+        assertThat(getShardDocUIDs(replica), equalTo(getShardDocUIDs(shard)));
+        closeShards(shard, replica);
+    }
+
     public void testExecuteBulkIndexRequestWithRejection() throws Exception {
         IndexMetaData metaData = indexMetaData();
         IndexShard shard = newStartedShard(true);
@@ -247,6 +247,16 @@ public class CanMatchPreFilterSearchPhaseTests extends ESTestCase {
 
                     }
 
+                    @Override
+                    void scheduleHedge(final long delayNanos, final Runnable hedge) {
+                        throw new AssertionError("requests are never hedged");
+                    }
+
+                    @Override
+                    void onIgnoredShardResult(final SearchPhaseResult result) {
+                        throw new AssertionError("requests are never hedged");
+                    }
+
                     @Override
                     protected void executePhaseOnShard(
                             final SearchShardIterator shardIt,
@@ -18,6 +18,7 @@
  */
 package org.elasticsearch.action.search;
 
+import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.OriginalIndices;
@@ -31,6 +32,7 @@ import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.SearchPhaseResult;
@@ -46,6 +48,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -55,6 +58,9 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
 public class SearchAsyncActionTests extends ESTestCase {
 
     public void testSkipSearchShards() throws InterruptedException {
@@ -364,6 +370,144 @@ public class SearchAsyncActionTests extends ESTestCase {
         executor.shutdown();
     }
 
+    public void testHedgeSlowShardRequests() throws InterruptedException {
+        SearchRequest request = new SearchRequest();
+        request.allowPartialSearchResults(true);
+        request.hedgeRequests(true);
+        CountDownLatch latch = new CountDownLatch(1);
+        DiscoveryNode slowNode = new DiscoveryNode("node_1", buildNewFakeTransportAddress(), Version.CURRENT);
+        DiscoveryNode fastNode = new DiscoveryNode("node_2", buildNewFakeTransportAddress(), Version.CURRENT);
+        AtomicInteger contextIdGenerator = new AtomicInteger(0);
+        GroupShardsIterator<SearchShardIterator> shardsIter = getShardsIter("idx",
+            new OriginalIndices(new String[]{"idx"}, IndicesOptions.strictExpandOpenAndForbidClosed()),
+            randomIntBetween(1, 10), true, slowNode, fastNode);
+        AtomicInteger numHedged = new AtomicInteger();
+        AtomicInteger numWasted = new AtomicInteger();
+        Set<Long> freedContexts = ConcurrentCollections.newConcurrentSet();
+        SearchTransportService transportService = new SearchTransportService(Settings.EMPTY, null, null) {
+            @Override
+            public void sendFreeContext(Transport.Connection connection, long contextId, OriginalIndices originalIndices) {
+                assertEquals(slowNode, connection.getNode());
+                assertTrue("context [" + contextId + "] was freed twice", freedContexts.add(contextId));
+            }
+
+            @Override
+            long getHedgeDelayNanos(String nodeId) {
+                return 0;
+            }
+
+            @Override
+            void scheduleHedge(long delayNanos, Runnable hedge) {
+                new Thread(hedge).start();
+            }
+
+            @Override
+            void onHedgedRequest() {
+                numHedged.incrementAndGet();
+            }
+
+            @Override
+            void onWastedHedgedRequest() {
+                numWasted.incrementAndGet();
+            }
+        };
+        Map<String, Transport.Connection> lookup = new HashMap<>();
+        lookup.put(slowNode.getId(), new MockConnection(slowNode));
+        lookup.put(fastNode.getId(), new MockConnection(fastNode));
+        Map<String, AliasFilter> aliasFilters = Collections.singletonMap("_na_", new AliasFilter(null, Strings.EMPTY_ARRAY));
+        // requests to the slow node only respond or fail once the search is done
+        List<Runnable> slowResponses = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger numFirstRequestsToSlowNode = new AtomicInteger();
+        Set<Long> slowNodeContexts = ConcurrentCollections.newConcurrentSet();
+        Map<ShardId, Boolean> seenShard = new ConcurrentHashMap<>();
+        AtomicReference<SearchResponse> response = new AtomicReference<>();
+        AbstractSearchAsyncAction asyncAction =
+            new AbstractSearchAsyncAction<TestSearchPhaseResult>(
+                "test",
+                logger,
+                transportService,
+                (cluster, node) -> {
+                    assert cluster == null : "cluster was not null: " + cluster;
+                    return lookup.get(node); },
+                aliasFilters,
+                Collections.emptyMap(),
+                Collections.emptyMap(),
+                null,
+                request,
+                new ActionListener<SearchResponse>() {
+                    @Override
+                    public void onResponse(SearchResponse searchResponse) {
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        logger.warn("test failed", e);
+                        fail(e.getMessage());
+                    }
+                },
+                shardsIter,
+                new TransportSearchAction.SearchTimeProvider(0, 0, () -> 0),
+                0,
+                null,
+                new InitialSearchPhase.ArraySearchPhaseResults<>(shardsIter.size()),
+                request.getMaxConcurrentShardRequests(),
+                SearchResponse.Clusters.EMPTY) {
+
+                @Override
+                protected void executePhaseOnShard(SearchShardIterator shardIt, ShardRouting shard,
+                                                   SearchActionListener<TestSearchPhaseResult> listener) {
+                    Transport.Connection connection = getConnection(null, shard.currentNodeId());
+                    TestSearchPhaseResult testSearchPhaseResult = new TestSearchPhaseResult(contextIdGenerator.incrementAndGet(),
+                        connection.getNode());
+                    boolean first = seenShard.putIfAbsent(shard.shardId(), Boolean.TRUE) == null;
+                    if (connection.getNode().equals(slowNode)) {
+                        if (first) {
+                            numFirstRequestsToSlowNode.incrementAndGet();
+                        }
+                        if (randomBoolean()) {
+                            slowNodeContexts.add(testSearchPhaseResult.getRequestId());
+                            slowResponses.add(() -> listener.onResponse(testSearchPhaseResult));
+                        } else {
+                            slowResponses.add(() -> listener.onFailure(new ElasticsearchException("slow node failed")));
+                        }
+                    } else {
+                        new Thread(() -> listener.onResponse(testSearchPhaseResult)).start();
+                    }
+                }
+
+                @Override
+                protected SearchPhase getNextPhase(SearchPhaseResults<TestSearchPhaseResult> results, SearchPhaseContext context) {
+                    return new SearchPhase("test") {
+                        @Override
+                        public void run() throws IOException {
+                            for (int i = 0; i < results.getNumShards(); i++) {
+                                assertEquals(fastNode, results.getAtomicArray().get(i).node);
+                            }
+                            response.set(buildSearchResponse(null, null));
+                            latch.countDown();
+                        }
+                    };
+                }
+            };
+        asyncAction.start();
+        latch.await();
+        assertEquals(shardsIter.size(), response.get().getSuccessfulShards());
+        assertEquals(0, response.get().getFailedShards());
+        // every shard that was queried on the slow node first must have been hedged, shards that were queried on the fast node
+        // first might have been hedged too if the hedge was faster than the response
+        assertThat(numHedged.get(), greaterThanOrEqualTo(numFirstRequestsToSlowNode.get()));
+        assertThat(numHedged.get(), lessThanOrEqualTo(shardsIter.size()));
+        assertEquals(numHedged.get() - numFirstRequestsToSlowNode.get(), numWasted.get());
+        // late responses and failures of the slow node are ignored
+        assertTrue(freedContexts.isEmpty());
+        for (Runnable slowResponse : slowResponses) {
+            slowResponse.run();
+        }
+        assertEquals(shardsIter.size(), response.get().getSuccessfulShards());
+        // the search contexts that the slow node opened for the ignored responses are released
+        assertEquals(slowNodeContexts, freedContexts);
+    }
+
     static GroupShardsIterator<SearchShardIterator> getShardsIter(String index, OriginalIndices originalIndices, int numShards,
                                                      boolean doReplicas, DiscoveryNode primaryNode, DiscoveryNode replicaNode) {
         ArrayList<SearchShardIterator> list = new ArrayList<>();
@@ -33,6 +33,7 @@ import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.aggregations.InternalAggregation;
 import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.bucket.filter.InternalFilters;
 import org.elasticsearch.search.aggregations.metrics.max.InternalMax;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.fetch.FetchSearchResult;
@@ -330,6 +331,47 @@ public class SearchPhaseControllerTests extends ESTestCase {
         assertEquals(3.0D, max.getValue(), 0.0D);
     }
 
+    public void testConsumerReducesOnBufferedBuckets() {
+        int numBuckets = randomIntBetween(1, 10);
+        int expectedNumResults = randomIntBetween(3, 30);
+        // every shard result holds more buckets than the limit so each result is reduced as soon as it arrives
+        int maxBufferedBuckets = randomIntBetween(0, numBuckets - 1);
+        SearchPhaseController controller = new SearchPhaseController(
+            Settings.builder().put(SearchPhaseController.MAX_BUFFERED_BUCKETS_SETTING.getKey(), maxBufferedBuckets).build(),
+            (b) -> new InternalAggregation.ReduceContext(BigArrays.NON_RECYCLING_INSTANCE, null, b));
+        SearchRequest request = new SearchRequest();
+        request.source(new SearchSourceBuilder().aggregation(AggregationBuilders.avg("foo")).size(0));
+        // the buffer is never exhausted, only the number of buffered buckets triggers a partial reduce
+        request.setBatchedReduceSize(expectedNumResults - 1);
+        InitialSearchPhase.ArraySearchPhaseResults<SearchPhaseResult> consumer =
+            controller.newSearchPhaseResults(request, expectedNumResults);
+        assertThat(consumer, instanceOf(SearchPhaseController.QueryPhaseResultConsumer.class));
+        SearchPhaseController.QueryPhaseResultConsumer resultConsumer = (SearchPhaseController.QueryPhaseResultConsumer) consumer;
+        for (int i = 0; i < expectedNumResults; i++) {
+            QuerySearchResult result = new QuerySearchResult(i, new SearchShardTarget("node", new Index("a", "b"), i, null));
+            List<InternalFilters.InternalBucket> buckets = new ArrayList<>();
+            for (int j = 0; j < numBuckets; j++) {
+                buckets.add(new InternalFilters.InternalBucket("bucket" + j, 1, InternalAggregations.EMPTY, false));
+            }
+            result.aggregations(new InternalAggregations(Collections.singletonList(
+                new InternalFilters("test", buckets, false, Collections.emptyList(), Collections.emptyMap()))));
+            result.setShardIndex(i);
+            consumer.consumeResult(result);
+            // at most the reduced result and a single shard result are buffered
+            assertThat(resultConsumer.getNumBuffered(), lessThanOrEqualTo(2));
+            assertEquals(i == 1 ? 2 * numBuckets : numBuckets, resultConsumer.getNumBufferedBuckets());
+        }
+        assertEquals(expectedNumResults - 2, resultConsumer.getNumReducePhases());
+
+        SearchPhaseController.ReducedQueryPhase reduce = consumer.reduce();
+        assertEquals(expectedNumResults - 1, reduce.numReducePhases);
+        InternalFilters filters = (InternalFilters) reduce.aggregations.asList().get(0);
+        assertEquals(numBuckets, filters.getBuckets().size());
+        for (InternalFilters.InternalBucket bucket : filters.getBuckets()) {
+            assertEquals(expectedNumResults, bucket.getDocCount());
+        }
+    }
+
     public void testConsumerConcurrently() throws InterruptedException {
         int expectedNumResults = randomIntBetween(1, 100);
         int bufferSize = randomIntBetween(2, 200);
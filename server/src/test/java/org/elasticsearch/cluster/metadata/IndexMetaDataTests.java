@@ -21,6 +21,7 @@ package org.elasticsearch.cluster.metadata;
 
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.set.Sets;
 import org.elasticsearch.common.xcontent.ToXContent;
@@ -34,8 +35,11 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.Set;
 
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class IndexMetaDataTests extends ESTestCase {
 
@@ -85,6 +89,46 @@ public class IndexMetaDataTests extends ESTestCase {
         assertEquals(metaData.primaryTerm(0), deserialized.primaryTerm(0));
     }
 
+    public void testMappingsAndAliasesAreInternedOnRead() throws IOException {
+        final MetaDataInterner interner = new MetaDataInterner();
+        final String mapping = "{\"_doc\":{\"properties\":{\"field\":{\"type\":\"keyword\"}}}}";
+        final IndexMetaData[] indices = new IndexMetaData[3];
+        for (int i = 0; i < indices.length; i++) {
+            final IndexMetaData metaData = IndexMetaData.builder("logs-" + i)
+                .settings(Settings.builder()
+                    .put("index.version.created", 1)
+                    .put("index.number_of_shards", 1)
+                    .put("index.number_of_replicas", 0)
+                    .build())
+                .putMapping("_doc", mapping)
+                .putAlias(AliasMetaData.builder("logs").filter("{\"term\":{\"field\":\"value\"}}"))
+                .build();
+            final BytesStreamOutput out = new BytesStreamOutput();
+            metaData.writeTo(out);
+            // only streams that are wrapped by the interner share their mappings and aliases
+            final StreamInput in = i < 2 ? interner.wrap(out.bytes().streamInput()) : out.bytes().streamInput();
+            indices[i] = IndexMetaData.readFrom(in);
+            assertEquals(metaData, indices[i]);
+        }
+        final MetaDataInternStats stats = interner.stats();
+
+        assertThat(indices[1].mapping("_doc"), sameInstance(indices[0].mapping("_doc")));
+        assertThat(indices[1].getAliases().get("logs"), sameInstance(indices[0].getAliases().get("logs")));
+        assertThat(indices[2].mapping("_doc"), not(sameInstance(indices[0].mapping("_doc"))));
+        assertThat(indices[2].getAliases().get("logs"), not(sameInstance(indices[0].getAliases().get("logs"))));
+        assertEquals(1L, stats.getMappings().getCount());
+        assertEquals(1L, stats.getMappings().getDeduplicated());
+        assertThat(stats.getMappings().getDeduplicatedSizeInBytes(), greaterThan(0L));
+        assertEquals(1L, stats.getAliases().getCount());
+        assertEquals(1L, stats.getAliases().getDeduplicated());
+        assertThat(stats.getAliases().getDeduplicatedSizeInBytes(), greaterThan(0L));
+
+        // every node has its own interner
+        final MetaDataInternStats otherStats = new MetaDataInterner().stats();
+        assertEquals(0L, otherStats.getMappings().getCount());
+        assertEquals(0L, otherStats.getAliases().getCount());
+    }
+
     public void testGetRoutingFactor() {
         Integer numShard = randomFrom(1, 2, 4, 8, 16);
         int routingFactor = IndexMetaData.getRoutingFactor(32, numShard);
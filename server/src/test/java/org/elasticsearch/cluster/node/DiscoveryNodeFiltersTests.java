@@ -70,6 +70,29 @@ public class DiscoveryNodeFiltersTests extends ESTestCase {
         assertThat(filters.match(node), equalTo(false));
     }
 
+    public void testEquality() {
+        Settings settings = Settings.builder()
+                .put("xxx.tag", "A,B")
+                .put("xxx.group", "G")
+                .build();
+        DiscoveryNodeFilters filters = buildFromSettings(AND, "xxx.", settings);
+        DiscoveryNodeFilters sameFilters = buildFromSettings(AND, "xxx.", Settings.builder()
+                .put("xxx.group", "G")
+                .put("xxx.tag", "A,B")
+                .build());
+        assertEquals(filters, sameFilters);
+        assertEquals(filters.hashCode(), sameFilters.hashCode());
+
+        assertNotEquals(filters, buildFromSettings(OR, "xxx.", settings));
+        assertNotEquals(filters, buildFromSettings(AND, "xxx.", Settings.builder()
+                .put("xxx.tag", "A,C")
+                .put("xxx.group", "G")
+                .build()));
+        assertNotEquals(filters, buildFromSettings(AND, "xxx.", Settings.builder()
+                .put("xxx.tag", "A,B")
+                .build()));
+    }
+
     public void testIdMatch() {
         Settings settings = Settings.builder()
                 .put("xxx._id", "id1")
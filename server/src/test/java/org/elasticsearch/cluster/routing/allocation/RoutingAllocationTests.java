@@ -0,0 +1,73 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cluster.routing.allocation;
+
+import org.elasticsearch.action.support.replication.ClusterStateCreationUtils;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.routing.RoutingNodes;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.routing.ShardRoutingState;
+import org.elasticsearch.cluster.routing.allocation.decider.AllocationDeciders;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RoutingAllocationTests extends ESTestCase {
+
+    private RoutingAllocation newAllocation(ClusterState clusterState) {
+        return new RoutingAllocation(new AllocationDeciders(Settings.EMPTY, Collections.emptyList()),
+            new RoutingNodes(clusterState, false), clusterState, null, System.nanoTime());
+    }
+
+    public void testMemoize() {
+        ClusterState clusterState = ClusterStateCreationUtils.state("idx", true, ShardRoutingState.INITIALIZING);
+        RoutingAllocation allocation = newAllocation(clusterState);
+        AtomicInteger computations = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("value", allocation.memoize("name", "key", () -> {
+                computations.incrementAndGet();
+                return "value";
+            }));
+        }
+        assertEquals(1, computations.get());
+        // names separate values with the same key
+        assertEquals("other", allocation.memoize("other_name", "key", () -> "other"));
+
+        ShardRouting shard = clusterState.getRoutingTable().index("idx").shard(0).primaryShard();
+        allocation.routingNodes().startShard(logger, shard, allocation.changes());
+        assertEquals("value", allocation.memoize("name", "key", () -> "changed"));
+    }
+
+    public void testMemoizeUntilRoutingChanges() {
+        ClusterState clusterState = ClusterStateCreationUtils.state("idx", true, ShardRoutingState.INITIALIZING);
+        RoutingAllocation allocation = newAllocation(clusterState);
+        AtomicInteger computations = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Integer.valueOf(1), allocation.memoizeUntilRoutingChanges("name", "key", computations::incrementAndGet));
+        }
+
+        ShardRouting shard = clusterState.getRoutingTable().index("idx").shard(0).primaryShard();
+        allocation.routingNodes().startShard(logger, shard, allocation.changes());
+        assertEquals(Integer.valueOf(2), allocation.memoizeUntilRoutingChanges("name", "key", computations::incrementAndGet));
+        assertEquals(Integer.valueOf(2), allocation.memoizeUntilRoutingChanges("name", "key", computations::incrementAndGet));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.cluster.routing.allocation.decider;
+
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.test.AbstractWireSerializingTestCase;
+
+public class AllocationDeciderTimingsTests extends AbstractWireSerializingTestCase<AllocationDeciderTimings> {
+
+    @Override
+    protected AllocationDeciderTimings createTestInstance() {
+        AllocationDeciderTimings timings = new AllocationDeciderTimings();
+        AllocationDecider[] deciders = new AllocationDecider[] {
+            new ReplicaAfterPrimaryActiveAllocationDecider(Settings.EMPTY),
+            new MaxRetryAllocationDecider(Settings.EMPTY),
+            new NodeVersionAllocationDecider(Settings.EMPTY)
+        };
+        int decisions = randomIntBetween(0, 10);
+        for (int i = 0; i < decisions; i++) {
+            timings.record(randomFrom(deciders), randomNonNegativeLong() / decisions);
+        }
+        return timings;
+    }
+
+    @Override
+    protected Writeable.Reader<AllocationDeciderTimings> instanceReader() {
+        return AllocationDeciderTimings::new;
+    }
+
+    public void testRecord() {
+        AllocationDeciderTimings timings = new AllocationDeciderTimings();
+        AllocationDecider decider = new MaxRetryAllocationDecider(Settings.EMPTY);
+        timings.record(decider, 10);
+        timings.record(decider, 5);
+        // clocks may go backwards, which must not make the time negative
+        timings.record(decider, -3);
+        AllocationDeciderTimings.Timing timing = timings.getTimings().get("MaxRetryAllocationDecider");
+        assertEquals(3, timing.getCount());
+        assertEquals(15, timing.getTimeInNanos());
+    }
+}
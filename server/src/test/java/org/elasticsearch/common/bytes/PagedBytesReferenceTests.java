@@ -25,14 +25,17 @@ import org.apache.lucene.util.BytesRefIterator;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.ByteArray;
+import org.elasticsearch.common.util.PageCacheRecycler;
 import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
 import org.elasticsearch.test.ESTestCase;
 import org.hamcrest.Matchers;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 public class PagedBytesReferenceTests extends AbstractBytesReferenceTestCase {
@@ -111,6 +114,37 @@ public class PagedBytesReferenceTests extends AbstractBytesReferenceTestCase {
         }
     }
 
+    public void testToByteBuffersDirectPages() throws IOException {
+        PageCacheRecycler recycler = new PageCacheRecycler(Settings.builder().put(PageCacheRecycler.DIRECT_SETTING.getKey(), true).build());
+        BigArrays directBigArrays = new BigArrays(recycler, new NoneCircuitBreakerService(), false);
+        int length = randomIntBetween(PAGE_SIZE + 1, PAGE_SIZE * randomIntBetween(2, 5));
+        try (ReleasableBytesStreamOutput out = new ReleasableBytesStreamOutput(length, directBigArrays)) {
+            byte[] bytes = new byte[length];
+            random().nextBytes(bytes);
+            out.writeBytes(bytes);
+            BytesReference pbr = out.bytes();
+            if (randomBoolean()) {
+                int sliceOffset = randomIntBetween(0, pbr.length());
+                pbr = pbr.slice(sliceOffset, randomIntBetween(0, pbr.length() - sliceOffset));
+                bytes = Arrays.copyOfRange(bytes, sliceOffset, sliceOffset + pbr.length());
+            }
+            BytesReference composite = new CompositeBytesReference(new BytesArray(new byte[] {1, 2}), pbr);
+            ByteBuffer[] buffers = BytesReference.toByteBuffers(composite);
+            assertFalse(buffers[0].isDirect());
+            for (int i = 1; i < buffers.length; i++) {
+                // direct pages are exposed as they are
+                assertTrue(buffers[i].isDirect());
+            }
+            assertEquals(2, BytesReference.heapBytes(buffers));
+            ByteBuffer copy = ByteBuffer.allocate(composite.length());
+            for (ByteBuffer buffer : buffers) {
+                copy.put(buffer);
+            }
+            assertArrayEquals(BytesReference.toBytes(composite), copy.array());
+            assertArrayEquals(bytes, BytesReference.toBytes(pbr));
+        }
+    }
+
     public void testHasSinglePage() throws IOException {
         int length = randomIntBetween(10, PAGE_SIZE * randomIntBetween(1, 3));
         BytesReference pbr = newBytesReference(length);
@@ -54,6 +54,8 @@ public class MemorySizeSettingsTests extends ESTestCase {
     public void testIndicesRequestCacheSetting() {
         assertMemorySizeSetting(IndicesRequestCache.INDICES_CACHE_QUERY_SIZE, "indices.requests.cache.size",
                 new ByteSizeValue((long) (JvmInfo.jvmInfo().getMem().getHeapMax().getBytes() * 0.01)));
+        assertMemorySizeSetting(IndicesRequestCache.INDICES_CACHE_QUERY_HITS_SIZE, "indices.requests.cache.hits.size",
+                new ByteSizeValue(0));
     }
 
     public void testCircuitBreakerSettings() {
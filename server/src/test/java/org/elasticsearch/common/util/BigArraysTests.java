@@ -42,7 +42,8 @@ import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 public class BigArraysTests extends ESTestCase {
 
     private BigArrays randombigArrays() {
-        return new MockBigArrays(new MockPageCacheRecycler(Settings.EMPTY), new NoneCircuitBreakerService());
+        final Settings settings = Settings.builder().put(PageCacheRecycler.DIRECT_SETTING.getKey(), randomBoolean()).build();
+        return new MockBigArrays(new MockPageCacheRecycler(settings), new NoneCircuitBreakerService());
     }
 
     private BigArrays bigArrays;
@@ -253,6 +254,20 @@ public class BigArraysTests extends ESTestCase {
         array2.close();
     }
 
+    public void testByteArrayGetInt() {
+        final byte[] array1 = new byte[randomIntBetween(4, 4000000)];
+        random().nextBytes(array1);
+        final ByteArray array2 = bigArrays.newByteArray(array1.length, randomBoolean());
+        array2.set(0, array1, 0, array1.length);
+        for (int i = 0; i < 1000; ++i) {
+            // also reads ints that cross a page boundary
+            final int offset = randomBoolean() ? randomInt(array1.length - 4) : Math.min(array1.length - 4,
+                randomIntBetween(1, 3) * BigArrays.BYTE_PAGE_SIZE - randomIntBetween(1, 3));
+            assertEquals(ByteUtils.readIntLE(array1, offset), array2.getInt(offset));
+        }
+        array2.close();
+    }
+
     public void testByteArrayBulkSet() {
         final byte[] array1 = new byte[randomIntBetween(1, 4000000)];
         random().nextBytes(array1);
@@ -377,6 +392,73 @@ public class BigArraysTests extends ESTestCase {
         }
     }
 
+    public void testDirectArraysAreAccountedFor() throws Exception {
+        final long maxSize = randomIntBetween(1 << 20, 1 << 22);
+        HierarchyCircuitBreakerService hcbs = new HierarchyCircuitBreakerService(
+                Settings.builder()
+                        .put(REQUEST_CIRCUIT_BREAKER_LIMIT_SETTING.getKey(), maxSize, ByteSizeUnit.BYTES)
+                        .build(),
+                new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS));
+        PageCacheRecycler recycler = new PageCacheRecycler(Settings.builder().put(PageCacheRecycler.DIRECT_SETTING.getKey(), true).build());
+        BigArrays bigArrays = new BigArrays(recycler, hcbs, true);
+        final long size = randomIntBetween(BigArrays.LONG_PAGE_SIZE + 1, 1 << 16);
+        LongArray array = bigArrays.newLongArray(size);
+        assertTrue(array instanceof BigDirectLongArray);
+        assertEquals(BigDirectLongArray.estimateRamBytes(size), array.ramBytesUsed());
+        assertEquals(array.ramBytesUsed(), hcbs.getBreaker(CircuitBreaker.REQUEST).getUsed());
+        assertEquals(array.ramBytesUsed(), recycler.stats().getDirectInUseInBytes());
+        array = bigArrays.resize(array, size * 2);
+        assertEquals(array.ramBytesUsed(), hcbs.getBreaker(CircuitBreaker.REQUEST).getUsed());
+        assertEquals(array.ramBytesUsed(), recycler.stats().getDirectInUseInBytes());
+        expectThrows(CircuitBreakingException.class, () -> bigArrays.newLongArray(maxSize));
+        array.close();
+        assertEquals(0, hcbs.getBreaker(CircuitBreaker.REQUEST).getUsed());
+        assertEquals(0, recycler.stats().getDirectInUseInBytes());
+
+        final long allocated = recycler.stats().getDirectPagesAllocated();
+        assertTrue(allocated > 0);
+        bigArrays.newLongArray(size).close();
+        assertEquals(allocated, recycler.stats().getDirectPagesAllocated());
+        assertTrue(recycler.stats().getDirectPagesRecycled() > 0);
+        recycler.close();
+    }
+
+    public void testDirectMemoryIsBounded() {
+        final int maxDirectPages = randomIntBetween(1, 4);
+        PageCacheRecycler recycler = new PageCacheRecycler(Settings.builder()
+            .put(PageCacheRecycler.DIRECT_SETTING.getKey(), true)
+            .put(PageCacheRecycler.LIMIT_DIRECT_SETTING.getKey(), maxDirectPages * BigArrays.PAGE_SIZE_IN_BYTES, ByteSizeUnit.BYTES)
+            .build());
+        BigArrays bigArrays = new BigArrays(recycler, new NoneCircuitBreakerService(), false);
+        final int numPages = maxDirectPages + randomIntBetween(1, 4);
+        ByteArray array = bigArrays.newByteArray((long) numPages * BigArrays.BYTE_PAGE_SIZE);
+        assertTrue(array instanceof BigDirectByteArray);
+        assertEquals((long) maxDirectPages * BigArrays.PAGE_SIZE_IN_BYTES, recycler.stats().getDirectInUseInBytes());
+        assertEquals(maxDirectPages, recycler.stats().getDirectPagesAllocated());
+        assertEquals(numPages - maxDirectPages, recycler.stats().getHeapFallbackPages());
+
+        // pages beyond the limit are heap pages which can be exposed without copying
+        final long lastPage = (long) (numPages - 1) * BigArrays.BYTE_PAGE_SIZE;
+        array.set(lastPage, (byte) 42);
+        assertNull(array.getDirect(lastPage, 10));
+        BytesRef ref = new BytesRef();
+        assertFalse(array.get(lastPage, 10, ref));
+        assertEquals(42, ref.bytes[ref.offset]);
+        array.set(0, (byte) 43);
+        assertTrue(array.getDirect(0, 10).isDirect());
+        assertEquals(43, array.getDirect(0, 10).get(0));
+        // slices that cross pages are materialized
+        assertNull(array.getDirect(BigArrays.BYTE_PAGE_SIZE - 1, 2));
+        assertTrue(array.get(BigArrays.BYTE_PAGE_SIZE - 1, 2, ref));
+
+        array.close();
+        assertEquals(0, recycler.stats().getDirectInUseInBytes());
+        // all released direct pages are pooled, none are left to the GC and allocated again
+        bigArrays.newByteArray((long) numPages * BigArrays.BYTE_PAGE_SIZE).close();
+        assertEquals(maxDirectPages, recycler.stats().getDirectPagesAllocated());
+        recycler.close();
+    }
+
     public void testEstimatedBytesSameAsActualBytes() throws Exception {
         final int maxSize = 1 << scaledRandomIntBetween(15, 22);
         final long size = randomIntBetween((1 << 14) + 1, maxSize);
@@ -0,0 +1,42 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.util;
+
+import org.elasticsearch.test.ESTestCase;
+
+import static org.hamcrest.Matchers.sameInstance;
+
+public class WeakInternerTests extends ESTestCase {
+
+    public void testIntern() {
+        final WeakInterner<String> interner = new WeakInterner<>(String::length);
+        final String first = new String("interned");
+        final String second = new String("interned");
+        final String other = new String("other");
+        assertThat(interner.intern(first), sameInstance(first));
+        assertThat(interner.intern(second), sameInstance(first));
+        assertThat(interner.intern(other), sameInstance(other));
+
+        assertEquals(2, interner.count());
+        assertEquals(first.length() + other.length(), interner.sizeInBytes());
+        assertEquals(1, interner.deduplicated());
+        assertEquals(second.length(), interner.deduplicatedSizeInBytes());
+    }
+}
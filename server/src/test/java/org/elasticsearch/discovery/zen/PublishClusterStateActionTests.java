@@ -32,6 +32,7 @@ import org.elasticsearch.cluster.Diff;
 import org.elasticsearch.cluster.block.ClusterBlocks;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.cluster.metadata.MetaDataInterner;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.common.Nullable;
@@ -76,6 +77,7 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.emptyIterable;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
@@ -245,6 +247,7 @@ public class PublishClusterStateActionTests extends ESTestCase {
     public void tearDown() throws Exception {
         super.tearDown();
         for (MockNode curNode : nodes.values()) {
+            curNode.action.close();
             curNode.service.close();
         }
         terminate(threadPool);
@@ -620,6 +623,8 @@ public class PublishClusterStateActionTests extends ESTestCase {
                 throw exception;
             }
             assertThat(exception.getMessage(), containsString(timeOutNodes > 0 ? "timed out" : "failed"));
+            // the time spent sending is recorded even though the state failed to be committed
+            assertThat(master.action.stats().getSendTimeInNanos(), greaterThan(0L));
         }
     }
 
@@ -773,6 +778,49 @@ public class PublishClusterStateActionTests extends ESTestCase {
         assertPublishClusterStateStats("nodeB: B became master", nodeB, 2, 1, 1);
     }
 
+    public void testPublishClusterStateSerializationStats() throws Exception {
+        MockNode nodeA = createMockNode("nodeA").setAsMaster();
+        MockNode nodeB = createMockNode("nodeB");
+
+        PublishClusterStateStats stats = nodeA.action.stats();
+        assertThat(stats.getFullClusterStateSerializedCount(), equalTo(0L));
+        assertThat(stats.getClusterStateDiffSerializedCount(), equalTo(0L));
+        assertThat(stats.getSerializedSizeInBytes(), equalTo(0L));
+        assertThat(stats.getSerializationTimeInNanos(), equalTo(0L));
+        assertThat(stats.getSendTimeInNanos(), equalTo(0L));
+
+        // cluster state update - add nodeB, sent as a full cluster state
+        ClusterState previousClusterState = nodeA.clusterState;
+        DiscoveryNodes discoveryNodes = DiscoveryNodes.builder(previousClusterState.nodes()).add(nodeB.discoveryNode).build();
+        ClusterState clusterState = ClusterState.builder(previousClusterState).nodes(discoveryNodes).incrementVersion().build();
+        publishStateAndWait(nodeA.action, clusterState, previousClusterState);
+
+        stats = nodeA.action.stats();
+        assertThat(stats.getFullClusterStateSerializedCount(), equalTo(1L));
+        assertThat(stats.getClusterStateDiffSerializedCount(), equalTo(0L));
+        final long fullStateSize = stats.getSerializedSizeInBytes();
+        assertThat(fullStateSize, greaterThan(0L));
+        assertThat(stats.getSendTimeInNanos(), greaterThan(0L));
+
+        // cluster state update - add nodeC, which needs a full cluster state while nodeB gets a diff, both serialized concurrently
+        MockNode nodeC = createMockNode("nodeC");
+        previousClusterState = clusterState;
+        discoveryNodes = DiscoveryNodes.builder(discoveryNodes).add(nodeC.discoveryNode).build();
+        clusterState = ClusterState.builder(clusterState).nodes(discoveryNodes).incrementVersion().build();
+        publishStateAndWait(nodeA.action, clusterState, previousClusterState);
+        assertSameStateFromFull(nodeC.clusterState, clusterState);
+        assertSameStateFromDiff(nodeB.clusterState, clusterState);
+
+        stats = nodeA.action.stats();
+        assertThat(stats.getFullClusterStateSerializedCount(), equalTo(2L));
+        assertThat(stats.getClusterStateDiffSerializedCount(), equalTo(1L));
+        assertThat(stats.getSerializedSizeInBytes(), greaterThan(fullStateSize * 2));
+
+        // the received side of the stats is unaffected by publishing
+        assertPublishClusterStateStats("nodeA: after publishing", nodeA, 0, 0, 0);
+        assertThat(nodeB.action.stats().getFullClusterStateSerializedCount(), equalTo(0L));
+    }
+
     private MetaData buildMetaDataForVersion(MetaData metaData, long version) {
         ImmutableOpenMap.Builder<String, IndexMetaData> indices = ImmutableOpenMap.builder(metaData.indices());
         indices.put("test" + version, IndexMetaData.builder("test" + version)
@@ -878,7 +926,7 @@ public class PublishClusterStateActionTests extends ESTestCase {
 
         public MockPublishAction(Settings settings, TransportService transportService, NamedWriteableRegistry namedWriteableRegistry,
                                  IncomingClusterStateListener listener, DiscoverySettings discoverySettings) {
-            super(settings, transportService, namedWriteableRegistry, listener, discoverySettings);
+            super(settings, transportService, namedWriteableRegistry, listener, discoverySettings, new MetaDataInterner());
         }
 
         @Override
@@ -21,6 +21,7 @@ package org.elasticsearch.gateway;
 
 import org.elasticsearch.Version;
 import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterName;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.ESAllocationTestCase;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
@@ -33,6 +34,7 @@ import org.elasticsearch.cluster.routing.RoutingTable;
 import org.elasticsearch.cluster.routing.allocation.AllocationService;
 import org.elasticsearch.cluster.routing.allocation.decider.ClusterRebalanceAllocationDecider;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.plugins.MetaDataUpgrader;
 import org.elasticsearch.test.TestCustomMetaData;
@@ -466,6 +468,56 @@ public class GatewayMetaStateTests extends ESAllocationTestCase {
         }
     }
 
+    public void testOnlyChangedStateIsWrittenAfterRestart() throws Exception {
+        try (NodeEnvironment env = newNodeEnvironment()) {
+            // the state written before the node restarted
+            IndexMetaData unchanged = IndexMetaData.builder("unchanged")
+                .settings(settings(Version.CURRENT).put(IndexMetaData.SETTING_INDEX_UUID, "unchanged_uuid"))
+                .numberOfShards(1).numberOfReplicas(0).build();
+            IndexMetaData changed = IndexMetaData.builder("changed")
+                .settings(settings(Version.CURRENT).put(IndexMetaData.SETTING_INDEX_UUID, "changed_uuid"))
+                .numberOfShards(1).numberOfReplicas(0).build();
+            MetaData metaData = MetaData.builder()
+                .persistentSettings(Settings.builder().put("test", "value").build())
+                .put(unchanged, false)
+                .put(changed, false)
+                .build();
+            MetaStateService previousMetaStateService = new MetaStateService(Settings.EMPTY, env, xContentRegistry());
+            previousMetaStateService.writeGlobalState("test", metaData);
+            previousMetaStateService.writeIndex("test", unchanged);
+            previousMetaStateService.writeIndex("test", changed);
+
+            MetaStateService metaStateService = new MetaStateService(Settings.EMPTY, env, xContentRegistry());
+            GatewayMetaState gatewayMetaState = new GatewayMetaState(Settings.EMPTY, env, metaStateService,
+                new MockMetaDataIndexUpgradeService(false), new MetaDataUpgrader(Collections.emptyList(), Collections.emptyList()));
+            assertThat(metaStateService.stats().getFullStateLoadCount(), equalTo(1L));
+
+            // the state recovery reuses the state that was loaded on startup
+            MetaData loadedMetaData = gatewayMetaState.loadMetaState();
+            assertThat(loadedMetaData.index("unchanged"), equalTo(unchanged));
+            assertThat(loadedMetaData.index("changed"), equalTo(changed));
+            assertThat(metaStateService.stats().getFullStateLoadCount(), equalTo(1L));
+
+            DiscoveryNode localNode = newNode("node1");
+            DiscoveryNodes nodes = DiscoveryNodes.builder().add(localNode).localNodeId("node1").masterNodeId("node1").build();
+            ClusterState previousState = ClusterState.builder(ClusterName.DEFAULT).nodes(nodes).build();
+            ClusterState recoveredState = ClusterState.builder(previousState)
+                .metaData(MetaData.builder(loadedMetaData)
+                    .put(IndexMetaData.builder(loadedMetaData.index("changed")).version(changed.getVersion() + 1).build(), false))
+                .build();
+            gatewayMetaState.applyClusterState(new ClusterChangedEvent("test", recoveredState, previousState));
+
+            MetaStateStats stats = metaStateService.stats();
+            assertThat(stats.getGlobalStateWriteCount(), equalTo(0L));
+            assertThat(stats.getIndexStateWriteCount(), equalTo(1L));
+            assertThat(metaStateService.loadIndexState(changed.getIndex()).getVersion(), equalTo(changed.getVersion() + 1));
+
+            // once state has been persisted, what is on disk is loaded again
+            gatewayMetaState.loadMetaState();
+            assertThat(metaStateService.stats().getFullStateLoadCount(), equalTo(2L));
+        }
+    }
+
     private static class MockMetaDataIndexUpgradeService extends MetaDataIndexUpgradeService {
         private final boolean upgrade;
 
@@ -101,4 +101,27 @@ public class MetaStateServiceTests extends ESTestCase {
             assertThat(loadedState.index("test1"), equalTo(index));
         }
     }
+
+    public void testStats() throws Exception {
+        try (NodeEnvironment env = newNodeEnvironment()) {
+            MetaStateService metaStateService = new MetaStateService(Settings.EMPTY, env, xContentRegistry());
+            MetaStateStats stats = metaStateService.stats();
+            assertThat(stats.getFullStateLoadCount(), equalTo(0L));
+            assertThat(stats.getGlobalStateWriteCount(), equalTo(0L));
+            assertThat(stats.getIndexStateWriteCount(), equalTo(0L));
+
+            IndexMetaData index1 = IndexMetaData.builder("test1").settings(indexSettings).build();
+            IndexMetaData index2 = IndexMetaData.builder("test2").settings(indexSettings).build();
+            MetaData metaData = MetaData.builder().put(index1, true).put(index2, true).build();
+            metaStateService.writeGlobalState("test_write", metaData);
+            metaStateService.writeIndex("test_write", index1);
+            metaStateService.writeIndex("test_write", index2);
+            metaStateService.loadFullState();
+
+            stats = metaStateService.stats();
+            assertThat(stats.getFullStateLoadCount(), equalTo(1L));
+            assertThat(stats.getGlobalStateWriteCount(), equalTo(1L));
+            assertThat(stats.getIndexStateWriteCount(), equalTo(2L));
+        }
+    }
 }
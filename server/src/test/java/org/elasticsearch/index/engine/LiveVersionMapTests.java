@@ -37,6 +37,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.hamcrest.Matchers.empty;
@@ -375,6 +376,80 @@ public class LiveVersionMapTests extends ESTestCase {
         }
     }
 
+    public void testConcurrentlyOnSharedStripes() throws InterruptedException {
+        // group uids by the stripe they are hashed onto until a few stripes are shared by several uids
+        final int numStripes = randomIntBetween(1, 4);
+        final Map<Integer, List<BytesRef>> uidsByStripe = new HashMap<>();
+        final List<List<BytesRef>> sharedStripes = new ArrayList<>();
+        for (int i = 0; sharedStripes.size() < numStripes; i++) {
+            BytesRef uid = uid(Integer.toString(i));
+            List<BytesRef> sameStripe = uidsByStripe.computeIfAbsent(LiveVersionMap.stripe(uid), k -> new ArrayList<>());
+            sameStripe.add(uid);
+            if (sameStripe.size() == 2) {
+                sharedStripes.add(sameStripe);
+            }
+        }
+        final List<BytesRef> uids = new ArrayList<>();
+        for (List<BytesRef> sameStripe : sharedStripes) {
+            assertNotEquals(sameStripe.get(0), sameStripe.get(1));
+            assertEquals(LiveVersionMap.stripe(sameStripe.get(0)), LiveVersionMap.stripe(sameStripe.get(1)));
+            uids.addAll(sameStripe);
+        }
+
+        LiveVersionMap map = new LiveVersionMap();
+        final int numThreads = randomIntBetween(2, 8);
+        final int numIters = randomIntBetween(500, 2000);
+        final AtomicLong version = new AtomicLong();
+        final Map<Integer, AtomicInteger> holdersByStripe = new ConcurrentHashMap<>();
+        // every uid is written by a single thread so that its last value is known, while uids that share a stripe are written by
+        // different threads
+        final Map<BytesRef, VersionValue> expected = new ConcurrentHashMap<>();
+        final CountDownLatch start = new CountDownLatch(numThreads);
+        final Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            final List<BytesRef> owned = new ArrayList<>();
+            for (int i = t; i < uids.size(); i += numThreads) {
+                owned.add(uids.get(i));
+            }
+            threads[t] = new Thread(() -> {
+                start.countDown();
+                try {
+                    start.await();
+                    for (int i = 0; i < numIters && owned.isEmpty() == false; i++) {
+                        BytesRef uid = randomFrom(owned);
+                        AtomicInteger holders = holdersByStripe.computeIfAbsent(LiveVersionMap.stripe(uid), k -> new AtomicInteger());
+                        try (Releasable ignore = map.acquireLock(uid)) {
+                            // a stripe is only ever held by one thread, whatever uid it was acquired for
+                            assertEquals(1, holders.incrementAndGet());
+                            assertEquals(expected.get(uid), map.getUnderLock(uid));
+                            if (randomBoolean()) {
+                                IndexVersionValue value = new IndexVersionValue(randomTranslogLocation(), version.incrementAndGet(), 1, 1);
+                                map.putIndexUnderLock(uid, value);
+                                expected.put(uid, value);
+                            } else {
+                                DeleteVersionValue value = new DeleteVersionValue(version.incrementAndGet(), 1, 1, 0);
+                                map.putDeleteUnderLock(uid, value);
+                                expected.put(uid, value);
+                            }
+                            assertEquals(0, holders.decrementAndGet());
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (BytesRef uid : uids) {
+            try (Releasable ignore = map.acquireLock(uid)) {
+                assertEquals(expected.get(uid), map.getUnderLock(uid));
+            }
+        }
+    }
+
     public void testPruneTombstonesWhileLocked() throws InterruptedException, IOException {
         LiveVersionMap map = new LiveVersionMap();
         BytesRef uid = uid("1");
@@ -65,6 +65,7 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
@@ -75,6 +76,7 @@ import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.engine.EngineException;
+import org.elasticsearch.index.engine.EngineFactory;
 import org.elasticsearch.index.engine.InternalEngine;
 import org.elasticsearch.index.engine.Segment;
 import org.elasticsearch.index.engine.SegmentsStats;
@@ -108,6 +110,7 @@ import org.elasticsearch.snapshots.SnapshotShardFailure;
 import org.elasticsearch.test.DummyShardLock;
 import org.elasticsearch.test.FieldMaskingReader;
 import org.elasticsearch.test.VersionUtils;
+import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
@@ -123,9 +126,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -137,6 +142,7 @@ import java.util.function.Consumer;
 import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
@@ -148,6 +154,7 @@ import static org.elasticsearch.repositories.RepositoryData.EMPTY_REPO_GEN;
 import static org.elasticsearch.test.hamcrest.RegexMatcher.matches;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
@@ -1126,6 +1133,159 @@ public class IndexShardTests extends IndexShardTestCase {
         closeShards(shard);
     }
 
+    private TimeValue groupCommitWindow = TimeValue.ZERO;
+
+    @Override
+    protected Settings nodeSettings() {
+        return Settings.builder().put(IndexSettings.TRANSLOG_GROUP_COMMIT_WINDOW_SETTING.getKey(), groupCommitWindow).build();
+    }
+
+    /**
+     * A thread pool that holds on to, or rejects, the group commits that the shard schedules.
+     */
+    private static final class GroupCommitThreadPool extends TestThreadPool {
+        private final TimeValue window;
+        private final List<Runnable> scheduledGroupCommits = new CopyOnWriteArrayList<>();
+        private volatile boolean reject;
+
+        GroupCommitThreadPool(String name, TimeValue window) {
+            super(name);
+            this.window = window;
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(TimeValue delay, String executor, Runnable command) {
+            if (delay.equals(window) && Names.GENERIC.equals(executor)) {
+                if (reject) {
+                    throw new EsRejectedExecutionException("rejected group commit");
+                }
+                scheduledGroupCommits.add(command);
+                return null;
+            }
+            return super.schedule(delay, executor, command);
+        }
+    }
+
+    private GroupCommitThreadPool useGroupCommitThreadPool() {
+        groupCommitWindow = TimeValue.timeValueMillis(randomIntBetween(1, 1000));
+        ThreadPool.terminate(threadPool, 10, TimeUnit.SECONDS);
+        final GroupCommitThreadPool groupCommitThreadPool = new GroupCommitThreadPool(getClass().getName(), groupCommitWindow);
+        threadPool = groupCommitThreadPool;
+        return groupCommitThreadPool;
+    }
+
+    private List<Translog.Location> indexDocs(IndexShard shard, int numDocs) throws IOException {
+        final List<Translog.Location> locations = new ArrayList<>();
+        for (int i = 0; i < numDocs; i++) {
+            locations.add(indexDoc(shard, "_doc", Integer.toString(i)).getTranslogLocation());
+        }
+        return locations;
+    }
+
+    public void testGroupCommitBatchesSyncsWithinWindow() throws IOException {
+        final GroupCommitThreadPool groupCommitThreadPool = useGroupCommitThreadPool();
+        IndexShard shard = newStartedShard(true);
+        final List<Translog.Location> locations = indexDocs(shard, randomIntBetween(2, 10));
+        final long syncRequests = shard.translogStats().getSyncRequests();
+        final long syncs = shard.translogStats().getSyncs();
+
+        final AtomicInteger synced = new AtomicInteger();
+        final List<Exception> failures = new CopyOnWriteArrayList<>();
+        for (Translog.Location location : locations) {
+            shard.sync(location, e -> {
+                if (e != null) {
+                    failures.add(e);
+                }
+                synced.incrementAndGet();
+            });
+        }
+        // only the first location of the window schedules the group commit, the others join it
+        assertEquals(1, groupCommitThreadPool.scheduledGroupCommits.size());
+        assertEquals(0, synced.get());
+
+        groupCommitThreadPool.scheduledGroupCommits.remove(0).run();
+        assertEquals(locations.size(), synced.get());
+        assertThat(failures, empty());
+        // every location counts as a sync request, but they were all served by a single fsync
+        assertEquals(syncRequests + locations.size(), shard.translogStats().getSyncRequests());
+        assertEquals(syncs + 1, shard.translogStats().getSyncs());
+
+        // syncing locations that are already synced schedules a new group commit which doesn't need to fsync
+        shard.sync(randomFrom(locations), e -> {});
+        assertEquals(1, groupCommitThreadPool.scheduledGroupCommits.size());
+        groupCommitThreadPool.scheduledGroupCommits.remove(0).run();
+        assertEquals(syncRequests + locations.size() + 1, shard.translogStats().getSyncRequests());
+        assertEquals(syncs + 1, shard.translogStats().getSyncs());
+
+        closeShards(shard);
+    }
+
+    public void testGroupCommitSyncsImmediatelyWhenRejected() throws IOException {
+        final GroupCommitThreadPool groupCommitThreadPool = useGroupCommitThreadPool();
+        IndexShard shard = newStartedShard(true);
+        final List<Translog.Location> locations = indexDocs(shard, randomIntBetween(1, 10));
+        final long syncs = shard.translogStats().getSyncs();
+
+        groupCommitThreadPool.reject = true;
+        final AtomicBoolean synced = new AtomicBoolean();
+        final AtomicReference<Exception> exception = new AtomicReference<>();
+        shard.sync(locations.get(locations.size() - 1), e -> {
+            exception.set(e);
+            synced.set(true);
+        });
+        // the sync ran on the calling thread
+        assertTrue(synced.get());
+        assertNull(exception.get());
+        assertThat(groupCommitThreadPool.scheduledGroupCommits, empty());
+        assertEquals(syncs + 1, shard.translogStats().getSyncs());
+        assertFalse(shard.isSyncNeeded());
+
+        closeShards(shard);
+    }
+
+    public void testGroupCommitFailureIsPassedToEveryListener() throws IOException {
+        final GroupCommitThreadPool groupCommitThreadPool = useGroupCommitThreadPool();
+        final AtomicBoolean failSync = new AtomicBoolean();
+        final EngineFactory engineFactory = config -> new InternalEngine(config) {
+            @Override
+            public boolean ensureTranslogSynced(Stream<Translog.Location> locations) throws IOException {
+                if (failSync.get()) {
+                    throw new IOException("simulated sync failure");
+                }
+                return super.ensureTranslogSynced(locations);
+            }
+        };
+        final ShardRouting shardRouting = newShardRouting(new ShardId("index", "_na_", 0), randomAlphaOfLength(10), true,
+            ShardRoutingState.INITIALIZING, RecoverySource.StoreRecoverySource.EMPTY_STORE_INSTANCE);
+        final IndexMetaData metaData = IndexMetaData.builder("index")
+            .settings(Settings.builder()
+                .put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT)
+                .put(IndexMetaData.SETTING_NUMBER_OF_REPLICAS, 0)
+                .put(IndexMetaData.SETTING_NUMBER_OF_SHARDS, 1))
+            .primaryTerm(0, 1)
+            .putMapping("_doc", "{ \"properties\": {} }")
+            .build();
+        IndexShard shard = newShard(shardRouting, metaData, null, engineFactory, () -> {});
+        recoverShardFromStore(shard);
+        final List<Translog.Location> locations = indexDocs(shard, randomIntBetween(2, 10));
+
+        failSync.set(true);
+        final List<Exception> notified = new CopyOnWriteArrayList<>();
+        for (Translog.Location location : locations) {
+            shard.sync(location, notified::add);
+        }
+        assertEquals(1, groupCommitThreadPool.scheduledGroupCommits.size());
+        groupCommitThreadPool.scheduledGroupCommits.remove(0).run();
+        assertEquals(locations.size(), notified.size());
+        for (Exception e : notified) {
+            assertThat(e, instanceOf(IOException.class));
+            assertEquals("simulated sync failure", e.getMessage());
+        }
+
+        failSync.set(false);
+        closeShards(shard);
+    }
+
     public void testMinimumCompatVersion() throws IOException {
         Version versionCreated = VersionUtils.randomVersion(random());
         Settings settings = Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, versionCreated.id)
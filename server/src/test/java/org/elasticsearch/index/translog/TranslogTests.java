@@ -80,6 +80,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
@@ -223,6 +224,7 @@ public class TranslogTests extends ESTestCase {
             // only randomize between nog age retention and a long one, so failures will have a chance of reproducing
             .put(IndexSettings.INDEX_TRANSLOG_RETENTION_AGE_SETTING.getKey(), randomBoolean() ? "-1ms" : "1h")
             .put(IndexSettings.INDEX_TRANSLOG_RETENTION_SIZE_SETTING.getKey(), randomIntBetween(-1, 2048) + "b")
+            .put(IndexSettings.INDEX_TRANSLOG_MMAP_SETTING.getKey(), randomBoolean())
             .build();
         return getTranslogConfig(path, settings);
     }
@@ -474,7 +476,8 @@ public class TranslogTests extends ESTestCase {
                 builder.endObject();
                 assertThat(Strings.toString(builder), equalTo("{\"translog\":{\"operations\":4,\"size_in_bytes\":" + expectedSizeInBytes
                     + ",\"uncommitted_operations\":4,\"uncommitted_size_in_bytes\":" + expectedSizeInBytes
-                    + ",\"earliest_last_modified_age\":" + stats.getEarliestLastModifiedAge() + "}}"));
+                    + ",\"earliest_last_modified_age\":" + stats.getEarliestLastModifiedAge()
+                    + ",\"sync_requests\":" + stats.getSyncRequests() + ",\"syncs\":" + stats.getSyncs() + "}}"));
             }
         }
 
@@ -520,7 +523,8 @@ public class TranslogTests extends ESTestCase {
         final List<TranslogStats> statsList = new ArrayList<>(n);
         for (int i = 0; i < n; i++) {
             final TranslogStats stats = new TranslogStats(randomIntBetween(1, 4096), randomIntBetween(1, 1 << 20),
-                randomIntBetween(1, 1 << 20), randomIntBetween(1, 4096), randomIntBetween(1, 1 << 20));
+                randomIntBetween(1, 1 << 20), randomIntBetween(1, 4096), randomIntBetween(1, 1 << 20),
+                randomIntBetween(0, 1 << 20), randomIntBetween(0, 1 << 20));
             statsList.add(stats);
             total.add(stats);
         }
@@ -540,6 +544,12 @@ public class TranslogTests extends ESTestCase {
         assertThat(
             total.getEarliestLastModifiedAge(),
             equalTo(1L));
+        assertThat(
+            total.getSyncRequests(),
+            equalTo(statsList.stream().mapToLong(TranslogStats::getSyncRequests).sum()));
+        assertThat(
+            total.getSyncs(),
+            equalTo(statsList.stream().mapToLong(TranslogStats::getSyncs).sum()));
     }
 
     public void testNegativeNumberOfOperations() {
@@ -561,6 +571,43 @@ public class TranslogTests extends ESTestCase {
         assertThat(e, hasToString(containsString("earliestLastModifiedAge must be >= 0")));
     }
 
+    public void testNegativeSyncs() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> new TranslogStats(1, 1, 1, 1, 1, -1, 1));
+        assertThat(e, hasToString(containsString("syncRequests must be >= 0")));
+        e = expectThrows(IllegalArgumentException.class, () -> new TranslogStats(1, 1, 1, 1, 1, 1, -1));
+        assertThat(e, hasToString(containsString("syncs must be >= 0")));
+    }
+
+    public void testSyncStats() throws IOException {
+        final TranslogStats before = translog.stats();
+        assertThat(before.getSyncRequests(), equalTo(0L));
+        assertThat(before.getSyncs(), equalTo(0L));
+
+        final int numOps = randomIntBetween(1, 32);
+        final List<Translog.Location> locations = new ArrayList<>(numOps);
+        for (int i = 0; i < numOps; i++) {
+            locations.add(translog.add(new Translog.Index("test", Integer.toString(i), i, primaryTerm.get(), new byte[]{1})));
+        }
+        // all pending locations are served by a single fsync
+        assertTrue(translog.ensureSynced(locations.stream()));
+        TranslogStats stats = translog.stats();
+        assertThat(stats.getSyncRequests(), equalTo((long) numOps));
+        assertThat(stats.getSyncs(), equalTo(1L));
+
+        // already synced locations are counted as requests but do not need another fsync
+        assertFalse(translog.ensureSynced(randomFrom(locations)));
+        stats = translog.stats();
+        assertThat(stats.getSyncRequests(), equalTo(numOps + 1L));
+        assertThat(stats.getSyncs(), equalTo(1L));
+
+        final BytesStreamOutput out = new BytesStreamOutput();
+        stats.writeTo(out);
+        final TranslogStats copy = new TranslogStats();
+        copy.readFrom(out.bytes().streamInput());
+        assertThat(copy.getSyncRequests(), equalTo(numOps + 1L));
+        assertThat(copy.getSyncs(), equalTo(1L));
+    }
+
     public void testSnapshot() throws IOException {
         ArrayList<Translog.Operation> ops = new ArrayList<>();
         try (Translog.Snapshot snapshot = translog.newSnapshot()) {
@@ -1285,6 +1332,89 @@ public class TranslogTests extends ESTestCase {
         }
     }
 
+    public void testMappedSnapshot() throws IOException {
+        final List<Translog.Operation> ops = new ArrayList<>();
+        final int numOps = randomIntBetween(1, 100);
+        for (int i = 0; i < numOps; i++) {
+            addToTranslogAndList(translog, ops, new Translog.Index("test", Integer.toString(i), i, primaryTerm.get(),
+                randomAlphaOfLengthBetween(1, 2048).getBytes(StandardCharsets.UTF_8)));
+            if (rarely()) {
+                translog.rollGeneration();
+            }
+        }
+        translog.rollGeneration();
+        try (Translog.Snapshot snapshot = translog.newSnapshot()) {
+            assertThat(snapshot, SnapshotMatchers.containsOperationsInAnyOrder(ops));
+        }
+
+        final long generation = translog.currentFileGeneration() - 1;
+        final Checkpoint checkpoint = Checkpoint.read(translogDir.resolve(Translog.getCommitCheckpointFileName(generation)));
+        final TranslogReader reader = translog.openReader(translogDir.resolve(Translog.getFilename(generation)), checkpoint);
+        try {
+            final TranslogSnapshot channelSnapshot = reader.newSnapshot();
+            final TranslogSnapshot mappedSnapshot = reader.newMappedSnapshot();
+            assertFalse(channelSnapshot.isMapped());
+            assertTrue(mappedSnapshot.isMapped());
+            Translog.Operation op;
+            int readOps = 0;
+            while ((op = channelSnapshot.next()) != null) {
+                assertEquals(op, mappedSnapshot.next());
+                readOps++;
+            }
+            assertNull(mappedSnapshot.next());
+            assertEquals(reader.totalOperations(), readOps);
+            mappedSnapshot.close();
+        } finally {
+            reader.close();
+        }
+        assertFalse(reader.hasMappedInput());
+        expectThrows(AlreadyClosedException.class, reader::acquireMappedInput);
+    }
+
+    public void testCloseReaderWhileMappedSnapshotIsOpen() throws IOException {
+        final List<Translog.Operation> ops = new ArrayList<>();
+        final int numOps = randomIntBetween(2, 100);
+        for (int i = 0; i < numOps; i++) {
+            addToTranslogAndList(translog, ops, new Translog.Index("test", Integer.toString(i), i, primaryTerm.get(),
+                randomAlphaOfLengthBetween(1, 2048).getBytes(StandardCharsets.UTF_8)));
+        }
+        translog.rollGeneration();
+
+        final long generation = translog.currentFileGeneration() - 1;
+        final Checkpoint checkpoint = Checkpoint.read(translogDir.resolve(Translog.getCommitCheckpointFileName(generation)));
+        final TranslogReader reader = translog.openReader(translogDir.resolve(Translog.getFilename(generation)), checkpoint);
+        final TranslogSnapshot channelSnapshot = reader.newSnapshot();
+        final List<Translog.Operation> expectedOps = new ArrayList<>();
+        Translog.Operation op;
+        while ((op = channelSnapshot.next()) != null) {
+            expectedOps.add(op);
+        }
+        assertEquals(numOps, expectedOps.size());
+
+        final TranslogSnapshot firstSnapshot = reader.newMappedSnapshot();
+        final TranslogSnapshot secondSnapshot = reader.newMappedSnapshot();
+        final int readBeforeClose = randomIntBetween(1, numOps - 1);
+        for (int i = 0; i < readBeforeClose; i++) {
+            assertEquals(expectedOps.get(i), firstSnapshot.next());
+            assertEquals(expectedOps.get(i), secondSnapshot.next());
+        }
+        reader.close();
+        // the snapshots keep the generation mapped and can still be read after the reader is closed
+        assertTrue(reader.hasMappedInput());
+        assertEquals(expectedOps.get(readBeforeClose), firstSnapshot.next());
+        firstSnapshot.close();
+        assertTrue(reader.hasMappedInput());
+        for (int i = readBeforeClose; i < numOps; i++) {
+            assertEquals(expectedOps.get(i), secondSnapshot.next());
+        }
+        assertNull(secondSnapshot.next());
+        secondSnapshot.close();
+        // the last snapshot to be closed unmaps the generation
+        assertFalse(reader.hasMappedInput());
+        // closing a snapshot twice does not release the mapped view twice
+        secondSnapshot.close();
+    }
+
     public void testBasicRecovery() throws IOException {
         List<Translog.Location> locations = new ArrayList<>();
         int translogOperations = randomIntBetween(10, 100);
@@ -25,6 +25,7 @@ import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.cache.request.RequestCacheStats;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
 import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
@@ -501,4 +502,52 @@ public class IndicesRequestCacheIT extends ESIntegTestCase {
             equalTo(2L));
     }
 
+    public void testCacheWithHitsUpToMaxSize() {
+        Client client = client();
+        Settings settings = Settings.builder().put(IndicesRequestCache.INDEX_CACHE_REQUEST_ENABLED_SETTING.getKey(), true)
+            .put(IndicesRequestCache.INDEX_CACHE_REQUEST_MAX_SIZE_SETTING.getKey(), 10)
+            .put(IndexMetaData.SETTING_NUMBER_OF_SHARDS, 1).put(IndexMetaData.SETTING_NUMBER_OF_REPLICAS, 0).build();
+        assertAcked(client.admin().indices().prepareCreate("index").addMapping("type", "f", "type=keyword")
+            .setSettings(settings).get());
+        client.prepareIndex("index", "type", "1").setSource("f", "a").get();
+        client.prepareIndex("index", "type", "2").setSource("f", "b").get();
+        client.prepareIndex("index", "type", "3").setSource("f", "a").get();
+        refresh();
+
+        for (int i = 0; i < 2; i++) {
+            SearchResponse r = client.prepareSearch("index").setSearchType(SearchType.QUERY_THEN_FETCH).setSize(10)
+                .setQuery(QueryBuilders.termQuery("f", "a")).get();
+            assertSearchResponse(r);
+            assertThat(r.getHits().getTotalHits(), equalTo(2L));
+            assertThat(r.getHits().getHits().length, equalTo(2));
+        }
+        assertThat(client.admin().indices().prepareStats("index").setRequestCache(true).get().getTotal().getRequestCache().getHitCount(),
+            equalTo(1L));
+        assertThat(client.admin().indices().prepareStats("index").setRequestCache(true).get().getTotal().getRequestCache().getMissCount(),
+            equalTo(1L));
+        RequestCacheStats stats = client.admin().indices().prepareStats("index").setRequestCache(true).get().getTotal().getRequestCache();
+        assertThat(stats.getWithHitsHitCount(), equalTo(1L));
+        assertThat(stats.getWithHitsMissCount(), equalTo(1L));
+        assertThat(stats.getWithHitsMemorySizeInBytes(), greaterThan(0L));
+        assertThat(stats.getWithHitsMemorySizeInBytes(), equalTo(stats.getMemorySizeInBytes()));
+
+        // requests returning more hits than the index allows are not cached
+        SearchResponse r = client.prepareSearch("index").setSearchType(SearchType.QUERY_THEN_FETCH).setSize(11)
+            .setQuery(QueryBuilders.termQuery("f", "a")).get();
+        assertSearchResponse(r);
+        assertThat(client.admin().indices().prepareStats("index").setRequestCache(true).get().getTotal().getRequestCache().getHitCount(),
+            equalTo(1L));
+        assertThat(client.admin().indices().prepareStats("index").setRequestCache(true).get().getTotal().getRequestCache().getMissCount(),
+            equalTo(1L));
+
+        // a refresh that changes the shard invalidates the cached hits
+        client.prepareIndex("index", "type", "4").setSource("f", "a").get();
+        refresh();
+        r = client.prepareSearch("index").setSearchType(SearchType.QUERY_THEN_FETCH).setSize(10)
+            .setQuery(QueryBuilders.termQuery("f", "a")).get();
+        assertSearchResponse(r);
+        assertThat(r.getHits().getTotalHits(), equalTo(3L));
+        assertThat(client.admin().indices().prepareStats("index").setRequestCache(true).get().getTotal().getRequestCache().getMissCount(),
+            equalTo(2L));
+    }
 }
@@ -269,6 +269,142 @@ public class IndicesRequestCacheTests extends ESTestCase {
         IOUtils.close(reader, secondReader, thirdReader, writer, dir, cache);
     }
 
+    public void testEvictionOfRequestsWithHits() throws Exception {
+        final ByteSizeValue size;
+        {
+            IndicesRequestCache cache = new IndicesRequestCache(Settings.EMPTY);
+            AtomicBoolean indexShard = new AtomicBoolean(true);
+            ShardRequestCache requestCacheStats = new ShardRequestCache();
+            Directory dir = newDirectory();
+            IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig());
+
+            writer.addDocument(newDoc(0, "foo"));
+            DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer),
+                new ShardId("foo", "bar", 1));
+            TermQueryBuilder termQuery = new TermQueryBuilder("id", "0");
+            BytesReference termBytes = XContentHelper.toXContent(termQuery, XContentType.JSON, false);
+            writer.updateDocument(new Term("id", "0"), newDoc(0, "bar"));
+            DirectoryReader secondReader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer),
+                new ShardId("foo", "bar", 1));
+
+            cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), new Loader(reader, 0), reader, termBytes, true);
+            cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), new Loader(secondReader, 0), secondReader,
+                termBytes, true);
+            size = requestCacheStats.stats().getWithHitsMemorySize();
+            assertEquals(size, requestCacheStats.stats().getMemorySize());
+            IOUtils.close(reader, secondReader, writer, dir, cache);
+        }
+        IndicesRequestCache cache = new IndicesRequestCache(Settings.builder()
+            .put(IndicesRequestCache.INDICES_CACHE_QUERY_HITS_SIZE.getKey(), size.getBytes() + 1 + "b")
+            .build());
+        AtomicBoolean indexShard = new AtomicBoolean(true);
+        ShardRequestCache requestCacheStats = new ShardRequestCache();
+        Directory dir = newDirectory();
+        IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig());
+
+        writer.addDocument(newDoc(0, "foo"));
+        DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer),
+            new ShardId("foo", "bar", 1));
+        TermQueryBuilder termQuery = new TermQueryBuilder("id", "0");
+        BytesReference termBytes = XContentHelper.toXContent(termQuery, XContentType.JSON, false);
+        writer.updateDocument(new Term("id", "0"), newDoc(0, "bar"));
+        DirectoryReader secondReader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer),
+            new ShardId("foo", "bar", 1));
+        writer.updateDocument(new Term("id", "0"), newDoc(0, "baz"));
+        DirectoryReader thirdReader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer),
+            new ShardId("foo", "bar", 1));
+
+        // a size 0 request is cached apart from the requests that return hits
+        BytesReference value = cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), new Loader(reader, 0), reader,
+            termBytes, false);
+        assertEquals("foo", value.streamInput().readString());
+        BytesReference value1 = cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), new Loader(reader, 0), reader,
+            termBytes, true);
+        assertEquals("foo", value1.streamInput().readString());
+        BytesReference value2 = cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), new Loader(secondReader, 0),
+            secondReader, termBytes, true);
+        assertEquals("bar", value2.streamInput().readString());
+        BytesReference value3 = cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), new Loader(thirdReader, 0),
+            thirdReader, termBytes, true);
+        assertEquals("baz", value3.streamInput().readString());
+        assertEquals(3, cache.count());
+        assertEquals(1, requestCacheStats.stats().getEvictions());
+        assertEquals(1, requestCacheStats.stats().getWithHitsEvictions());
+        assertEquals(3, requestCacheStats.stats().getWithHitsMissCount());
+        assertEquals(4, requestCacheStats.stats().getMissCount());
+
+        // filling the hits cache did not evict the size 0 request
+        Loader loader = new Loader(reader, 0);
+        value = cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), loader, reader, termBytes, false);
+        assertEquals("foo", value.streamInput().readString());
+        assertTrue(loader.loadedFromCache);
+        assertEquals(1, requestCacheStats.stats().getHitCount());
+        assertEquals(0, requestCacheStats.stats().getWithHitsHitCount());
+        assertTrue(requestCacheStats.stats().getMemorySizeInBytes() > requestCacheStats.stats().getWithHitsMemorySizeInBytes());
+
+        // closing the shard clears both caches
+        indexShard.set(false);
+        cache.clear(new TestEntity(requestCacheStats, indexShard));
+        cache.cleanCache();
+        assertEquals(0, cache.count());
+        assertEquals(0, requestCacheStats.stats().getMemorySizeInBytes());
+        assertEquals(0, requestCacheStats.stats().getWithHitsMemorySizeInBytes());
+        IOUtils.close(reader, secondReader, thirdReader, writer, dir, cache);
+    }
+
+    public void testRequestsWithHitsShareTheCacheByDefault() throws Exception {
+        final ByteSizeValue size;
+        {
+            IndicesRequestCache cache = new IndicesRequestCache(Settings.EMPTY);
+            AtomicBoolean indexShard = new AtomicBoolean(true);
+            ShardRequestCache requestCacheStats = new ShardRequestCache();
+            Directory dir = newDirectory();
+            IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig());
+
+            writer.addDocument(newDoc(0, "foo"));
+            DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer),
+                new ShardId("foo", "bar", 1));
+            TermQueryBuilder termQuery = new TermQueryBuilder("id", "0");
+            BytesReference termBytes = XContentHelper.toXContent(termQuery, XContentType.JSON, false);
+            cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), new Loader(reader, 0), reader, termBytes, true);
+            size = requestCacheStats.stats().getWithHitsMemorySize();
+            assertEquals(size, requestCacheStats.stats().getMemorySize());
+            IOUtils.close(reader, writer, dir, cache);
+        }
+        IndicesRequestCache cache = new IndicesRequestCache(Settings.builder()
+            .put(IndicesRequestCache.INDICES_CACHE_QUERY_SIZE.getKey(), size.getBytes() + 1 + "b")
+            .build());
+        AtomicBoolean indexShard = new AtomicBoolean(true);
+        ShardRequestCache requestCacheStats = new ShardRequestCache();
+        Directory dir = newDirectory();
+        IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig());
+
+        writer.addDocument(newDoc(0, "foo"));
+        DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer),
+            new ShardId("foo", "bar", 1));
+        TermQueryBuilder termQuery = new TermQueryBuilder("id", "0");
+        BytesReference termBytes = XContentHelper.toXContent(termQuery, XContentType.JSON, false);
+
+        // without a hits cache size, requests that return hits are cached in the main cache
+        BytesReference value = cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), new Loader(reader, 0), reader,
+            termBytes, true);
+        assertEquals("foo", value.streamInput().readString());
+        assertEquals(1, cache.count());
+        value = cache.getOrCompute(new TestEntity(requestCacheStats, indexShard), new Loader(reader, 0), reader, termBytes, false);
+        assertEquals("foo", value.streamInput().readString());
+        assertEquals(1, cache.count());
+        assertEquals(1, requestCacheStats.stats().getEvictions());
+        assertEquals(1, requestCacheStats.stats().getWithHitsEvictions());
+        assertEquals(0, requestCacheStats.stats().getWithHitsMemorySizeInBytes());
+
+        indexShard.set(false);
+        cache.clear(new TestEntity(requestCacheStats, indexShard));
+        cache.cleanCache();
+        assertEquals(0, cache.count());
+        assertEquals(0, requestCacheStats.stats().getMemorySizeInBytes());
+        IOUtils.close(reader, writer, dir, cache);
+    }
+
     public void testClearAllEntityIdentity() throws Exception {
         IndicesRequestCache cache = new IndicesRequestCache(Settings.EMPTY);
         AtomicBoolean indexShard =  new AtomicBoolean(true);
@@ -23,14 +23,18 @@ import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.Before;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 
 public class CompoundProcessorTests extends ESTestCase {
@@ -206,4 +210,76 @@ public class CompoundProcessorTests extends ESTestCase {
         assertThat(onFailureProcessor.getInvokedCounter(), equalTo(1));
 
     }
+
+    public void testExecuteBatch() throws Exception {
+        TestProcessor failing = new TestProcessor("id1", "first", ingestDocument -> {
+            if (ingestDocument.hasField("fail")) {
+                throw new RuntimeException("error");
+            }
+        });
+        TestProcessor second = new TestProcessor("id2", "second", ingestDocument -> ingestDocument.setFieldValue("field", "value"));
+        CompoundProcessor compoundProcessor = new CompoundProcessor(failing, second);
+
+        List<IngestDocument> documents = new ArrayList<>();
+        Exception[] failures = new Exception[randomIntBetween(1, 16)];
+        int numFailures = 0;
+        for (int i = 0; i < failures.length; i++) {
+            IngestDocument document = new IngestDocument(new HashMap<>(), new HashMap<>());
+            if (randomBoolean()) {
+                document.setFieldValue("fail", true);
+                numFailures++;
+            }
+            documents.add(document);
+        }
+        compoundProcessor.execute(documents, failures);
+
+        for (int i = 0; i < failures.length; i++) {
+            if (documents.get(i).hasField("fail")) {
+                assertThat(failures[i], instanceOf(ElasticsearchException.class));
+                assertThat(((ElasticsearchException) failures[i]).getHeader("processor_tag"), equalTo(Collections.singletonList("id1")));
+                assertThat(documents.get(i).hasField("field"), is(false));
+            } else {
+                assertThat(failures[i], nullValue());
+                assertThat(documents.get(i).getFieldValue("field", String.class), equalTo("value"));
+            }
+        }
+        assertThat(failing.getInvokedCounter(), equalTo(failures.length));
+        assertThat(second.getInvokedCounter(), equalTo(failures.length - numFailures));
+
+        IngestStats.Stats failingStats = compoundProcessor.getProcessorsWithMetrics().get(0).v2().createStats();
+        assertThat(failingStats.getIngestCount(), equalTo((long) failures.length));
+        assertThat(failingStats.getIngestFailedCount(), equalTo((long) numFailures));
+        IngestStats.Stats secondStats = compoundProcessor.getProcessorsWithMetrics().get(1).v2().createStats();
+        assertThat(secondStats.getIngestCount(), equalTo((long) (failures.length - numFailures)));
+        assertThat(secondStats.getIngestFailedCount(), equalTo(0L));
+    }
+
+    public void testExecuteBatchWithOnFailure() throws Exception {
+        TestProcessor failing = new TestProcessor("id1", "first", ingestDocument -> {
+            if (ingestDocument.hasField("fail")) {
+                throw new RuntimeException("error");
+            }
+        });
+        TestProcessor second = new TestProcessor("id2", "second", ingestDocument -> {});
+        TestProcessor onFailureProcessor = new TestProcessor("id3", "on_failure", ingestDocument -> {
+            assertThat(ingestDocument.getIngestMetadata().get(CompoundProcessor.ON_FAILURE_PROCESSOR_TAG_FIELD), equalTo("id1"));
+            ingestDocument.setFieldValue("handled", true);
+        });
+        CompoundProcessor compoundProcessor = new CompoundProcessor(false, Arrays.asList(failing, second),
+            Collections.singletonList(onFailureProcessor));
+
+        IngestDocument failingDocument = new IngestDocument(new HashMap<>(), new HashMap<>());
+        failingDocument.setFieldValue("fail", true);
+        IngestDocument document = new IngestDocument(new HashMap<>(), new HashMap<>());
+        Exception[] failures = new Exception[2];
+        compoundProcessor.execute(Arrays.asList(failingDocument, document), failures);
+
+        assertThat(failures[0], nullValue());
+        assertThat(failures[1], nullValue());
+        assertThat(failingDocument.getFieldValue("handled", Boolean.class), is(true));
+        assertThat(document.hasField("handled"), is(false));
+        // a document that was handled by on_failure skips the remaining processors, like a single document would
+        assertThat(second.getInvokedCounter(), equalTo(1));
+        assertThat(onFailureProcessor.getInvokedCounter(), equalTo(1));
+    }
 }
@@ -19,7 +19,9 @@
 
 package org.elasticsearch.ingest;
 
+import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ElasticsearchParseException;
+import org.elasticsearch.script.TemplateScript;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.Before;
 
@@ -33,6 +35,7 @@ import java.util.Map;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.Mockito.mock;
@@ -110,6 +113,21 @@ public class ConfigurationUtilsTests extends ESTestCase {
         }
     }
 
+    public void testCompileTemplate() {
+        TemplateScript.Factory constant = ConfigurationUtils.compileTemplate(null, null, "field", "foo", TestTemplateService.instance());
+        assertThat(constant, instanceOf(ConfigurationUtils.ConstantTemplate.class));
+        assertThat(constant.newInstance(Collections.emptyMap()).execute(), equalTo("foo"));
+
+        TemplateScript.Factory template = ConfigurationUtils.compileTemplate(null, null, "field", "{{foo}}",
+            TestTemplateService.instance());
+        assertThat(template, not(instanceOf(ConfigurationUtils.ConstantTemplate.class)));
+
+        // constant templates are still compiled, so that invalid ones fail when the pipeline is created
+        ElasticsearchException e = expectThrows(ElasticsearchException.class,
+            () -> ConfigurationUtils.compileTemplate("set", null, "field", "foo", TestTemplateService.instance(true)));
+        assertThat(e.getMessage(), equalTo("java.lang.RuntimeException: could not compile script"));
+    }
+
     public void testReadProcessors() throws Exception {
         Processor processor = mock(Processor.class);
         Map<String, Processor.Factory> registry =
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.ingest;
 
+import org.elasticsearch.script.TemplateScript;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.Before;
 
@@ -1021,4 +1022,74 @@ public class IngestDocumentTests extends ESTestCase {
         }
     }
 
+    public void testTemplateModel() {
+        Map<String, Object> source = new HashMap<>();
+        source.put("foo", "bar");
+        source.put("_ingest", "hidden");
+        Map<String, Object> ingestMetadata = new HashMap<>();
+        ingestMetadata.put("timestamp", BOGUS_TIMESTAMP);
+        IngestDocument document = new IngestDocument(source, ingestMetadata);
+
+        List<Map<String, Object>> models = new ArrayList<>();
+        String rendered = document.renderTemplate(params -> {
+            models.add(params);
+            return new TestTemplateService.MockTemplateScript.Factory("rendered").newInstance(params);
+        });
+        assertThat(rendered, equalTo("rendered"));
+        assertThat(models.size(), equalTo(1));
+        Map<String, Object> model = models.get(0);
+        assertThat(model.get("foo"), equalTo("bar"));
+        assertThat(model.get("_source"), sameInstance(document.getSourceAndMetadata()));
+        assertThat(model.get("_ingest"), sameInstance(document.getIngestMetadata()));
+        assertTrue(model.containsKey("_source"));
+        assertFalse(model.containsKey("missing"));
+        Map<String, Object> expected = new HashMap<>(source);
+        expected.put("_source", source);
+        expected.put("_ingest", ingestMetadata);
+        assertThat(model, equalTo(expected));
+        expectThrows(UnsupportedOperationException.class, () -> model.put("foo", "baz"));
+    }
+
+    public void testRenderConstantTemplate() {
+        TemplateScript.Factory template = ConfigurationUtils.compileTemplate(null, null, "field",
+            "foo", TestTemplateService.instance());
+        assertThat(ingestDocument.renderTemplate(template), equalTo("foo"));
+        ingestDocument.setFieldValue(template, ValueSource.wrap("baz", TestTemplateService.instance()));
+        assertThat(ingestDocument.getFieldValue("foo", String.class), equalTo("baz"));
+    }
+
+    public void testParsedPathsAreResolvedPerDocument() {
+        IngestDocument other = new IngestDocument(new HashMap<>(), new HashMap<>());
+        for (String path : Arrays.asList("new.field", "_source.new.field", "_ingest.new.field")) {
+            ingestDocument.setFieldValue(path, "first");
+            other.setFieldValue(path, "second");
+            assertThat(ingestDocument.getFieldValue(path, String.class), equalTo("first"));
+            assertThat(other.getFieldValue(path, String.class), equalTo("second"));
+            other.removeField(path);
+            assertFalse(other.hasField(path));
+            assertTrue(ingestDocument.hasField(path));
+        }
+        assertThat(ingestDocument.getFieldValue("_ingest.new.field", String.class), equalTo("first"));
+        assertThat(ingestDocument.getFieldValue("new.field", String.class), equalTo("first"));
+    }
+
+    public void testConstantTemplatePathsAreResolvedPerDocument() {
+        IngestDocument other = new IngestDocument(new HashMap<>(), new HashMap<>());
+        for (String path : Arrays.asList("new.field", "_source.new.field", "_ingest.new.field")) {
+            ConfigurationUtils.ConstantTemplate pathTemplate = new ConfigurationUtils.ConstantTemplate(path);
+            ingestDocument.setFieldValue(pathTemplate, new ValueSource.ObjectValue("first"));
+            other.setFieldValue(pathTemplate, new ValueSource.ObjectValue("second"));
+            assertSame(pathTemplate.getParsedPath(), pathTemplate.getParsedPath());
+            assertThat(ingestDocument.getFieldValue(pathTemplate, String.class), equalTo("first"));
+            assertThat(other.getFieldValue(pathTemplate, String.class), equalTo("second"));
+            other.removeField(pathTemplate);
+            assertFalse(other.hasField(pathTemplate));
+            assertTrue(ingestDocument.hasField(pathTemplate));
+        }
+        ConfigurationUtils.ConstantTemplate invalid = new ConfigurationUtils.ConstantTemplate("_ingest.");
+        for (int i = 0; i < 2; i++) {
+            IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> other.hasField(invalid));
+            assertThat(e.getMessage(), equalTo("path [_ingest.] is not valid"));
+        }
+    }
 }
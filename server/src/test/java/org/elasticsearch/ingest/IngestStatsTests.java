@@ -24,7 +24,9 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.test.ESTestCase;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 public class IngestStatsTests extends ESTestCase {
@@ -59,6 +61,31 @@ public class IngestStatsTests extends ESTestCase {
         assertEquals(leftStats.getIngestCurrent(), rightStats.getIngestCurrent());
     }
 
+    public void testProcessorStatsSerialization() throws IOException {
+        IngestStats.Stats total = new IngestStats.Stats(5, 10, 20, 30);
+        IngestStats.Stats foo = new IngestStats.Stats(50, 100, 200, 300);
+        List<IngestStats.ProcessorStat> processorStats = Arrays.asList(
+            new IngestStats.ProcessorStat("set", new IngestStats.Stats(50, 40, 0, 1)),
+            new IngestStats.ProcessorStat("grok:parse", new IngestStats.Stats(49, 60, 0, 3), Collections.singletonMap("match_misses", 3L)));
+        IngestStats ingestStats = new IngestStats(total, Collections.singletonMap("foo", foo),
+            Collections.singletonMap("foo", processorStats));
+        IngestStats serialize = serialize(ingestStats);
+
+        assertEquals(1, serialize.getProcessorStats().size());
+        List<IngestStats.ProcessorStat> right = serialize.getProcessorStats().get("foo");
+        assertEquals(processorStats.size(), right.size());
+        for (int i = 0; i < processorStats.size(); i++) {
+            IngestStats.ProcessorStat leftStat = processorStats.get(i);
+            IngestStats.ProcessorStat rightStat = right.get(i);
+            assertEquals(leftStat.getName(), rightStat.getName());
+            assertEquals(leftStat.getStats().getIngestCount(), rightStat.getStats().getIngestCount());
+            assertEquals(leftStat.getStats().getIngestFailedCount(), rightStat.getStats().getIngestFailedCount());
+            assertEquals(leftStat.getStats().getIngestTimeInMillis(), rightStat.getStats().getIngestTimeInMillis());
+            assertEquals(leftStat.getStats().getIngestCurrent(), rightStat.getStats().getIngestCurrent());
+            assertEquals(leftStat.getCounters(), rightStat.getCounters());
+        }
+    }
+
     private IngestStats serialize(IngestStats stats) throws IOException {
         BytesStreamOutput out = new BytesStreamOutput();
         stats.writeTo(out);
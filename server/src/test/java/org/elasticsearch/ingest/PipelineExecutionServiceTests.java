@@ -28,30 +28,43 @@ import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.Requests;
 import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.common.util.concurrent.EsThreadPoolExecutor;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.hamcrest.CustomTypeSafeMatcher;
 import org.junit.Before;
 import org.mockito.ArgumentMatcher;
 import org.mockito.invocation.InvocationOnMock;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.not;
-import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.argThat;
@@ -76,6 +89,8 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         ThreadPool threadPool = mock(ThreadPool.class);
         final ExecutorService executorService = EsExecutors.newDirectExecutorService();
         when(threadPool.executor(anyString())).thenReturn(executorService);
+        when(threadPool.info(ThreadPool.Names.WRITE))
+            .thenReturn(new ThreadPool.Info(ThreadPool.Names.WRITE, ThreadPool.ThreadPoolType.FIXED, randomIntBetween(1, 4)));
         executionService = new PipelineExecutionService(store, threadPool);
     }
 
@@ -83,9 +98,9 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(Collections.emptyMap()).setPipeline("_id");
 
         final SetOnce<Boolean> failure = new SetOnce<>();
-        final BiConsumer<IndexRequest, Exception> failureHandler = (request, e) -> {
+        final BiConsumer<Integer, Exception> failureHandler = (slot, e) -> {
             failure.set(true);
-            assertThat(request, sameInstance(indexRequest));
+            assertThat(slot, equalTo(0));
             assertThat(e, instanceOf(IllegalArgumentException.class));
             assertThat(e.getMessage(), equalTo("pipeline with id [_id] does not exist"));
         };
@@ -115,7 +130,8 @@ public class PipelineExecutionServiceTests extends ESTestCase {
 
         final SetOnce<Boolean> failure = new SetOnce<>();
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(Collections.emptyMap()).setPipeline("_id");
-        final BiConsumer<IndexRequest, Exception> failureHandler = (request, e) -> {
+        final BiConsumer<Integer, Exception> failureHandler = (slot, e) -> {
+            assertThat(slot, equalTo(0));
             assertThat(e.getCause(), instanceOf(IllegalArgumentException.class));
             assertThat(e.getCause().getCause(), instanceOf(IllegalStateException.class));
             assertThat(e.getCause().getCause().getMessage(), equalTo("error"));
@@ -142,18 +158,12 @@ public class PipelineExecutionServiceTests extends ESTestCase {
                 new IndexRequest("_index", "_type", "_id").source(Collections.emptyMap()).setPipeline("does_not_exist");
         bulkRequest.add(indexRequest2);
         @SuppressWarnings("unchecked")
-        BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         Consumer<Exception> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(bulkRequest.requests(), failureHandler, completionHandler);
         verify(failureHandler, times(1)).accept(
-            argThat(new CustomTypeSafeMatcher<IndexRequest>("failure handler was not called with the expected arguments") {
-                @Override
-                protected boolean matchesSafely(IndexRequest item) {
-                    return item == indexRequest2;
-                }
-
-            }),
+            eq(1),
             argThat(new CustomTypeSafeMatcher<IllegalArgumentException>("failure handler was not called with the expected arguments") {
                 @Override
                 protected boolean matchesSafely(IllegalArgumentException iae) {
@@ -169,7 +179,7 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         when(store.get("_id")).thenReturn(new Pipeline("_id", "_description", version, processor));
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(Collections.emptyMap()).setPipeline("_id");
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler);
@@ -184,7 +194,7 @@ public class PipelineExecutionServiceTests extends ESTestCase {
 
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(Collections.emptyMap()).setPipeline("_id");
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler);
@@ -215,7 +225,7 @@ public class PipelineExecutionServiceTests extends ESTestCase {
 
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(Collections.emptyMap()).setPipeline("_id");
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler);
@@ -239,12 +249,12 @@ public class PipelineExecutionServiceTests extends ESTestCase {
                 .when(processor)
                 .execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), Collections.emptyMap()));
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler);
         verify(processor).execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), Collections.emptyMap()));
-        verify(failureHandler, times(1)).accept(eq(indexRequest), any(RuntimeException.class));
+        verify(failureHandler, times(1)).accept(eq(0), any(RuntimeException.class));
         verify(completionHandler, times(1)).accept(null);
     }
 
@@ -259,11 +269,11 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         final IndexRequest indexRequest = new IndexRequest("_index", "_type", "_id").source(Collections.emptyMap()).setPipeline("_id");
         doThrow(new RuntimeException()).when(processor).execute(eqIndexTypeId(Collections.emptyMap()));
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler);
-        verify(failureHandler, never()).accept(eq(indexRequest), any(ElasticsearchException.class));
+        verify(failureHandler, never()).accept(eq(0), any(ElasticsearchException.class));
         verify(completionHandler, times(1)).accept(null);
     }
 
@@ -281,12 +291,12 @@ public class PipelineExecutionServiceTests extends ESTestCase {
                 .when(onFailureProcessor)
                 .execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), Collections.emptyMap()));
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler);
         verify(processor).execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), Collections.emptyMap()));
-        verify(failureHandler, times(1)).accept(eq(indexRequest), any(RuntimeException.class));
+        verify(failureHandler, times(1)).accept(eq(0), any(RuntimeException.class));
         verify(completionHandler, times(1)).accept(null);
     }
 
@@ -312,12 +322,12 @@ public class PipelineExecutionServiceTests extends ESTestCase {
                 .when(processor)
                 .execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), Collections.emptyMap()));
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler);
         verify(processor).execute(eqIndexTypeId(indexRequest.version(), indexRequest.versionType(), Collections.emptyMap()));
-        verify(failureHandler, times(1)).accept(eq(indexRequest), any(RuntimeException.class));
+        verify(failureHandler, times(1)).accept(eq(0), any(RuntimeException.class));
         verify(completionHandler, times(1)).accept(null);
     }
 
@@ -348,15 +358,19 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         when(processor.getProcessors()).thenReturn(Collections.singletonList(mock(Processor.class)));
         Exception error = new RuntimeException();
         doThrow(error).when(processor).execute(any());
+        doAnswer((InvocationOnMock invocationOnMock) -> {
+            Arrays.fill((Exception[]) invocationOnMock.getArguments()[1], error);
+            return null;
+        }).when(processor).execute(any(), any());
         when(store.get(pipelineId)).thenReturn(new Pipeline(pipelineId, null, version, processor));
 
         @SuppressWarnings("unchecked")
-        BiConsumer<IndexRequest, Exception> requestItemErrorHandler = mock(BiConsumer.class);
+        BiConsumer<Integer, Exception> requestItemErrorHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         Consumer<Exception> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(bulkRequest.requests(), requestItemErrorHandler, completionHandler);
 
-        verify(requestItemErrorHandler, times(numIndexRequests)).accept(any(IndexRequest.class), eq(error));
+        verify(requestItemErrorHandler, times(numIndexRequests)).accept(any(Integer.class), eq(error));
         verify(completionHandler, times(1)).accept(null);
     }
 
@@ -374,7 +388,7 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         when(store.get(pipelineId)).thenReturn(new Pipeline(pipelineId, null, version, new CompoundProcessor()));
 
         @SuppressWarnings("unchecked")
-        BiConsumer<IndexRequest, Exception> requestItemErrorHandler = mock(BiConsumer.class);
+        BiConsumer<Integer, Exception> requestItemErrorHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         Consumer<Exception> completionHandler = mock(Consumer.class);
         executionService.executeBulkRequest(bulkRequest.requests(), requestItemErrorHandler, completionHandler);
@@ -383,6 +397,109 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         verify(completionHandler, times(1)).accept(null);
     }
 
+    public void testBulkRequestExecutionInParallelBatches() throws Exception {
+        final int numPipelines = randomIntBetween(1, 3);
+        final int numRequests = randomIntBetween(PipelineExecutionService.BATCH_SIZE, PipelineExecutionService.BATCH_SIZE * 4);
+        final List<DocWriteRequest> requests = new ArrayList<>();
+        final Set<Integer> failingSlots = new HashSet<>();
+        for (int i = 0; i < numRequests; i++) {
+            final boolean fail = rarely();
+            if (fail) {
+                failingSlots.add(i);
+            }
+            requests.add(new IndexRequest("_index", "_type", String.valueOf(i)).setPipeline("_id" + randomInt(numPipelines - 1))
+                .source(Requests.INDEX_CONTENT_TYPE, "fail", fail));
+        }
+        final Processor processor = new AbstractProcessor(null) {
+            @Override
+            public void execute(IngestDocument ingestDocument) {
+                if (ingestDocument.getFieldValue("fail", Boolean.class)) {
+                    throw new IllegalStateException("failed [" + ingestDocument.getFieldValue("_id", String.class) + "]");
+                }
+                ingestDocument.setFieldValue("processed", true);
+            }
+
+            @Override
+            public String getType() {
+                return "test";
+            }
+        };
+        for (int i = 0; i < numPipelines; i++) {
+            when(store.get("_id" + i)).thenReturn(new Pipeline("_id" + i, null, version, new CompoundProcessor(processor)));
+        }
+
+        final ThreadPool threadPool = new TestThreadPool(getTestName());
+        try {
+            final PipelineExecutionService executionService = new PipelineExecutionService(store, threadPool);
+            final Map<Integer, Exception> failures = ConcurrentCollections.newConcurrentMap();
+            final CountDownLatch latch = new CountDownLatch(1);
+            final AtomicReference<Exception> completionException = new AtomicReference<>();
+            executionService.executeBulkRequest(requests, failures::put, e -> {
+                completionException.set(e);
+                latch.countDown();
+            });
+            latch.await();
+
+            assertNull(completionException.get());
+            assertThat(failures.keySet(), equalTo(failingSlots));
+            for (Map.Entry<Integer, Exception> failure : failures.entrySet()) {
+                assertThat(failure.getValue().getMessage(), containsString("failed [" + failure.getKey() + "]"));
+            }
+            for (int i = 0; i < numRequests; i++) {
+                final Map<String, Object> source = ((IndexRequest) requests.get(i)).sourceAsMap();
+                assertThat(source.get("processed"), failingSlots.contains(i) ? nullValue() : equalTo(true));
+            }
+            assertThat(executionService.stats().getTotalStats().getIngestCount(), equalTo((long) numRequests));
+        } finally {
+            ThreadPool.terminate(threadPool, 10, TimeUnit.SECONDS);
+        }
+    }
+
+    public void testBulkRequestDoesNotQueueBatchesOnBusyWritePool() throws Exception {
+        final List<DocWriteRequest> requests = new ArrayList<>();
+        for (int i = 0; i < PipelineExecutionService.BATCH_SIZE * randomIntBetween(2, 4); i++) {
+            requests.add(new IndexRequest("_index", "_type", String.valueOf(i)).setPipeline("_id")
+                .source(Requests.INDEX_CONTENT_TYPE, "field", "value"));
+        }
+        when(store.get("_id")).thenReturn(new Pipeline("_id", null, version, new CompoundProcessor()));
+
+        final EsThreadPoolExecutor writeExecutor = EsExecutors.newFixed(ThreadPool.Names.WRITE, 2, 10,
+            EsExecutors.daemonThreadFactory(getTestName()), new ThreadContext(Settings.EMPTY));
+        final ThreadPool threadPool = mock(ThreadPool.class);
+        when(threadPool.executor(ThreadPool.Names.WRITE)).thenReturn(writeExecutor);
+        when(threadPool.info(ThreadPool.Names.WRITE))
+            .thenReturn(new ThreadPool.Info(ThreadPool.Names.WRITE, ThreadPool.ThreadPoolType.FIXED, 2));
+        final CountDownLatch blocking = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            // keep the other write thread busy, so the thread that executes the bulk request has no idle thread to fork to
+            writeExecutor.execute(() -> {
+                blocking.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            blocking.await();
+
+            final PipelineExecutionService executionService = new PipelineExecutionService(store, threadPool);
+            final CountDownLatch completed = new CountDownLatch(1);
+            final AtomicReference<Exception> completionException = new AtomicReference<>();
+            executionService.executeBulkRequest(requests, (slot, e) -> fail("unexpected failure of [" + slot + "]"), e -> {
+                completionException.set(e);
+                completed.countDown();
+            });
+            // completes while the other write thread is still busy and without queueing anything behind it
+            completed.await();
+            assertNull(completionException.get());
+            assertThat(writeExecutor.getQueue().size(), equalTo(0));
+        } finally {
+            release.countDown();
+            ThreadPool.terminate(writeExecutor, 10, TimeUnit.SECONDS);
+        }
+    }
+
     public void testStats() {
         final IngestStats initialStats = executionService.stats();
         assertThat(initialStats.getStatsPerPipeline().size(), equalTo(0));
@@ -400,18 +517,22 @@ public class PipelineExecutionServiceTests extends ESTestCase {
         executionService.updatePipelineStats(new IngestMetadata(configurationMap));
 
         @SuppressWarnings("unchecked")
-        final BiConsumer<IndexRequest, Exception> failureHandler = mock(BiConsumer.class);
+        final BiConsumer<Integer, Exception> failureHandler = mock(BiConsumer.class);
         @SuppressWarnings("unchecked")
         final Consumer<Exception> completionHandler = mock(Consumer.class);
 
         final IndexRequest indexRequest = new IndexRequest("_index");
         indexRequest.setPipeline("_id1");
+        indexRequest.source(Collections.emptyMap());
         executionService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler);
         final IngestStats afterFirstRequestStats = executionService.stats();
         assertThat(afterFirstRequestStats.getStatsPerPipeline().size(), equalTo(2));
         assertThat(afterFirstRequestStats.getStatsPerPipeline().get("_id1").getIngestCount(), equalTo(1L));
         assertThat(afterFirstRequestStats.getStatsPerPipeline().get("_id2").getIngestCount(), equalTo(0L));
         assertThat(afterFirstRequestStats.getTotalStats().getIngestCount(), equalTo(1L));
+        assertThat(afterFirstRequestStats.getProcessorStats().get("_id1").size(), equalTo(1));
+        assertThat(afterFirstRequestStats.getProcessorStats().get("_id1").get(0).getStats().getIngestCount(), equalTo(1L));
+        assertThat(afterFirstRequestStats.getProcessorStats().get("_id2").get(0).getStats().getIngestCount(), equalTo(0L));
 
         indexRequest.setPipeline("_id2");
         executionService.executeBulkRequest(Collections.singletonList(indexRequest), failureHandler, completionHandler);
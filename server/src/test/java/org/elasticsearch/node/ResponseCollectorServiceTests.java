@@ -25,9 +25,15 @@ import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.transport.TransportAddress;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -72,6 +78,51 @@ public class ResponseCollectorServiceTests extends ESTestCase {
         assertThat(nodeStats.get("node1").serviceTime, equalTo(10.0));
     }
 
+    public void testHedgeDelay() {
+        assertEquals(-1, collector.getHedgeDelayNanos("node1"));
+        // stable response times only need to be hedged after the minimum delay
+        final long minDelay = ResponseCollectorService.HEDGE_MIN_DELAY_SETTING.get(Settings.EMPTY).nanos();
+        for (int i = 0; i < 10; i++) {
+            collector.addNodeStatistics("node1", 1, 100, 10);
+        }
+        assertEquals(minDelay, collector.getHedgeDelayNanos("node1"));
+
+        // a node whose response times vary is hedged later than its average response time
+        final long responseTime = TimeValue.timeValueMillis(100).nanos();
+        for (int i = 0; i < 10; i++) {
+            collector.addNodeStatistics("node2", 1, i % 2 == 0 ? responseTime : 3 * responseTime, 10);
+        }
+        final double avgResponseTime = collector.getNodeStatistics("node2").get().responseTime;
+        assertThat((double) collector.getHedgeDelayNanos("node2"), greaterThan(avgResponseTime));
+        assertThat(collector.getHedgeDelayNanos("node2"), greaterThan(minDelay));
+
+        collector.onHedgedRequest();
+        collector.onHedgedRequest();
+        collector.onWastedHedgedRequest();
+        AdaptiveSelectionStats stats = collector.getAdaptiveStats(Collections.emptyMap());
+        assertEquals(2, stats.getHedgedRequests());
+        assertEquals(1, stats.getWastedHedgedRequests());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testHedgedRequestsToXContent() throws Exception {
+        collector.addNodeStatistics("node1", 1, 100, 10);
+        collector.onHedgedRequest();
+        collector.onHedgedRequest();
+        collector.onWastedHedgedRequest();
+        AdaptiveSelectionStats stats = collector.getAdaptiveStats(Collections.emptyMap());
+        XContentBuilder builder = JsonXContent.contentBuilder().startObject();
+        stats.toXContent(builder, ToXContent.EMPTY_PARAMS);
+        builder.endObject();
+        Map<String, Object> map = XContentHelper.convertToMap(BytesReference.bytes(builder), false, builder.contentType()).v2();
+        assertEquals(Collections.singleton("adaptive_selection"), map.keySet());
+        Map<String, Object> adaptiveSelection = (Map<String, Object>) map.get("adaptive_selection");
+        assertTrue(adaptiveSelection.containsKey("node1"));
+        Map<String, Object> hedgedRequests = (Map<String, Object>) adaptiveSelection.get("hedged_search_requests");
+        assertEquals(2, hedgedRequests.get("total"));
+        assertEquals(1, hedgedRequests.get("wasted"));
+    }
+
     /*
      * Test that concurrently adding values and removing nodes does not cause exceptions
      */
@@ -244,6 +244,7 @@ public class ScriptServiceTests extends ESTestCase {
         scriptService.compile(script, context);
         scriptService.compile(script, context);
         assertEquals(1L, scriptService.stats().getCompilations());
+        assertEquals(1L, scriptService.stats().getCacheHits());
     }
 
     public void testIndexedScriptCountedInCompilationStats() throws IOException {
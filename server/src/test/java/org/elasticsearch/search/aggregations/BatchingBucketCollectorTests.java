@@ -0,0 +1,136 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.aggregations;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class BatchingBucketCollectorTests extends ESTestCase {
+
+    public void testCollectsSameDocsInBlocks() throws Exception {
+        try (Directory directory = newDirectory()) {
+            try (RandomIndexWriter indexWriter = new RandomIndexWriter(random(), directory)) {
+                final int numDocs = randomIntBetween(1, 512);
+                for (int i = 0; i < numDocs; i++) {
+                    Document document = new Document();
+                    document.add(new StringField("field", String.valueOf(randomInt(4)), Field.Store.NO));
+                    indexWriter.addDocument(document);
+                    if (rarely()) {
+                        indexWriter.commit();
+                    }
+                }
+            }
+            try (IndexReader indexReader = DirectoryReader.open(directory)) {
+                final IndexSearcher indexSearcher = newSearcher(indexReader);
+                final Query query = randomBoolean() ? new MatchAllDocsQuery() : new TermQuery(new Term("field", "0"));
+
+                final RecordingBucketCollector expected = new RecordingBucketCollector();
+                indexSearcher.search(query, expected);
+
+                final int blockSize = randomIntBetween(1, 64);
+                final RecordingBucketCollector actual = new RecordingBucketCollector();
+                final BatchingBucketCollector batching = new BatchingBucketCollector(actual, blockSize);
+                batching.preCollection();
+                indexSearcher.search(query, batching);
+                batching.postCollection();
+
+                assertTrue(actual.postCollected);
+                assertThat(actual.docs, equalTo(expected.docs));
+                assertThat(actual.maxBlockSize, lessThanOrEqualTo(blockSize));
+            }
+        }
+    }
+
+    public void testRejectsCollectorsThatNeedScores() {
+        final RecordingBucketCollector collector = new RecordingBucketCollector() {
+            @Override
+            public boolean needsScores() {
+                return true;
+            }
+        };
+        final IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> new BatchingBucketCollector(collector));
+        assertThat(e.getMessage(), containsString("since it needs scores"));
+    }
+
+    private static class RecordingBucketCollector extends BucketCollector {
+
+        final List<Integer> docs = new ArrayList<>();
+        int maxBlockSize;
+        boolean postCollected;
+        private LeafReaderContext current;
+
+        @Override
+        public LeafBucketCollector getLeafCollector(LeafReaderContext ctx) {
+            current = ctx;
+            return new LeafBucketCollector() {
+                @Override
+                public void collect(int doc, long bucket) {
+                    // docs must be collected before the next segment is
+                    assertSame(ctx, current);
+                    docs.add(ctx.docBase + doc);
+                }
+
+                @Override
+                public void collect(int[] docs, int count, long bucket) throws IOException {
+                    assertThat(bucket, equalTo(0L));
+                    maxBlockSize = Math.max(maxBlockSize, count);
+                    for (int i = 1; i < count; i++) {
+                        assertThat(docs[i - 1], lessThanOrEqualTo(docs[i]));
+                    }
+                    super.collect(docs, count, bucket);
+                }
+            };
+        }
+
+        @Override
+        public void preCollection() {
+        }
+
+        @Override
+        public void postCollection() {
+            postCollected = true;
+        }
+
+        @Override
+        public boolean needsScores() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search.lookup;
+
+import org.elasticsearch.index.fielddata.AtomicFieldData;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.test.ESTestCase;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LeafDocLookupTests extends ESTestCase {
+
+    public void testReadsDocValuesOncePerDocument() throws Exception {
+        MappedFieldType fieldType = mock(MappedFieldType.class);
+        MapperService mapperService = mock(MapperService.class);
+        when(mapperService.fullName("field")).thenReturn(fieldType);
+
+        ScriptDocValues<?> docValues = mock(ScriptDocValues.class);
+        AtomicFieldData fieldData = mock(AtomicFieldData.class);
+        doReturn(docValues).when(fieldData).getScriptValues();
+        IndexFieldData<?> indexFieldData = mock(IndexFieldData.class);
+        doReturn(fieldData).when(indexFieldData).load(any());
+
+        LeafDocLookup docLookup = new LeafDocLookup(mapperService, ignored -> indexFieldData, null, null);
+
+        docLookup.setDocument(0);
+        assertSame(docValues, docLookup.get("field"));
+        assertSame(docValues, docLookup.get("field"));
+        verify(docValues, times(1)).setNextDocId(0);
+
+        docLookup.setDocument(3);
+        assertSame(docValues, docLookup.get("field"));
+        assertSame(docValues, docLookup.get("field"));
+        verify(docValues, times(1)).setNextDocId(3);
+        verify(indexFieldData, times(1)).load(any());
+    }
+}
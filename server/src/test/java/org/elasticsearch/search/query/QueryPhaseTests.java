@@ -47,15 +47,20 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TotalHitCountCollector;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.store.Directory;
 import org.elasticsearch.action.search.SearchTask;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.query.ParsedQuery;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardTestCase;
 import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.internal.ContextIndexSearcher;
 import org.elasticsearch.search.internal.ScrollContext;
 import org.elasticsearch.search.sort.SortAndFormats;
 import org.elasticsearch.test.TestSearchContext;
@@ -539,6 +544,76 @@ public class QueryPhaseTests extends IndexShardTestCase {
         dir.close();
     }
 
+    public void testConcurrentSegmentSearch() throws Exception {
+        Directory dir = newDirectory();
+        IndexWriterConfig iwc = newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE);
+        RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
+        final int numDocs = scaledRandomIntBetween(100, 200);
+        for (int i = 0; i < numDocs; ++i) {
+            Document doc = new Document();
+            for (int j = randomIntBetween(0, 3); j > 0; j--) {
+                doc.add(new StringField("foo", randomFrom("bar", "baz"), Store.NO));
+            }
+            doc.add(new NumericDocValuesField("rank", randomIntBetween(0, 20)));
+            w.addDocument(doc);
+            if (rarely()) {
+                w.commit();
+            }
+        }
+        w.commit();
+        w.addDocument(new Document());
+        w.close();
+
+        final IndexMetaData metaData = indexShard.indexSettings().getIndexMetaData();
+        indexShard.indexSettings().updateIndexMetaData(IndexMetaData.builder(metaData)
+            .settings(Settings.builder().put(metaData.getSettings())
+                .put(IndexSettings.MAX_CONCURRENT_SEARCH_SLICES_SETTING.getKey(), randomIntBetween(2, 8)))
+            .build());
+        assertThat(indexShard.indexSettings().getMaxConcurrentSearchSlices(), greaterThanOrEqualTo(2));
+
+        final IndexReader reader = DirectoryReader.open(dir);
+        assertThat(reader.leaves().size(), greaterThanOrEqualTo(2));
+        final IndexSearcher serialSearcher = new IndexSearcher(reader);
+        final IndexSearcher concurrentSearcher = new ContextIndexSearcher(new Engine.Searcher("test", new IndexSearcher(reader)),
+            IndexSearcher.getDefaultQueryCache(), IndexSearcher.getDefaultQueryCachingPolicy());
+        final Query query = new BooleanQuery.Builder()
+            .add(new TermQuery(new Term("foo", "bar")), Occur.SHOULD)
+            .add(new TermQuery(new Term("foo", "baz")), Occur.SHOULD)
+            .build();
+        for (int iter = 0; iter < 10; iter++) {
+            TestSearchContext context = new TestSearchContext(null, indexShard);
+            context.setTask(new SearchTask(123L, "", "", "", null, Collections.emptyMap()));
+            context.parsedQuery(new ParsedQuery(randomBoolean() ? query : new MatchAllDocsQuery()));
+            context.setSize(randomIntBetween(1, numDocs));
+            if (randomBoolean()) {
+                context.parsedPostFilter(new ParsedQuery(new TermQuery(new Term("foo", "bar"))));
+            }
+            if (randomBoolean()) {
+                context.sort(new SortAndFormats(new Sort(new SortField("rank", SortField.Type.INT, randomBoolean())),
+                    new DocValueFormat[] {DocValueFormat.RAW}));
+            }
+
+            QueryPhase.execute(context, serialSearcher, checkCancelled -> {});
+            final TopDocs expected = context.queryResult().topDocs();
+            QueryPhase.execute(context, concurrentSearcher, checkCancelled -> {});
+            final TopDocs actual = context.queryResult().topDocs();
+
+            assertThat(actual.totalHits, equalTo(expected.totalHits));
+            assertThat(actual.scoreDocs.length, equalTo(expected.scoreDocs.length));
+            for (int i = 0; i < expected.scoreDocs.length; i++) {
+                assertThat(actual.scoreDocs[i].doc, equalTo(expected.scoreDocs[i].doc));
+                assertThat(actual.scoreDocs[i].shardIndex, equalTo(-1));
+                if (context.sort() != null) {
+                    assertThat(((FieldDoc) actual.scoreDocs[i]).fields, equalTo(((FieldDoc) expected.scoreDocs[i]).fields));
+                } else {
+                    assertThat(actual.scoreDocs[i].score, equalTo(expected.scoreDocs[i].score));
+                }
+            }
+        }
+        reader.close();
+        dir.close();
+    }
+
     static IndexSearcher getAssertingEarlyTerminationSearcher(IndexReader reader, int size) {
         return new IndexSearcher(reader) {
             protected void search(List<LeafReaderContext> leaves, Weight weight, Collector collector) throws IOException {
@@ -32,6 +32,7 @@ import org.elasticsearch.test.ESTestCase;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 public abstract class AbstractBytesReferenceTestCase extends ESTestCase {
@@ -422,6 +423,29 @@ public abstract class AbstractBytesReferenceTestCase extends ESTestCase {
         assertArrayEquals(BytesReference.toBytes(pbr), BytesRef.deepCopyOf(builder.toBytesRef()).bytes);
     }
 
+    public void testToByteBuffers() throws IOException {
+        int length = randomIntBetween(10, PAGE_SIZE * randomIntBetween(2, 8));
+        BytesReference pbr = newBytesReference(length);
+        if (randomBoolean()) {
+            int sliceOffset = randomIntBetween(0, pbr.length());
+            int sliceLength = randomIntBetween(0, pbr.length() - sliceOffset);
+            pbr = pbr.slice(sliceOffset, sliceLength);
+        }
+        ByteBuffer[] buffers = BytesReference.toByteBuffers(pbr);
+        long heapBytes = 0;
+        BytesRefBuilder builder = new BytesRefBuilder();
+        for (ByteBuffer buffer : buffers) {
+            if (buffer.isDirect() == false) {
+                heapBytes += buffer.remaining();
+            }
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            builder.append(bytes, 0, bytes.length);
+        }
+        assertArrayEquals(BytesReference.toBytes(pbr), BytesRef.deepCopyOf(builder.toBytesRef()).bytes);
+        assertEquals(heapBytes, BytesReference.heapBytes(buffers));
+    }
+
     public void testArrayOffset() throws IOException {
         int length = randomInt(PAGE_SIZE * randomIntBetween(2, 5));
         BytesReference pbr = newBytesReference(length);
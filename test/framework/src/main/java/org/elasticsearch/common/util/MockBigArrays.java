@@ -30,6 +30,7 @@ import org.elasticsearch.common.util.set.Sets;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.test.ESTestCase;
 
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -322,6 +323,16 @@ public class MockBigArrays extends BigArrays {
             return in.get(index, len, ref);
         }
 
+        @Override
+        public ByteBuffer getDirect(long index, int len) {
+            return in.getDirect(index, len);
+        }
+
+        @Override
+        public int getInt(long index) {
+            return in.getInt(index);
+        }
+
         @Override
         public void set(long index, byte[] buf, int offset, int len) {
             in.set(index, buf, offset, len);
@@ -142,6 +142,13 @@ public abstract class IndexShardTestCase extends ESTestCase {
         return Settings.EMPTY;
     }
 
+    /**
+     * The node settings of the shards that are created by this test case
+     */
+    protected Settings nodeSettings() {
+        return Settings.EMPTY;
+    }
+
     private Store createStore(IndexSettings indexSettings, ShardPath shardPath) throws IOException {
         final ShardId shardId = shardPath.getShardId();
         final DirectoryService directoryService = new DirectoryService(shardId, indexSettings) {
@@ -282,7 +289,7 @@ public abstract class IndexShardTestCase extends ESTestCase {
                                   @Nullable EngineFactory engineFactory,
                                   Runnable globalCheckpointSyncer,
                                   IndexEventListener indexEventListener, IndexingOperationListener... listeners) throws IOException {
-        final Settings nodeSettings = Settings.builder().put("node.name", routing.currentNodeId()).build();
+        final Settings nodeSettings = Settings.builder().put(nodeSettings()).put("node.name", routing.currentNodeId()).build();
         final IndexSettings indexSettings = new IndexSettings(indexMetaData, nodeSettings);
         final IndexShard indexShard;
         final Store store = createStore(indexSettings, shardPath);
@@ -103,6 +103,9 @@ public class RandomSearchRequestGenerator {
         if (randomBoolean()) {
             searchRequest.routing(randomAlphaOfLengthBetween(3, 10));
         }
+        if (randomBoolean()) {
+            searchRequest.hedgeRequests(randomBoolean());
+        }
         if (randomBoolean()) {
             searchRequest.scroll(randomPositiveTimeValue());
         }
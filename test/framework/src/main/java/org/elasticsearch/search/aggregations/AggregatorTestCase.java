@@ -290,14 +290,25 @@ public abstract class AggregatorTestCase extends ESTestCase {
         MultiBucketConsumer bucketConsumer = new MultiBucketConsumer(maxBucket);
         C a = createAggregator(query, builder, searcher, bucketConsumer, fieldTypes);
         a.preCollection();
-        searcher.search(query, a);
-        a.postCollection();
+        final BucketCollector collector = maybeBatch(a);
+        searcher.search(query, collector);
+        collector.postCollection();
         @SuppressWarnings("unchecked")
         A internalAgg = (A) a.buildAggregation(0L);
         InternalAggregationTestCase.assertMultiBucketConsumer(internalAgg, bucketConsumer);
         return internalAgg;
     }
 
+    /**
+     * Sometimes collects the docs of top level aggregators that don't need scores in blocks, like the {@link AggregationPhase} does.
+     */
+    private BucketCollector maybeBatch(Aggregator aggregator) {
+        if (aggregator.needsScores() == false && randomBoolean()) {
+            return new BatchingBucketCollector(aggregator, randomIntBetween(1, 64));
+        }
+        return aggregator;
+    }
+
     protected <A extends InternalAggregation, C extends Aggregator> A searchAndReduce(IndexSearcher searcher,
                                                                                       Query query,
                                                                                       AggregationBuilder builder,
@@ -341,8 +352,9 @@ public abstract class AggregatorTestCase extends ESTestCase {
             MultiBucketConsumer shardBucketConsumer = new MultiBucketConsumer(maxBucket);
             C a = createAggregator(query, builder, subSearcher, shardBucketConsumer, fieldTypes);
             a.preCollection();
-            subSearcher.search(weight, a);
-            a.postCollection();
+            final BucketCollector collector = maybeBatch(a);
+            subSearcher.search(weight, collector);
+            collector.postCollection();
             InternalAggregation agg = a.buildAggregation(0L);
             aggs.add(agg);
             InternalAggregationTestCase.assertMultiBucketConsumer(agg, shardBucketConsumer);
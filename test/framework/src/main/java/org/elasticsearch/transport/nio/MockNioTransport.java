@@ -255,7 +255,9 @@ public class MockNioTransport extends TcpTransport {
 
         @Override
         public void sendMessage(BytesReference reference, ActionListener<Void> listener) {
-            getContext().sendMessage(BytesReference.toByteBuffers(reference), ActionListener.toBiConsumer(listener));
+            ByteBuffer[] buffers = BytesReference.toByteBuffers(reference);
+            TcpChannel.onCopiedBytes(listener, buffers);
+            getContext().sendMessage(buffers, ActionListener.toBiConsumer(listener));
         }
     }
 }